@@ -0,0 +1,87 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.common.ValidationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The fulfilment rules of {@link FulfilmentService#validate}, for an association that passes and
+ * one rejected as a duplicate. The entity existence checks are left out: {@code Store} is a
+ * Panache active record, which only works inside a Quarkus application.
+ *
+ * <p>Every store is fulfilled by {@value #WAREHOUSES_PER_STORE} warehouses with {@value
+ * #PRODUCTS_PER_WAREHOUSE} products each, the most the rules allow short of one product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FulfilmentValidationBenchmark {
+
+  private static final int WAREHOUSES_PER_STORE = FulfilmentService.MAX_WAREHOUSES_PER_STORE;
+
+  private static final int PRODUCTS_PER_WAREHOUSE =
+      FulfilmentService.MAX_PRODUCTS_PER_WAREHOUSE - 1;
+
+  @Param({"12", "1200", "120000"})
+  int fulfilments;
+
+  private FulfilmentService service;
+  private Fulfilment accepted;
+  private Fulfilment duplicate;
+
+  @Setup
+  public void setUp() {
+    InMemoryFulfilmentRepository repository = new InMemoryFulfilmentRepository();
+    int perStore = WAREHOUSES_PER_STORE * PRODUCTS_PER_WAREHOUSE;
+    for (int i = 0; i < fulfilments; i++) {
+      long store = 1 + i / perStore;
+      int warehouse = (i % perStore) / PRODUCTS_PER_WAREHOUSE;
+      repository.add(fulfilment(store, 1 + i % PRODUCTS_PER_WAREHOUSE, warehouse));
+    }
+    service = new FulfilmentService();
+    service.fulfilmentRepository = repository;
+    service.validationMetrics = new ValidationMetrics(new SimpleMeterRegistry());
+    service.registerMetrics();
+    long lastStore = 1 + (fulfilments - 1) / perStore;
+    accepted = fulfilment(lastStore, PRODUCTS_PER_WAREHOUSE + 1, 0);
+    duplicate = fulfilment(lastStore, 1, 0);
+  }
+
+  @Benchmark
+  public Fulfilment validateAccepted() {
+    service.validateRules(accepted);
+    return accepted;
+  }
+
+  @Benchmark
+  public FulfilmentValidationException validateDuplicate() {
+    try {
+      service.validateRules(duplicate);
+      throw new IllegalStateException("duplicate fulfilment should be rejected");
+    } catch (FulfilmentValidationException e) {
+      return e;
+    }
+  }
+
+  private static Fulfilment fulfilment(long store, long product, int warehouse) {
+    Fulfilment fulfilment = new Fulfilment();
+    fulfilment.storeId = store;
+    fulfilment.productId = product;
+    fulfilment.warehouseBusinessUnitCode = "MWH." + store + "." + warehouse;
+    return fulfilment;
+  }
+}
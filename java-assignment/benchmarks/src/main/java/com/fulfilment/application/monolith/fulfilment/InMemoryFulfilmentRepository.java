@@ -0,0 +1,61 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link FulfilmentRepository} over maps keyed like the database indexes, so the queries the
+ * validation rules run cost a hash lookup and a scan of the matching rows.
+ */
+public class InMemoryFulfilmentRepository extends FulfilmentRepository {
+
+  private final Map<Long, List<Fulfilment>> byStore = new HashMap<>();
+
+  private final Map<String, List<Fulfilment>> byWarehouse = new HashMap<>();
+
+  public void add(Fulfilment fulfilment) {
+    byStore.computeIfAbsent(fulfilment.storeId, id -> new ArrayList<>()).add(fulfilment);
+    byWarehouse
+        .computeIfAbsent(fulfilment.warehouseBusinessUnitCode, code -> new ArrayList<>())
+        .add(fulfilment);
+  }
+
+  @Override
+  public List<Fulfilment> findByStoreId(Long storeId) {
+    return byStore.getOrDefault(storeId, List.of());
+  }
+
+  @Override
+  public List<Fulfilment> findByWarehouseBusinessUnitCode(String warehouseBusinessUnitCode) {
+    return byWarehouse.getOrDefault(warehouseBusinessUnitCode, List.of());
+  }
+
+  @Override
+  public long countWarehousesForProductInStore(Long storeId, Long productId) {
+    return findByStoreId(storeId).stream().filter(f -> f.productId.equals(productId)).count();
+  }
+
+  @Override
+  public long countDistinctWarehousesForStore(Long storeId) {
+    return findByStoreId(storeId).stream().map(f -> f.warehouseBusinessUnitCode).distinct().count();
+  }
+
+  @Override
+  public long countDistinctProductsForWarehouse(String warehouseBusinessUnitCode) {
+    return findByWarehouseBusinessUnitCode(warehouseBusinessUnitCode).stream()
+        .map(f -> f.productId)
+        .distinct()
+        .count();
+  }
+
+  @Override
+  public boolean exists(Long storeId, Long productId, String warehouseBusinessUnitCode) {
+    return findByStoreId(storeId).stream()
+        .anyMatch(
+            f ->
+                f.productId.equals(productId)
+                    && f.warehouseBusinessUnitCode.equals(warehouseBusinessUnitCode));
+  }
+}
@@ -0,0 +1,82 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link LocationGateway#resolveByIdentifier} against a generated catalog file, cycling through
+ * all identifiers so the lookups do not all hit the same hash bucket. {@code resolveUnknown}
+ * measures the not-found path, which allocates an exception per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationGatewayBenchmark {
+
+  @Param({"8", "1000", "100000"})
+  int locations;
+
+  private Path catalogFile;
+  private LocationGateway gateway;
+  private String[] identifiers;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    catalogFile = Files.createTempFile("locations", ".csv");
+    identifiers = new String[locations];
+    try (Writer writer = Files.newBufferedWriter(catalogFile, StandardCharsets.UTF_8)) {
+      writer.write("identification,maxNumberOfWarehouses,maxCapacity,latitude,longitude\n");
+      for (int i = 0; i < locations; i++) {
+        identifiers[i] = String.format("CITY-%06d", i);
+        writer.write(identifiers[i] + "," + (1 + i % 5) + ",100," + (50 + i % 4) + ",5.1\n");
+      }
+    }
+    gateway = new LocationGateway();
+    gateway.catalogPath = Optional.of(catalogFile.toString());
+    gateway.loadCatalog();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(catalogFile);
+  }
+
+  @Benchmark
+  public Location resolve() {
+    String identifier = identifiers[next];
+    next = next + 1 == identifiers.length ? 0 : next + 1;
+    return gateway.resolveByIdentifier(identifier);
+  }
+
+  @Benchmark
+  public LocationNotFoundException resolveUnknown() {
+    try {
+      gateway.resolveByIdentifier("UNKNOWN-000");
+      throw new IllegalStateException("UNKNOWN-000 should not resolve");
+    } catch (LocationNotFoundException e) {
+      return e;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the former linear {@code stream().filter()} scan of {@code LocationGateway} with the
+ * hashed {@link LocationCatalog} lookup. The identifier looked up is the last one of the list, the
+ * worst case for the scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationResolutionBenchmark {
+
+  @Param({"8", "1000", "10000"})
+  int locations;
+
+  private List<Location> list;
+  private LocationCatalog catalog;
+  private String identifier;
+
+  @Setup
+  public void setUp() {
+    list = new ArrayList<>(locations);
+    for (int i = 0; i < locations; i++) {
+      list.add(new Location(String.format("CITY-%06d", i), 1 + i % 5, 100));
+    }
+    catalog = new LocationCatalog(list, null);
+    identifier = list.get(locations - 1).identification;
+  }
+
+  @Benchmark
+  public Location linearScan() {
+    return list.stream()
+        .filter(location -> identifier.equals(location.identification))
+        .findFirst()
+        .orElseThrow(() -> new LocationNotFoundException(identifier));
+  }
+
+  @Benchmark
+  public Location hashedCatalog() {
+    return catalog.get(identifier);
+  }
+}
@@ -0,0 +1,89 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The steps of {@code GET /warehouse} after the query: {@link DbWarehouse#toWarehouse} and the
+ * mapping to the generated API beans, then Jackson serialization of those beans. {@code
+ * serialize} goes through a shared {@link ObjectMapper} as the REST layer does, {@code
+ * serializeWithWriter} through a writer bound to the list type once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseListingBenchmark {
+
+  @Param({"1", "100", "10000"})
+  int warehouses;
+
+  private List<DbWarehouse> rows;
+  private List<com.warehouse.api.beans.Warehouse> beans;
+  private ObjectMapper objectMapper;
+  private ObjectWriter listWriter;
+
+  @Setup
+  public void setUp() {
+    rows = new ArrayList<>(warehouses);
+    for (int i = 0; i < warehouses; i++) {
+      DbWarehouse row = new DbWarehouse();
+      row.id = (long) i;
+      row.businessUnitCode = String.format("MWH.%06d", i);
+      row.location = String.format("CITY-%06d", i / 4);
+      row.capacity = 100;
+      row.stock = i % 100;
+      row.createdAt = LocalDateTime.of(2024, 7, 1, 0, 0);
+      rows.add(row);
+    }
+    beans = map();
+    objectMapper = new ObjectMapper();
+    listWriter =
+        objectMapper.writerFor(
+            objectMapper
+                .getTypeFactory()
+                .constructCollectionType(List.class, com.warehouse.api.beans.Warehouse.class));
+  }
+
+  @Benchmark
+  public List<com.warehouse.api.beans.Warehouse> map() {
+    return rows.stream()
+        .map(DbWarehouse::toWarehouse)
+        .map(WarehouseResourceImpl::toWarehouseResponse)
+        .toList();
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(beans);
+  }
+
+  @Benchmark
+  public byte[] serializeWithWriter() throws JsonProcessingException {
+    return listWriter.writeValueAsBytes(beans);
+  }
+
+  @Benchmark
+  public byte[] mapAndSerialize() throws JsonProcessingException {
+    return listWriter.writeValueAsBytes(map());
+  }
+}
@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** {@link WarehouseStore} over a list, so benchmarks measure the domain code and not a database. */
+public class InMemoryWarehouseStore implements WarehouseStore {
+
+  private final List<Warehouse> warehouses = new ArrayList<>();
+
+  private final Map<String, Warehouse> byBusinessUnitCode = new HashMap<>();
+
+  @Override
+  public List<Warehouse> getAll() {
+    return warehouses;
+  }
+
+  @Override
+  public void create(Warehouse warehouse) {
+    warehouses.add(warehouse);
+    byBusinessUnitCode.put(warehouse.businessUnitCode, warehouse);
+  }
+
+  @Override
+  public void update(Warehouse warehouse) {
+    remove(warehouse);
+    create(warehouse);
+  }
+
+  @Override
+  public void remove(Warehouse warehouse) {
+    warehouses.removeIf(w -> w.businessUnitCode.equals(warehouse.businessUnitCode));
+    byBusinessUnitCode.remove(warehouse.businessUnitCode);
+  }
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    return byBusinessUnitCode.get(buCode);
+  }
+
+  @Override
+  public Warehouse getById(Long id) {
+    return warehouses.stream().filter(w -> id.equals(w.id)).findFirst().orElse(null);
+  }
+
+  @Override
+  public void lockForChange(String businessUnitCode, String location) {
+    // single-threaded benchmarks need no locks
+  }
+}
@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.common.ValidationMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link WarehouseValidator#validateLocationConstraints} for a warehouse that passes, with every
+ * location holding {@value #WAREHOUSES_PER_LOCATION} warehouses. The validator filters all
+ * stored warehouses, so the cost is expected to grow with the number of warehouses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseValidatorBenchmark {
+
+  private static final int WAREHOUSES_PER_LOCATION = 4;
+
+  @Param({"10", "1000", "10000"})
+  int warehouses;
+
+  private WarehouseValidator validator;
+  private Warehouse candidate;
+  private String replacedBusinessUnitCode;
+
+  @Setup
+  public void setUp() {
+    Map<String, Location> locations = new HashMap<>();
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    for (int i = 0; i < warehouses; i++) {
+      String identifier = String.format("CITY-%06d", i / WAREHOUSES_PER_LOCATION);
+      locations.computeIfAbsent(
+          identifier, id -> new Location(id, WAREHOUSES_PER_LOCATION + 1, 1_000_000));
+      Warehouse warehouse = new Warehouse();
+      warehouse.id = (long) i;
+      warehouse.businessUnitCode = String.format("MWH.%06d", i);
+      warehouse.location = identifier;
+      warehouse.capacity = 100;
+      warehouse.stock = 10;
+      store.create(warehouse);
+    }
+    validator =
+        new WarehouseValidator(
+            store,
+            new MapLocationResolver(locations),
+            new ValidationMetrics(new SimpleMeterRegistry()));
+    candidate = new Warehouse();
+    candidate.businessUnitCode = "MWH.NEW";
+    candidate.location = store.getAll().get(warehouses - 1).location;
+    candidate.capacity = 100;
+    candidate.stock = 10;
+    replacedBusinessUnitCode = store.getAll().get(warehouses - 1).businessUnitCode;
+  }
+
+  @Benchmark
+  public void validateCreate() {
+    validator.validateLocationConstraints(candidate, null);
+  }
+
+  @Benchmark
+  public void validateReplace() {
+    validator.validateLocationConstraints(candidate, replacedBusinessUnitCode);
+  }
+
+  private static final class MapLocationResolver implements LocationResolver {
+
+    private final Map<String, Location> locations;
+
+    MapLocationResolver(Map<String, Location> locations) {
+      this.locations = locations;
+    }
+
+    @Override
+    public Location resolveByIdentifier(String identifier) {
+      return locations.get(identifier);
+    }
+
+    @Override
+    public List<Location> searchByPrefix(String prefix, int limit) {
+      return locations.values().stream()
+          .filter(location -> location.identification.startsWith(prefix))
+          .limit(limit)
+          .toList();
+    }
+  }
+}
@@ -0,0 +1,399 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The requests of the mix, each with its share of the arrivals in percent. Reads dominate like in
+ * production; the writes patch store stock, create products under a name unique to the run, and
+ * create, replace and archive warehouses and fulfilments of the run within the discovered limits.
+ */
+enum Endpoint {
+  LIST_WAREHOUSES("GET /warehouse", 7, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "warehouse");
+    }
+  },
+  GET_WAREHOUSE("GET /warehouse/{id}", 8, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "warehouse/" + context.pick(context.data.warehouseIds));
+    }
+  },
+  LIST_STORES("GET /store", 7, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "store");
+    }
+  },
+  GET_STORE("GET /store/{id}", 8, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "store/" + context.pick(context.data.storeIds));
+    }
+  },
+  NEAREST_WAREHOUSES("GET /store/{id}/nearest-warehouses", 6, false) {
+    @Override
+    Call call(Context context) {
+      return get(
+          context,
+          "store/" + context.pick(context.data.storeIdsWithCoordinates) + "/nearest-warehouses");
+    }
+  },
+  LIST_PRODUCTS("GET /product", 7, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "product");
+    }
+  },
+  GET_PRODUCT("GET /product/{id}", 8, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "product/" + context.pick(context.data.productIds));
+    }
+  },
+  SEARCH_PRODUCTS("GET /product/search", 8, false) {
+    @Override
+    Call call(Context context) {
+      String term = context.pick(context.data.searchTerms);
+      return get(context, "product/search?q=" + URLEncoder.encode(term, StandardCharsets.UTF_8));
+    }
+  },
+  STORE_FULFILMENTS("GET /fulfilment/store/{id}", 7, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "fulfilment/store/" + context.pick(context.data.storeIds));
+    }
+  },
+  STORE_AVAILABILITY("GET /fulfilment/availability/store/{id}", 8, false) {
+    @Override
+    Call call(Context context) {
+      return get(context, "fulfilment/availability/store/" + context.pick(context.data.storeIds));
+    }
+  },
+  PATCH_STORE("PATCH /store/{id}", 8, true) {
+    @Override
+    Call call(Context context) {
+      String patch = "{\"quantityProductsInStock\":" + context.random.nextInt(1, 500) + "}";
+      return send(
+          HttpRequest.newBuilder(
+                  context.url.resolve("store/" + context.pick(context.data.storeIds)))
+              .header("Content-Type", "application/merge-patch+json")
+              .method("PATCH", HttpRequest.BodyPublishers.ofString(patch)));
+    }
+  },
+  CREATE_PRODUCT("POST /product", 6, true) {
+    @Override
+    Call call(Context context) {
+      String name = "LT-" + context.runId + "-" + ++context.created;
+      return send(post(context, "product", "{\"name\":\"" + name + "\",\"stock\":1}"));
+    }
+  },
+  CREATE_WAREHOUSE("POST /warehouse", 2, true) {
+    @Override
+    boolean ready(Context context) {
+      return !context.freeLocations.isEmpty() || context.warehouses.isEmpty();
+    }
+
+    @Override
+    Endpoint counterpart() {
+      return ARCHIVE_WAREHOUSE;
+    }
+
+    @Override
+    Call call(Context context) {
+      // without a free slot the request is still sent, and most likely rejected
+      String slot = context.freeLocations.poll();
+      RunWarehouse warehouse =
+          new RunWarehouse(
+              "LT-" + context.runId + "-W" + ++context.warehousesCreated,
+              slot != null ? slot : context.pick(context.data.warehouseLocations),
+              context.random.nextInt(TargetData.WAREHOUSE_CAPACITY + 1));
+      return new Call(
+          post(context, "warehouse", warehouse.json()),
+          (status, body) -> {
+            if (status == 200 || status == 201) {
+              context.warehouses.add(warehouse.withId(TargetData.id(body)));
+            } else if (slot != null) {
+              context.freeLocations.add(slot);
+            }
+          });
+    }
+  },
+  REPLACE_WAREHOUSE("POST /warehouse/{code}/replacement", 2, true) {
+    @Override
+    boolean ready(Context context) {
+      return !context.warehouses.isEmpty();
+    }
+
+    @Override
+    Endpoint counterpart() {
+      return CREATE_WAREHOUSE;
+    }
+
+    @Override
+    Call call(Context context) {
+      RunWarehouse current = context.warehouses.poll();
+      return new Call(
+          post(context, "warehouse/" + current.code + "/replacement", current.json()),
+          (status, body) -> {
+            if (status == 200 || status == 201) {
+              context.warehouses.add(current.withId(TargetData.id(body)));
+            } else if (status == 404) {
+              context.freeLocations.add(current.location);
+            } else {
+              context.warehouses.add(current);
+            }
+          });
+    }
+  },
+  ARCHIVE_WAREHOUSE("DELETE /warehouse/{id}", 2, true) {
+    @Override
+    boolean ready(Context context) {
+      return !context.warehouses.isEmpty();
+    }
+
+    @Override
+    Endpoint counterpart() {
+      return CREATE_WAREHOUSE;
+    }
+
+    @Override
+    Call call(Context context) {
+      RunWarehouse current = context.warehouses.poll();
+      return new Call(
+          HttpRequest.newBuilder(context.url.resolve("warehouse/" + current.id)).DELETE(),
+          (status, body) -> {
+            if (status == 204 || status == 404) {
+              context.freeLocations.add(current.location);
+            } else {
+              context.warehouses.add(current);
+            }
+          });
+    }
+  },
+  CREATE_FULFILMENT("POST /fulfilment", 3, true) {
+    @Override
+    boolean ready(Context context) {
+      return !context.freeFulfilments.isEmpty() || context.fulfilments.isEmpty();
+    }
+
+    @Override
+    Endpoint counterpart() {
+      return DELETE_FULFILMENT;
+    }
+
+    @Override
+    Call call(Context context) {
+      // without a free slot an association that exists already is sent, and rejected
+      TargetData.FulfilmentSlot slot = context.freeFulfilments.poll();
+      TargetData.FulfilmentSlot target =
+          slot != null ? slot : context.pick(context.data.fulfilmentSlots);
+      String json =
+          "{\"storeId\":"
+              + target.storeId
+              + ",\"productId\":"
+              + target.productId
+              + ",\"warehouseBusinessUnitCode\":\""
+              + target.warehouse
+              + "\"}";
+      return new Call(
+          post(context, "fulfilment", json),
+          (status, body) -> {
+            if (status == 201 && slot != null) {
+              context.fulfilments.add(new RunFulfilment(TargetData.id(body), slot));
+            } else if (slot != null) {
+              context.freeFulfilments.add(slot);
+            }
+          });
+    }
+  },
+  DELETE_FULFILMENT("DELETE /fulfilment/{id}", 3, true) {
+    @Override
+    boolean ready(Context context) {
+      return !context.fulfilments.isEmpty();
+    }
+
+    @Override
+    Endpoint counterpart() {
+      return CREATE_FULFILMENT;
+    }
+
+    @Override
+    Call call(Context context) {
+      RunFulfilment current = context.fulfilments.poll();
+      return new Call(
+          HttpRequest.newBuilder(context.url.resolve("fulfilment/" + current.id)).DELETE(),
+          (status, body) -> {
+            if (status == 204 || status == 404) {
+              context.freeFulfilments.add(current.slot);
+            } else {
+              context.fulfilments.add(current);
+            }
+          });
+    }
+  };
+
+  final String label;
+
+  final int weight;
+
+  final boolean write;
+
+  Endpoint(String label, int weight, boolean write) {
+    this.label = label;
+    this.weight = weight;
+    this.write = write;
+  }
+
+  /** The request to send and what its response changes in the context. */
+  abstract Call call(Context context);
+
+  /**
+   * Whether the run has something for this request to work on. If not, its {@link #counterpart}
+   * is sent instead, so archives and deletes wait for creates and creates for free slots without
+   * changing the arrival schedule.
+   */
+  boolean ready(Context context) {
+    return true;
+  }
+
+  Endpoint counterpart() {
+    return this;
+  }
+
+  boolean enabled(TargetData data, boolean readOnly) {
+    if (readOnly && write) {
+      return false;
+    }
+    return switch (this) {
+      case NEAREST_WAREHOUSES -> !data.storeIdsWithCoordinates.isEmpty();
+      case CREATE_WAREHOUSE, REPLACE_WAREHOUSE, ARCHIVE_WAREHOUSE ->
+          !data.warehouseLocations.isEmpty();
+      case CREATE_FULFILMENT, DELETE_FULFILMENT -> !data.fulfilmentSlots.isEmpty();
+      default -> true;
+    };
+  }
+
+  private static Call get(Context context, String path) {
+    return send(HttpRequest.newBuilder(context.url.resolve(path)).GET());
+  }
+
+  /** A request whose response changes nothing in the context. */
+  private static Call send(HttpRequest.Builder request) {
+    return new Call(request, null);
+  }
+
+  private static HttpRequest.Builder post(Context context, String path, String json) {
+    return HttpRequest.newBuilder(context.url.resolve(path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json));
+  }
+
+  interface Completion {
+
+    /** Called from a response thread; {@code status} is 0 when no response arrived. */
+    void completed(int status, String body);
+  }
+
+  static final class Call {
+
+    final HttpRequest.Builder request;
+
+    // null for requests whose response changes nothing
+    final Completion completion;
+
+    Call(HttpRequest.Builder request, Completion completion) {
+      this.request = request;
+      this.completion = completion;
+    }
+  }
+
+  /** A warehouse created by the run; replacements keep its code, location, capacity and stock. */
+  static final class RunWarehouse {
+
+    final String id;
+    final String code;
+    final String location;
+    final int stock;
+
+    RunWarehouse(String code, String location, int stock) {
+      this(null, code, location, stock);
+    }
+
+    private RunWarehouse(String id, String code, String location, int stock) {
+      this.id = id;
+      this.code = code;
+      this.location = location;
+      this.stock = stock;
+    }
+
+    RunWarehouse withId(long id) {
+      return new RunWarehouse(Long.toString(id), code, location, stock);
+    }
+
+    String json() {
+      return "{\"businessUnitCode\":\""
+          + code
+          + "\",\"location\":\""
+          + location
+          + "\",\"capacity\":"
+          + TargetData.WAREHOUSE_CAPACITY
+          + ",\"stock\":"
+          + stock
+          + "}";
+    }
+  }
+
+  /** A fulfilment created by the run in one of the discovered slots. */
+  static final class RunFulfilment {
+
+    final long id;
+    final TargetData.FulfilmentSlot slot;
+
+    RunFulfilment(long id, TargetData.FulfilmentSlot slot) {
+      this.id = id;
+      this.slot = slot;
+    }
+  }
+
+  /**
+   * What the requests are built from; only used by the thread issuing them, except for the queues
+   * of slots and run-created entities, which the response threads hand back.
+   */
+  static final class Context {
+
+    final URI url;
+    final TargetData data;
+    final SplittableRandom random;
+    final String runId;
+    long created;
+    long warehousesCreated;
+
+    // warehouse locations with room for one more warehouse of the run, one entry per warehouse
+    final Queue<String> freeLocations = new ConcurrentLinkedQueue<>();
+    final Queue<RunWarehouse> warehouses = new ConcurrentLinkedQueue<>();
+    final Queue<TargetData.FulfilmentSlot> freeFulfilments = new ConcurrentLinkedQueue<>();
+    final Queue<RunFulfilment> fulfilments = new ConcurrentLinkedQueue<>();
+
+    Context(URI url, TargetData data, SplittableRandom random) {
+      this.url = url;
+      this.data = data;
+      this.random = random;
+      this.runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+      freeLocations.addAll(data.warehouseLocations);
+      freeFulfilments.addAll(data.fulfilmentSlots);
+    }
+
+    <T> T pick(List<T> values) {
+      return values.get(random.nextInt(values.size()));
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies in microseconds, failures and rule rejections of one endpoint, recorded from the
+ * response threads.
+ */
+final class EndpointStats {
+
+  final Histogram latencies = new ConcurrentHistogram(3);
+
+  private final LongAdder requests = new LongAdder();
+
+  private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+  private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+  void success(long latencyMicros) {
+    requests.increment();
+    latencies.recordValue(latencyMicros);
+  }
+
+  /** A failed request still counts with its latency, so errors cannot make an endpoint fast. */
+  void failure(String reason, long latencyMicros) {
+    requests.increment();
+    latencies.recordValue(latencyMicros);
+    errors.computeIfAbsent(reason, r -> new LongAdder()).increment();
+  }
+
+  /** A write the service answered correctly by refusing it under one of its business rules. */
+  void rejected(String reason, long latencyMicros) {
+    requests.increment();
+    latencies.recordValue(latencyMicros);
+    rejections.computeIfAbsent(reason, r -> new LongAdder()).increment();
+  }
+
+  /** A request never sent because too many were in flight. */
+  void dropped() {
+    requests.increment();
+    errors.computeIfAbsent("dropped", r -> new LongAdder()).increment();
+  }
+
+  long requests() {
+    return requests.sum();
+  }
+
+  long errors() {
+    return errors.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  long rejections() {
+    return rejections.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  Map<String, Long> errorsByReason() {
+    return byReason(errors);
+  }
+
+  Map<String, Long> rejectionsByReason() {
+    return byReason(rejections);
+  }
+
+  private static Map<String, Long> byReason(Map<String, LongAdder> counts) {
+    Map<String, Long> byReason = new TreeMap<>();
+    counts.forEach((reason, count) -> byReason.put(reason, count.sum()));
+    return byReason;
+  }
+}
@@ -0,0 +1,155 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per endpoint and in total: requests, error rate, rule rejections, achieved rate and latency
+ * percentiles in milliseconds. Rejections are writes the service refused under a business rule;
+ * they are expected in a write mix and do not count as errors. Next to the summary, every endpoint gets an HdrHistogram percentile distribution
+ * ({@code .hgrm}) that can be plotted or compared between releases.
+ */
+final class LoadReport {
+
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private static final String ROW =
+      "%-40s %9s %8s %7s %8s %8s %9s %9s %9s %9s %9s%n";
+
+  private final Map<Endpoint, EndpointStats> stats;
+
+  private final Histogram total = new Histogram(3);
+
+  private final double seconds;
+
+  private final double targetRate;
+
+  private final long lateSends;
+
+  private final long maxLagNanos;
+
+  private long requests;
+
+  private long errors;
+
+  private long rejections;
+
+  LoadReport(
+      Map<Endpoint, EndpointStats> stats,
+      long elapsedNanos,
+      double targetRate,
+      long lateSends,
+      long maxLagNanos) {
+    this.stats = stats;
+    this.seconds = elapsedNanos / 1e9;
+    this.targetRate = targetRate;
+    this.lateSends = lateSends;
+    this.maxLagNanos = maxLagNanos;
+    for (EndpointStats endpoint : stats.values()) {
+      total.add(endpoint.latencies);
+      requests += endpoint.requests();
+      errors += endpoint.errors();
+      rejections += endpoint.rejections();
+    }
+  }
+
+  double errorRate() {
+    return requests == 0 ? 0 : (double) errors / requests;
+  }
+
+  void print(PrintStream out) {
+    out.printf(
+        Locale.ROOT, ROW, "endpoint", "requests", "errors", "error%", "rejected", "req/s",
+        "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    stats.forEach(
+        (endpoint, endpointStats) ->
+            row(out, endpoint.label, endpointStats.requests(), endpointStats.errors(),
+                endpointStats.rejections(), endpointStats.latencies));
+    row(out, "total", requests, errors, rejections, total);
+    out.printf(
+        Locale.ROOT,
+        "%nTarget rate %.1f/s over %.1fs. Generator late by more than 1 ms: %d times, at most"
+            + " %.1f ms.%n",
+        targetRate,
+        seconds,
+        lateSends,
+        TimeUnit.NANOSECONDS.toMicros(maxLagNanos) / MICROS_PER_MILLI);
+    stats.forEach(
+        (endpoint, endpointStats) ->
+            endpointStats
+                .errorsByReason()
+                .forEach(
+                    (reason, count) ->
+                        out.printf("  %s: %s x%d%n", endpoint.label, reason, count)));
+    stats.forEach(
+        (endpoint, endpointStats) ->
+            endpointStats
+                .rejectionsByReason()
+                .forEach(
+                    (reason, count) ->
+                        out.printf(
+                            "  %s: rejected with %s x%d%n", endpoint.label, reason, count)));
+  }
+
+  void write(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    try (PrintStream summary = printStream(directory.resolve("summary.txt"))) {
+      print(summary);
+    }
+    for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+      String file = entry.getKey().name().toLowerCase(Locale.ROOT).replace('_', '-') + ".hgrm";
+      try (PrintStream out = printStream(directory.resolve(file))) {
+        entry.getValue().latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+      }
+    }
+    try (PrintStream out = printStream(directory.resolve("total.hgrm"))) {
+      total.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+    System.out.println("Report written to " + directory.toAbsolutePath());
+  }
+
+  private void row(
+      PrintStream out,
+      String label,
+      long count,
+      long failed,
+      long rejected,
+      Histogram latencies) {
+    boolean empty = latencies.getTotalCount() == 0;
+    out.printf(
+        Locale.ROOT,
+        ROW,
+        label,
+        count,
+        failed,
+        String.format(Locale.ROOT, "%.2f", count == 0 ? 0 : 100.0 * failed / count),
+        rejected,
+        String.format(Locale.ROOT, "%.1f", count / seconds),
+        millis(latencies, 50, empty),
+        millis(latencies, 90, empty),
+        millis(latencies, 99, empty),
+        millis(latencies, 99.9, empty),
+        empty ? "-" : format(latencies.getMaxValue()));
+  }
+
+  private static String millis(Histogram latencies, double percentile, boolean empty) {
+    return empty ? "-" : format(latencies.getValueAtPercentile(percentile));
+  }
+
+  private static String format(long micros) {
+    return String.format(Locale.ROOT, "%.2f", micros / MICROS_PER_MILLI);
+  }
+
+  private static PrintStream printStream(Path file) throws IOException {
+    OutputStream out = Files.newOutputStream(file);
+    return new PrintStream(out, false, StandardCharsets.UTF_8);
+  }
+}
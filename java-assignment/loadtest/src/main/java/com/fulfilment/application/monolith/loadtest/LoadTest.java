@@ -0,0 +1,184 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule of arrivals, whether or not the
+ * earlier ones have been answered. Each latency is taken from the time the request was due, not
+ * from when it was sent, so a stalled service or a late generator shows up in the percentiles
+ * instead of quietly lowering the request rate (coordinated omission).
+ */
+public final class LoadTest {
+
+  // a send this much after its due time means the generator itself could not keep up
+  private static final long LATE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // how the service refuses a write that breaks a business rule (DomainValidationExceptionMapper
+  // answers 400, request checks 422, conflicts 409); the request itself was handled correctly
+  private static final Set<Integer> RULE_REJECTIONS = Set.of(400, 409, 422);
+
+  private final LoadTestOptions options;
+
+  private final HttpClient client;
+
+  private final Endpoint.Context context;
+
+  private final SplittableRandom arrivals;
+
+  private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+  private final Semaphore inFlight;
+
+  private final Endpoint[] mix;
+
+  private long lateSends;
+
+  private long maxLagNanos;
+
+  LoadTest(LoadTestOptions options, HttpClient client, TargetData data) {
+    this.options = options;
+    this.client = client;
+    SplittableRandom random = new SplittableRandom(options.seed);
+    this.arrivals = random.split();
+    this.context = new Endpoint.Context(options.url, data, random);
+    this.inFlight = new Semaphore(options.maxInFlight);
+    List<Endpoint> weighted = new ArrayList<>();
+    for (Endpoint endpoint : Endpoint.values()) {
+      if (endpoint.enabled(data, options.readOnly)) {
+        stats.put(endpoint, new EndpointStats());
+        for (int i = 0; i < endpoint.weight; i++) {
+          weighted.add(endpoint);
+        }
+      }
+    }
+    this.mix = weighted.toArray(new Endpoint[0]);
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options;
+    try {
+      options = LoadTestOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(LoadTestOptions.USAGE);
+      System.exit(2);
+      return;
+    }
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(options.timeout)
+            .build();
+    TargetData data = TargetData.discover(client, options.url, options.timeout);
+    System.out.printf(
+        "Target %s: stores=%d, products=%d, warehouses=%d%n",
+        options.url, data.storeIds.size(), data.productIds.size(), data.warehouseIds.size());
+
+    LoadTest test = new LoadTest(options, client, data);
+    long elapsedNanos = test.run();
+    LoadReport report =
+        new LoadReport(test.stats, elapsedNanos, options.rate, test.lateSends, test.maxLagNanos);
+    report.print(System.out);
+    report.write(options.report);
+    if (report.errorRate() > options.maxErrorRate) {
+      System.err.printf(
+          "Error rate %.4f is above --max-error-rate=%s%n",
+          report.errorRate(), options.maxErrorRate);
+      System.exit(1);
+    }
+  }
+
+  /** Issues the arrivals of the warmup and the measured run; returns the measured nanoseconds. */
+  long run() throws InterruptedException {
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup.toNanos();
+    long end = measureFrom + options.duration.toNanos();
+    double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+    long due = start;
+    System.out.printf(
+        "Warming up for %ss, then measuring %ss at %.0f requests/s%n",
+        options.warmup.toSeconds(), options.duration.toSeconds(), options.rate);
+    while (due < end) {
+      long now = System.nanoTime();
+      if (due > now) {
+        LockSupport.parkNanos(due - now);
+        continue;
+      }
+      boolean measured = due >= measureFrom;
+      if (measured && now - due > LATE_NANOS) {
+        lateSends++;
+        maxLagNanos = Math.max(maxLagNanos, now - due);
+      }
+      issue(mix[context.random.nextInt(mix.length)], due, measured);
+      due += options.poisson ? exponentialGap(meanGapNanos) : (long) meanGapNanos;
+    }
+    // wait for the stragglers; anything still open after the timeout has already failed
+    inFlight.tryAcquire(
+        options.maxInFlight, options.timeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+    return end - measureFrom;
+  }
+
+  // gaps of a Poisson process: arrivals are independent, so bursts happen as they do in production
+  private long exponentialGap(double meanGapNanos) {
+    return (long) (-Math.log(1 - arrivals.nextDouble()) * meanGapNanos);
+  }
+
+  private void issue(Endpoint drawn, long due, boolean measured) {
+    Endpoint endpoint = drawn.ready(context) ? drawn : drawn.counterpart();
+    EndpointStats endpointStats = stats.get(endpoint);
+    if (!inFlight.tryAcquire()) {
+      if (measured) {
+        endpointStats.dropped();
+      }
+      return;
+    }
+    Endpoint.Call call = endpoint.call(context);
+    HttpRequest request = call.request.timeout(options.timeout).build();
+    // only the writes that track what they created read the response body
+    HttpResponse.BodyHandler<String> body =
+        call.completion != null
+            ? HttpResponse.BodyHandlers.ofString()
+            : HttpResponse.BodyHandlers.replacing(null);
+    client
+        .sendAsync(request, body)
+        .whenComplete(
+            (response, failure) -> {
+              inFlight.release();
+              if (call.completion != null) {
+                call.completion.completed(
+                    failure != null ? 0 : response.statusCode(),
+                    failure != null ? null : response.body());
+              }
+              if (!measured) {
+                return;
+              }
+              long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+              if (failure != null) {
+                endpointStats.failure(reason(failure), latencyMicros);
+              } else if (endpoint.write && RULE_REJECTIONS.contains(response.statusCode())) {
+                endpointStats.rejected("HTTP " + response.statusCode(), latencyMicros);
+              } else if (response.statusCode() >= 400) {
+                endpointStats.failure("HTTP " + response.statusCode(), latencyMicros);
+              } else {
+                endpointStats.success(latencyMicros);
+              }
+            });
+  }
+
+  private static String reason(Throwable failure) {
+    Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+    return cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName();
+  }
+}
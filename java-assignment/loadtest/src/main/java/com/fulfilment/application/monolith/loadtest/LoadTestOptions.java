@@ -0,0 +1,101 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/** Command line options, given as {@code --name=value}. */
+final class LoadTestOptions {
+
+  static final String USAGE =
+      String.join(
+          "\n",
+          "Usage: java -jar loadtest.jar [--name=value ...]",
+          "  --url=http://localhost:8080   base URL of the running service",
+          "  --rate=100                    requests started per second, whatever the latency",
+          "  --duration=60s                measured run length (ms, s or m)",
+          "  --warmup=10s                  run length before measuring starts",
+          "  --arrivals=poisson            poisson (exponential gaps) or uniform",
+          "  --read-only=false             leave out the requests that write",
+          "  --max-in-flight=2000          requests beyond this are counted as dropped",
+          "  --timeout=5s                  per request",
+          "  --max-error-rate=0.01         exit with 1 above this share of failed requests",
+          "  --report=load-report          directory for summary.txt and the .hgrm files",
+          "  --seed=42                     seed of the arrival gaps and the request mix");
+
+  URI url = URI.create("http://localhost:8080/");
+
+  double rate = 100;
+
+  Duration duration = Duration.ofSeconds(60);
+
+  Duration warmup = Duration.ofSeconds(10);
+
+  boolean poisson = true;
+
+  boolean readOnly;
+
+  int maxInFlight = 2000;
+
+  Duration timeout = Duration.ofSeconds(5);
+
+  double maxErrorRate = 0.01;
+
+  Path report = Path.of("load-report");
+
+  long seed = 42;
+
+  static LoadTestOptions parse(String[] args) {
+    LoadTestOptions options = new LoadTestOptions();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value but got " + arg);
+      }
+      String name = arg.substring(2, separator);
+      String value = arg.substring(separator + 1);
+      switch (name) {
+        case "url" -> options.url = URI.create(value.endsWith("/") ? value : value + "/");
+        case "rate" -> options.rate = positive(name, Double.parseDouble(value));
+        case "duration" -> options.duration = duration(value);
+        case "warmup" -> options.warmup = duration(value);
+        case "arrivals" -> options.poisson = arrivals(value);
+        case "read-only" -> options.readOnly = Boolean.parseBoolean(value);
+        case "max-in-flight" -> options.maxInFlight = (int) positive(name, Integer.parseInt(value));
+        case "timeout" -> options.timeout = duration(value);
+        case "max-error-rate" -> options.maxErrorRate = Double.parseDouble(value);
+        case "report" -> options.report = Path.of(value);
+        case "seed" -> options.seed = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Unknown option --" + name);
+      }
+    }
+    return options;
+  }
+
+  static Duration duration(String value) {
+    if (value.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+    }
+    long amount = Long.parseLong(value.substring(0, value.length() - 1));
+    return switch (value.charAt(value.length() - 1)) {
+      case 's' -> Duration.ofSeconds(amount);
+      case 'm' -> Duration.ofMinutes(amount);
+      default -> throw new IllegalArgumentException("Duration must end in ms, s or m: " + value);
+    };
+  }
+
+  private static boolean arrivals(String value) {
+    return switch (value) {
+      case "poisson" -> true;
+      case "uniform" -> false;
+      default -> throw new IllegalArgumentException("Arrivals must be poisson or uniform");
+    };
+  }
+
+  private static double positive(String name, double value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException("--" + name + " must be positive");
+    }
+    return value;
+  }
+}
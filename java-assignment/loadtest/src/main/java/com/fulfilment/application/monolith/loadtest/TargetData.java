@@ -0,0 +1,216 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ids and search terms read from the listings before the run, so the requests address data the
+ * instance actually has. The listings are flat JSON objects, which a pattern reads well enough.
+ *
+ * <p>The writes get slots that pass the business rules even when all of them are taken at once:
+ * a location entry per warehouse the location still has room for, and fulfilments that add a
+ * product a warehouse already carries to a store it already serves, at most one per store and
+ * product.
+ */
+final class TargetData {
+
+  /** Capacity of every warehouse the run creates. */
+  static final int WAREHOUSE_CAPACITY = 10;
+
+  // the service's limits per store and product (FulfilmentService)
+  private static final int MAX_WAREHOUSES_PER_PRODUCT_PER_STORE = 2;
+
+  private static final int MAX_SLOTS = 200;
+
+  private static final Pattern OBJECT = Pattern.compile("\\{[^{}]*}");
+  private static final Pattern ID = Pattern.compile("\"id\":\"?(\\d+)");
+  private static final Pattern NAME = Pattern.compile("\"name\":\"([^\"]*)\"");
+  private static final Pattern LATITUDE = Pattern.compile("\"latitude\":-?\\d");
+  private static final Pattern FIRST_WORD = Pattern.compile("\\p{L}{2,}");
+  private static final Pattern CODE = Pattern.compile("\"businessUnitCode\":\"([^\"]*)\"");
+  private static final Pattern STORE_ID = Pattern.compile("\"storeId\":(\\d+)");
+  private static final Pattern PRODUCT_ID = Pattern.compile("\"productId\":(\\d+)");
+  private static final Pattern WAREHOUSE =
+      Pattern.compile("\"warehouseBusinessUnitCode\":\"([^\"]*)\"");
+  private static final Pattern IDENTIFICATION = Pattern.compile("\"identification\":\"([^\"]*)\"");
+  private static final Pattern WAREHOUSE_HEADROOM = Pattern.compile("\"warehouseHeadroom\":(\\d+)");
+  private static final Pattern CAPACITY_HEADROOM = Pattern.compile("\"capacityHeadroom\":(\\d+)");
+
+  final List<Long> storeIds = new ArrayList<>();
+
+  final List<Long> storeIdsWithCoordinates = new ArrayList<>();
+
+  final List<Long> productIds = new ArrayList<>();
+
+  final List<String> searchTerms = new ArrayList<>();
+
+  final List<Long> warehouseIds = new ArrayList<>();
+
+  // one entry per warehouse of WAREHOUSE_CAPACITY the location still has room for
+  final List<String> warehouseLocations = new ArrayList<>();
+
+  final List<FulfilmentSlot> fulfilmentSlots = new ArrayList<>();
+
+  static TargetData discover(HttpClient client, URI url, Duration timeout)
+      throws IOException, InterruptedException {
+    TargetData data = new TargetData();
+    for (String store : objects(get(client, url.resolve("store"), timeout))) {
+      long id = id(store);
+      data.storeIds.add(id);
+      if (LATITUDE.matcher(store).find()) {
+        data.storeIdsWithCoordinates.add(id);
+      }
+    }
+    for (String product : objects(get(client, url.resolve("product"), timeout))) {
+      data.productIds.add(id(product));
+      Matcher name = NAME.matcher(product);
+      if (name.find()) {
+        Matcher word = FIRST_WORD.matcher(name.group(1));
+        if (word.find() && data.searchTerms.size() < 1000) {
+          data.searchTerms.add(word.group().toLowerCase(Locale.ROOT));
+        }
+      }
+    }
+    Set<String> warehouseCodes = new HashSet<>();
+    for (String warehouse : objects(get(client, url.resolve("warehouse"), timeout))) {
+      data.warehouseIds.add(id(warehouse));
+      Matcher code = CODE.matcher(warehouse);
+      if (code.find()) {
+        warehouseCodes.add(code.group(1));
+      }
+    }
+    data.discoverLocations(client, url, timeout);
+    data.discoverFulfilmentSlots(
+        objects(get(client, url.resolve("fulfilment"), timeout)), warehouseCodes);
+    if (data.storeIds.isEmpty() || data.productIds.isEmpty() || data.warehouseIds.isEmpty()) {
+      throw new IllegalStateException(
+          "The instance at " + url + " needs at least one store, product and warehouse");
+    }
+    if (data.searchTerms.isEmpty()) {
+      data.searchTerms.add("a");
+    }
+    return data;
+  }
+
+  /** The location search needs a prefix; every identifier starts with a letter. */
+  private void discoverLocations(HttpClient client, URI url, Duration timeout)
+      throws IOException, InterruptedException {
+    for (char prefix = 'A'; prefix <= 'Z'; prefix++) {
+      URI search = url.resolve("location?limit=100&prefix=" + prefix);
+      for (String location : objects(get(client, search, timeout))) {
+        Matcher identification = IDENTIFICATION.matcher(location);
+        if (!identification.find()) {
+          continue;
+        }
+        long room =
+            Math.min(
+                number(WAREHOUSE_HEADROOM, location),
+                number(CAPACITY_HEADROOM, location) / WAREHOUSE_CAPACITY);
+        for (int i = 0; i < room && warehouseLocations.size() < MAX_SLOTS; i++) {
+          warehouseLocations.add(identification.group(1));
+        }
+      }
+    }
+  }
+
+  private void discoverFulfilmentSlots(List<String> fulfilments, Set<String> activeWarehouses) {
+    Map<Long, Set<String>> warehousesByStore = new TreeMap<>();
+    Map<String, Set<Long>> productsByWarehouse = new TreeMap<>();
+    Map<List<Long>, Set<String>> warehousesByStoreAndProduct = new HashMap<>();
+    for (String fulfilment : fulfilments) {
+      long storeId = number(STORE_ID, fulfilment);
+      long productId = number(PRODUCT_ID, fulfilment);
+      Matcher warehouse = WAREHOUSE.matcher(fulfilment);
+      if (!warehouse.find()) {
+        continue;
+      }
+      String code = warehouse.group(1);
+      warehousesByStore.computeIfAbsent(storeId, id -> new HashSet<>()).add(code);
+      productsByWarehouse.computeIfAbsent(code, c -> new HashSet<>()).add(productId);
+      warehousesByStoreAndProduct
+          .computeIfAbsent(List.of(storeId, productId), key -> new HashSet<>())
+          .add(code);
+    }
+    // neither the store nor the warehouse limit moves; each store and product gets one slot
+    Set<List<Long>> taken = new HashSet<>();
+    warehousesByStore.forEach(
+        (storeId, codes) -> {
+          for (String code : codes) {
+            if (!activeWarehouses.contains(code)) {
+              continue;
+            }
+            for (Long productId : productsByWarehouse.get(code)) {
+              List<Long> key = List.of(storeId, productId);
+              Set<String> sources = warehousesByStoreAndProduct.getOrDefault(key, Set.of());
+              if (fulfilmentSlots.size() < MAX_SLOTS
+                  && sources.size() < MAX_WAREHOUSES_PER_PRODUCT_PER_STORE
+                  && !sources.contains(code)
+                  && taken.add(key)) {
+                fulfilmentSlots.add(new FulfilmentSlot(storeId, productId, code));
+              }
+            }
+          }
+        });
+  }
+
+  private static long number(Pattern field, String object) {
+    Matcher matcher = field.matcher(object);
+    return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+  }
+
+  private static String get(HttpClient client, URI uri, Duration timeout)
+      throws IOException, InterruptedException {
+    HttpResponse<String> response =
+        client.send(
+            HttpRequest.newBuilder(uri).timeout(timeout).build(),
+            HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("GET " + uri + " returned " + response.statusCode());
+    }
+    return response.body();
+  }
+
+  private static List<String> objects(String json) {
+    List<String> objects = new ArrayList<>();
+    Matcher object = OBJECT.matcher(json);
+    while (object.find()) {
+      objects.add(object.group());
+    }
+    return objects;
+  }
+
+  static long id(String object) {
+    Matcher id = ID.matcher(object);
+    if (!id.find()) {
+      throw new IllegalStateException("No id in " + object);
+    }
+    return Long.parseLong(id.group(1));
+  }
+
+  static final class FulfilmentSlot {
+
+    final long storeId;
+    final long productId;
+    final String warehouse;
+
+    FulfilmentSlot(long storeId, long productId, String warehouse) {
+      this.storeId = storeId;
+      this.productId = productId;
+      this.warehouse = warehouse;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.fulfilment.application.monolith.scaledata;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Rows of a {@code COPY ... FROM STDIN (FORMAT csv)}, encoded into a buffer and handed to the
+ * driver in blocks, so a chunk of any size streams in constant memory.
+ */
+final class CopyStream implements AutoCloseable {
+
+  private static final int FLUSH_AT = 1 << 16;
+
+  private final CopyIn copy;
+
+  private final StringBuilder buffer = new StringBuilder(FLUSH_AT + 1024);
+
+  private boolean firstValue = true;
+
+  CopyStream(CopyIn copy) {
+    this.copy = copy;
+  }
+
+  CopyStream value(long value) {
+    separate().append(value);
+    return this;
+  }
+
+  /** Writes {@code unscaled / 10^scale}, e.g. 523676 with scale 4 as 52.3676. */
+  CopyStream decimal(long unscaled, int scale) {
+    StringBuilder out = separate();
+    if (unscaled < 0) {
+      out.append('-');
+      unscaled = -unscaled;
+    }
+    long unit = (long) Math.pow(10, scale);
+    String fraction = Long.toString(unscaled % unit);
+    out.append(unscaled / unit).append('.');
+    for (int i = fraction.length(); i < scale; i++) {
+      out.append('0');
+    }
+    out.append(fraction);
+    return this;
+  }
+
+  CopyStream value(Object value) {
+    if (value == null) {
+      return nullValue();
+    }
+    String text = value.toString();
+    StringBuilder out = separate();
+    if (text.isEmpty() || text.indexOf(',') >= 0 || text.indexOf('"') >= 0) {
+      out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    } else {
+      out.append(text);
+    }
+    return this;
+  }
+
+  /** An unquoted empty value, which COPY reads as null. */
+  CopyStream nullValue() {
+    separate();
+    return this;
+  }
+
+  void endRow() throws SQLException {
+    buffer.append('\n');
+    firstValue = true;
+    if (buffer.length() >= FLUSH_AT) {
+      flush();
+    }
+  }
+
+  /** Completes the COPY and returns the number of rows the server took. */
+  long finish() throws SQLException {
+    flush();
+    return copy.endCopy();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (copy.isActive()) {
+      copy.cancelCopy();
+    }
+  }
+
+  private StringBuilder separate() {
+    if (!firstValue) {
+      buffer.append(',');
+    }
+    firstValue = false;
+    return buffer;
+  }
+
+  private void flush() throws SQLException {
+    if (buffer.length() > 0) {
+      byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+      copy.writeToCopy(bytes, 0, bytes.length);
+      buffer.setLength(0);
+    }
+  }
+}
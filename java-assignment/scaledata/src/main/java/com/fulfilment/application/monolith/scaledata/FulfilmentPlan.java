@@ -0,0 +1,127 @@
+package com.fulfilment.application.monolith.scaledata;
+
+import com.fulfilment.application.monolith.scaledata.WarehousePlan.Warehouse;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fulfilments within the limits of {@code FulfilmentService}: every active warehouse gets an
+ * assortment of at most five products, and a store is served by at most three warehouses, each
+ * taking products from its assortment, and by no more than two of them per product. Popular
+ * products and warehouses come up more often according to the skew.
+ */
+final class FulfilmentPlan {
+
+  // mirror FulfilmentService
+  static final int MAX_WAREHOUSES_PER_PRODUCT_PER_STORE = 2;
+  static final int MAX_WAREHOUSES_PER_STORE = 3;
+  static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
+
+  static final int MAX_PER_STORE = MAX_WAREHOUSES_PER_STORE * MAX_PRODUCTS_PER_WAREHOUSE;
+
+  private final List<Warehouse> warehouses;
+
+  private final ZipfSampler warehouseSampler;
+
+  private final long[][] assortments;
+
+  private final int perStore;
+
+  FulfilmentPlan(
+      List<Warehouse> warehouses,
+      int products,
+      int perStore,
+      double skew,
+      SplittableRandom random) {
+    this.warehouses = warehouses;
+    this.warehouseSampler = new ZipfSampler(warehouses.size(), skew);
+    this.perStore = perStore;
+    ZipfSampler productSampler = new ZipfSampler(products, skew);
+    this.assortments = new long[warehouses.size()][];
+    for (int i = 0; i < assortments.length; i++) {
+      int size = random.nextInt(1, Math.min(MAX_PRODUCTS_PER_WAREHOUSE, products) + 1);
+      long[] assortment = new long[size];
+      // under a steep skew the same few products keep coming up; settle for fewer then
+      int filled = 0;
+      for (int attempt = 0; filled < size && attempt < 100 * size; attempt++) {
+        long productId = productSampler.next(random) + 1L;
+        if (indexOf(assortment, filled, productId) < 0) {
+          assortment[filled++] = productId;
+        }
+      }
+      assortments[i] = Arrays.copyOf(assortment, filled);
+    }
+  }
+
+  /**
+   * Writes the fulfilments of the given stores. Ids are reserved per store, {@link
+   * #MAX_PER_STORE} each, so chunks of stores can be written in any order and in parallel.
+   */
+  void write(long firstStoreId, long lastStoreId, SplittableRandom random, CopyStream out)
+      throws SQLException {
+    if (perStore == 0 || warehouses.isEmpty()) {
+      return;
+    }
+    int[] chosen = new int[MAX_WAREHOUSES_PER_STORE];
+    long[] productIds = new long[MAX_PER_STORE];
+    int[] productCounts = new int[MAX_PER_STORE];
+    int needed = (perStore + MAX_PRODUCTS_PER_WAREHOUSE - 1) / MAX_PRODUCTS_PER_WAREHOUSE;
+    for (long storeId = firstStoreId; storeId <= lastStoreId; storeId++) {
+      int wanted =
+          Math.min(warehouses.size(), random.nextInt(needed, MAX_WAREHOUSES_PER_STORE + 1));
+      int count = 0;
+      for (int attempt = 0; count < wanted && attempt < 4 * MAX_WAREHOUSES_PER_STORE; attempt++) {
+        int warehouse = warehouseSampler.next(random);
+        if (indexOf(chosen, count, warehouse) < 0) {
+          chosen[count++] = warehouse;
+        }
+      }
+      int written = 0;
+      int distinctProducts = 0;
+      for (int round = 0; round < MAX_PRODUCTS_PER_WAREHOUSE && written < perStore; round++) {
+        for (int i = 0; i < count && written < perStore; i++) {
+          long[] assortment = assortments[chosen[i]];
+          if (round >= assortment.length) {
+            continue;
+          }
+          long productId = assortment[round];
+          int product = indexOf(productIds, distinctProducts, productId);
+          if (product < 0) {
+            product = distinctProducts++;
+            productIds[product] = productId;
+            productCounts[product] = 0;
+          }
+          if (productCounts[product] == MAX_WAREHOUSES_PER_PRODUCT_PER_STORE) {
+            continue;
+          }
+          productCounts[product]++;
+          out.value((storeId - 1) * MAX_PER_STORE + ++written)
+              .value(storeId)
+              .value(productId)
+              .value(warehouses.get(chosen[i]).businessUnitCode())
+              .endRow();
+        }
+      }
+    }
+  }
+
+  private static int indexOf(long[] values, int length, long value) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int indexOf(int[] values, int length, int value) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
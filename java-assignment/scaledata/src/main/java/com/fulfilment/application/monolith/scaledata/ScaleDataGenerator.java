@@ -0,0 +1,236 @@
+package com.fulfilment.application.monolith.scaledata;
+
+import com.fulfilment.application.monolith.scaledata.WarehousePlan.City;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.postgresql.PGConnection;
+
+/**
+ * Replaces the stores, products, warehouses and fulfilments with a generated dataset of
+ * production size, and writes the location catalog the warehouses are placed in. The tables are
+ * loaded with COPY, one chunk of rows per connection and several connections at a time.
+ *
+ * <p>Every chunk draws from its own random stream, derived from the seed, the table and the
+ * position of the chunk. The same options therefore give the same rows whatever the number of
+ * threads and the order in which the chunks finish.
+ */
+public final class ScaleDataGenerator {
+
+  // fixed rather than derived from --threads, so the rows do not depend on it
+  private static final int CHUNK_ROWS = 100_000;
+
+  private static final String[] MATERIALS = {
+    "Oak", "Pine", "Birch", "Walnut", "Bamboo", "Steel", "Glass", "Rattan", "Linen", "Velvet",
+    "Marble", "Cotton", "Wool", "Ceramic", "Leather", "Acacia"
+  };
+
+  private static final String[] ITEMS = {
+    "chair", "table", "bookcase", "wardrobe", "sofa", "lamp", "desk", "bed", "shelf", "cabinet",
+    "stool", "mirror", "rug", "cushion", "drawer", "bench"
+  };
+
+  private static final String[] ROOMS = {
+    "living room", "bedroom", "kitchen", "office", "hallway", "bathroom", "garden", "nursery"
+  };
+
+  enum Table {
+    STORE("id, name, quantityProductsInStock, latitude, longitude"),
+    PRODUCT("id, name, description, price, stock"),
+    WAREHOUSE("id, businessUnitCode, location, capacity, stock, createdAt, archivedAt"),
+    FULFILMENT("id, storeId, productId, warehouseBusinessUnitCode");
+
+    final String table = name().toLowerCase(Locale.ROOT);
+
+    final String copy;
+
+    Table(String columns) {
+      this.copy = "COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)";
+    }
+  }
+
+  @FunctionalInterface
+  interface Chunk {
+    void write(SplittableRandom random, CopyStream out) throws SQLException;
+  }
+
+  private final ScaleDataOptions options;
+
+  private final Map<Table, LongAdder> rows = new EnumMap<>(Table.class);
+
+  ScaleDataGenerator(ScaleDataOptions options) {
+    this.options = options;
+    for (Table table : Table.values()) {
+      rows.put(table, new LongAdder());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    ScaleDataOptions options;
+    try {
+      options = ScaleDataOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(ScaleDataOptions.USAGE);
+      System.exit(2);
+      return;
+    }
+    new ScaleDataGenerator(options).run();
+  }
+
+  void run() throws Exception {
+    long start = System.nanoTime();
+    WarehousePlan warehouses =
+        new WarehousePlan(
+            options.locations,
+            options.warehouses,
+            options.archivedRatio,
+            random(Table.WAREHOUSE, 0));
+    FulfilmentPlan fulfilments =
+        new FulfilmentPlan(
+            warehouses.active,
+            options.products,
+            options.fulfilmentsPerStore,
+            options.skew,
+            random(Table.FULFILMENT, 0));
+    warehouses.writeLocations(options.locationsFile);
+    System.out.printf(
+        "Wrote %d locations to %s%n", warehouses.locations.size(), options.locationsFile);
+
+    try (Connection connection = connect();
+        Statement statement = connection.createStatement()) {
+      statement.execute("TRUNCATE fulfilment, warehouse, product, store");
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+    List<Future<?>> copies = new ArrayList<>();
+    try {
+      copies.add(
+          executor.submit(
+              () -> copy(Table.WAREHOUSE, 1, (random, out) -> warehouses.write(out))));
+      for (long first = 1; first <= options.stores; first += CHUNK_ROWS) {
+        long from = first;
+        long to = Math.min(options.stores, first + CHUNK_ROWS - 1);
+        long chunk = first / CHUNK_ROWS + 1;
+        copies.add(
+            executor.submit(
+                () -> copy(Table.STORE, chunk, (random, out) -> stores(from, to, random, out))));
+        copies.add(
+            executor.submit(
+                () ->
+                    copy(
+                        Table.FULFILMENT,
+                        chunk,
+                        (random, out) -> fulfilments.write(from, to, random, out))));
+      }
+      for (long first = 1; first <= options.products; first += CHUNK_ROWS) {
+        long from = first;
+        long to = Math.min(options.products, first + CHUNK_ROWS - 1);
+        long chunk = first / CHUNK_ROWS + 1;
+        copies.add(
+            executor.submit(
+                () ->
+                    copy(Table.PRODUCT, chunk, (random, out) -> products(from, to, random, out))));
+      }
+      for (Future<?> copy : copies) {
+        copy.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    try (Connection connection = connect();
+        Statement statement = connection.createStatement()) {
+      // the service allocates ids from these sequences; continue after the generated ones
+      for (Table table : Table.values()) {
+        statement.execute(
+            "select setval('"
+                + table.table
+                + "_seq', (select coalesce(max(id), 0) + 1 from "
+                + table.table
+                + "), false)");
+      }
+      statement.execute("ANALYZE store, product, warehouse, fulfilment");
+    }
+
+    double seconds = (System.nanoTime() - start) / 1e9;
+    long total = 0;
+    for (Table table : Table.values()) {
+      long count = rows.get(table).sum();
+      total += count;
+      System.out.printf("%-12s %,12d rows%n", table.table, count);
+    }
+    System.out.printf(
+        "Loaded %,d rows in %.1fs (%,.0f rows/s) with %d threads%n",
+        total, seconds, total / seconds, options.threads);
+  }
+
+  private Void copy(Table table, long chunk, Chunk rowsOfChunk) throws SQLException {
+    long start = System.nanoTime();
+    try (Connection connection = connect();
+        CopyStream out =
+            new CopyStream(
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(table.copy))) {
+      rowsOfChunk.write(random(table, chunk), out);
+      long copied = out.finish();
+      rows.get(table).add(copied);
+      System.out.printf(
+          "%s chunk %d: %,d rows in %d ms%n",
+          table.table,
+          chunk,
+          copied,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    return null;
+  }
+
+  private static void stores(long from, long to, SplittableRandom random, CopyStream out)
+      throws SQLException {
+    for (long id = from; id <= to; id++) {
+      City city = WarehousePlan.CITIES.get(random.nextInt(WarehousePlan.CITIES.size()));
+      out.value(id)
+          .value(city.name() + " " + id)
+          .value(random.nextInt(0, 1001))
+          .decimal(city.latitude() + random.nextInt(-1000, 1001), 4)
+          .decimal(city.longitude() + random.nextInt(-1000, 1001), 4)
+          .endRow();
+    }
+  }
+
+  private static void products(long from, long to, SplittableRandom random, CopyStream out)
+      throws SQLException {
+    for (long id = from; id <= to; id++) {
+      String material = MATERIALS[random.nextInt(MATERIALS.length)];
+      String item = ITEMS[random.nextInt(ITEMS.length)];
+      out.value(id)
+          .value(material + " " + item + " " + id)
+          .value(material + " " + item + " for the " + ROOMS[random.nextInt(ROOMS.length)]);
+      // one in twenty products has no price yet
+      if (random.nextInt(20) == 0) {
+        out.nullValue();
+      } else {
+        out.decimal(random.nextLong(100, 100_000), 2);
+      }
+      out.value(random.nextInt(0, 501)).endRow();
+    }
+  }
+
+  private SplittableRandom random(Table table, long chunk) {
+    return new SplittableRandom((options.seed * 31 + table.ordinal()) * 1_000_003L + chunk);
+  }
+
+  private Connection connect() throws SQLException {
+    return DriverManager.getConnection(options.jdbcUrl, options.user, options.password);
+  }
+}
@@ -0,0 +1,113 @@
+package com.fulfilment.application.monolith.scaledata;
+
+import java.nio.file.Path;
+
+/** Command line options, given as {@code --name=value}. */
+final class ScaleDataOptions {
+
+  static final String USAGE =
+      String.join(
+          "\n",
+          "Usage: java -jar scaledata.jar [--name=value ...]",
+          "Replaces the stores, products, warehouses and fulfilments of the database.",
+          "  --jdbc-url=jdbc:postgresql://localhost:15432/quarkus_test",
+          "  --user=quarkus_test",
+          "  --password=quarkus_test",
+          "  --stores=1000000",
+          "  --products=2000000",
+          "  --locations=10000              written to --locations-file for the service to load",
+          "  --warehouses=20000             active and archived together",
+          "  --archived-ratio=0.1           share of the warehouses that is archived",
+          "  --fulfilments-per-store=3      at most 15 (3 warehouses with 5 products each)",
+          "  --skew=1.0                     Zipf exponent of product and warehouse popularity,"
+              + " 0 is uniform",
+          "  --locations-file=scale-data/locations.csv",
+          "  --threads=<processors>         parallel COPY connections",
+          "  --seed=42                      the same seed and shape give the same rows");
+
+  String jdbcUrl = "jdbc:postgresql://localhost:15432/quarkus_test";
+
+  String user = "quarkus_test";
+
+  String password = "quarkus_test";
+
+  int stores = 1_000_000;
+
+  int products = 2_000_000;
+
+  int locations = 10_000;
+
+  int warehouses = 20_000;
+
+  double archivedRatio = 0.1;
+
+  int fulfilmentsPerStore = 3;
+
+  double skew = 1.0;
+
+  Path locationsFile = Path.of("scale-data", "locations.csv");
+
+  int threads = Runtime.getRuntime().availableProcessors();
+
+  long seed = 42;
+
+  static ScaleDataOptions parse(String[] args) {
+    ScaleDataOptions options = new ScaleDataOptions();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value but got " + arg);
+      }
+      String name = arg.substring(2, separator);
+      String value = arg.substring(separator + 1);
+      switch (name) {
+        case "jdbc-url" -> options.jdbcUrl = value;
+        case "user" -> options.user = value;
+        case "password" -> options.password = value;
+        case "stores" -> options.stores = positive(name, Integer.parseInt(value));
+        case "products" -> options.products = positive(name, Integer.parseInt(value));
+        case "locations" -> options.locations = positive(name, Integer.parseInt(value));
+        case "warehouses" -> options.warehouses = positive(name, Integer.parseInt(value));
+        case "archived-ratio" -> options.archivedRatio = ratio(name, Double.parseDouble(value));
+        case "fulfilments-per-store" -> options.fulfilmentsPerStore = perStore(value);
+        case "skew" -> options.skew = skew(value);
+        case "locations-file" -> options.locationsFile = Path.of(value);
+        case "threads" -> options.threads = positive(name, Integer.parseInt(value));
+        case "seed" -> options.seed = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Unknown option --" + name);
+      }
+    }
+    return options;
+  }
+
+  private static int positive(String name, int value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException("--" + name + " must be positive");
+    }
+    return value;
+  }
+
+  private static double ratio(String name, double value) {
+    if (value < 0 || value >= 1) {
+      throw new IllegalArgumentException("--" + name + " must be at least 0 and below 1");
+    }
+    return value;
+  }
+
+  private static int perStore(String value) {
+    int perStore = Integer.parseInt(value);
+    if (perStore < 0 || perStore > FulfilmentPlan.MAX_PER_STORE) {
+      throw new IllegalArgumentException(
+          "--fulfilments-per-store must be between 0 and " + FulfilmentPlan.MAX_PER_STORE);
+    }
+    return perStore;
+  }
+
+  private static double skew(String value) {
+    double skew = Double.parseDouble(value);
+    if (skew < 0) {
+      throw new IllegalArgumentException("--skew must not be negative");
+    }
+    return skew;
+  }
+}
@@ -0,0 +1,175 @@
+package com.fulfilment.application.monolith.scaledata;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The synthetic location catalog and the warehouses placed in it. Active warehouses respect the
+ * rules of {@code WarehouseValidator}: per location no more than its maximum number of
+ * warehouses, and together no more than its maximum capacity; stock never exceeds capacity.
+ * Archived warehouses do not count towards those limits and are spread over all locations.
+ */
+final class WarehousePlan {
+
+  /** Coordinates are in units of 1/10000 degree, as written to the catalog and the tables. */
+  record City(String name, int latitude, int longitude) {}
+
+  record Location(
+      String identification,
+      int maxNumberOfWarehouses,
+      int maxCapacity,
+      int latitude,
+      int longitude) {}
+
+  record Warehouse(
+      long id,
+      String businessUnitCode,
+      Location location,
+      int capacity,
+      int stock,
+      LocalDateTime createdAt,
+      LocalDateTime archivedAt) {}
+
+  static final List<City> CITIES =
+      List.of(
+          new City("AMSTERDAM", 523676, 49041),
+          new City("ROTTERDAM", 519244, 44777),
+          new City("UTRECHT", 520907, 51214),
+          new City("EINDHOVEN", 514416, 54697),
+          new City("TILBURG", 515555, 50913),
+          new City("GRONINGEN", 532194, 65665),
+          new City("ALMERE", 523508, 52647),
+          new City("BREDA", 515719, 47683),
+          new City("NIJMEGEN", 518126, 58812),
+          new City("APELDOORN", 522112, 59699),
+          new City("HAARLEM", 523874, 46462),
+          new City("ARNHEM", 519851, 58987),
+          new City("ENSCHEDE", 522215, 68937),
+          new City("AMERSFOORT", 521561, 53878),
+          new City("ZWOLLE", 525168, 60830),
+          new City("LEIDEN", 521601, 44970),
+          new City("MAASTRICHT", 508514, 56910),
+          new City("DELFT", 520116, 43571),
+          new City("LEEUWARDEN", 532012, 57999),
+          new City("VENLO", 513704, 61724));
+
+  private static final LocalDateTime EPOCH = LocalDateTime.of(2019, 1, 1, 0, 0);
+
+  private static final int MINUTES_IN_FIVE_YEARS = 5 * 365 * 24 * 60;
+
+  final List<Location> locations = new ArrayList<>();
+
+  final List<Warehouse> warehouses = new ArrayList<>();
+
+  final List<Warehouse> active = new ArrayList<>();
+
+  WarehousePlan(
+      int locationCount, int warehouseCount, double archivedRatio, SplittableRandom random) {
+    for (int i = 0; i < locationCount; i++) {
+      City city = CITIES.get(i % CITIES.size());
+      locations.add(
+          new Location(
+              String.format("%s-%04d", city.name(), i / CITIES.size() + 1),
+              random.nextInt(1, 6),
+              random.nextInt(20, 501),
+              city.latitude() + random.nextInt(-1500, 1501),
+              city.longitude() + random.nextInt(-1500, 1501)));
+    }
+    int archived = (int) Math.round(warehouseCount * archivedRatio);
+    // archived warehouses are the older ones, so they take the lower ids
+    for (int i = 0; i < archived; i++) {
+      Location location = locations.get(random.nextInt(locationCount));
+      LocalDateTime createdAt = EPOCH.plusMinutes(random.nextInt(MINUTES_IN_FIVE_YEARS));
+      add(
+          location,
+          random.nextInt(1, location.maxCapacity() + 1),
+          random,
+          createdAt,
+          createdAt.plusDays(random.nextInt(30, 730)));
+    }
+    int remaining = warehouseCount - archived;
+    for (int i = 0; i < locationCount && remaining > 0; i++) {
+      Location location = locations.get(i);
+      int count = Math.min(remaining, random.nextInt(1, location.maxNumberOfWarehouses() + 1));
+      int share = location.maxCapacity() / count;
+      for (int j = 0; j < count; j++) {
+        active.add(
+            add(
+                location,
+                random.nextInt(share / 2, share + 1),
+                random,
+                EPOCH.plusMinutes(random.nextInt(MINUTES_IN_FIVE_YEARS)),
+                null));
+      }
+      remaining -= count;
+    }
+    if (remaining > 0) {
+      throw new IllegalArgumentException(
+          locationCount
+              + " locations do not hold "
+              + (warehouseCount - archived)
+              + " active warehouses, raise --locations");
+    }
+  }
+
+  void writeLocations(Path file) throws IOException {
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    try (BufferedWriter out = Files.newBufferedWriter(file)) {
+      out.write("identification,maxNumberOfWarehouses,maxCapacity,latitude,longitude\n");
+      for (Location location : locations) {
+        out.write(
+            String.format(
+                "%s,%d,%d,%d.%04d,%d.%04d\n",
+                location.identification(),
+                location.maxNumberOfWarehouses(),
+                location.maxCapacity(),
+                location.latitude() / 10000,
+                location.latitude() % 10000,
+                location.longitude() / 10000,
+                location.longitude() % 10000));
+      }
+    }
+  }
+
+  void write(CopyStream out) throws SQLException {
+    for (Warehouse warehouse : warehouses) {
+      out.value(warehouse.id())
+          .value(warehouse.businessUnitCode())
+          .value(warehouse.location().identification())
+          .value(warehouse.capacity())
+          .value(warehouse.stock())
+          .value(warehouse.createdAt())
+          .value(warehouse.archivedAt())
+          .endRow();
+    }
+  }
+
+  private Warehouse add(
+      Location location,
+      int capacity,
+      SplittableRandom random,
+      LocalDateTime createdAt,
+      LocalDateTime archivedAt) {
+    long id = warehouses.size() + 1;
+    Warehouse warehouse =
+        new Warehouse(
+            id,
+            String.format("MWH.%06d", id),
+            location,
+            capacity,
+            random.nextInt(capacity + 1),
+            createdAt,
+            archivedAt);
+    warehouses.add(warehouse);
+    return warehouse;
+  }
+}
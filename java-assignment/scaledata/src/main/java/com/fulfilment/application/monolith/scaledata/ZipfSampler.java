@@ -0,0 +1,38 @@
+package com.fulfilment.application.monolith.scaledata;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes below {@code size} where the k-th most popular one comes up roughly in proportion
+ * to 1/k^exponent; exponent 0 draws uniformly. The ranks are inverted from the continuous
+ * distribution, so a draw costs the same for a hundred or a billion values. The popular indexes
+ * are scattered over the range instead of all being the lowest ones.
+ */
+final class ZipfSampler {
+
+  // prime, so multiplying by it modulo any smaller size permutes the ranks
+  private static final long SCATTER = Integer.MAX_VALUE;
+
+  private final int size;
+
+  private final double exponent;
+
+  private final double span;
+
+  ZipfSampler(int size, double exponent) {
+    this.size = size;
+    this.exponent = exponent;
+    this.span = exponent == 1 ? Math.log(size + 1.0) : Math.pow(size + 1.0, 1 - exponent) - 1;
+  }
+
+  int next(SplittableRandom random) {
+    if (exponent == 0) {
+      return random.nextInt(size);
+    }
+    double u = random.nextDouble();
+    double x =
+        exponent == 1 ? Math.exp(u * span) : Math.pow(1 + u * span, 1 / (1 - exponent));
+    int rank = Math.min(size - 1, (int) x - 1);
+    return (int) (rank * SCATTER % size);
+  }
+}
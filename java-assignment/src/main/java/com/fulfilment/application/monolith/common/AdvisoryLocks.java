@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Transaction-scoped PostgreSQL advisory locks. Rules that count rows, like the warehouses at a
+ * location or the warehouses serving a store, cannot be expressed as constraints: two
+ * transactions could both count, both pass and both write. The use cases therefore take the lock
+ * of what they are about to count first, which makes them run one at a time per key until commit
+ * or rollback. Keys are hashed into the lock id; a collision only makes two keys wait for each
+ * other.
+ *
+ * <p>Locks that are taken together are always taken in the same order, namespace by namespace
+ * and by lock id within a namespace, so they cannot deadlock.
+ */
+public final class AdvisoryLocks {
+
+  public static final int WAREHOUSE_BUSINESS_UNIT = 1;
+
+  public static final int WAREHOUSE_LOCATION = 2;
+
+  public static final int FULFILMENT_STORE = 3;
+
+  public static final int FULFILMENT_WAREHOUSE = 4;
+
+  private AdvisoryLocks() {}
+
+  /** Waits for and holds the lock of {@code key} until the current transaction ends. */
+  public static void lock(EntityManager entityManager, int namespace, Object key) {
+    entityManager
+        .createNativeQuery("select 1 from pg_advisory_xact_lock(?1, ?2)")
+        .setParameter(1, namespace)
+        .setParameter(2, key.hashCode())
+        .getSingleResult();
+  }
+
+  /**
+   * Locks every key of the namespace in ascending lock id order, each id once. Ordering the keys
+   * themselves is not enough: two keys can hash to ids in the opposite order, or to the same id.
+   */
+  public static void lockAll(EntityManager entityManager, int namespace, Collection<?> keys) {
+    for (int id : lockIds(keys)) {
+      lock(entityManager, namespace, id);
+    }
+  }
+
+  static int[] lockIds(Collection<?> keys) {
+    return keys.stream()
+        .filter(Objects::nonNull)
+        .mapToInt(Object::hashCode)
+        .sorted()
+        .distinct()
+        .toArray();
+  }
+}
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serves a GET resource method from the {@link ResponseByteCache}. The value names the cache
+ * region, which is dropped whenever the data behind it changes.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse {
+
+  String value();
+}
@@ -0,0 +1,47 @@
+package com.fulfilment.application.monolith.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Applies an RFC 7396 JSON Merge Patch to an entity: only the members present in the patch are
+ * written, so Hibernate's dirty checking (with {@code @DynamicUpdate}) updates only those columns.
+ */
+@ApplicationScoped
+public class JsonMergePatch {
+
+  public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+  @Inject ObjectMapper objectMapper;
+
+  /**
+   * Merges {@code patch} into {@code target} and returns whether any value actually changed.
+   * Members listed in {@code required} may be replaced but not removed with {@code null}.
+   */
+  public boolean apply(Object target, JsonNode patch, Set<String> required) {
+    if (patch == null || !patch.isObject()) {
+      throw new WebApplicationException("Merge patch must be a JSON object.", 422);
+    }
+    if (patch.has("id")) {
+      throw new WebApplicationException("Id cannot be changed.", 422);
+    }
+    for (String field : required) {
+      if (patch.has(field) && patch.get(field).isNull()) {
+        throw new WebApplicationException(field + " cannot be removed.", 422);
+      }
+    }
+
+    JsonNode before = objectMapper.valueToTree(target);
+    try {
+      objectMapper.readerForUpdating(target).readValue(patch);
+    } catch (IOException e) {
+      throw new WebApplicationException("Invalid merge patch: " + e.getMessage(), 422);
+    }
+    return !before.equals(objectMapper.valueToTree(target));
+  }
+}
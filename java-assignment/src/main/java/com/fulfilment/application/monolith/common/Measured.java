@@ -0,0 +1,38 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times every business method of the annotated bean with a timer per method, see {@link
+ * MeasuredInterceptor}. Only calls through the bean's proxy are measured, not calls from the bean
+ * to itself.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Measured {
+
+  @Nonbinding
+  Layer value();
+
+  enum Layer {
+    /** {@code usecase.calls}, by outcome and with a latency histogram. */
+    USE_CASE("usecase.calls", true),
+    /** {@code repository.calls}, without outcome or histogram: there are many more of them. */
+    REPOSITORY("repository.calls", false);
+
+    final String metric;
+
+    final boolean detailed;
+
+    Layer(String metric, boolean detailed) {
+      this.metric = metric;
+      this.detailed = detailed;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.fulfilment.application.monolith.common;
+
+import com.fulfilment.application.monolith.exceptions.DomainNotFoundException;
+import com.fulfilment.application.monolith.exceptions.DomainValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.inject.Intercepted;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the calls of {@link Measured} beans, tagged with the bean class and the method. The
+ * timers of a method are registered on its first call; afterwards a call costs a map lookup and
+ * two {@link System#nanoTime()} reads, and allocates nothing. Runs outside {@code @Transactional},
+ * so a timed call includes its commit.
+ */
+@Measured(Measured.Layer.USE_CASE)
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class MeasuredInterceptor {
+
+  private static final int SUCCESS = 0;
+  private static final int REJECTED = 1;
+  private static final int NOT_FOUND = 2;
+  private static final int ERROR = 3;
+
+  private static final String[] OUTCOMES = {"success", "rejected", "not_found", "error"};
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject @Intercepted Bean<?> bean;
+
+  // one interceptor instance per bean instance, so per bean class
+  private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+  private Measured.Layer layer;
+
+  @AroundInvoke
+  Object measure(InvocationContext context) throws Exception {
+    Timer[] methodTimers = timers.get(context.getMethod());
+    if (methodTimers == null) {
+      methodTimers = register(context);
+    }
+    long start = System.nanoTime();
+    int outcome = ERROR;
+    try {
+      Object result = context.proceed();
+      outcome = SUCCESS;
+      return result;
+    } catch (DomainValidationException e) {
+      outcome = REJECTED;
+      throw e;
+    } catch (DomainNotFoundException e) {
+      outcome = NOT_FOUND;
+      throw e;
+    } finally {
+      Timer timer = methodTimers[layer.detailed ? outcome : 0];
+      timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private Timer[] register(InvocationContext context) {
+    if (layer == null) {
+      layer = context.getInterceptorBinding(Measured.class).value();
+    }
+    Method method = context.getMethod();
+    return timers.computeIfAbsent(
+        method,
+        m -> {
+          Timer[] registered = new Timer[layer.detailed ? OUTCOMES.length : 1];
+          for (int i = 0; i < registered.length; i++) {
+            Timer.Builder builder =
+                Timer.builder(layer.metric)
+                    .tag("class", bean.getBeanClass().getSimpleName())
+                    .tag("method", m.getName());
+            if (layer.detailed) {
+              builder.tag("outcome", OUTCOMES[i]).publishPercentileHistogram();
+            }
+            registered[i] = builder.register(meterRegistry);
+          }
+          return registered;
+        });
+  }
+}
@@ -0,0 +1,168 @@
+package com.fulfilment.application.monolith.common;
+
+import com.fulfilment.application.monolith.products.ProductCreatedEvent;
+import com.fulfilment.application.monolith.products.ProductDeletedEvent;
+import com.fulfilment.application.monolith.products.ProductUpdatedEvent;
+import com.fulfilment.application.monolith.stores.StoreCreatedEvent;
+import com.fulfilment.application.monolith.stores.StoreDeletedEvent;
+import com.fulfilment.application.monolith.stores.StoreUpdatedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Encoded JSON responses per region and request shape. Every region has a generation that is
+ * bumped after each committed write to its data; an entry is only served while its generation is
+ * current, so a response rendered from data that changed mid-request is never served.
+ */
+@ApplicationScoped
+public class ResponseByteCache {
+
+  public static final String STORES = "store";
+  public static final String PRODUCTS = "product";
+  public static final String WAREHOUSES = "warehouse";
+
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "response.cache.enabled", defaultValue = "true")
+  boolean enabled = true;
+
+  // per region; a shape beyond this is rendered every time instead of evicting others
+  @ConfigProperty(name = "response.cache.max-entries", defaultValue = "64")
+  int maxEntries = 64;
+
+  private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** The current entry for the key, or {@code null} on a miss. */
+  public Entry get(String region, String key) {
+    Region cached = region(region);
+    Entry entry = cached.entries.get(key);
+    if (entry != null && entry.generation == cached.generation.get()) {
+      counter(region, "hit").increment();
+      return entry;
+    }
+    counter(region, "miss").increment();
+    return null;
+  }
+
+  /** Generation to pass to {@link #put} once the response has been rendered. */
+  public long generation(String region) {
+    return region(region).generation.get();
+  }
+
+  public void put(String region, String key, long generation, byte[] json) {
+    Region cached = region(region);
+    if (generation != cached.generation.get()
+        || (cached.entries.size() >= maxEntries && !cached.entries.containsKey(key))) {
+      return;
+    }
+    cached.entries.put(key, new Entry(json, generation));
+  }
+
+  public void invalidate(String region) {
+    Region cached = region(region);
+    cached.generation.incrementAndGet();
+    cached.entries.clear();
+  }
+
+  void onStoreCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreCreatedEvent event) {
+    invalidate(STORES);
+  }
+
+  void onStoreUpdated(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreUpdatedEvent event) {
+    invalidate(STORES);
+  }
+
+  void onStoreDeleted(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreDeletedEvent event) {
+    invalidate(STORES);
+  }
+
+  void onProductCreated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+    invalidate(PRODUCTS);
+  }
+
+  void onProductUpdated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductUpdatedEvent event) {
+    invalidate(PRODUCTS);
+  }
+
+  void onProductDeleted(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductDeletedEvent event) {
+    invalidate(PRODUCTS);
+  }
+
+  void onWarehouseChanged(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChangedEvent event) {
+    invalidate(WAREHOUSES);
+  }
+
+  private Region region(String name) {
+    return regions.computeIfAbsent(name, n -> new Region());
+  }
+
+  private Counter counter(String region, String result) {
+    return meterRegistry.counter("response.cache.requests", "region", region, "result", result);
+  }
+
+  private static final class Region {
+
+    final AtomicLong generation = new AtomicLong();
+
+    final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  }
+
+  public static final class Entry {
+
+    private final byte[] json;
+
+    private final long generation;
+
+    // compressed on the first request that accepts it; a race only compresses twice
+    private volatile byte[] gzip;
+
+    Entry(byte[] json, long generation) {
+      this.json = json;
+      this.generation = generation;
+    }
+
+    public byte[] json() {
+      return json;
+    }
+
+    public byte[] gzip() {
+      byte[] compressed = gzip;
+      if (compressed == null) {
+        compressed = compress(json);
+        gzip = compressed;
+      }
+      return compressed;
+    }
+
+    private static byte[] compress(byte[] bytes) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+      try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+        out.write(bytes);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return buffer.toByteArray();
+    }
+  }
+}
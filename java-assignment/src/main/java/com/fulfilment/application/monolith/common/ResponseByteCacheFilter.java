@@ -0,0 +1,163 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers {@link CachedResponse} methods from the {@link ResponseByteCache}: a hit aborts the
+ * request with the stored bytes, a miss captures the bytes Jackson writes and stores them.
+ */
+@Provider
+public class ResponseByteCacheFilter
+    implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+  static final String CACHE_HEADER = "X-Response-Cache";
+
+  private static final String PENDING = ResponseByteCacheFilter.class.getName() + ".pending";
+
+  // resource method -> region; resolved once, also for methods declared on an interface
+  private static final Map<Method, Optional<String>> REGIONS = new ConcurrentHashMap<>();
+
+  @Context ResourceInfo resourceInfo;
+
+  @Inject ResponseByteCache cache;
+
+  @Override
+  public void filter(ContainerRequestContext request) {
+    if (!cache.isEnabled() || !HttpMethod.GET.equals(request.getMethod())) {
+      return;
+    }
+    String region = region();
+    if (region == null) {
+      return;
+    }
+    String key = key(request);
+    ResponseByteCache.Entry entry = cache.get(region, key);
+    if (entry == null) {
+      request.setProperty(PENDING, new Pending(region, key, cache.generation(region)));
+      return;
+    }
+    boolean gzip = acceptsGzip(request.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+    Response.ResponseBuilder response =
+        Response.ok(gzip ? entry.gzip() : entry.json(), MediaType.APPLICATION_JSON_TYPE)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .header(CACHE_HEADER, "hit");
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    request.abortWith(response.build());
+  }
+
+  @Override
+  public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+    if (request.getProperty(PENDING) == null) {
+      return;
+    }
+    if (response.getStatus() != 200) {
+      request.removeProperty(PENDING);
+      return;
+    }
+    response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    response.getHeaders().add(CACHE_HEADER, "miss");
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    Pending pending = (Pending) context.getProperty(PENDING);
+    if (pending == null) {
+      context.proceed();
+      return;
+    }
+    OutputStream out = context.getOutputStream();
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+    context.setOutputStream(buffer);
+    try {
+      context.proceed();
+    } finally {
+      context.setOutputStream(out);
+    }
+    byte[] json = buffer.toByteArray();
+    out.write(json);
+    cache.put(pending.region, pending.key, pending.generation, json);
+  }
+
+  private String region() {
+    Method method = resourceInfo.getResourceMethod();
+    if (method == null) {
+      return null;
+    }
+    Class<?> resourceClass = resourceInfo.getResourceClass();
+    return REGIONS
+        .computeIfAbsent(method, m -> Optional.ofNullable(annotation(resourceClass, m)))
+        .orElse(null);
+  }
+
+  private static String annotation(Class<?> resourceClass, Method method) {
+    CachedResponse cached = method.getAnnotation(CachedResponse.class);
+    if (cached == null && resourceClass != null) {
+      try {
+        cached =
+            resourceClass
+                .getMethod(method.getName(), method.getParameterTypes())
+                .getAnnotation(CachedResponse.class);
+      } catch (NoSuchMethodException e) {
+        return null;
+      }
+    }
+    return cached != null ? cached.value() : null;
+  }
+
+  /** Path plus query parameters in a stable order, so equivalent requests share an entry. */
+  static String key(ContainerRequestContext request) {
+    MultivaluedMap<String, String> parameters = request.getUriInfo().getQueryParameters();
+    String path = request.getUriInfo().getPath();
+    return parameters.isEmpty() ? path : path + "?" + new TreeMap<>(parameters);
+  }
+
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (parts[0].trim().equalsIgnoreCase("gzip")) {
+        return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  private static final class Pending {
+
+    final String region;
+    final String key;
+    final long generation;
+
+    Pending(String region, String key, long generation) {
+      this.region = region;
+      this.key = key;
+      this.generation = generation;
+    }
+  }
+}
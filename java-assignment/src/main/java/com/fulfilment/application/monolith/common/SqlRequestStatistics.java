@@ -0,0 +1,81 @@
+package com.fulfilment.application.monolith.common;
+
+/**
+ * The SQL work of the HTTP request on the current thread: the statements it executed, the rows
+ * its queries returned and the time spent executing them. {@link SqlStatementListener} and {@link
+ * SqlRowStatisticsFactory} feed it from Hibernate; {@link SqlRequestStatisticsFilter} starts it
+ * and reports it. Blocking endpoints run their filters, transaction and session on one worker
+ * thread, so a tally per thread is enough, and each thread reuses its own.
+ */
+public final class SqlRequestStatistics {
+
+  static final String HEADER = "X-Sql-Stats";
+
+  private static final ThreadLocal<SqlRequestStatistics> CURRENT =
+      ThreadLocal.withInitial(SqlRequestStatistics::new);
+
+  private boolean active;
+
+  private int statements;
+
+  private long rows;
+
+  private long nanos;
+
+  private long statementStart;
+
+  private SqlRequestStatistics() {}
+
+  static SqlRequestStatistics start() {
+    SqlRequestStatistics statistics = CURRENT.get();
+    statistics.active = true;
+    statistics.statements = 0;
+    statistics.rows = 0;
+    statistics.nanos = 0;
+    statistics.statementStart = 0;
+    return statistics;
+  }
+
+  /** The tally of the request on this thread, or {@code null} outside of a request. */
+  static SqlRequestStatistics current() {
+    SqlRequestStatistics statistics = CURRENT.get();
+    return statistics.active ? statistics : null;
+  }
+
+  void stop() {
+    active = false;
+  }
+
+  void statementStarted() {
+    statements++;
+    statementStart = System.nanoTime();
+  }
+
+  void statementEnded() {
+    if (statementStart != 0) {
+      nanos += System.nanoTime() - statementStart;
+      statementStart = 0;
+    }
+  }
+
+  void rowsReturned(int count) {
+    rows += count;
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  public long rows() {
+    return rows;
+  }
+
+  public long nanos() {
+    return nanos;
+  }
+
+  /** The {@value #HEADER} header value, e.g. {@code statements=4, rows=12, time-us=830}. */
+  String header() {
+    return "statements=" + statements + ", rows=" + rows + ", time-us=" + nanos / 1000;
+  }
+}
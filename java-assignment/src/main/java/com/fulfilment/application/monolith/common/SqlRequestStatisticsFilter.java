@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Tallies the SQL work of each request and records it per resource method as {@code
+ * request.sql.statements}, {@code request.sql.rows} and {@code request.sql.time}. With {@code
+ * sql.stats.header} (dev and test) the tally is also returned in the {@value
+ * SqlRequestStatistics#HEADER} header, which tests check statement budgets against. Runs before
+ * the other filters and, for the response, after them.
+ */
+@Provider
+@Priority(Priorities.USER - 100)
+public class SqlRequestStatisticsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+  private record Meters(DistributionSummary statements, DistributionSummary rows, Timer time) {}
+
+  @ConfigProperty(name = "sql.stats.header", defaultValue = "false")
+  boolean header;
+
+  @Context ResourceInfo resourceInfo;
+
+  @Inject MeterRegistry meterRegistry;
+
+  // resource method -> meters, registered on its first request
+  private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+  @Override
+  public void filter(ContainerRequestContext request) {
+    SqlRequestStatistics.start();
+  }
+
+  @Override
+  public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+    SqlRequestStatistics statistics = SqlRequestStatistics.current();
+    if (statistics == null) {
+      return;
+    }
+    statistics.stop();
+    Method method = resourceInfo.getResourceMethod();
+    if (method != null) {
+      Meters methodMeters = meters.get(method);
+      if (methodMeters == null) {
+        methodMeters = meters.computeIfAbsent(method, this::register);
+      }
+      methodMeters.statements().record(statistics.statements());
+      methodMeters.rows().record(statistics.rows());
+      methodMeters.time().record(statistics.nanos(), TimeUnit.NANOSECONDS);
+    }
+    if (header) {
+      response.getHeaders().putSingle(SqlRequestStatistics.HEADER, statistics.header());
+    }
+  }
+
+  private Meters register(Method method) {
+    String resource = resourceInfo.getResourceClass().getSimpleName();
+    return new Meters(
+        DistributionSummary.builder("request.sql.statements")
+            .tag("class", resource)
+            .tag("method", method.getName())
+            .register(meterRegistry),
+        DistributionSummary.builder("request.sql.rows")
+            .tag("class", resource)
+            .tag("method", method.getName())
+            .register(meterRegistry),
+        Timer.builder("request.sql.time")
+            .tag("class", resource)
+            .tag("method", method.getName())
+            .register(meterRegistry));
+  }
+}
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.common;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts and times the JDBC statements and batches of every Hibernate session into the {@link
+ * SqlRequestStatistics} of the current request. Hibernate creates one per session, see {@code
+ * hibernate.session.events.auto} in application.properties.
+ */
+public class SqlStatementListener implements SessionEventListener {
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    started();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    ended();
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    started();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    ended();
+  }
+
+  private static void started() {
+    SqlRequestStatistics statistics = SqlRequestStatistics.current();
+    if (statistics != null) {
+      statistics.statementStarted();
+    }
+  }
+
+  private static void ended() {
+    SqlRequestStatistics statistics = SqlRequestStatistics.current();
+    if (statistics != null) {
+      statistics.statementEnded();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.fulfilment.application.monolith.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the validation rules: {@code validation.rule} times each rule by outcome and {@code
+ * validation.rejections} counts rejections by rule and reason. Validators register each rule with
+ * the reasons it can reject for once, so checking a rule records to existing meters without
+ * allocating.
+ */
+@ApplicationScoped
+public class ValidationMetrics {
+
+  /** Why a rule rejected; {@link #code} is the {@code reason} tag. */
+  public interface Reason {
+
+    String code();
+  }
+
+  private final MeterRegistry meterRegistry;
+
+  public ValidationMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <R extends Reason> Rule<R> rule(String name, Set<R> reasons) {
+    Map<R, Counter> rejections = new HashMap<>();
+    for (R reason : reasons) {
+      rejections.put(
+          reason,
+          Counter.builder("validation.rejections")
+              .tag("rule", name)
+              .tag("reason", reason.code())
+              .register(meterRegistry));
+    }
+    return new Rule<>(
+        name,
+        Timer.builder("validation.rule")
+            .tag("rule", name)
+            .tag("outcome", "passed")
+            .register(meterRegistry),
+        Timer.builder("validation.rule")
+            .tag("rule", name)
+            .tag("outcome", "rejected")
+            .register(meterRegistry),
+        rejections);
+  }
+
+  /**
+   * The timers and rejection counters of one rule; {@code start} is the {@link System#nanoTime()}
+   * the check began.
+   */
+  public static final class Rule<R extends Reason> {
+
+    private final String name;
+
+    private final Timer passed;
+
+    private final Timer rejected;
+
+    private final Map<R, Counter> rejections;
+
+    Rule(String name, Timer passed, Timer rejected, Map<R, Counter> rejections) {
+      this.name = name;
+      this.passed = passed;
+      this.rejected = rejected;
+      this.rejections = rejections;
+    }
+
+    public void passed(long start) {
+      passed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void rejected(long start, R reason) {
+      rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      Counter counter = rejections.get(reason);
+      if (counter == null) {
+        throw new IllegalArgumentException(
+            "Rule " + name + " has no rejection reason " + reason.code());
+      }
+      counter.increment();
+    }
+  }
+}
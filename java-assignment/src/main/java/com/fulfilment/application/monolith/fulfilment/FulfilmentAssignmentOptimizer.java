@@ -0,0 +1,364 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static com.fulfilment.application.monolith.fulfilment.FulfilmentService.MAX_PRODUCTS_PER_WAREHOUSE;
+import static com.fulfilment.application.monolith.fulfilment.FulfilmentService.MAX_WAREHOUSES_PER_STORE;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.jboss.logging.Logger;
+
+/**
+ * Proposes warehouses for uncovered (store, product) demand while staying within the limits
+ * enforced by {@link FulfilmentService}. Every worker of a dedicated fork-join pool builds a greedy
+ * solution from a differently perturbed demand order and then improves it with ruin-and-recreate
+ * moves until the time budget runs out or it stops finding improvements; the best one wins.
+ */
+@ApplicationScoped
+public class FulfilmentAssignmentOptimizer {
+
+  private static final Logger LOGGER = Logger.getLogger(FulfilmentAssignmentOptimizer.class);
+
+  static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(2);
+  static final Duration MAX_TIME_BUDGET = Duration.ofSeconds(30);
+
+  private static final int MAX_RUIN_SIZE = 8;
+  private static final int RECREATE_SAMPLE_SIZE = 16;
+  private static final int MAX_ITERATIONS_WITHOUT_IMPROVEMENT = 20_000;
+
+  @Inject FulfilmentRepository fulfilmentRepository;
+
+  @Inject WarehouseStore warehouseStore;
+
+  private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  public FulfilmentOptimization optimize(List<FulfilmentDemand> demands, Duration timeBudget) {
+    return optimize(
+        demands, fulfilmentRepository.listAll(), warehouseStore.getAll(), timeBudget);
+  }
+
+  FulfilmentOptimization optimize(
+      List<FulfilmentDemand> demands,
+      List<Fulfilment> existing,
+      List<Warehouse> warehouses,
+      Duration timeBudget) {
+    long start = System.nanoTime();
+    long deadline = start + timeBudget.toNanos();
+    Problem problem = new Problem(demands, existing, warehouses);
+
+    Solution best =
+        pool.submit(
+                () ->
+                    IntStream.range(0, pool.getParallelism())
+                        .parallel()
+                        .mapToObj(seed -> search(problem, seed, deadline))
+                        .max(Comparator.comparingDouble(s -> s.score))
+                        .orElseThrow())
+            .join();
+
+    FulfilmentOptimization result = new FulfilmentOptimization();
+    result.assignments = new ArrayList<>();
+    result.requestedDemand = problem.requestedDemand;
+    result.coveredDemand = problem.alreadyCoveredDemand;
+    for (int d = 0; d < problem.demandCount(); d++) {
+      int w = best.chosen[d];
+      if (w >= 0) {
+        Fulfilment fulfilment = new Fulfilment();
+        fulfilment.storeId = problem.storeIds.get(problem.demandStore[d]);
+        fulfilment.productId = problem.productIds.get(problem.demandProduct[d]);
+        fulfilment.warehouseBusinessUnitCode = problem.warehouseCodes.get(w);
+        result.assignments.add(fulfilment);
+        result.coveredDemand += problem.demandQuantity[d];
+      }
+    }
+    result.score = best.score;
+    result.iterations = best.iterations;
+    result.elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+    LOGGER.infof(
+        "Fulfilment optimization finished: demands=%d, assignments=%d, covered=%d/%d, elapsed=%dms",
+        problem.demandCount(),
+        result.assignments.size(),
+        result.coveredDemand,
+        result.requestedDemand,
+        result.elapsedMillis);
+    return result;
+  }
+
+  private Solution search(Problem problem, int seed, long deadline) {
+    SplittableRandom random = new SplittableRandom(seed);
+    Solution solution = new Solution(problem);
+    if (problem.demandCount() == 0 || problem.candidates.length == 0) {
+      return solution;
+    }
+
+    // seed 0 is the plain greedy order; the other workers perturb demand quantities for diversity
+    double[] priority = new double[problem.demandCount()];
+    for (int d = 0; d < priority.length; d++) {
+      double noise = seed == 0 ? 1.0 : 0.5 + random.nextDouble();
+      priority[d] = problem.demandQuantity[d] * noise;
+    }
+    IntStream.range(0, problem.demandCount())
+        .boxed()
+        .sorted(Comparator.comparingDouble((Integer d) -> priority[d]).reversed())
+        .forEach(d -> solution.insertBest(d, random, seed != 0));
+
+    List<Integer> removed = new ArrayList<>();
+    List<Integer> removedWarehouses = new ArrayList<>();
+    List<Integer> inserted = new ArrayList<>();
+    int withoutImprovement = 0;
+    while (System.nanoTime() < deadline
+        && withoutImprovement < MAX_ITERATIONS_WITHOUT_IMPROVEMENT) {
+      solution.iterations++;
+      double before = solution.score;
+      removed.clear();
+      removedWarehouses.clear();
+      inserted.clear();
+
+      // ruin: drop a few random assignments
+      int ruinSize = 1 + random.nextInt(MAX_RUIN_SIZE);
+      for (int i = 0; i < ruinSize; i++) {
+        int d = random.nextInt(problem.demandCount());
+        if (solution.chosen[d] >= 0) {
+          removedWarehouses.add(solution.chosen[d]);
+          removed.add(d);
+          solution.unassign(d);
+        }
+      }
+
+      // recreate: reinsert the removed demand together with a sample of uncovered demand
+      Set<Integer> candidates = new HashSet<>(removed);
+      for (int i = 0; i < RECREATE_SAMPLE_SIZE; i++) {
+        int d = random.nextInt(problem.demandCount());
+        if (solution.chosen[d] < 0) {
+          candidates.add(d);
+        }
+      }
+      candidates.stream()
+          .sorted(Comparator.comparingLong((Integer d) -> problem.demandQuantity[d]).reversed())
+          .forEach(
+              d -> {
+                if (solution.insertBest(d, random, true)) {
+                  inserted.add(d);
+                }
+              });
+
+      if (solution.score > before + 1e-9) {
+        withoutImprovement = 0;
+      } else {
+        withoutImprovement++;
+        for (int i = inserted.size() - 1; i >= 0; i--) {
+          solution.unassign(inserted.get(i));
+        }
+        for (int i = removed.size() - 1; i >= 0; i--) {
+          solution.assign(removed.get(i), removedWarehouses.get(i));
+        }
+      }
+    }
+    return solution;
+  }
+
+  private static long key(int high, int low) {
+    return ((long) high << 32) | (low & 0xffffffffL);
+  }
+
+  /** Immutable view of the demand, the candidate warehouses and the already existing fulfilments. */
+  static final class Problem {
+
+    final List<Long> storeIds = new ArrayList<>();
+    final List<Long> productIds = new ArrayList<>();
+    final List<String> warehouseCodes = new ArrayList<>();
+
+    private final Map<Long, Integer> storeIndex = new HashMap<>();
+    private final Map<Long, Integer> productIndex = new HashMap<>();
+    private final Map<String, Integer> warehouseIndex = new HashMap<>();
+
+    int[] demandStore;
+    int[] demandProduct;
+    long[] demandQuantity;
+    long requestedDemand;
+    long alreadyCoveredDemand;
+
+    // candidate warehouses ordered by descending weight
+    int[] candidates;
+    double[] weight;
+
+    final Map<Long, Integer> baseWarehouseProductRefs = new HashMap<>();
+    final Map<Long, Integer> baseStoreWarehouseRefs = new HashMap<>();
+
+    Problem(List<FulfilmentDemand> demands, List<Fulfilment> existing, List<Warehouse> warehouses) {
+      Set<Long> coveredPairs = new HashSet<>();
+      for (Fulfilment fulfilment : existing) {
+        int s = index(storeIndex, storeIds, fulfilment.storeId);
+        int p = index(productIndex, productIds, fulfilment.productId);
+        int w = index(warehouseIndex, warehouseCodes, fulfilment.warehouseBusinessUnitCode);
+        baseWarehouseProductRefs.merge(key(w, p), 1, Integer::sum);
+        baseStoreWarehouseRefs.merge(key(s, w), 1, Integer::sum);
+        coveredPairs.add(key(s, p));
+      }
+
+      List<Warehouse> usable =
+          warehouses.stream().filter(w -> headroom(w) > 0).toList();
+      int maxHeadroom = usable.stream().mapToInt(Problem::headroom).max().orElse(1);
+      List<Warehouse> ordered =
+          usable.stream()
+              .sorted(Comparator.comparingInt(Problem::headroom).reversed())
+              .toList();
+      candidates = new int[ordered.size()];
+      for (int i = 0; i < ordered.size(); i++) {
+        candidates[i] = index(warehouseIndex, warehouseCodes, ordered.get(i).businessUnitCode);
+      }
+      weight = new double[warehouseCodes.size()];
+      for (Warehouse warehouse : ordered) {
+        weight[warehouseIndex.get(warehouse.businessUnitCode)] =
+            (double) headroom(warehouse) / maxHeadroom;
+      }
+
+      Map<Long, Long> quantityByPair = new LinkedHashMap<>();
+      for (FulfilmentDemand demand : demands) {
+        int s = index(storeIndex, storeIds, demand.storeId);
+        int p = index(productIndex, productIds, demand.productId);
+        requestedDemand += demand.quantity;
+        if (coveredPairs.contains(key(s, p))) {
+          alreadyCoveredDemand += demand.quantity;
+        } else {
+          quantityByPair.merge(key(s, p), demand.quantity, Long::sum);
+        }
+      }
+      demandStore = new int[quantityByPair.size()];
+      demandProduct = new int[quantityByPair.size()];
+      demandQuantity = new long[quantityByPair.size()];
+      int d = 0;
+      for (Map.Entry<Long, Long> entry : quantityByPair.entrySet()) {
+        demandStore[d] = (int) (entry.getKey() >>> 32);
+        demandProduct[d] = (int) (long) entry.getKey();
+        demandQuantity[d] = entry.getValue();
+        d++;
+      }
+    }
+
+    int demandCount() {
+      return demandQuantity.length;
+    }
+
+    private static int headroom(Warehouse warehouse) {
+      int capacity = warehouse.capacity != null ? warehouse.capacity : 0;
+      int stock = warehouse.stock != null ? warehouse.stock : 0;
+      return capacity - stock;
+    }
+
+    private static <K> int index(Map<K, Integer> indexes, List<K> values, K value) {
+      return indexes.computeIfAbsent(
+          value,
+          v -> {
+            values.add(v);
+            return values.size() - 1;
+          });
+    }
+  }
+
+  /** Mutable assignment owned by a single worker, with reference counts for the limits. */
+  static final class Solution {
+
+    private final Problem problem;
+    final int[] chosen;
+    private final Map<Long, Integer> warehouseProductRefs;
+    private final Map<Long, Integer> storeWarehouseRefs;
+    private final int[] distinctProducts;
+    private final int[] distinctWarehouses;
+    double score;
+    long iterations;
+
+    Solution(Problem problem) {
+      this.problem = problem;
+      this.chosen = new int[problem.demandCount()];
+      Arrays.fill(chosen, -1);
+      this.warehouseProductRefs = new HashMap<>(problem.baseWarehouseProductRefs);
+      this.storeWarehouseRefs = new HashMap<>(problem.baseStoreWarehouseRefs);
+      this.distinctProducts = new int[problem.warehouseCodes.size()];
+      this.distinctWarehouses = new int[problem.storeIds.size()];
+      warehouseProductRefs.keySet().forEach(k -> distinctProducts[(int) (k >>> 32)]++);
+      storeWarehouseRefs.keySet().forEach(k -> distinctWarehouses[(int) (k >>> 32)]++);
+    }
+
+    boolean insertBest(int d, SplittableRandom random, boolean randomized) {
+      int fallback = -1;
+      for (int w : problem.candidates) {
+        if (feasible(d, w)) {
+          // occasionally pass over the best warehouse so workers explore different solutions
+          if (randomized && fallback < 0 && random.nextInt(5) == 0) {
+            fallback = w;
+            continue;
+          }
+          assign(d, w);
+          return true;
+        }
+      }
+      if (fallback >= 0) {
+        assign(d, fallback);
+        return true;
+      }
+      return false;
+    }
+
+    boolean feasible(int d, int w) {
+      int s = problem.demandStore[d];
+      int p = problem.demandProduct[d];
+      boolean storeAllows =
+          storeWarehouseRefs.containsKey(key(s, w))
+              || distinctWarehouses[s] < MAX_WAREHOUSES_PER_STORE;
+      boolean warehouseAllows =
+          warehouseProductRefs.containsKey(key(w, p))
+              || distinctProducts[w] < MAX_PRODUCTS_PER_WAREHOUSE;
+      return storeAllows && warehouseAllows;
+    }
+
+    void assign(int d, int w) {
+      int s = problem.demandStore[d];
+      int p = problem.demandProduct[d];
+      if (warehouseProductRefs.merge(key(w, p), 1, Integer::sum) == 1) {
+        distinctProducts[w]++;
+      }
+      if (storeWarehouseRefs.merge(key(s, w), 1, Integer::sum) == 1) {
+        distinctWarehouses[s]++;
+      }
+      chosen[d] = w;
+      score += problem.demandQuantity[d] * problem.weight[w];
+    }
+
+    void unassign(int d) {
+      int w = chosen[d];
+      int s = problem.demandStore[d];
+      int p = problem.demandProduct[d];
+      if (warehouseProductRefs.merge(key(w, p), -1, Integer::sum) == 0) {
+        warehouseProductRefs.remove(key(w, p));
+        distinctProducts[w]--;
+      }
+      if (storeWarehouseRefs.merge(key(s, w), -1, Integer::sum) == 0) {
+        storeWarehouseRefs.remove(key(s, w));
+        distinctWarehouses[s]--;
+      }
+      chosen[d] = -1;
+      score -= problem.demandQuantity[d] * problem.weight[w];
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+@Path("fulfilment/availability")
+@ApplicationScoped
+@Produces("application/json")
+public class FulfilmentAvailabilityResource {
+
+  @Inject FulfilmentAvailabilityView availabilityView;
+
+  @GET
+  @Path("store/{storeId}")
+  public List<ProductAvailability> assortment(Long storeId) {
+    return availabilityView.assortment(storeId);
+  }
+
+  @GET
+  @Path("store/{storeId}/product/{productId}")
+  public ProductAvailability availability(Long storeId, Long productId) {
+    ProductAvailability availability = availabilityView.availability(storeId, productId);
+    if (availability == null) {
+      throw new FulfilmentNotFoundException(
+          "Product " + productId + " is not fulfilled for store " + storeId);
+    }
+    return availability;
+  }
+
+  @POST
+  @Path("rebuild")
+  public Response rebuild() {
+    availabilityView.rebuild();
+    return Response.status(204).build();
+  }
+}
@@ -0,0 +1,260 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jboss.logging.Logger;
+
+/**
+ * Materialized store x product availability: the warehouses fulfilling each product for a store
+ * and their summed stock, kept in sync through the after-commit fulfilment and warehouse events.
+ * Entries are immutable and replaced on change, so a lookup is a pair of hash probes and the
+ * result can be handed out without copying.
+ *
+ * <p>A rebuild reads the tables without holding the lock. Changes committed meanwhile are applied
+ * as usual and also buffered, then replayed on top of what the rebuild read; every change is
+ * idempotent, so replaying one the rebuild already saw is harmless.
+ */
+@ApplicationScoped
+public class FulfilmentAvailabilityView {
+
+  private static final Logger LOGGER = Logger.getLogger(FulfilmentAvailabilityView.class);
+
+  @Inject FulfilmentRepository fulfilmentRepository;
+
+  @Inject WarehouseStore warehouseStore;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // store -> product -> availability
+  private final Map<Long, Map<Long, ProductAvailability>> availabilityByProductByStore =
+      new HashMap<>();
+
+  // warehouse -> store -> products, to find the entries affected by a stock change
+  private final Map<String, Map<Long, Set<Long>>> productsByStoreByWarehouse = new HashMap<>();
+
+  // stock of the active warehouse per business unit code
+  private final Map<String, Integer> stockByWarehouse = new HashMap<>();
+
+  // changes committed while a rebuild reads the tables, null when no rebuild is running
+  private List<Runnable> pending;
+
+  private volatile boolean loaded;
+
+  public synchronized void rebuild() {
+    beginRebuild();
+    try {
+      List<Warehouse> warehouses = warehouseStore.getAll();
+      List<Fulfilment> fulfilments = fulfilmentRepository.listAll();
+      load(warehouses, fulfilments);
+      LOGGER.infof(
+          "Fulfilment availability view built: warehouses=%d, fulfilments=%d",
+          warehouses.size(), fulfilments.size());
+    } finally {
+      lock.writeLock().lock();
+      try {
+        pending = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /** Starts buffering committed changes for the {@link #load} of a rebuild. */
+  void beginRebuild() {
+    lock.writeLock().lock();
+    try {
+      pending = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void load(Collection<Warehouse> warehouses, Collection<Fulfilment> fulfilments) {
+    lock.writeLock().lock();
+    try {
+      availabilityByProductByStore.clear();
+      productsByStoreByWarehouse.clear();
+      stockByWarehouse.clear();
+      warehouses.forEach(w -> stockByWarehouse.put(w.businessUnitCode, stockOf(w)));
+      fulfilments.forEach(this::addUnderLock);
+      if (pending != null) {
+        pending.forEach(Runnable::run);
+        pending.clear();
+      }
+      loaded = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void onFulfilmentCreated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) FulfilmentCreatedEvent event) {
+    Fulfilment fulfilment = event.getFulfilment();
+    apply(() -> addUnderLock(fulfilment));
+  }
+
+  public void onFulfilmentDeleted(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) FulfilmentDeletedEvent event) {
+    Fulfilment fulfilment = event.getFulfilment();
+    apply(() -> removeUnderLock(fulfilment));
+  }
+
+  public void onWarehouseChanged(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChangedEvent event) {
+    Warehouse warehouse = event.getWarehouse();
+    apply(() -> changeWarehouseUnderLock(warehouse));
+  }
+
+  /** Availability of a product for a store, or {@code null} when no warehouse fulfils it. */
+  public ProductAvailability availability(Long storeId, Long productId) {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      return availabilityByProductByStore.getOrDefault(storeId, Map.of()).get(productId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Availability of every product fulfilled for the store, ordered by product id. */
+  public List<ProductAvailability> assortment(Long storeId) {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      List<ProductAvailability> result =
+          new ArrayList<>(availabilityByProductByStore.getOrDefault(storeId, Map.of()).values());
+      result.sort(Comparator.comparing(availability -> availability.productId));
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void ensureLoaded() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          rebuild();
+        }
+      }
+    }
+  }
+
+  private void apply(Runnable change) {
+    lock.writeLock().lock();
+    try {
+      if (loaded) {
+        change.run();
+      }
+      if (pending != null) {
+        pending.add(change);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void changeWarehouseUnderLock(Warehouse warehouse) {
+    // an archived warehouse no longer contributes; its replacement reuses the code
+    Integer stock = warehouse.archivedAt == null ? stockOf(warehouse) : null;
+    Integer previous =
+        stock != null
+            ? stockByWarehouse.put(warehouse.businessUnitCode, stock)
+            : stockByWarehouse.remove(warehouse.businessUnitCode);
+    if (stock == null ? previous == null : stock.equals(previous)) {
+      return;
+    }
+    productsByStoreByWarehouse
+        .getOrDefault(warehouse.businessUnitCode, Map.of())
+        .forEach(
+            (storeId, productIds) ->
+                productIds.forEach(productId -> refreshUnderLock(storeId, productId, null)));
+  }
+
+  private void addUnderLock(Fulfilment fulfilment) {
+    productsByStoreByWarehouse
+        .computeIfAbsent(fulfilment.warehouseBusinessUnitCode, code -> new HashMap<>())
+        .computeIfAbsent(fulfilment.storeId, id -> new HashSet<>())
+        .add(fulfilment.productId);
+    refreshUnderLock(
+        fulfilment.storeId, fulfilment.productId, fulfilment.warehouseBusinessUnitCode);
+  }
+
+  private void removeUnderLock(Fulfilment fulfilment) {
+    Map<Long, Set<Long>> productsByStore =
+        productsByStoreByWarehouse.get(fulfilment.warehouseBusinessUnitCode);
+    if (productsByStore == null) {
+      return;
+    }
+    Set<Long> productIds = productsByStore.get(fulfilment.storeId);
+    if (productIds == null || !productIds.remove(fulfilment.productId)) {
+      return;
+    }
+    if (productIds.isEmpty()) {
+      productsByStore.remove(fulfilment.storeId);
+    }
+    if (productsByStore.isEmpty()) {
+      productsByStoreByWarehouse.remove(fulfilment.warehouseBusinessUnitCode);
+    }
+    refreshUnderLock(fulfilment.storeId, fulfilment.productId, null);
+  }
+
+  /**
+   * Replaces the entry for a store and product with one built from the warehouses still
+   * fulfilling it (plus {@code addedWarehouse}, if any) and their current stock.
+   */
+  private void refreshUnderLock(Long storeId, Long productId, String addedWarehouse) {
+    Map<Long, ProductAvailability> byProduct =
+        availabilityByProductByStore.computeIfAbsent(storeId, id -> new HashMap<>());
+    ProductAvailability current = byProduct.get(productId);
+
+    Set<String> codes = new TreeSet<>();
+    if (current != null) {
+      current.warehouses.forEach(source -> codes.add(source.businessUnitCode));
+    }
+    if (addedWarehouse != null) {
+      codes.add(addedWarehouse);
+    }
+    codes.removeIf(code -> !fulfils(code, storeId, productId));
+
+    if (codes.isEmpty()) {
+      byProduct.remove(productId);
+      if (byProduct.isEmpty()) {
+        availabilityByProductByStore.remove(storeId);
+      }
+      return;
+    }
+    List<ProductAvailability.Source> sources = new ArrayList<>(codes.size());
+    for (String code : codes) {
+      sources.add(new ProductAvailability.Source(code, stockByWarehouse.getOrDefault(code, 0)));
+    }
+    byProduct.put(productId, new ProductAvailability(storeId, productId, sources));
+  }
+
+  private boolean fulfils(String warehouse, Long storeId, Long productId) {
+    return productsByStoreByWarehouse
+        .getOrDefault(warehouse, Map.of())
+        .getOrDefault(storeId, Set.of())
+        .contains(productId);
+  }
+
+  private static int stockOf(Warehouse warehouse) {
+    return warehouse.stock != null ? warehouse.stock : 0;
+  }
+}
@@ -0,0 +1,30 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+public class FulfilmentCoverage {
+
+  public int total;
+
+  public List<Long> ids;
+
+  public FulfilmentCoverage() {}
+
+  public FulfilmentCoverage(int total, List<Long> ids) {
+    this.total = total;
+    this.ids = ids;
+  }
+
+  public static FulfilmentCoverage of(RoaringBitmap bitmap, int limit) {
+    int total = bitmap.getCardinality();
+    List<Long> ids = new ArrayList<>(Math.min(limit, total));
+    IntIterator iterator = bitmap.getIntIterator();
+    while (iterator.hasNext() && ids.size() < limit) {
+      ids.add((long) iterator.next());
+    }
+    return new FulfilmentCoverage(total, ids);
+  }
+}
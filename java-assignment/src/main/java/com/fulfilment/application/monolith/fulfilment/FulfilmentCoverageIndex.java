@@ -0,0 +1,347 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.products.ProductCreatedEvent;
+import com.fulfilment.application.monolith.products.ProductDeletedEvent;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreCreatedEvent;
+import com.fulfilment.application.monolith.stores.StoreDeletedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jboss.logging.Logger;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * In-memory store x product coverage bitmaps, kept in sync with the fulfilment, store and product
+ * tables through their after-commit events. Bitmaps are compressed (Roaring) and keyed by product
+ * first, so a sparse set costs about two bytes per member, a dense range a few bytes per run, and
+ * products without fulfilments take no space at all.
+ *
+ * <p>A rebuild reads the tables without holding the lock. Changes committed meanwhile are applied
+ * to the current bitmaps as usual and also buffered, then replayed on top of what the rebuild
+ * read; every change is idempotent, so replaying one the rebuild already saw is harmless.
+ * Changes that fire no events, like a product import, {@link #invalidate} the index instead.
+ */
+@ApplicationScoped
+public class FulfilmentCoverageIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(FulfilmentCoverageIndex.class);
+
+  @Inject FulfilmentRepository fulfilmentRepository;
+
+  @Inject ProductRepository productRepository;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final RoaringBitmap stores = new RoaringBitmap();
+
+  private final RoaringBitmap products = new RoaringBitmap();
+
+  // product -> warehouse -> stores fulfilled by that warehouse for the product
+  private final Map<Integer, Map<String, RoaringBitmap>> storesByWarehouseByProduct =
+      new HashMap<>();
+
+  // warehouse -> products it fulfils for at least one store
+  private final Map<String, RoaringBitmap> productsByWarehouse = new HashMap<>();
+
+  // store -> products fulfilled by at least one warehouse
+  private final Map<Integer, RoaringBitmap> coveredProductsByStore = new HashMap<>();
+
+  // changes committed while a rebuild reads the tables, null when no rebuild is running
+  private List<Runnable> pending;
+
+  // set when the index is invalidated during a rebuild, whose tables may predate the change
+  private boolean stale;
+
+  private volatile boolean loaded;
+
+  public synchronized void rebuild() {
+    beginRebuild();
+    try {
+      List<Long> storeIds = Store.listIds();
+      List<Long> productIds = productRepository.listIds();
+      List<Fulfilment> fulfilments = fulfilmentRepository.listAll();
+      load(storeIds, productIds, fulfilments);
+      LOGGER.infof(
+          "Fulfilment coverage index built: stores=%d, products=%d, fulfilments=%d",
+          storeIds.size(), productIds.size(), fulfilments.size());
+    } finally {
+      lock.writeLock().lock();
+      try {
+        pending = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /** Starts buffering committed changes for the {@link #load} of a rebuild. */
+  void beginRebuild() {
+    lock.writeLock().lock();
+    try {
+      pending = new ArrayList<>();
+      stale = false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void load(
+      Collection<Long> storeIds, Collection<Long> productIds, Collection<Fulfilment> fulfilments) {
+    lock.writeLock().lock();
+    try {
+      stores.clear();
+      products.clear();
+      storesByWarehouseByProduct.clear();
+      productsByWarehouse.clear();
+      coveredProductsByStore.clear();
+      storeIds.forEach(id -> stores.add(index(id)));
+      productIds.forEach(id -> products.add(index(id)));
+      fulfilments.forEach(this::addUnderLock);
+      if (pending != null) {
+        pending.forEach(Runnable::run);
+        pending.clear();
+      }
+      stores.runOptimize();
+      products.runOptimize();
+      loaded = !stale;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Drops the index after changes that fire no events; the next query rebuilds it. A rebuild
+   * running meanwhile still completes, but leaves the index unloaded.
+   */
+  public void invalidate() {
+    lock.writeLock().lock();
+    try {
+      loaded = false;
+      stale = pending != null;
+      stores.clear();
+      products.clear();
+      storesByWarehouseByProduct.clear();
+      productsByWarehouse.clear();
+      coveredProductsByStore.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void onFulfilmentCreated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) FulfilmentCreatedEvent event) {
+    Fulfilment fulfilment = event.getFulfilment();
+    apply(() -> addUnderLock(fulfilment));
+  }
+
+  public void onFulfilmentDeleted(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) FulfilmentDeletedEvent event) {
+    Fulfilment fulfilment = event.getFulfilment();
+    apply(() -> removeUnderLock(fulfilment));
+  }
+
+  public void onStoreCreated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) StoreCreatedEvent event) {
+    int storeId = index(event.getStore().id);
+    apply(() -> stores.add(storeId));
+  }
+
+  public void onStoreDeleted(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) StoreDeletedEvent event) {
+    int storeId = index(event.getStore().id);
+    apply(() -> stores.remove(storeId));
+  }
+
+  public void onProductCreated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+    int productId = index(event.getProduct().id);
+    apply(() -> products.add(productId));
+  }
+
+  public void onProductDeleted(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductDeletedEvent event) {
+    int productId = index(event.getProduct().id);
+    apply(() -> products.remove(productId));
+  }
+
+  /** Stores that have no warehouse fulfilling the given product. */
+  public RoaringBitmap uncoveredStores(Long productId) {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      RoaringBitmap result = stores.clone();
+      storesByWarehouseByProduct
+          .getOrDefault(index(productId), Map.of())
+          .values()
+          .forEach(result::andNot);
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Products that no warehouse fulfils for the given store. */
+  public RoaringBitmap uncoveredProducts(Long storeId) {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      RoaringBitmap result = products.clone();
+      RoaringBitmap covered = coveredProductsByStore.get(index(storeId));
+      if (covered != null) {
+        result.andNot(covered);
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Stores for which exactly one warehouse fulfils the given product. */
+  public RoaringBitmap singleSourcedStores(Long productId) {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      return singleSourcedUnderLock(
+          storesByWarehouseByProduct.getOrDefault(index(productId), Map.of()).values());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Number of single-sourced stores per product, for every product that has at least one. */
+  public Map<Long, Integer> singleSourcedStoreCounts() {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      Map<Long, Integer> counts = new TreeMap<>();
+      storesByWarehouseByProduct.forEach(
+          (productId, storesByWarehouse) -> {
+            int count = singleSourcedUnderLock(storesByWarehouse.values()).getCardinality();
+            if (count > 0) {
+              counts.put(productId.longValue(), count);
+            }
+          });
+      return counts;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Warehouses already fulfilling the maximum number of distinct products. */
+  public List<String> saturatedWarehouses() {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      return productsByWarehouse.entrySet().stream()
+          .filter(
+              e -> e.getValue().getCardinality() >= FulfilmentService.MAX_PRODUCTS_PER_WAREHOUSE)
+          .map(Map.Entry::getKey)
+          .sorted()
+          .toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void ensureLoaded() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          rebuild();
+        }
+      }
+    }
+  }
+
+  /** Applies a committed change now if loaded, and again after a running rebuild. */
+  private void apply(Runnable change) {
+    lock.writeLock().lock();
+    try {
+      if (loaded) {
+        change.run();
+      }
+      if (pending != null) {
+        pending.add(change);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private RoaringBitmap singleSourcedUnderLock(Collection<RoaringBitmap> storesPerWarehouse) {
+    RoaringBitmap once = new RoaringBitmap();
+    RoaringBitmap twice = new RoaringBitmap();
+    for (RoaringBitmap warehouseStores : storesPerWarehouse) {
+      twice.or(RoaringBitmap.and(once, warehouseStores));
+      once.or(warehouseStores);
+    }
+    once.andNot(twice);
+    return once;
+  }
+
+  private void addUnderLock(Fulfilment fulfilment) {
+    int storeId = index(fulfilment.storeId);
+    int productId = index(fulfilment.productId);
+    stores.add(storeId);
+    products.add(productId);
+    storesByWarehouseByProduct
+        .computeIfAbsent(productId, id -> new HashMap<>())
+        .computeIfAbsent(fulfilment.warehouseBusinessUnitCode, code -> new RoaringBitmap())
+        .add(storeId);
+    productsByWarehouse
+        .computeIfAbsent(fulfilment.warehouseBusinessUnitCode, code -> new RoaringBitmap())
+        .add(productId);
+    coveredProductsByStore.computeIfAbsent(storeId, id -> new RoaringBitmap()).add(productId);
+  }
+
+  private void removeUnderLock(Fulfilment fulfilment) {
+    int storeId = index(fulfilment.storeId);
+    int productId = index(fulfilment.productId);
+    Map<String, RoaringBitmap> storesByWarehouse = storesByWarehouseByProduct.get(productId);
+    if (storesByWarehouse == null) {
+      return;
+    }
+    RoaringBitmap warehouseStores = storesByWarehouse.get(fulfilment.warehouseBusinessUnitCode);
+    if (warehouseStores == null) {
+      return;
+    }
+    warehouseStores.remove(storeId);
+
+    if (warehouseStores.isEmpty()) {
+      storesByWarehouse.remove(fulfilment.warehouseBusinessUnitCode);
+      RoaringBitmap warehouseProducts =
+          productsByWarehouse.get(fulfilment.warehouseBusinessUnitCode);
+      warehouseProducts.remove(productId);
+      if (warehouseProducts.isEmpty()) {
+        productsByWarehouse.remove(fulfilment.warehouseBusinessUnitCode);
+      }
+    }
+    if (storesByWarehouse.isEmpty()) {
+      storesByWarehouseByProduct.remove(productId);
+    }
+
+    boolean stillCovered =
+        storesByWarehouse.values().stream().anyMatch(bitmap -> bitmap.contains(storeId));
+    if (!stillCovered) {
+      RoaringBitmap covered = coveredProductsByStore.get(storeId);
+      if (covered != null) {
+        covered.remove(productId);
+      }
+    }
+  }
+
+  private static int index(Long id) {
+    return Math.toIntExact(id);
+  }
+}
@@ -0,0 +1,68 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+import java.util.Map;
+
+@Path("fulfilment/coverage")
+@ApplicationScoped
+@Produces("application/json")
+public class FulfilmentCoverageResource {
+
+  @Inject FulfilmentCoverageIndex coverageIndex;
+
+  @GET
+  @Path("gaps/product/{productId}")
+  public FulfilmentCoverage storesWithoutProduct(
+      Long productId, @QueryParam("limit") @DefaultValue("100") int limit) {
+    return FulfilmentCoverage.of(coverageIndex.uncoveredStores(productId), validLimit(limit));
+  }
+
+  @GET
+  @Path("gaps/store/{storeId}")
+  public FulfilmentCoverage productsWithoutWarehouse(
+      Long storeId, @QueryParam("limit") @DefaultValue("100") int limit) {
+    return FulfilmentCoverage.of(coverageIndex.uncoveredProducts(storeId), validLimit(limit));
+  }
+
+  @GET
+  @Path("single-sourced")
+  public Map<Long, Integer> singleSourcedProducts() {
+    return coverageIndex.singleSourcedStoreCounts();
+  }
+
+  @GET
+  @Path("single-sourced/product/{productId}")
+  public FulfilmentCoverage singleSourcedStores(
+      Long productId, @QueryParam("limit") @DefaultValue("100") int limit) {
+    return FulfilmentCoverage.of(coverageIndex.singleSourcedStores(productId), validLimit(limit));
+  }
+
+  @GET
+  @Path("saturated-warehouses")
+  public List<String> saturatedWarehouses() {
+    return coverageIndex.saturatedWarehouses();
+  }
+
+  @POST
+  @Path("rebuild")
+  public Response rebuild() {
+    coverageIndex.rebuild();
+    return Response.status(204).build();
+  }
+
+  private int validLimit(int limit) {
+    if (limit < 1) {
+      throw new FulfilmentValidationException("Limit must be a positive number");
+    }
+    return limit;
+  }
+}
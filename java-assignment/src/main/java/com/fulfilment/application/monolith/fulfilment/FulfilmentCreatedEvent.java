@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+public class FulfilmentCreatedEvent {
+
+  private final Fulfilment fulfilment;
+
+  public FulfilmentCreatedEvent(Fulfilment fulfilment) {
+    this.fulfilment = fulfilment;
+  }
+
+  public Fulfilment getFulfilment() {
+    return fulfilment;
+  }
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+public class FulfilmentDeletedEvent {
+
+  private final Fulfilment fulfilment;
+
+  public FulfilmentDeletedEvent(Fulfilment fulfilment) {
+    this.fulfilment = fulfilment;
+  }
+
+  public Fulfilment getFulfilment() {
+    return fulfilment;
+  }
+}
@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+public class FulfilmentDemand {
+
+  public Long storeId;
+
+  public Long productId;
+
+  public long quantity;
+
+  public FulfilmentDemand() {}
+
+  public FulfilmentDemand(Long storeId, Long productId, long quantity) {
+    this.storeId = storeId;
+    this.productId = productId;
+    this.quantity = quantity;
+  }
+}
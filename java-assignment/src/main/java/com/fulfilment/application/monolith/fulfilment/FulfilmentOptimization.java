@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import java.util.List;
+
+public class FulfilmentOptimization {
+
+  public List<Fulfilment> assignments;
+
+  public long requestedDemand;
+
+  // demand covered by existing fulfilments plus the proposed assignments
+  public long coveredDemand;
+
+  // covered demand weighted by the relative stock headroom of the chosen warehouses
+  public double score;
+
+  public long iterations;
+
+  public long elapsedMillis;
+
+  public boolean applied;
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import java.util.List;
+
+public class FulfilmentOptimizationRequest {
+
+  public List<FulfilmentDemand> demands;
+
+  // optional, defaults to FulfilmentAssignmentOptimizer.DEFAULT_TIME_BUDGET
+  public Long timeBudgetMillis;
+
+  // when true the proposed assignments are created through the batch path
+  public boolean apply;
+}
@@ -0,0 +1,61 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
+import org.jboss.logging.Logger;
+
+@Path("fulfilment/optimizer")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class FulfilmentOptimizerResource {
+
+  private static final Logger LOGGER = Logger.getLogger(FulfilmentOptimizerResource.class);
+
+  @Inject FulfilmentAssignmentOptimizer optimizer;
+
+  @Inject FulfilmentService fulfilmentService;
+
+  // not @Transactional: the search must not hold a pooled connection for its whole time budget,
+  // the batch path opens its own transaction when the result is applied
+  @POST
+  public FulfilmentOptimization optimize(FulfilmentOptimizationRequest request) {
+    if (request == null || request.demands == null || request.demands.isEmpty()) {
+      throw new WebApplicationException("At least one demand must be provided", 422);
+    }
+    if (request.demands.stream()
+        .anyMatch(d -> d.storeId == null || d.productId == null || d.quantity <= 0)) {
+      throw new WebApplicationException(
+          "Every demand needs a storeId, a productId and a positive quantity", 422);
+    }
+
+    FulfilmentOptimization result = optimizer.optimize(request.demands, timeBudget(request));
+
+    if (request.apply && !result.assignments.isEmpty()) {
+      fulfilmentService.createAll(result.assignments);
+      result.applied = true;
+      LOGGER.infof("Fulfilment optimization applied: assignments=%d", result.assignments.size());
+    }
+    return result;
+  }
+
+  private Duration timeBudget(FulfilmentOptimizationRequest request) {
+    if (request.timeBudgetMillis == null) {
+      return FulfilmentAssignmentOptimizer.DEFAULT_TIME_BUDGET;
+    }
+    if (request.timeBudgetMillis <= 0
+        || request.timeBudgetMillis > FulfilmentAssignmentOptimizer.MAX_TIME_BUDGET.toMillis()) {
+      throw new WebApplicationException(
+          "timeBudgetMillis must be between 1 and "
+              + FulfilmentAssignmentOptimizer.MAX_TIME_BUDGET.toMillis(),
+          422);
+    }
+    return Duration.ofMillis(request.timeBudgetMillis);
+  }
+}
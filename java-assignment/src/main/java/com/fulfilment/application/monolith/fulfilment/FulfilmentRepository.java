@@ -1,10 +1,14 @@
 package com.fulfilment.application.monolith.fulfilment;
 
+import com.fulfilment.application.monolith.common.AdvisoryLocks;
+import com.fulfilment.application.monolith.common.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Collection;
 import java.util.List;
 
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class FulfilmentRepository implements PanacheRepository<Fulfilment> {
 
   public List<Fulfilment> findByStoreId(Long storeId) {
@@ -37,6 +41,15 @@ public class FulfilmentRepository implements PanacheRepository<Fulfilment> {
         .count();
   }
 
+  /**
+   * Holds off other fulfilment changes for these stores and then these warehouses until the
+   * current transaction ends. Both are locked in lock id order, so batches cannot deadlock.
+   */
+  public void lockForChange(Collection<Long> storeIds, Collection<String> warehouseCodes) {
+    AdvisoryLocks.lockAll(getEntityManager(), AdvisoryLocks.FULFILMENT_STORE, storeIds);
+    AdvisoryLocks.lockAll(getEntityManager(), AdvisoryLocks.FULFILMENT_WAREHOUSE, warehouseCodes);
+  }
+
   public boolean exists(Long storeId, Long productId, String warehouseBusinessUnitCode) {
     return count(
             "storeId = ?1 and productId = ?2 and warehouseBusinessUnitCode = ?3",
@@ -50,6 +50,21 @@ public class FulfilmentResource {
     return Response.ok(fulfilment).status(201).build();
   }
 
+  @POST
+  @Path("batch")
+  @Transactional
+  public Response createAll(List<Fulfilment> fulfilments) {
+    if (fulfilments == null || fulfilments.isEmpty()) {
+      throw new WebApplicationException("At least one fulfilment must be provided", 422);
+    }
+    if (fulfilments.stream().anyMatch(f -> f.id != null)) {
+      throw new WebApplicationException("Id was invalidly set on request", 422);
+    }
+
+    fulfilmentService.createAll(fulfilments);
+    return Response.ok(fulfilments).status(201).build();
+  }
+
   @DELETE
   @Path("{id}")
   @Transactional
@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.common.ValidationMetrics;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** The rules a new fulfilment is checked against, with the reasons each can reject it for. */
+enum FulfilmentRule {
+  ENTITIES_EXIST(
+      "fulfilment.entities-exist",
+      EnumSet.of(Rejection.UNKNOWN_STORE, Rejection.UNKNOWN_PRODUCT, Rejection.UNKNOWN_WAREHOUSE)),
+  NO_DUPLICATE("fulfilment.no-duplicate", EnumSet.of(Rejection.DUPLICATE_ASSOCIATION)),
+  MAX_WAREHOUSES_PER_PRODUCT_PER_STORE(
+      "fulfilment.max-warehouses-per-product-per-store",
+      EnumSet.of(Rejection.PRODUCT_WAREHOUSE_LIMIT)),
+  MAX_WAREHOUSES_PER_STORE(
+      "fulfilment.max-warehouses-per-store", EnumSet.of(Rejection.STORE_WAREHOUSE_LIMIT)),
+  MAX_PRODUCTS_PER_WAREHOUSE(
+      "fulfilment.max-products-per-warehouse", EnumSet.of(Rejection.WAREHOUSE_PRODUCT_LIMIT));
+
+  /** The {@code rule} tag of the meters and the rule of the validation event. */
+  final String id;
+
+  final Set<Rejection> rejections;
+
+  FulfilmentRule(String id, Set<Rejection> rejections) {
+    this.id = id;
+    this.rejections = rejections;
+  }
+
+  ValidationMetrics.Rule<Rejection> register(ValidationMetrics validationMetrics) {
+    return validationMetrics.rule(id, rejections);
+  }
+
+  enum Rejection implements ValidationMetrics.Reason {
+    UNKNOWN_STORE("unknown-store"),
+    UNKNOWN_PRODUCT("unknown-product"),
+    UNKNOWN_WAREHOUSE("unknown-warehouse"),
+    DUPLICATE_ASSOCIATION("duplicate-association"),
+    PRODUCT_WAREHOUSE_LIMIT("product-warehouse-limit"),
+    STORE_WAREHOUSE_LIMIT("store-warehouse-limit"),
+    WAREHOUSE_PRODUCT_LIMIT("warehouse-product-limit");
+
+    private final String code;
+
+    Rejection(String code) {
+      this.code = code;
+    }
+
+    @Override
+    public String code() {
+      return code;
+    }
+  }
+}
@@ -1,14 +1,24 @@
 package com.fulfilment.application.monolith.fulfilment;
 
+import com.fulfilment.application.monolith.common.Measured;
+import com.fulfilment.application.monolith.common.ValidationMetrics;
+import com.fulfilment.application.monolith.fulfilment.FulfilmentRule.Rejection;
 import com.fulfilment.application.monolith.products.ProductRepository;
 import com.fulfilment.application.monolith.stores.Store;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Measured(Measured.Layer.USE_CASE)
 public class FulfilmentService {
 
   private static final Logger LOGGER = Logger.getLogger(FulfilmentService.class);
@@ -23,6 +33,22 @@ public class FulfilmentService {
 
   @Inject WarehouseStore warehouseStore;
 
+  @Inject Event<FulfilmentCreatedEvent> fulfilmentCreatedEvent;
+
+  @Inject Event<FulfilmentDeletedEvent> fulfilmentDeletedEvent;
+
+  @Inject ValidationMetrics validationMetrics;
+
+  private final Map<FulfilmentRule, ValidationMetrics.Rule<Rejection>> rules =
+      new EnumMap<>(FulfilmentRule.class);
+
+  @PostConstruct
+  void registerMetrics() {
+    for (FulfilmentRule rule : FulfilmentRule.values()) {
+      rules.put(rule, rule.register(validationMetrics));
+    }
+  }
+
   public List<Fulfilment> getAll() {
     return fulfilmentRepository.listAll();
   }
@@ -36,8 +62,28 @@ public class FulfilmentService {
   }
 
   public Fulfilment create(Fulfilment fulfilment) {
+    fulfilmentRepository.lockForChange(
+        Collections.singletonList(fulfilment.storeId),
+        Collections.singletonList(fulfilment.warehouseBusinessUnitCode));
+    return createLocked(fulfilment);
+  }
+
+  @Transactional
+  public List<Fulfilment> createAll(List<Fulfilment> fulfilments) {
+    // all locks of the batch up front; taken one fulfilment at a time they could deadlock
+    fulfilmentRepository.lockForChange(
+        fulfilments.stream().map(f -> f.storeId).toList(),
+        fulfilments.stream().map(f -> f.warehouseBusinessUnitCode).toList());
+    fulfilments.forEach(this::createLocked);
+    LOGGER.infof("Fulfilment batch created: size=%d", fulfilments.size());
+    return fulfilments;
+  }
+
+  /** Creates the fulfilment; the caller holds the locks of its store and warehouse. */
+  private Fulfilment createLocked(Fulfilment fulfilment) {
     validate(fulfilment);
     fulfilmentRepository.persist(fulfilment);
+    fulfilmentCreatedEvent.fire(new FulfilmentCreatedEvent(fulfilment));
     LOGGER.infof(
         "Fulfilment created: store=%d, product=%d, warehouse=%s",
         fulfilment.storeId, fulfilment.productId, fulfilment.warehouseBusinessUnitCode);
@@ -50,11 +96,29 @@ public class FulfilmentService {
       throw new FulfilmentNotFoundException("Fulfilment with id " + id + " does not exist");
     }
     fulfilmentRepository.delete(entity);
+    fulfilmentDeletedEvent.fire(new FulfilmentDeletedEvent(entity));
     LOGGER.infof("Fulfilment deleted: id=%d", id);
   }
 
   void validate(Fulfilment fulfilment) {
-    validateEntitiesExist(fulfilment);
+    FulfilmentValidationEvent event = FulfilmentValidationEvent.start(null, fulfilment);
+    try {
+      validateEntitiesExist(fulfilment);
+      validateRules(fulfilment);
+    } catch (RuntimeException e) {
+      if (event != null) {
+        // the same reason codes as the rule events; "error" when validating itself failed
+        String reason = e instanceof FulfilmentValidationException v ? v.reason() : null;
+        event.rejected(reason != null ? reason : "error");
+      }
+      throw e;
+    }
+    if (event != null) {
+      event.passed();
+    }
+  }
+
+  void validateRules(Fulfilment fulfilment) {
     validateNoDuplicate(fulfilment);
     validateMaxWarehousesPerProductPerStore(fulfilment);
     validateMaxWarehousesPerStore(fulfilment);
@@ -62,42 +126,78 @@ public class FulfilmentService {
   }
 
   void validateEntitiesExist(Fulfilment fulfilment) {
+    FulfilmentRule rule = FulfilmentRule.ENTITIES_EXIST;
+    long start = System.nanoTime();
+    FulfilmentValidationEvent event = FulfilmentValidationEvent.start(rule.id, fulfilment);
     if (Store.findById(fulfilment.storeId) == null) {
-      throw new FulfilmentValidationException(
+      throw rejected(
+          rule,
+          start,
+          event,
+          Rejection.UNKNOWN_STORE,
           "Store with id " + fulfilment.storeId + " does not exist");
     }
 
     if (productRepository.findById(fulfilment.productId) == null) {
-      throw new FulfilmentValidationException(
+      throw rejected(
+          rule,
+          start,
+          event,
+          Rejection.UNKNOWN_PRODUCT,
           "Product with id " + fulfilment.productId + " does not exist");
     }
 
     if (warehouseStore.findByBusinessUnitCode(fulfilment.warehouseBusinessUnitCode) == null) {
-      throw new FulfilmentValidationException(
+      throw rejected(
+          rule,
+          start,
+          event,
+          Rejection.UNKNOWN_WAREHOUSE,
           "Warehouse with code '" + fulfilment.warehouseBusinessUnitCode + "' does not exist");
     }
+    passed(rule, start, event);
   }
 
   void validateNoDuplicate(Fulfilment fulfilment) {
+    FulfilmentRule rule = FulfilmentRule.NO_DUPLICATE;
+    long start = System.nanoTime();
+    FulfilmentValidationEvent event = FulfilmentValidationEvent.start(rule.id, fulfilment);
     if (fulfilmentRepository.exists(
         fulfilment.storeId, fulfilment.productId, fulfilment.warehouseBusinessUnitCode)) {
-      throw new FulfilmentValidationException("This fulfilment association already exists");
+      throw rejected(
+          rule,
+          start,
+          event,
+          Rejection.DUPLICATE_ASSOCIATION,
+          "This fulfilment association already exists");
     }
+    passed(rule, start, event);
   }
 
   void validateMaxWarehousesPerProductPerStore(Fulfilment fulfilment) {
+    FulfilmentRule rule = FulfilmentRule.MAX_WAREHOUSES_PER_PRODUCT_PER_STORE;
+    long start = System.nanoTime();
+    FulfilmentValidationEvent event = FulfilmentValidationEvent.start(rule.id, fulfilment);
     long count =
         fulfilmentRepository.countWarehousesForProductInStore(
             fulfilment.storeId, fulfilment.productId);
     if (count >= MAX_WAREHOUSES_PER_PRODUCT_PER_STORE) {
-      throw new FulfilmentValidationException(
+      throw rejected(
+          rule,
+          start,
+          event,
+          Rejection.PRODUCT_WAREHOUSE_LIMIT,
           "Product can be fulfilled by a maximum of "
               + MAX_WAREHOUSES_PER_PRODUCT_PER_STORE
               + " warehouses per store");
     }
+    passed(rule, start, event);
   }
 
   void validateMaxWarehousesPerStore(Fulfilment fulfilment) {
+    FulfilmentRule rule = FulfilmentRule.MAX_WAREHOUSES_PER_STORE;
+    long start = System.nanoTime();
+    FulfilmentValidationEvent event = FulfilmentValidationEvent.start(rule.id, fulfilment);
     boolean isNewWarehouseForStore =
         fulfilmentRepository.findByStoreId(fulfilment.storeId).stream()
             .noneMatch(
@@ -105,13 +205,21 @@ public class FulfilmentService {
     if (isNewWarehouseForStore) {
       long count = fulfilmentRepository.countDistinctWarehousesForStore(fulfilment.storeId);
       if (count >= MAX_WAREHOUSES_PER_STORE) {
-        throw new FulfilmentValidationException(
+        throw rejected(
+            rule,
+            start,
+            event,
+            Rejection.STORE_WAREHOUSE_LIMIT,
             "Store can be fulfilled by a maximum of " + MAX_WAREHOUSES_PER_STORE + " warehouses");
       }
     }
+    passed(rule, start, event);
   }
 
   void validateMaxProductsPerWarehouse(Fulfilment fulfilment) {
+    FulfilmentRule rule = FulfilmentRule.MAX_PRODUCTS_PER_WAREHOUSE;
+    long start = System.nanoTime();
+    FulfilmentValidationEvent event = FulfilmentValidationEvent.start(rule.id, fulfilment);
     boolean isNewProductForWarehouse =
         fulfilmentRepository
             .findByWarehouseBusinessUnitCode(fulfilment.warehouseBusinessUnitCode)
@@ -122,11 +230,40 @@ public class FulfilmentService {
           fulfilmentRepository.countDistinctProductsForWarehouse(
               fulfilment.warehouseBusinessUnitCode);
       if (count >= MAX_PRODUCTS_PER_WAREHOUSE) {
-        throw new FulfilmentValidationException(
+        throw rejected(
+            rule,
+            start,
+            event,
+            Rejection.WAREHOUSE_PRODUCT_LIMIT,
             "Warehouse can store a maximum of "
                 + MAX_PRODUCTS_PER_WAREHOUSE
                 + " types of products");
       }
     }
+    passed(rule, start, event);
+  }
+
+  private void passed(FulfilmentRule rule, long start, FulfilmentValidationEvent event) {
+    rules.get(rule).passed(start);
+    if (event != null) {
+      event.passed();
+    }
+  }
+
+  /**
+   * Records the rejection on the rule's timer, its reason counter and the validation event, and
+   * returns the exception to throw.
+   */
+  private FulfilmentValidationException rejected(
+      FulfilmentRule rule,
+      long start,
+      FulfilmentValidationEvent event,
+      Rejection reason,
+      String message) {
+    rules.get(rule).rejected(start, reason);
+    if (event != null) {
+      event.rejected(reason.code());
+    }
+    return new FulfilmentValidationException(reason, message);
   }
 }
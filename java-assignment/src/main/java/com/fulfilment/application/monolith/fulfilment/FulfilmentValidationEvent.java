@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The validation of one fulfilment, or with {@link #rule} set one of its rules, so a recording
+ * shows each rule nested in the validation it belongs to.
+ */
+@Name("fulfilment.FulfilmentValidation")
+@Label("Fulfilment Validation")
+@Category({"Fulfilment", "Fulfilments"})
+@Description("The validation of a new fulfilment, or one of its rules")
+@Enabled(false)
+@Threshold("5 ms")
+@StackTrace(false)
+final class FulfilmentValidationEvent extends Event {
+
+  private static final EventType TYPE = EventType.getEventType(FulfilmentValidationEvent.class);
+
+  @Label("Rule")
+  @Description("The rule checked, or null for the whole validation")
+  String rule;
+
+  @Label("Store Id")
+  long storeId;
+
+  @Label("Product Id")
+  long productId;
+
+  @Label("Warehouse")
+  String warehouseBusinessUnitCode;
+
+  @Label("Passed")
+  boolean passed;
+
+  @Label("Rejection Reason")
+  String reason;
+
+  private transient Fulfilment fulfilment;
+
+  /** Returns null unless a recording has the event enabled, so validating allocates nothing. */
+  static FulfilmentValidationEvent start(String rule, Fulfilment fulfilment) {
+    if (!TYPE.isEnabled()) {
+      return null;
+    }
+    FulfilmentValidationEvent event = new FulfilmentValidationEvent();
+    event.rule = rule;
+    event.fulfilment = fulfilment;
+    event.begin();
+    return event;
+  }
+
+  void passed() {
+    finish(null);
+  }
+
+  void rejected(String reason) {
+    finish(reason);
+  }
+
+  private void finish(String rejection) {
+    end();
+    if (shouldCommit()) {
+      storeId = fulfilment.storeId != null ? fulfilment.storeId : 0;
+      productId = fulfilment.productId != null ? fulfilment.productId : 0;
+      warehouseBusinessUnitCode = fulfilment.warehouseBusinessUnitCode;
+      passed = rejection == null;
+      reason = rejection;
+      commit();
+    }
+  }
+}
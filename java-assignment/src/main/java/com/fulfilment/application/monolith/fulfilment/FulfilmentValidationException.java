@@ -4,7 +4,19 @@ import com.fulfilment.application.monolith.exceptions.DomainValidationException;
 
 public class FulfilmentValidationException extends DomainValidationException {
 
+  private final FulfilmentRule.Rejection rejection;
+
   public FulfilmentValidationException(String message) {
+    this(null, message);
+  }
+
+  FulfilmentValidationException(FulfilmentRule.Rejection rejection, String message) {
     super(message);
+    this.rejection = rejection;
+  }
+
+  /** The reason code of the rule that rejected, or null when no rule did. */
+  String reason() {
+    return rejection != null ? rejection.code() : null;
   }
 }
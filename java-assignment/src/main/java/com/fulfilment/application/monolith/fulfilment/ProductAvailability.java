@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import java.util.List;
+
+public class ProductAvailability {
+
+  public Long storeId;
+
+  public Long productId;
+
+  public long availableStock;
+
+  public List<Source> warehouses;
+
+  public ProductAvailability() {}
+
+  public ProductAvailability(Long storeId, Long productId, List<Source> warehouses) {
+    this.storeId = storeId;
+    this.productId = productId;
+    this.warehouses = List.copyOf(warehouses);
+    this.availableStock = this.warehouses.stream().mapToLong(source -> source.stock).sum();
+  }
+
+  public static class Source {
+
+    public String businessUnitCode;
+
+    public int stock;
+
+    public Source() {}
+
+    public Source(String businessUnitCode, int stock) {
+      this.businessUnitCode = businessUnitCode;
+      this.stock = stock;
+    }
+  }
+}
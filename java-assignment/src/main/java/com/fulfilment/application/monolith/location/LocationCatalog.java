@@ -0,0 +1,155 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the location catalog, hashed by identifier for exact lookups and sorted by
+ * identifier for prefix searches. A catalog is never modified after construction; reloading builds
+ * a new one which is then swapped in as a whole.
+ *
+ * <p>The source format is CSV with a header line: {@code
+ * identification,maxNumberOfWarehouses,maxCapacity[,latitude,longitude]}. Coordinates are optional
+ * and may be left empty.
+ */
+final class LocationCatalog {
+
+  private final Map<String, Location> locationsByIdentifier;
+
+  // parallel arrays ordered by identifier, binary searched for prefix lookups
+  private final String[] sortedIdentifiers;
+  private final Location[] sortedLocations;
+
+  // last modification time of the source file, null when loaded from the classpath
+  final FileTime lastModified;
+
+  LocationCatalog(Collection<Location> locations, FileTime lastModified) {
+    Map<String, Location> byIdentifier = new HashMap<>();
+    for (Location location : locations) {
+      if (byIdentifier.put(location.identification, location) != null) {
+        throw new IllegalStateException(
+            "Duplicate location identifier '" + location.identification + "' in catalog");
+      }
+    }
+    this.locationsByIdentifier = Map.copyOf(byIdentifier);
+    this.sortedLocations =
+        byIdentifier.values().stream()
+            .sorted(Comparator.comparing(location -> location.identification))
+            .toArray(Location[]::new);
+    this.sortedIdentifiers =
+        Arrays.stream(sortedLocations)
+            .map(location -> location.identification)
+            .toArray(String[]::new);
+    this.lastModified = lastModified;
+  }
+
+  Location get(String identifier) {
+    return locationsByIdentifier.get(identifier);
+  }
+
+  List<Location> searchByPrefix(String prefix, int limit) {
+    int from = Arrays.binarySearch(sortedIdentifiers, prefix);
+    if (from < 0) {
+      from = -from - 1;
+    }
+    int to = from;
+    while (to < sortedIdentifiers.length
+        && to - from < limit
+        && sortedIdentifiers[to].startsWith(prefix)) {
+      to++;
+    }
+    List<Location> page = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      page.add(sortedLocations[i]);
+    }
+    return page;
+  }
+
+  Collection<Location> all() {
+    return locationsByIdentifier.values();
+  }
+
+  int size() {
+    return locationsByIdentifier.size();
+  }
+
+  static LocationCatalog fromClasspath(String resource) {
+    InputStream stream = LocationCatalog.class.getClassLoader().getResourceAsStream(resource);
+    if (stream == null) {
+      throw new IllegalStateException("Location catalog resource '" + resource + "' not found");
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      return new LocationCatalog(parse(reader, resource), null);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read location catalog " + resource, e);
+    }
+  }
+
+  static LocationCatalog fromFile(Path path) throws IOException {
+    // read the timestamp first so a write racing with the load triggers another reload
+    FileTime lastModified = Files.getLastModifiedTime(path);
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return new LocationCatalog(parse(reader, path.toString()), lastModified);
+    }
+  }
+
+  private static Collection<Location> parse(BufferedReader reader, String source)
+      throws IOException {
+    Map<String, Location> locations = new HashMap<>();
+    String line = reader.readLine(); // header
+    int lineNumber = 1;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank()) {
+        continue;
+      }
+      String[] columns = line.split(",", -1);
+      if (columns.length != 3 && columns.length != 5) {
+        throw invalidLine(source, lineNumber, "expected 3 or 5 columns");
+      }
+      try {
+        Location location =
+            new Location(
+                columns[0].trim(),
+                Integer.parseInt(columns[1].trim()),
+                Integer.parseInt(columns[2].trim()),
+                columns.length == 5 ? coordinate(columns[3]) : null,
+                columns.length == 5 ? coordinate(columns[4]) : null);
+        if ((location.latitude == null) != (location.longitude == null)) {
+          throw invalidLine(source, lineNumber, "latitude and longitude must be set together");
+        }
+        if (locations.put(location.identification, location) != null) {
+          throw invalidLine(source, lineNumber, "duplicate identifier");
+        }
+      } catch (NumberFormatException e) {
+        throw invalidLine(source, lineNumber, e.getMessage());
+      }
+    }
+    return locations.values();
+  }
+
+  private static Double coordinate(String column) {
+    return column.isBlank() ? null : Double.valueOf(column.trim());
+  }
+
+  private static IllegalStateException invalidLine(String source, int lineNumber, String reason) {
+    return new IllegalStateException(
+        "Invalid location catalog " + source + " at line " + lineNumber + ": " + reason);
+  }
+}
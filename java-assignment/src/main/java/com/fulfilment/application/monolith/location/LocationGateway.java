@@ -1,25 +1,72 @@
 package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationCatalogReloadedEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
-import java.util.ArrayList;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
 public class LocationGateway implements LocationResolver {
 
-  private static final List<Location> locations = new ArrayList<>();
-
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
+  private static final Logger LOGGER = Logger.getLogger(LocationGateway.class);
+
+  static final String DEFAULT_CATALOG_RESOURCE = "locations.csv";
+
+  // external catalog file; the bundled classpath catalog is used when not set
+  @ConfigProperty(name = "location.catalog.path")
+  Optional<String> catalogPath = Optional.empty();
+
+  @Inject Event<LocationCatalogReloadedEvent> catalogReloadedEvent;
+
+  // replaced as a whole on reload, so lookups never lock and never see a partial catalog
+  private volatile LocationCatalog catalog =
+      LocationCatalog.fromClasspath(DEFAULT_CATALOG_RESOURCE);
+
+  @PostConstruct
+  void loadCatalog() {
+    catalogPath.ifPresent(
+        path -> {
+          try {
+            catalog = LocationCatalog.fromFile(Path.of(path));
+          } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load location catalog " + path, e);
+          }
+          LOGGER.infof("Location catalog loaded from %s: locations=%d", path, catalog.size());
+        });
+  }
+
+  @Scheduled(
+      every = "{location.catalog.reload-interval}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void reloadIfChanged() {
+    if (catalogPath.isEmpty()) {
+      return;
+    }
+    Path path = Path.of(catalogPath.get());
+    try {
+      FileTime lastModified = Files.getLastModifiedTime(path);
+      if (lastModified.equals(catalog.lastModified)) {
+        return;
+      }
+      catalog = LocationCatalog.fromFile(path);
+      LOGGER.infof("Location catalog reloaded from %s: locations=%d", path, catalog.size());
+      catalogReloadedEvent.fire(new LocationCatalogReloadedEvent(catalog.size()));
+    } catch (IOException | IllegalStateException e) {
+      LOGGER.warnf(e, "Location catalog reload from %s failed, keeping the current catalog", path);
+    }
   }
 
   @Override
@@ -28,9 +75,30 @@ public class LocationGateway implements LocationResolver {
       throw new IllegalArgumentException("Identifier cannot be null or blank");
     }
 
-    return locations.stream()
-        .filter(location -> identifier.equals(location.identification))
-        .findFirst()
-        .orElseThrow(() -> new LocationNotFoundException(identifier));
+    LocationResolutionEvent event = new LocationResolutionEvent();
+    event.begin();
+    Location location = catalog.get(identifier);
+    event.end();
+    if (event.shouldCommit()) {
+      event.identifier = identifier;
+      event.found = location != null;
+      event.commit();
+    }
+    if (location == null) {
+      throw new LocationNotFoundException(identifier);
+    }
+    return location;
+  }
+
+  @Override
+  public List<Location> searchByPrefix(String prefix, int limit) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("Prefix cannot be null");
+    }
+    if (limit < 1) {
+      throw new IllegalArgumentException("Limit must be a positive number");
+    }
+
+    return catalog.searchByPrefix(prefix, limit);
   }
 }
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.location;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("fulfilment.LocationResolution")
+@Label("Location Resolution")
+@Category({"Fulfilment", "Locations"})
+@Description("A lookup of a location identifier in the location catalog")
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+final class LocationResolutionEvent extends Event {
+
+  @Label("Identifier")
+  String identifier;
+
+  @Label("Found")
+  boolean found;
+}
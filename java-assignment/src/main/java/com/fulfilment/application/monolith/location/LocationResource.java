@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Path("location")
+@ApplicationScoped
+@Produces("application/json")
+public class LocationResource {
+
+  static final int MAX_LIMIT = 100;
+
+  @Inject LocationResolver locationResolver;
+
+  @Inject LocationUsageIndex locationUsageIndex;
+
+  @GET
+  public List<LocationSearchResult> search(
+      @QueryParam("prefix") String prefix, @QueryParam("limit") @DefaultValue("20") int limit) {
+    if (prefix == null || prefix.isBlank()) {
+      throw new WebApplicationException("Query parameter 'prefix' is required", 400);
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new WebApplicationException("Limit must be between 1 and " + MAX_LIMIT, 400);
+    }
+
+    List<Location> page = locationResolver.searchByPrefix(prefix, limit);
+    List<LocationSearchResult> results = new ArrayList<>(page.size());
+    for (Location location : page) {
+      results.add(toResult(location, locationUsageIndex.usage(location.identification)));
+    }
+    return results;
+  }
+
+  private LocationSearchResult toResult(Location location, LocationUsageIndex.Usage usage) {
+    var result = new LocationSearchResult();
+    result.identification = location.identification;
+    result.maxNumberOfWarehouses = location.maxNumberOfWarehouses;
+    result.maxCapacity = location.maxCapacity;
+    result.warehouseHeadroom = Math.max(0, location.maxNumberOfWarehouses - usage.warehouses);
+    result.capacityHeadroom = Math.max(0, location.maxCapacity - usage.capacity);
+    return result;
+  }
+}
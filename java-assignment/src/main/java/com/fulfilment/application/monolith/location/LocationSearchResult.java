@@ -0,0 +1,16 @@
+package com.fulfilment.application.monolith.location;
+
+public class LocationSearchResult {
+
+  public String identification;
+
+  public int maxNumberOfWarehouses;
+
+  public int maxCapacity;
+
+  // how many more warehouses can still be created at this location
+  public int warehouseHeadroom;
+
+  // how much capacity is still available for new warehouses at this location
+  public int capacityHeadroom;
+}
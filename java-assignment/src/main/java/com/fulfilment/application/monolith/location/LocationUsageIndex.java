@@ -0,0 +1,163 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jboss.logging.Logger;
+
+/**
+ * Number and summed capacity of the active warehouses per location, kept in sync through the
+ * after-commit warehouse events, so the location search reports headroom without a query. Usages
+ * are immutable and replaced on change, so lookups take no lock.
+ *
+ * <p>A rebuild reads the warehouses without holding the lock; changes committed meanwhile are
+ * buffered and replayed on top of what it read. Events carry the full warehouse, so replaying one
+ * the rebuild already saw changes nothing.
+ */
+@ApplicationScoped
+public class LocationUsageIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(LocationUsageIndex.class);
+
+  @Inject WarehouseStore warehouseStore;
+
+  private final Lock lock = new ReentrantLock();
+
+  // active warehouse id -> the warehouse as last seen
+  private final Map<Long, Warehouse> activeWarehouses = new HashMap<>();
+
+  private volatile Map<String, Usage> usageByLocation = new ConcurrentHashMap<>();
+
+  // changes committed while a rebuild reads the warehouses, null when no rebuild is running
+  private List<Warehouse> pending;
+
+  private volatile boolean loaded;
+
+  public synchronized void rebuild() {
+    beginRebuild();
+    try {
+      List<Warehouse> warehouses = warehouseStore.getAll();
+      load(warehouses);
+      LOGGER.infof("Location usage index built: warehouses=%d", warehouses.size());
+    } finally {
+      lock.lock();
+      try {
+        pending = null;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /** Starts buffering committed changes for the {@link #load} of a rebuild. */
+  void beginRebuild() {
+    lock.lock();
+    try {
+      pending = new ArrayList<>();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void load(Collection<Warehouse> warehouses) {
+    lock.lock();
+    try {
+      activeWarehouses.clear();
+      Map<String, Usage> usage = new ConcurrentHashMap<>();
+      warehouses.forEach(warehouse -> applyUnderLock(usage, warehouse));
+      if (pending != null) {
+        pending.forEach(warehouse -> applyUnderLock(usage, warehouse));
+        pending.clear();
+      }
+      usageByLocation = usage;
+      loaded = true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void onWarehouseChanged(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChangedEvent event) {
+    lock.lock();
+    try {
+      if (loaded) {
+        applyUnderLock(usageByLocation, event.getWarehouse());
+      }
+      if (pending != null) {
+        pending.add(event.getWarehouse());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Usage of the location, {@link Usage#NONE} when it holds no active warehouse. */
+  public Usage usage(String location) {
+    ensureLoaded();
+    return usageByLocation.getOrDefault(location, Usage.NONE);
+  }
+
+  private void ensureLoaded() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          rebuild();
+        }
+      }
+    }
+  }
+
+  private void applyUnderLock(Map<String, Usage> usage, Warehouse warehouse) {
+    boolean active = warehouse.archivedAt == null;
+    Warehouse previous =
+        active
+            ? activeWarehouses.put(warehouse.id, warehouse)
+            : activeWarehouses.remove(warehouse.id);
+    if (previous != null) {
+      add(usage, previous.location, -1, -capacityOf(previous));
+    }
+    if (active) {
+      add(usage, warehouse.location, 1, capacityOf(warehouse));
+    }
+  }
+
+  private static void add(Map<String, Usage> usage, String location, int warehouses, int capacity) {
+    usage.compute(
+        location,
+        (key, current) -> {
+          int count = warehouses + (current != null ? current.warehouses : 0);
+          int total = capacity + (current != null ? current.capacity : 0);
+          return count == 0 && total == 0 ? null : new Usage(count, total);
+        });
+  }
+
+  private static int capacityOf(Warehouse warehouse) {
+    return warehouse.capacity != null ? warehouse.capacity : 0;
+  }
+
+  public static final class Usage {
+
+    public static final Usage NONE = new Usage(0, 0);
+
+    public final int warehouses;
+
+    public final int capacity;
+
+    Usage(int warehouses, int capacity) {
+      this.warehouses = warehouses;
+      this.capacity = capacity;
+    }
+  }
+}
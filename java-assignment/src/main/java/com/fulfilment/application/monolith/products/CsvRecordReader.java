@@ -0,0 +1,131 @@
+package com.fulfilment.application.monolith.products;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time, so an import never holds more than the current record.
+ * Quoted fields may contain commas, doubled quotes and line breaks; blank lines are skipped.
+ */
+final class CsvRecordReader implements Closeable {
+
+  static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+  private final Reader reader;
+
+  private final StringBuilder raw = new StringBuilder();
+
+  private int line = 1;
+
+  private int recordLine;
+
+  private boolean malformed;
+
+  CsvRecordReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  /** The fields of the next record, or {@code null} at the end of the input. */
+  List<String> next() throws IOException {
+    List<String> fields;
+    do {
+      fields = read();
+    } while (fields != null && fields.size() == 1 && raw.length() == 0);
+    return fields;
+  }
+
+  /** Line the last record started on. */
+  int line() {
+    return recordLine;
+  }
+
+  /** The last record as it appeared in the input, without its line break. */
+  String raw() {
+    return raw.toString();
+  }
+
+  /** Whether the last record had text after a closing quote or a quote left open at the end. */
+  boolean malformed() {
+    return malformed;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private List<String> read() throws IOException {
+    raw.setLength(0);
+    malformed = false;
+    recordLine = line;
+    int c = readChar();
+    if (c == -1) {
+      return null;
+    }
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean wasQuoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          malformed = true;
+          fields.add(field.toString());
+          return fields;
+        }
+        if (c == '"') {
+          int next = readChar();
+          if (next != '"') {
+            quoted = false;
+            c = next;
+            continue;
+          }
+        }
+        if (c == '\n') {
+          line++;
+        }
+        field.append((char) c);
+      } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+        quoted = true;
+        wasQuoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+        wasQuoted = false;
+      } else if (c == '\n' || c == -1) {
+        if (c == '\n') {
+          line++;
+          raw.setLength(raw.length() - 1);
+        }
+        if (raw.length() > 0 && raw.charAt(raw.length() - 1) == '\r') {
+          raw.setLength(raw.length() - 1);
+        }
+        fields.add(field.toString());
+        return fields;
+      } else if (c != '\r') {
+        malformed |= wasQuoted;
+        field.append((char) c);
+      }
+      c = readChar();
+    }
+  }
+
+  private int readChar() throws IOException {
+    int c = reader.read();
+    if (c != -1) {
+      if (raw.length() == MAX_RECORD_LENGTH) {
+        throw new IOException(
+            "Record at line "
+                + recordLine
+                + " is longer than "
+                + MAX_RECORD_LENGTH
+                + " characters");
+      }
+      raw.append((char) c);
+    }
+    return c;
+  }
+}
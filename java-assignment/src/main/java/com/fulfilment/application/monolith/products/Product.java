@@ -5,13 +5,22 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import java.math.BigDecimal;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Cacheable
+@DynamicUpdate
 public class Product {
 
-  @Id @GeneratedValue public Long id;
+  @Id
+  @GeneratedValue(generator = ProductRepository.ID_SEQUENCE)
+  @SequenceGenerator(
+      name = ProductRepository.ID_SEQUENCE,
+      sequenceName = ProductRepository.ID_SEQUENCE,
+      allocationSize = ProductRepository.ID_BLOCK_SIZE)
+  public Long id;
 
   @Column(length = 40, unique = true)
   public String name;
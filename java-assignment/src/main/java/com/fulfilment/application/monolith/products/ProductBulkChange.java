@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.products;
+
+import java.math.BigDecimal;
+
+/** One entry of a bulk update; a {@code null} price or stock leaves the current value. */
+public class ProductBulkChange {
+
+  public Long id;
+
+  public BigDecimal price;
+
+  public Integer stock;
+
+  public ProductBulkChange() {}
+
+  public ProductBulkChange(Long id, BigDecimal price, Integer stock) {
+    this.id = id;
+    this.price = price;
+    this.stock = stock;
+  }
+}
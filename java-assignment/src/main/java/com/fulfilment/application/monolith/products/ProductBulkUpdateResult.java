@@ -0,0 +1,16 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductBulkUpdateResult {
+
+  public long requested;
+
+  public long changed;
+
+  public long rejected;
+
+  public int chunks;
+
+  public long elapsedMillis;
+
+  public double rowsPerSecond;
+}
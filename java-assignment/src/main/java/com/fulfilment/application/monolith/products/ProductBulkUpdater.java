@@ -0,0 +1,147 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.common.ResponseByteCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Applies price and stock campaigns without loading products. The changes are written in chunks
+ * of {@code product.bulk.chunk-size}, each committed on its own, so a failure part-way keeps the
+ * chunks before it. The second-level and response caches are evicted once the run ends.
+ */
+@ApplicationScoped
+public class ProductBulkUpdater {
+
+  private static final Logger LOGGER = Logger.getLogger(ProductBulkUpdater.class);
+
+  private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+  @Inject ProductRepository productRepository;
+
+  @Inject ObjectMapper objectMapper;
+
+  @Inject ResponseByteCache responseByteCache;
+
+  @ConfigProperty(name = "product.bulk.chunk-size", defaultValue = "1000")
+  int chunkSize = 1000;
+
+  /** Reads a JSON array of {@link ProductBulkChange} from the stream as it arrives. */
+  public ProductBulkUpdateResult apply(InputStream changes) {
+    long started = System.nanoTime();
+    ProductBulkUpdateResult result = new ProductBulkUpdateResult();
+    List<ProductBulkChange> chunk = new ArrayList<>(chunkSize);
+    try (JsonParser parser = objectMapper.createParser(changes)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new WebApplicationException("Bulk update must be a JSON array.", 422);
+      }
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        ProductBulkChange change = parser.readValueAs(ProductBulkChange.class);
+        result.requested++;
+        if (!valid(change)) {
+          result.rejected++;
+          continue;
+        }
+        chunk.add(change);
+        if (chunk.size() == chunkSize) {
+          write(chunk, result);
+        }
+      }
+      if (parser.currentToken() != JsonToken.END_ARRAY) {
+        throw new WebApplicationException("Bulk update must only contain objects.", 422);
+      }
+      if (!chunk.isEmpty()) {
+        write(chunk, result);
+      }
+    } catch (JsonProcessingException e) {
+      throw new WebApplicationException(
+          "Malformed bulk update after "
+              + result.requested
+              + " entries, "
+              + result.changed
+              + " rows already changed: "
+              + e.getOriginalMessage(),
+          400);
+    } catch (IOException e) {
+      throw new WebApplicationException("Failed to read bulk update: " + e.getMessage(), 400);
+    } finally {
+      evict();
+    }
+    return finish(result, started);
+  }
+
+  public ProductBulkUpdateResult apply(ProductPriceRule rule) {
+    if (rule.ids == null || rule.ids.isEmpty()) {
+      throw new WebApplicationException("Rule must list the product ids.", 422);
+    }
+    if (rule.pricePercent == null && rule.stockDelta == null) {
+      throw new WebApplicationException("Rule must change the price or the stock.", 422);
+    }
+    if (rule.pricePercent != null && rule.pricePercent.compareTo(HUNDRED.negate()) <= 0) {
+      throw new WebApplicationException("Price percent must be above -100.", 422);
+    }
+    BigDecimal factor =
+        rule.pricePercent == null
+            ? BigDecimal.ONE
+            : BigDecimal.ONE.add(rule.pricePercent.divide(HUNDRED, MathContext.DECIMAL64));
+    int stockDelta = rule.stockDelta == null ? 0 : rule.stockDelta;
+
+    long started = System.nanoTime();
+    ProductBulkUpdateResult result = new ProductBulkUpdateResult();
+    List<Long> ids = new ArrayList<>(new LinkedHashSet<>(rule.ids));
+    result.requested = ids.size();
+    try {
+      for (int from = 0; from < ids.size(); from += chunkSize) {
+        List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+        result.changed += productRepository.adjustPriceAndStock(chunk, factor, stockDelta);
+        result.chunks++;
+      }
+    } finally {
+      evict();
+    }
+    return finish(result, started);
+  }
+
+  // bulk writes fire no product events, so the caches are dropped here
+  private void evict() {
+    productRepository.evictFromCache();
+    responseByteCache.invalidate(ResponseByteCache.PRODUCTS);
+  }
+
+  private void write(List<ProductBulkChange> chunk, ProductBulkUpdateResult result) {
+    result.changed += productRepository.updatePriceAndStock(chunk);
+    result.chunks++;
+    chunk.clear();
+  }
+
+  private static boolean valid(ProductBulkChange change) {
+    return change.id != null
+        && (change.price != null || change.stock != null)
+        && (change.price == null || change.price.signum() >= 0)
+        && (change.stock == null || change.stock >= 0);
+  }
+
+  private static ProductBulkUpdateResult finish(ProductBulkUpdateResult result, long started) {
+    long elapsedNanos = System.nanoTime() - started;
+    result.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    result.rowsPerSecond = elapsedNanos > 0 ? result.changed * 1e9 / elapsedNanos : 0;
+    LOGGER.infof(
+        "Bulk product update: requested=%d, changed=%d, rejected=%d, chunks=%d, %.0f rows/s",
+        result.requested, result.changed, result.rejected, result.chunks, result.rowsPerSecond);
+    return result;
+  }
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductCreatedEvent {
+
+  private final Product product;
+
+  public ProductCreatedEvent(Product product) {
+    this.product = product;
+  }
+
+  public Product getProduct() {
+    return product;
+  }
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductDeletedEvent {
+
+  private final Product product;
+
+  public ProductDeletedEvent(Product product) {
+    this.product = product;
+  }
+
+  public Product getProduct() {
+    return product;
+  }
+}
@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductImportResult {
+
+  public String importId;
+
+  public String mode;
+
+  public long rows;
+
+  public long imported;
+
+  public long rejected;
+
+  public int chunks;
+
+  public long elapsedMillis;
+
+  public double rowsPerSecond;
+}
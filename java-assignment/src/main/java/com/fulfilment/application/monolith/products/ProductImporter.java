@@ -0,0 +1,337 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.common.ResponseByteCache;
+import com.fulfilment.application.monolith.fulfilment.FulfilmentCoverageIndex;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Loads products from a CSV stream with the header {@code name,description,price,stock} (any
+ * order, only {@code name} required). Valid rows are inserted in chunks of {@code
+ * product.import.chunk-size}, each committed on its own; invalid rows are written to a rejects
+ * file named after the import id.
+ */
+@ApplicationScoped
+public class ProductImporter {
+
+  private static final Logger LOGGER = Logger.getLogger(ProductImporter.class);
+
+  public enum Mode {
+    /** Hibernate inserts, sent as JDBC batches. */
+    BATCH,
+    /** Postgres COPY, with ids taken from the sequence a block at a time. */
+    COPY
+  }
+
+  static final List<String> COLUMNS = List.of("name", "description", "price", "stock");
+
+  static final String REJECTS_HEADER = "line,reason,record";
+
+  private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+  static final int MAX_NAME_LENGTH = 40;
+
+  static final int MAX_DESCRIPTION_LENGTH = 255;
+
+  // product.price is numeric(10, 2)
+  private static final int MAX_PRICE_INTEGER_DIGITS = 8;
+
+  @Inject ProductRepository productRepository;
+
+  @Inject ProductSearchIndex productSearchIndex;
+
+  @Inject ResponseByteCache responseByteCache;
+
+  @Inject FulfilmentCoverageIndex fulfilmentCoverageIndex;
+
+  @ConfigProperty(name = "product.import.chunk-size", defaultValue = "1000")
+  int chunkSize = 1000;
+
+  @ConfigProperty(name = "product.import.directory", defaultValue = "product-import")
+  String directory = "product-import";
+
+  public static Mode mode(String mode) {
+    try {
+      return Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException("Import mode must be batch or copy.", 422);
+    }
+  }
+
+  public ProductImportResult apply(InputStream csv, Mode mode) {
+    long started = System.nanoTime();
+    ProductImportResult result = new ProductImportResult();
+    result.importId = UUID.randomUUID().toString();
+    result.mode = mode.name().toLowerCase(Locale.ROOT);
+    Path rejectsFile = rejectsFile(result.importId);
+    try {
+      Files.createDirectories(rejectsFile.getParent());
+      try (CsvRecordReader reader =
+              new CsvRecordReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+          BufferedWriter rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8)) {
+        rejects.write(REJECTS_HEADER);
+        rejects.newLine();
+        run(reader, rejects, mode, result);
+      }
+    } catch (IOException e) {
+      throw new WebApplicationException(
+          "Malformed import after "
+              + result.rows
+              + " rows, "
+              + result.imported
+              + " products already imported: "
+              + e.getMessage(),
+          400);
+    } finally {
+      evict();
+      deleteIfNoRejects(rejectsFile, result);
+    }
+    return finish(result, started);
+  }
+
+  /** The rejects file of a finished import, or a 404 when it had no rejects. */
+  public File rejects(String importId) {
+    try {
+      importId = UUID.fromString(importId).toString();
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException("Import with id of " + importId + " does not exist.", 404);
+    }
+    Path file = rejectsFile(importId);
+    if (!Files.isRegularFile(file)) {
+      throw new WebApplicationException("Import " + importId + " has no rejected rows.", 404);
+    }
+    return file.toFile();
+  }
+
+  private void run(
+      CsvRecordReader reader, BufferedWriter rejects, Mode mode, ProductImportResult result)
+      throws IOException {
+    List<String> header = reader.next();
+    int[] positions = positions(header);
+    Map<String, Row> chunk = new LinkedHashMap<>();
+    List<String> fields;
+    while ((fields = reader.next()) != null) {
+      result.rows++;
+      Row row = new Row(reader.line(), reader.raw());
+      try {
+        row.product = parse(fields, positions, header.size(), reader.malformed());
+      } catch (IllegalArgumentException e) {
+        reject(rejects, row, e.getMessage(), result);
+        continue;
+      }
+      if (chunk.putIfAbsent(row.product.name, row) != null) {
+        reject(rejects, row, "name occurs earlier in the import", result);
+        continue;
+      }
+      if (chunk.size() == chunkSize) {
+        write(chunk, rejects, mode, result);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      write(chunk, rejects, mode, result);
+    }
+  }
+
+  private void write(
+      Map<String, Row> chunk, BufferedWriter rejects, Mode mode, ProductImportResult result)
+      throws IOException {
+    Set<String> existing = productRepository.findExistingNames(chunk.keySet());
+    for (Iterator<Row> rows = chunk.values().iterator(); rows.hasNext(); ) {
+      Row row = rows.next();
+      if (existing.contains(row.product.name)) {
+        reject(rejects, row, "name already exists", result);
+        rows.remove();
+      }
+    }
+    List<Product> products = new ArrayList<>(chunk.size());
+    chunk.values().forEach(row -> products.add(row.product));
+    chunk.clear();
+    if (products.isEmpty()) {
+      return;
+    }
+    try {
+      if (mode == Mode.COPY) {
+        productRepository.copyInsert(products);
+      } else {
+        productRepository.insertBatch(products);
+      }
+    } catch (RuntimeException e) {
+      throw new WebApplicationException(
+          "Import stopped after "
+              + result.imported
+              + " products were imported, chunk "
+              + (result.chunks + 1)
+              + " failed: "
+              + e.getMessage(),
+          409);
+    }
+    result.imported += products.size();
+    result.chunks++;
+  }
+
+  // the header decides where each column is; -1 for an absent optional column
+  private static int[] positions(List<String> header) {
+    if (header == null) {
+      throw new WebApplicationException("Import is empty.", 422);
+    }
+    int[] positions = new int[COLUMNS.size()];
+    Arrays.fill(positions, -1);
+    for (int i = 0; i < header.size(); i++) {
+      String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+      if (i == 0 && name.startsWith(BYTE_ORDER_MARK)) {
+        name = name.substring(1);
+      }
+      int column = COLUMNS.indexOf(name);
+      if (column < 0 || positions[column] >= 0) {
+        throw new WebApplicationException(
+            "Import header must only name the columns " + COLUMNS + " once each.", 422);
+      }
+      positions[column] = i;
+    }
+    if (positions[0] < 0) {
+      throw new WebApplicationException("Import header must contain the name column.", 422);
+    }
+    return positions;
+  }
+
+  private static Product parse(
+      List<String> fields, int[] positions, int columns, boolean malformed) {
+    if (malformed) {
+      throw new IllegalArgumentException("misplaced quote");
+    }
+    if (fields.size() != columns) {
+      throw new IllegalArgumentException(
+          "expected " + columns + " columns, found " + fields.size());
+    }
+    Product product = new Product(field(fields, positions[0]));
+    if (product.name == null) {
+      throw new IllegalArgumentException("name is required");
+    }
+    if (product.name.length() > MAX_NAME_LENGTH) {
+      throw new IllegalArgumentException("name is longer than " + MAX_NAME_LENGTH + " characters");
+    }
+    product.description = field(fields, positions[1]);
+    if (product.description != null && product.description.length() > MAX_DESCRIPTION_LENGTH) {
+      throw new IllegalArgumentException(
+          "description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+    }
+    String price = field(fields, positions[2]);
+    if (price != null) {
+      try {
+        product.price = new BigDecimal(price);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("price is not a number");
+      }
+      if (product.price.signum() < 0
+          || product.price.scale() > 2
+          || product.price.precision() - product.price.scale() > MAX_PRICE_INTEGER_DIGITS) {
+        throw new IllegalArgumentException(
+            "price must not be negative or have more than 2 decimals");
+      }
+    }
+    String stock = field(fields, positions[3]);
+    if (stock != null) {
+      try {
+        product.stock = Integer.parseInt(stock);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("stock is not a whole number");
+      }
+      if (product.stock < 0) {
+        throw new IllegalArgumentException("stock must not be negative");
+      }
+    }
+    return product;
+  }
+
+  private static String field(List<String> fields, int position) {
+    if (position < 0) {
+      return null;
+    }
+    String value = fields.get(position).trim();
+    return value.isEmpty() ? null : value;
+  }
+
+  private static void reject(
+      BufferedWriter rejects, Row row, String reason, ProductImportResult result)
+      throws IOException {
+    rejects.write(row.line + "," + quote(reason) + "," + quote(row.raw));
+    rejects.newLine();
+    result.rejected++;
+  }
+
+  static String quote(String value) {
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+
+  // imports fire no product events, so the caches and the indexes are dropped here
+  private void evict() {
+    productRepository.evictFromCache();
+    responseByteCache.invalidate(ResponseByteCache.PRODUCTS);
+    productSearchIndex.invalidate();
+    fulfilmentCoverageIndex.invalidate();
+  }
+
+  private static void deleteIfNoRejects(Path rejectsFile, ProductImportResult result) {
+    if (result.rejected == 0) {
+      try {
+        Files.deleteIfExists(rejectsFile);
+      } catch (IOException e) {
+        LOGGER.warnf(e, "Failed to delete empty rejects file %s", rejectsFile);
+      }
+    }
+  }
+
+  private Path rejectsFile(String importId) {
+    return Path.of(directory).resolve(importId + "-rejects.csv");
+  }
+
+  private static ProductImportResult finish(ProductImportResult result, long started) {
+    long elapsedNanos = System.nanoTime() - started;
+    result.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    result.rowsPerSecond = elapsedNanos > 0 ? result.imported * 1e9 / elapsedNanos : 0;
+    LOGGER.infof(
+        "Product import %s (%s): rows=%d, imported=%d, rejected=%d, chunks=%d, %.0f rows/s",
+        result.importId,
+        result.mode,
+        result.rows,
+        result.imported,
+        result.rejected,
+        result.chunks,
+        result.rowsPerSecond);
+    return result;
+  }
+
+  private static final class Row {
+
+    final int line;
+    final String raw;
+    Product product;
+
+    Row(int line, String raw) {
+      this.line = line;
+      this.raw = raw;
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.products;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Relative change applied to every product in {@code ids}, e.g. {@code pricePercent: 5}. */
+public class ProductPriceRule {
+
+  public List<Long> ids;
+
+  public BigDecimal pricePercent;
+
+  public Integer stockDelta;
+}
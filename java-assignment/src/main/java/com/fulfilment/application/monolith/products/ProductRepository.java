@@ -1,7 +1,192 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.common.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.postgresql.PGConnection;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+@Measured(Measured.Layer.REPOSITORY)
+public class ProductRepository implements PanacheRepository<Product> {
+
+  // served from the query cache; Hibernate invalidates the region whenever products change
+  static final String LISTING_CACHE_REGION = "product-listing";
+
+  static final String ID_SEQUENCE = "product_seq";
+
+  // ids are handed out pooled-lo: each nextval is the first of this many ids, none shared
+  static final int ID_BLOCK_SIZE = 50;
+
+  public List<Product> listAllByName() {
+    return find("order by name")
+        .withHint(HibernateHints.HINT_CACHEABLE, true)
+        .withHint(HibernateHints.HINT_CACHE_REGION, LISTING_CACHE_REGION)
+        .list();
+  }
+
+  public List<Long> listIds() {
+    return getEntityManager().createQuery("select p.id from Product p", Long.class).getResultList();
+  }
+
+  /** Detached products with only id, name and description set, ordered by id. */
+  public List<Product> listSearchableAfter(long afterId, int limit) {
+    return getEntityManager()
+        .createQuery(
+            "select p.id, p.name, p.description from Product p where p.id > :after order by p.id",
+            Object[].class)
+        .setParameter("after", afterId)
+        .setMaxResults(limit)
+        .getResultList()
+        .stream()
+        .map(
+            row -> {
+              Product product = new Product((String) row[1]);
+              product.id = (Long) row[0];
+              product.description = (String) row[2];
+              return product;
+            })
+        .toList();
+  }
+
+  /**
+   * Sets price and stock of every listed product with one JDBC batch, in a transaction of its own.
+   * Bypasses the persistence context, so callers must {@link #evictFromCache()} afterwards.
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int updatePriceAndStock(List<ProductBulkChange> changes) {
+    int[] changed = new int[1];
+    getEntityManager()
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try (PreparedStatement statement =
+                  connection.prepareStatement(
+                      "update product set price = coalesce(?, price), stock = coalesce(?, stock)"
+                          + " where id = ?")) {
+                for (ProductBulkChange change : changes) {
+                  statement.setObject(1, change.price, Types.NUMERIC);
+                  statement.setObject(2, change.stock, Types.INTEGER);
+                  statement.setLong(3, change.id);
+                  statement.addBatch();
+                }
+                for (int count : statement.executeBatch()) {
+                  changed[0] += Math.max(count, 0);
+                }
+              }
+            });
+    return changed[0];
+  }
+
+  /** Multiplies the price and shifts the stock (not below zero) of the given products. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int adjustPriceAndStock(Collection<Long> ids, BigDecimal priceFactor, int stockDelta) {
+    return update(
+        "price = round(price * ?1, 2),"
+            + " stock = case when stock + ?2 < 0 then 0 else stock + ?2 end"
+            + " where id in ?3",
+        priceFactor,
+        stockDelta,
+        ids);
+  }
+
+  public Set<String> findExistingNames(Collection<String> names) {
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery("select p.name from Product p where p.name in :names", String.class)
+            .setParameter("names", names)
+            .getResultList());
+  }
+
+  /**
+   * Persists the products in a transaction of its own. The inserts go out as JDBC batches of
+   * {@code quarkus.hibernate-orm.jdbc.statement-batch-size}, and the second-level cache is skipped.
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void insertBatch(List<Product> products) {
+    Session session = getEntityManager().unwrap(Session.class);
+    session.setCacheMode(CacheMode.IGNORE);
+    products.forEach(session::persist);
+    session.flush();
+    session.clear();
+  }
+
+  /**
+   * Streams the products into the table with Postgres COPY, in a transaction of its own. Ids come
+   * from {@value #ID_SEQUENCE} a block at a time, like Hibernate's own. Bypasses the persistence
+   * context, so callers must {@link #evictFromCache()} afterwards.
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void copyInsert(List<Product> products) {
+    getEntityManager()
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              assignIds(connection, products);
+              StringBuilder csv = new StringBuilder(products.size() * 64);
+              for (Product product : products) {
+                csv.append(product.id).append(',').append(copyText(product.name)).append(',');
+                csv.append(copyText(product.description)).append(',');
+                csv.append(product.price != null ? product.price.toPlainString() : "").append(',');
+                csv.append(product.stock).append('\n');
+              }
+              try {
+                connection
+                    .unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(
+                        "copy product (id, name, description, price, stock)"
+                            + " from stdin (format csv)",
+                        new StringReader(csv.toString()));
+              } catch (IOException e) {
+                throw new SQLException("COPY into product failed", e);
+              }
+            });
+  }
+
+  private static void assignIds(Connection connection, List<Product> products)
+      throws SQLException {
+    int blocks = (products.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+    try (PreparedStatement statement =
+        connection.prepareStatement(
+            "select nextval('" + ID_SEQUENCE + "') from generate_series(1, ?)")) {
+      statement.setInt(1, blocks);
+      try (ResultSet firstIds = statement.executeQuery()) {
+        int next = 0;
+        while (firstIds.next()) {
+          long first = firstIds.getLong(1);
+          for (int i = 0; i < ID_BLOCK_SIZE && next < products.size(); i++) {
+            products.get(next++).id = first + i;
+          }
+        }
+      }
+    }
+  }
+
+  // quoted, so an empty string stays distinct from the unquoted empty field COPY reads as null
+  private static String copyText(String value) {
+    return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+
+  public void evictFromCache() {
+    Cache cache = getEntityManager().getEntityManagerFactory().getCache().unwrap(Cache.class);
+    cache.evictEntityData(Product.class);
+    cache.evictQueryRegion(LISTING_CACHE_REGION);
+  }
+}
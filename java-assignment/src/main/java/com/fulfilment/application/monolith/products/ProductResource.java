@@ -1,23 +1,39 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.common.CachedResponse;
+import com.fulfilment.application.monolith.common.JsonMergePatch;
+import com.fulfilment.application.monolith.common.ResponseByteCache;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 @Path("product")
@@ -28,11 +44,63 @@ public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
+  @Inject JsonMergePatch jsonMergePatch;
+
+  @Inject ProductSearchIndex productSearchIndex;
+
+  @Inject ProductBulkUpdater productBulkUpdater;
+
+  @Inject ProductImporter productImporter;
+
+  @Inject Event<ProductCreatedEvent> productCreatedEvent;
+
+  @Inject Event<ProductUpdatedEvent> productUpdatedEvent;
+
+  @Inject Event<ProductDeletedEvent> productDeletedEvent;
+
+  // an update that changes nothing fires no ProductUpdatedEvent
+  @ConfigProperty(name = "product.update.skip-unchanged", defaultValue = "true")
+  boolean skipUnchanged;
+
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
+  static final int MAX_QUERY_LENGTH = 200;
+
+  static final int MAX_SEARCH_LIMIT = 100;
+
   @GET
+  @CachedResponse(ResponseByteCache.PRODUCTS)
   public List<Product> get() {
-    return productRepository.listAll(Sort.by("name"));
+    return productRepository.listAllByName();
+  }
+
+  @GET
+  @Path("search")
+  public ProductSearchResult search(
+      @QueryParam("q") String query, @QueryParam("limit") @DefaultValue("20") int limit) {
+    if (query == null || query.isBlank()) {
+      throw new WebApplicationException("Search query was not set on request.", 422);
+    }
+    if (query.length() > MAX_QUERY_LENGTH) {
+      throw new WebApplicationException(
+          "Search query is longer than " + MAX_QUERY_LENGTH + " characters.", 422);
+    }
+    if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+      throw new WebApplicationException(
+          "Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".", 422);
+    }
+
+    ProductSearchIndex.Hits hits = productSearchIndex.search(query, limit);
+    if (hits.productIds.isEmpty()) {
+      return new ProductSearchResult(hits.total, List.of());
+    }
+    // one lookup for the page, then back into ranking order
+    Map<Long, Product> byId =
+        productRepository.list("id in ?1", hits.productIds).stream()
+            .collect(Collectors.toMap(product -> product.id, Function.identity()));
+    List<Product> products =
+        hits.productIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    return new ProductSearchResult(hits.total, products);
   }
 
   @GET
@@ -53,9 +121,37 @@ public class ProductResource {
     }
 
     productRepository.persist(product);
+    productCreatedEvent.fire(new ProductCreatedEvent(product));
     return Response.ok(product).status(201).build();
   }
 
+  @POST
+  @Path("bulk")
+  public ProductBulkUpdateResult bulkUpdate(InputStream changes) {
+    return productBulkUpdater.apply(changes);
+  }
+
+  @POST
+  @Path("bulk/rule")
+  public ProductBulkUpdateResult bulkUpdateByRule(ProductPriceRule rule) {
+    return productBulkUpdater.apply(rule);
+  }
+
+  @POST
+  @Path("import")
+  @Consumes("text/csv")
+  public ProductImportResult importProducts(
+      @QueryParam("mode") @DefaultValue("batch") String mode, InputStream csv) {
+    return productImporter.apply(csv, ProductImporter.mode(mode));
+  }
+
+  @GET
+  @Path("import/{importId}/rejects")
+  @Produces("text/csv")
+  public File importRejects(String importId) {
+    return productImporter.rejects(importId);
+  }
+
   @PUT
   @Path("{id}")
   @Transactional
@@ -70,16 +166,51 @@ public class ProductResource {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
 
+    List<Object> before = state(entity);
     entity.name = product.name;
     entity.description = product.description;
     entity.price = product.price;
     entity.stock = product.stock;
 
-    productRepository.persist(entity);
+    updated(entity, !before.equals(state(entity)));
 
+    // managed entity: dirty checking flushes only the changed columns on commit
     return entity;
   }
 
+  @PATCH
+  @Path("{id}")
+  @Transactional
+  @Consumes(JsonMergePatch.MEDIA_TYPE)
+  public Product mergePatch(Long id, JsonNode patch) {
+    Product entity = productRepository.findById(id);
+
+    if (entity == null) {
+      throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+    }
+
+    updated(entity, jsonMergePatch.apply(entity, patch, Set.of("name", "stock")));
+
+    return entity;
+  }
+
+  private void updated(Product entity, boolean changed) {
+    if (!changed && skipUnchanged) {
+      LOGGER.debugf("Product %d is unchanged, skipping update", entity.id);
+      return;
+    }
+    productUpdatedEvent.fire(new ProductUpdatedEvent(entity));
+  }
+
+  // the price without trailing zeros, as 10 and 10.00 are the same numeric(10, 2) value
+  private static List<Object> state(Product product) {
+    return Arrays.asList(
+        product.name,
+        product.description,
+        product.price != null ? product.price.stripTrailingZeros() : null,
+        product.stock);
+  }
+
   @DELETE
   @Path("{id}")
   @Transactional
@@ -89,6 +220,7 @@ public class ProductResource {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
     productRepository.delete(entity);
+    productDeletedEvent.fire(new ProductDeletedEvent(entity));
     return Response.status(204).build();
   }
 
@@ -114,7 +246,7 @@ public class ProductResource {
         exceptionJson.put("error", exception.getMessage());
       }
 
-      return Response.status(code).entity(exceptionJson).build();
+      return Response.status(code).type("application/json").entity(exceptionJson).build();
     }
   }
 }
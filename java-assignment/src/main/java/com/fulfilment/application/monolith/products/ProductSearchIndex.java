@@ -0,0 +1,484 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * In-memory inverted index over product names and descriptions. Terms are kept sorted, so a query
+ * token matches every term it is a prefix of with a single range scan. Each posting is one int
+ * holding the document number and the fields the term occurs in. An updated product is indexed
+ * as a new document and the old one is tombstoned; tombstones are dropped by compaction once they
+ * make up a quarter of the index.
+ *
+ * <p>A rebuild reads the products without holding the lock. Changes committed meanwhile are
+ * applied as usual and also buffered, then replayed on top of what the rebuild read. Creates and
+ * updates replay as upserts and deletes as removals, so replaying a change the rebuild already saw
+ * is harmless.
+ */
+@ApplicationScoped
+public class ProductSearchIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(ProductSearchIndex.class);
+
+  /** Shorter query tokens only match whole terms, to avoid expanding to most of the index. */
+  static final int MIN_PREFIX_LENGTH = 2;
+
+  static final int COMPACTION_MIN_DELETED = 1024;
+
+  private static final int FIELD_BITS = 2;
+  private static final int NAME = 1;
+  private static final int DESCRIPTION = 2;
+  private static final int MAX_DOCS = Integer.MAX_VALUE >>> FIELD_BITS;
+
+  // per query token: whole-term matches score twice a prefix match, names four times descriptions
+  private static final int NAME_TERM_SCORE = 8;
+  private static final int NAME_PREFIX_SCORE = 4;
+  private static final int DESCRIPTION_TERM_SCORE = 2;
+  private static final int DESCRIPTION_PREFIX_SCORE = 1;
+
+  private static final int SCORE_BITS = 16;
+  private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+  private static final int MAX_QUERY_TOKENS = (int) (SCORE_MASK / NAME_TERM_SCORE);
+
+  private static final int REBUILD_BATCH_SIZE = 10_000;
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  @Inject ProductRepository productRepository;
+
+  @ConfigProperty(name = "product.search.build-on-startup", defaultValue = "true")
+  boolean buildOnStartup = true;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final NavigableMap<String, Postings> postingsByTerm = new TreeMap<>();
+
+  private final Map<Long, Integer> documentByProduct = new HashMap<>();
+
+  // document -> product id
+  private long[] products = new long[16];
+
+  private int documents;
+
+  private final BitSet deleted = new BitSet();
+
+  private int deletedCount;
+
+  // changes committed while a rebuild reads the products, null when no rebuild is running
+  private List<Runnable> pending;
+
+  // set when the index is invalidated during a rebuild, whose products may predate the change
+  private boolean stale;
+
+  private volatile boolean loaded;
+
+  void onStart(@Observes StartupEvent event) {
+    if (buildOnStartup) {
+      QuarkusTransaction.requiringNew().run(this::rebuild);
+    }
+  }
+
+  public synchronized void rebuild() {
+    beginRebuild();
+    try {
+      List<Product> all = new ArrayList<>();
+      List<Product> batch = productRepository.listSearchableAfter(0, REBUILD_BATCH_SIZE);
+      while (!batch.isEmpty()) {
+        all.addAll(batch);
+        batch =
+            productRepository.listSearchableAfter(
+                batch.get(batch.size() - 1).id, REBUILD_BATCH_SIZE);
+      }
+      load(all);
+      LOGGER.infof("Product search index built: products=%d, terms=%d", all.size(), termCount());
+    } finally {
+      lock.writeLock().lock();
+      try {
+        pending = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /** Starts buffering committed changes for the {@link #load} of a rebuild. */
+  void beginRebuild() {
+    lock.writeLock().lock();
+    try {
+      pending = new ArrayList<>();
+      stale = false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void load(Collection<Product> all) {
+    lock.writeLock().lock();
+    try {
+      postingsByTerm.clear();
+      documentByProduct.clear();
+      products = new long[Math.max(16, all.size())];
+      documents = 0;
+      deleted.clear();
+      deletedCount = 0;
+      all.forEach(this::addUnderLock);
+      if (pending != null) {
+        pending.forEach(Runnable::run);
+        pending.clear();
+      }
+      postingsByTerm.values().forEach(Postings::trim);
+      loaded = !stale;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Drops the index after changes that fire no product events; the next search rebuilds it. A
+   * rebuild running meanwhile still completes, but leaves the index unloaded.
+   */
+  public void invalidate() {
+    lock.writeLock().lock();
+    try {
+      loaded = false;
+      stale = pending != null;
+      postingsByTerm.clear();
+      documentByProduct.clear();
+      products = new long[16];
+      documents = 0;
+      deleted.clear();
+      deletedCount = 0;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void onProductCreated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+    Product product = searchable(event.getProduct());
+    apply(() -> upsertUnderLock(product));
+  }
+
+  public void onProductUpdated(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductUpdatedEvent event) {
+    Product product = searchable(event.getProduct());
+    apply(() -> upsertUnderLock(product));
+  }
+
+  public void onProductDeleted(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) ProductDeletedEvent event) {
+    Long productId = event.getProduct().id;
+    apply(() -> removeUnderLock(productId));
+  }
+
+  /**
+   * Products matching every token of the query, best first. A token matches a term equal to it
+   * or, from {@link #MIN_PREFIX_LENGTH} characters on, starting with it.
+   */
+  public Hits search(String query, int limit) {
+    ensureLoaded();
+    Set<String> tokens = new LinkedHashSet<>(tokens(query));
+    if (tokens.isEmpty()) {
+      return new Hits(0, List.of());
+    }
+    if (tokens.size() > MAX_QUERY_TOKENS) {
+      throw new IllegalArgumentException("Query has more than " + MAX_QUERY_TOKENS + " terms");
+    }
+    lock.readLock().lock();
+    try {
+      long[] matches = null;
+      for (String token : tokens) {
+        long[] tokenMatches = matchesUnderLock(token);
+        matches = matches == null ? tokenMatches : intersect(matches, tokenMatches);
+        if (matches.length == 0) {
+          return new Hits(0, List.of());
+        }
+      }
+      return new Hits(matches.length, topUnderLock(matches, limit));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int termCount() {
+    lock.readLock().lock();
+    try {
+      return postingsByTerm.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void ensureLoaded() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          rebuild();
+        }
+      }
+    }
+  }
+
+  private void apply(Runnable change) {
+    lock.writeLock().lock();
+    try {
+      if (loaded) {
+        change.run();
+      }
+      if (pending != null) {
+        pending.add(change);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Copy of the indexed fields, so a buffered change is not affected by later edits. */
+  private static Product searchable(Product product) {
+    Product copy = new Product(product.name);
+    copy.id = product.id;
+    copy.description = product.description;
+    return copy;
+  }
+
+  private void upsertUnderLock(Product product) {
+    removeUnderLock(product.id);
+    addUnderLock(product);
+  }
+
+  private void addUnderLock(Product product) {
+    if (documents == MAX_DOCS) {
+      compactUnderLock();
+    }
+    Map<String, Integer> fields = new HashMap<>();
+    tokens(product.name).forEach(term -> fields.merge(term, NAME, (a, b) -> a | b));
+    tokens(product.description).forEach(term -> fields.merge(term, DESCRIPTION, (a, b) -> a | b));
+
+    int document = documents++;
+    if (document == products.length) {
+      products = Arrays.copyOf(products, products.length + (products.length >> 1));
+    }
+    products[document] = product.id;
+    documentByProduct.put(product.id, document);
+    fields.forEach(
+        (term, mask) ->
+            postingsByTerm
+                .computeIfAbsent(term, t -> new Postings())
+                .add(document << FIELD_BITS | mask));
+  }
+
+  private void removeUnderLock(Long productId) {
+    Integer document = documentByProduct.remove(productId);
+    if (document == null) {
+      return;
+    }
+    deleted.set(document);
+    deletedCount++;
+    if (deletedCount >= COMPACTION_MIN_DELETED && deletedCount * 4 >= documents) {
+      compactUnderLock();
+    }
+  }
+
+  void compact() {
+    lock.writeLock().lock();
+    try {
+      compactUnderLock();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Renumbers the live documents densely, keeping their order, and drops tombstones. */
+  private void compactUnderLock() {
+    int[] renumbered = new int[documents];
+    long[] live = new long[Math.max(16, documents - deletedCount)];
+    int next = 0;
+    for (int document = 0; document < documents; document++) {
+      if (deleted.get(document)) {
+        renumbered[document] = -1;
+      } else {
+        renumbered[document] = next;
+        live[next++] = products[document];
+      }
+    }
+    Iterator<Postings> iterator = postingsByTerm.values().iterator();
+    while (iterator.hasNext()) {
+      Postings postings = iterator.next();
+      postings.renumber(renumbered);
+      if (postings.size == 0) {
+        iterator.remove();
+      }
+    }
+    documentByProduct.replaceAll((productId, document) -> renumbered[document]);
+    products = live;
+    documents = next;
+    deleted.clear();
+    deletedCount = 0;
+  }
+
+  /** Documents matching the token as {@code document << SCORE_BITS | score}, by document. */
+  private long[] matchesUnderLock(String token) {
+    Collection<Map.Entry<String, Postings>> terms =
+        token.length() < MIN_PREFIX_LENGTH
+            ? postingsByTerm.subMap(token, true, token, true).entrySet()
+            : postingsByTerm.subMap(token, true, token + Character.MAX_VALUE, false).entrySet();
+
+    int total = 0;
+    for (Map.Entry<String, Postings> term : terms) {
+      total += term.getValue().size;
+    }
+    long[] matches = new long[total];
+    int size = 0;
+    for (Map.Entry<String, Postings> term : terms) {
+      boolean whole = term.getKey().length() == token.length();
+      Postings postings = term.getValue();
+      for (int i = 0; i < postings.size; i++) {
+        int document = postings.entries[i] >>> FIELD_BITS;
+        if (!deleted.get(document)) {
+          matches[size++] = (long) document << SCORE_BITS | score(postings.entries[i], whole);
+        }
+      }
+    }
+    Arrays.sort(matches, 0, size);
+
+    // keep the best score per document, which sorts last among its entries
+    int distinct = 0;
+    for (int i = 0; i < size; i++) {
+      if (i + 1 < size && matches[i] >>> SCORE_BITS == matches[i + 1] >>> SCORE_BITS) {
+        continue;
+      }
+      matches[distinct++] = matches[i];
+    }
+    return Arrays.copyOf(matches, distinct);
+  }
+
+  private static int score(int posting, boolean whole) {
+    if ((posting & NAME) != 0) {
+      return whole ? NAME_TERM_SCORE : NAME_PREFIX_SCORE;
+    }
+    return whole ? DESCRIPTION_TERM_SCORE : DESCRIPTION_PREFIX_SCORE;
+  }
+
+  /** Documents present in both, with their scores added up. */
+  private static long[] intersect(long[] left, long[] right) {
+    long[] result = new long[Math.min(left.length, right.length)];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < left.length && j < right.length) {
+      long leftDocument = left[i] >>> SCORE_BITS;
+      long rightDocument = right[j] >>> SCORE_BITS;
+      if (leftDocument < rightDocument) {
+        i++;
+      } else if (leftDocument > rightDocument) {
+        j++;
+      } else {
+        result[size++] = left[i++] + (right[j++] & SCORE_MASK);
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  /** Highest score first, then the earliest indexed document. */
+  private List<Long> topUnderLock(long[] matches, int limit) {
+    long[] ranked = new long[matches.length];
+    for (int i = 0; i < matches.length; i++) {
+      long document = matches[i] >>> SCORE_BITS;
+      long score = matches[i] & SCORE_MASK;
+      ranked[i] = (SCORE_MASK - score) << 32 | document;
+    }
+    Arrays.sort(ranked);
+    List<Long> top = new ArrayList<>(Math.min(limit, ranked.length));
+    for (int i = 0; i < ranked.length && top.size() < limit; i++) {
+      top.add(products[(int) ranked[i]]);
+    }
+    return top;
+  }
+
+  static List<String> tokens(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String folded =
+        MARKS
+            .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+    List<String> tokens = new ArrayList<>();
+    for (String token : SEPARATORS.split(folded)) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  public static class Hits {
+
+    public final int total;
+
+    public final List<Long> productIds;
+
+    Hits(int total, List<Long> productIds) {
+      this.total = total;
+      this.productIds = productIds;
+    }
+  }
+
+  /** Sorted {@code document << FIELD_BITS | fields} entries of one term. */
+  private static class Postings {
+
+    private int[] entries = new int[2];
+
+    private int size;
+
+    void add(int entry) {
+      if (size == entries.length) {
+        entries = Arrays.copyOf(entries, size + Math.max(2, size >> 1));
+      }
+      entries[size++] = entry;
+    }
+
+    void renumber(int[] renumbered) {
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        int document = renumbered[entries[i] >>> FIELD_BITS];
+        if (document >= 0) {
+          entries[kept++] = document << FIELD_BITS | (entries[i] & ((1 << FIELD_BITS) - 1));
+        }
+      }
+      size = kept;
+      trim();
+    }
+
+    void trim() {
+      if (entries.length != size) {
+        entries = Arrays.copyOf(entries, size);
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.List;
+
+public class ProductSearchResult {
+
+  public int total;
+
+  public List<Product> products;
+
+  public ProductSearchResult() {}
+
+  public ProductSearchResult(int total, List<Product> products) {
+    this.total = total;
+    this.products = products;
+  }
+}
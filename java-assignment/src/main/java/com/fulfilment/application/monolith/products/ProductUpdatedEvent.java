@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductUpdatedEvent {
+
+  private final Product product;
+
+  public ProductUpdatedEvent(Product product) {
+    this.product = product;
+  }
+
+  public Product getProduct() {
+    return product;
+  }
+}
@@ -0,0 +1,53 @@
+package com.fulfilment.application.monolith.reconciliation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of an interrupted reconciliation run: the phase it was in, the last key whose chunk
+ * has been compared and reported, and the report length at that point. Anything the report holds
+ * beyond that length was written after the last checkpoint and is truncated on resume.
+ */
+final class ReconciliationCheckpoint {
+
+  StockReconciliationJob.Phase phase = StockReconciliationJob.Phase.WAREHOUSES;
+
+  long lastKey;
+
+  long reportLength;
+
+  static ReconciliationCheckpoint load(Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return null;
+    }
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint();
+    checkpoint.phase = StockReconciliationJob.Phase.valueOf(properties.getProperty("phase"));
+    checkpoint.lastKey = Long.parseLong(properties.getProperty("lastKey"));
+    checkpoint.reportLength = Long.parseLong(properties.getProperty("reportLength"));
+    return checkpoint;
+  }
+
+  /** Replaces the file atomically, so a crash leaves either the old or the new checkpoint. */
+  void save(Path file) throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty("phase", phase.name());
+    properties.setProperty("lastKey", Long.toString(lastKey));
+    properties.setProperty("reportLength", Long.toString(reportLength));
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+      properties.store(writer, null);
+    }
+    Files.move(
+        temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+  }
+}
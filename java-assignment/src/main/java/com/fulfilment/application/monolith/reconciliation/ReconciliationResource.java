@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.reconciliation;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+@Path("reconciliation/stock")
+@ApplicationScoped
+@Produces("application/json")
+public class ReconciliationResource {
+
+  @Inject StockReconciliationJob stockReconciliationJob;
+
+  @GET
+  public ReconciliationStatus status() {
+    return stockReconciliationJob.status();
+  }
+
+  @POST
+  public Response start() {
+    if (!stockReconciliationJob.start()) {
+      throw new WebApplicationException("Stock reconciliation is already running.", 409);
+    }
+    return Response.accepted(stockReconciliationJob.status()).build();
+  }
+}
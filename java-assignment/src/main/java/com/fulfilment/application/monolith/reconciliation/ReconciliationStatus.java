@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.reconciliation;
+
+import java.time.Instant;
+
+public class ReconciliationStatus {
+
+  public StockReconciliationJob.State state;
+
+  public StockReconciliationJob.Phase phase;
+
+  public long rowsRead;
+
+  public double rowsPerSecond;
+
+  public long discrepancies;
+
+  public Instant startedAt;
+
+  public Instant finishedAt;
+
+  public String report;
+
+  public String error;
+}
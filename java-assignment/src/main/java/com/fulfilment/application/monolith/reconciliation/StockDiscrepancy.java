@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.reconciliation;
+
+public class StockDiscrepancy {
+
+  public enum Type {
+    NEGATIVE_WAREHOUSE_STOCK,
+    WAREHOUSE_STOCK_EXCEEDS_CAPACITY,
+    NEGATIVE_PRODUCT_STOCK,
+    UNSOURCED_PRODUCT_STOCK,
+    PRODUCT_STOCK_EXCEEDS_WAREHOUSES,
+    NEGATIVE_STORE_STOCK,
+    STORE_STOCK_WITHOUT_ASSORTMENT,
+    STORE_STOCK_EXCEEDS_PRODUCTS,
+    NETWORK_STOCK_MISMATCH
+  }
+
+  static final String CSV_HEADER = "type,key,actual,expected";
+
+  public final Type type;
+
+  public final String key;
+
+  public final long actual;
+
+  public final long expected;
+
+  public StockDiscrepancy(Type type, String key, long actual, long expected) {
+    this.type = type;
+    this.key = key;
+    this.actual = actual;
+    this.expected = expected;
+  }
+
+  String toCsv() {
+    return type + "," + key + "," + actual + "," + expected;
+  }
+}
@@ -0,0 +1,471 @@
+package com.fulfilment.application.monolith.reconciliation;
+
+import com.fulfilment.application.monolith.reconciliation.StockDiscrepancy.Type;
+import com.fulfilment.application.monolith.reconciliation.StockReconciliationReader.Row;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Cross-checks warehouse, product and store stock. Products and stores are read in id-ordered
+ * chunks on a single job thread, one short transaction per chunk, so the job never takes more than
+ * one pooled connection. Each chunk is compared on a fork-join pool while the next one is read.
+ * Discrepancies are appended to a CSV report and a checkpoint is written after every chunk, so an
+ * interrupted run resumes where it stopped.
+ *
+ * <p>The rules: a warehouse holds no more than its capacity; a product's stock is held by the
+ * active warehouses fulfilling it; a store holds no more than the network stock of its assortment;
+ * and product stock adds up to warehouse stock across the network.
+ */
+@ApplicationScoped
+public class StockReconciliationJob {
+
+  private static final Logger LOGGER = Logger.getLogger(StockReconciliationJob.class);
+
+  static final String REPORT_FILE = "stock-discrepancies.csv";
+
+  static final String CHECKPOINT_FILE = "checkpoint.properties";
+
+  // rows per fork-join leaf task
+  private static final int LEAF_SIZE = 256;
+
+  public enum Phase {
+    WAREHOUSES,
+    PRODUCTS,
+    STORES,
+    NETWORK,
+    DONE
+  }
+
+  public enum State {
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  @Inject StockReconciliationReader reader;
+
+  @ConfigProperty(name = "reconciliation.directory", defaultValue = "reconciliation")
+  String directory = "reconciliation";
+
+  @ConfigProperty(name = "reconciliation.chunk-size", defaultValue = "5000")
+  int chunkSize = 5000;
+
+  // 0 uses one thread per available processor
+  @ConfigProperty(name = "reconciliation.parallelism", defaultValue = "0")
+  int parallelism;
+
+  // 0 reads as fast as the database answers
+  @ConfigProperty(name = "reconciliation.max-rows-per-second", defaultValue = "0")
+  int maxRowsPerSecond;
+
+  private final ExecutorService runner =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "stock-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final AtomicLong rowsRead = new AtomicLong();
+  private final AtomicLong discrepancies = new AtomicLong();
+  private volatile State state = State.IDLE;
+  private volatile Phase phase;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile String error;
+
+  // per run, only touched by the job thread
+  private ForkJoinPool pool;
+  private ReconciliationCheckpoint checkpoint;
+  private Path checkpointFile;
+  private Path reportFile;
+  private BufferedWriter report;
+  private long throttleStartedNanos;
+  private long throttledRows;
+
+  /** Starts a run in the background, resuming from the checkpoint if there is one. */
+  public synchronized boolean start() {
+    if (state == State.RUNNING) {
+      return false;
+    }
+    state = State.RUNNING;
+    runner.submit(
+        () -> {
+          try {
+            run();
+          } catch (Exception e) {
+            LOGGER.error("Stock reconciliation failed, it resumes from its checkpoint", e);
+          }
+        });
+    return true;
+  }
+
+  public ReconciliationStatus status() {
+    ReconciliationStatus status = new ReconciliationStatus();
+    status.state = state;
+    status.phase = phase;
+    status.rowsRead = rowsRead.get();
+    status.discrepancies = discrepancies.get();
+    status.startedAt = startedAt;
+    status.finishedAt = finishedAt;
+    status.error = error;
+    status.report = Path.of(directory).resolve(REPORT_FILE).toAbsolutePath().toString();
+    Instant end = finishedAt != null ? finishedAt : Instant.now();
+    if (startedAt != null && end.isAfter(startedAt)) {
+      status.rowsPerSecond =
+          status.rowsRead * 1000.0 / (end.toEpochMilli() - startedAt.toEpochMilli());
+    }
+    return status;
+  }
+
+  @PreDestroy
+  void stop() {
+    runner.shutdownNow();
+  }
+
+  void run() throws Exception {
+    state = State.RUNNING;
+    rowsRead.set(0);
+    discrepancies.set(0);
+    startedAt = Instant.now();
+    finishedAt = null;
+    error = null;
+    throttleStartedNanos = System.nanoTime();
+    throttledRows = 0;
+    report = null;
+
+    pool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    try {
+      openReport();
+      reconcile();
+      report.close();
+      Files.deleteIfExists(checkpointFile);
+      state = State.COMPLETED;
+      LOGGER.infof(
+          "Stock reconciliation completed: rows=%d, discrepancies=%d, report=%s",
+          rowsRead.get(), discrepancies.get(), reportFile);
+    } catch (Exception e) {
+      error = e.getClass().getSimpleName() + ": " + e.getMessage();
+      state = State.FAILED;
+      if (report != null) {
+        report.close();
+      }
+      throw e;
+    } finally {
+      finishedAt = Instant.now();
+      pool.shutdownNow();
+    }
+  }
+
+  private void openReport() throws IOException {
+    Path dir = Path.of(directory);
+    Files.createDirectories(dir);
+    checkpointFile = dir.resolve(CHECKPOINT_FILE);
+    reportFile = dir.resolve(REPORT_FILE);
+    checkpoint = ReconciliationCheckpoint.load(checkpointFile);
+    if (checkpoint == null) {
+      checkpoint = new ReconciliationCheckpoint();
+    } else {
+      LOGGER.infof(
+          "Resuming stock reconciliation in %s after key %d",
+          checkpoint.phase, checkpoint.lastKey);
+    }
+    // drops lines reported after the last checkpoint, or the whole report of a finished run
+    try (FileChannel channel =
+        FileChannel.open(reportFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      channel.truncate(checkpoint.reportLength);
+    }
+    report =
+        Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    if (checkpoint.reportLength == 0) {
+      report.write(StockDiscrepancy.CSV_HEADER);
+      report.newLine();
+    }
+  }
+
+  private void reconcile() throws Exception {
+    phase = Phase.WAREHOUSES;
+    List<Warehouse> warehouses = reader.warehouses();
+    Map<String, Long> warehouseStock = new HashMap<>();
+    long warehouseTotal = 0;
+    List<StockDiscrepancy> found = new ArrayList<>();
+    for (Warehouse warehouse : warehouses) {
+      long stock = warehouse.stock != null ? warehouse.stock : 0;
+      warehouseStock.put(warehouse.businessUnitCode, stock);
+      warehouseTotal += stock;
+      StockDiscrepancy discrepancy = checkWarehouse(warehouse);
+      if (discrepancy != null) {
+        found.add(discrepancy);
+      }
+    }
+    rowsRead.addAndGet(warehouses.size());
+    if (checkpoint.phase == Phase.WAREHOUSES) {
+      completeChunk(found, Phase.PRODUCTS, 0);
+    }
+
+    // every product is read, also when resuming, for the store and network checks
+    ProductStock productStock = new ProductStock();
+    scan(
+        Phase.PRODUCTS,
+        reader::products,
+        rows -> rows.forEach(row -> productStock.append(row.id, row.stock)),
+        rows -> {
+          Map<Long, Set<String>> links =
+              reader.warehousesByProduct(rows.get(0).id, rows.get(rows.size() - 1).id);
+          return new ChunkCheck(rows, row -> checkProduct(row, links, warehouseStock));
+        });
+
+    if (checkpoint.phase.compareTo(Phase.STORES) <= 0) {
+      scan(
+          Phase.STORES,
+          reader::stores,
+          null,
+          rows -> {
+            Map<Long, Set<Long>> links =
+                reader.productsByStore(rows.get(0).id, rows.get(rows.size() - 1).id);
+            return new ChunkCheck(rows, row -> checkStore(row, links, productStock));
+          });
+    }
+
+    phase = Phase.NETWORK;
+    if (checkpoint.phase == Phase.NETWORK) {
+      found.clear();
+      if (productStock.total != warehouseTotal) {
+        found.add(
+            new StockDiscrepancy(
+                Type.NETWORK_STOCK_MISMATCH, "network", productStock.total, warehouseTotal));
+      }
+      completeChunk(found, Phase.DONE, 0);
+    }
+    phase = Phase.DONE;
+  }
+
+  /**
+   * Reads the phase's rows in id order and compares every chunk past the checkpoint. The check
+   * for a chunk is submitted to the pool and joined only after the next chunk has been read.
+   */
+  private void scan(
+      Phase scanned,
+      ChunkReader chunks,
+      Consumer<List<Row>> everyChunk,
+      Function<List<Row>, ForkJoinTask<List<StockDiscrepancy>>> check)
+      throws Exception {
+    phase = scanned;
+    // compare everything in a phase not reached yet, nothing in one already done
+    int position = checkpoint.phase.compareTo(scanned);
+    long compareAfter =
+        position < 0 ? Long.MIN_VALUE : position == 0 ? checkpoint.lastKey : Long.MAX_VALUE;
+
+    ForkJoinTask<List<StockDiscrepancy>> pending = null;
+    long pendingLastKey = 0;
+    long after = 0;
+    while (true) {
+      List<Row> rows = chunks.read(after, chunkSize);
+      if (pending != null) {
+        completeChunk(pending.join(), scanned, pendingLastKey);
+        pending = null;
+      }
+      if (rows.isEmpty()) {
+        break;
+      }
+      rowsRead.addAndGet(rows.size());
+      if (everyChunk != null) {
+        everyChunk.accept(rows);
+      }
+      long lastKey = rows.get(rows.size() - 1).id;
+      if (lastKey > compareAfter) {
+        List<Row> unchecked = rows.stream().filter(row -> row.id > compareAfter).toList();
+        pending = pool.submit(check.apply(unchecked));
+        pendingLastKey = lastKey;
+      }
+      after = lastKey;
+      throttle(rows.size());
+    }
+    if (checkpoint.phase == scanned) {
+      completeChunk(List.of(), Phase.values()[scanned.ordinal() + 1], 0);
+    }
+  }
+
+  /** Appends the chunk's discrepancies, then records that everything up to the key is done. */
+  private void completeChunk(List<StockDiscrepancy> found, Phase next, long lastKey)
+      throws IOException {
+    for (StockDiscrepancy discrepancy : found) {
+      report.write(discrepancy.toCsv());
+      report.newLine();
+    }
+    report.flush();
+    discrepancies.addAndGet(found.size());
+    checkpoint.phase = next;
+    checkpoint.lastKey = lastKey;
+    checkpoint.reportLength = Files.size(reportFile);
+    checkpoint.save(checkpointFile);
+  }
+
+  private void throttle(int rows) throws InterruptedException {
+    if (maxRowsPerSecond <= 0) {
+      return;
+    }
+    throttledRows += rows;
+    long dueNanos = throttleStartedNanos + throttledRows * 1_000_000_000L / maxRowsPerSecond;
+    long waitNanos = dueNanos - System.nanoTime();
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  static StockDiscrepancy checkWarehouse(Warehouse warehouse) {
+    long stock = warehouse.stock != null ? warehouse.stock : 0;
+    long capacity = warehouse.capacity != null ? warehouse.capacity : 0;
+    if (stock < 0) {
+      return new StockDiscrepancy(
+          Type.NEGATIVE_WAREHOUSE_STOCK, warehouse.businessUnitCode, stock, 0);
+    }
+    if (stock > capacity) {
+      return new StockDiscrepancy(
+          Type.WAREHOUSE_STOCK_EXCEEDS_CAPACITY, warehouse.businessUnitCode, stock, capacity);
+    }
+    return null;
+  }
+
+  static StockDiscrepancy checkProduct(
+      Row product, Map<Long, Set<String>> warehousesByProduct, Map<String, Long> warehouseStock) {
+    String key = Long.toString(product.id);
+    if (product.stock < 0) {
+      return new StockDiscrepancy(Type.NEGATIVE_PRODUCT_STOCK, key, product.stock, 0);
+    }
+    Set<String> warehouses = warehousesByProduct.getOrDefault(product.id, Set.of());
+    long available = 0;
+    for (String warehouse : warehouses) {
+      available += warehouseStock.getOrDefault(warehouse, 0L);
+    }
+    if (product.stock > 0 && warehouses.isEmpty()) {
+      return new StockDiscrepancy(Type.UNSOURCED_PRODUCT_STOCK, key, product.stock, 0);
+    }
+    if (product.stock > available) {
+      return new StockDiscrepancy(
+          Type.PRODUCT_STOCK_EXCEEDS_WAREHOUSES, key, product.stock, available);
+    }
+    return null;
+  }
+
+  static StockDiscrepancy checkStore(
+      Row store, Map<Long, Set<Long>> productsByStore, ProductStock productStock) {
+    String key = Long.toString(store.id);
+    if (store.stock < 0) {
+      return new StockDiscrepancy(Type.NEGATIVE_STORE_STOCK, key, store.stock, 0);
+    }
+    Set<Long> assortment = productsByStore.getOrDefault(store.id, Set.of());
+    if (store.stock > 0 && assortment.isEmpty()) {
+      return new StockDiscrepancy(Type.STORE_STOCK_WITHOUT_ASSORTMENT, key, store.stock, 0);
+    }
+    long available = 0;
+    for (Long product : assortment) {
+      available += productStock.get(product);
+    }
+    if (store.stock > available) {
+      return new StockDiscrepancy(
+          Type.STORE_STOCK_EXCEEDS_PRODUCTS, key, store.stock, available);
+    }
+    return null;
+  }
+
+  @FunctionalInterface
+  interface ChunkReader {
+    List<Row> read(long afterId, int limit);
+  }
+
+  /** Applies a rule to a slice of a chunk, splitting it until slices are small enough. */
+  private static final class ChunkCheck extends RecursiveTask<List<StockDiscrepancy>> {
+
+    private final List<Row> rows;
+    private final int from;
+    private final int to;
+    private final Function<Row, StockDiscrepancy> rule;
+
+    ChunkCheck(List<Row> rows, Function<Row, StockDiscrepancy> rule) {
+      this(rows, 0, rows.size(), rule);
+    }
+
+    private ChunkCheck(List<Row> rows, int from, int to, Function<Row, StockDiscrepancy> rule) {
+      this.rows = rows;
+      this.from = from;
+      this.to = to;
+      this.rule = rule;
+    }
+
+    @Override
+    protected List<StockDiscrepancy> compute() {
+      if (to - from <= LEAF_SIZE) {
+        List<StockDiscrepancy> found = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+          StockDiscrepancy discrepancy = rule.apply(rows.get(i));
+          if (discrepancy != null) {
+            found.add(discrepancy);
+          }
+        }
+        return found;
+      }
+      int middle = (from + to) >>> 1;
+      ChunkCheck left = new ChunkCheck(rows, from, middle, rule);
+      left.fork();
+      List<StockDiscrepancy> right = new ChunkCheck(rows, middle, to, rule).compute();
+      List<StockDiscrepancy> found = new ArrayList<>(left.join());
+      found.addAll(right);
+      return found;
+    }
+  }
+
+  /** Product stock by id, appended in id order and looked up by binary search. */
+  static final class ProductStock {
+
+    private long[] ids = new long[1024];
+    private long[] stocks = new long[1024];
+    private int size;
+    long total;
+
+    void append(long id, long stock) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        stocks = Arrays.copyOf(stocks, size * 2);
+      }
+      ids[size] = id;
+      stocks[size++] = stock;
+      total += stock;
+    }
+
+    long get(long id) {
+      int index = Arrays.binarySearch(ids, 0, size, id);
+      return index >= 0 ? stocks[index] : 0;
+    }
+  }
+}
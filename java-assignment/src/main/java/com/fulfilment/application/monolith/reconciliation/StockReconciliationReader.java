@@ -0,0 +1,102 @@
+package com.fulfilment.application.monolith.reconciliation;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Key-ordered reads for the reconciliation job. Every call runs in a short transaction of its
+ * own, so the job holds a pooled connection only while a chunk is being fetched.
+ */
+@ApplicationScoped
+public class StockReconciliationReader {
+
+  @Inject EntityManager entityManager;
+
+  @Inject WarehouseStore warehouseStore;
+
+  /** Active warehouses; their number is bounded by the location catalog. */
+  @Transactional
+  public List<Warehouse> warehouses() {
+    return warehouseStore.getAll();
+  }
+
+  @Transactional
+  public List<Row> products(long afterId, int limit) {
+    return rows(
+        "select p.id, p.stock from Product p where p.id > :after order by p.id", afterId, limit);
+  }
+
+  @Transactional
+  public List<Row> stores(long afterId, int limit) {
+    return rows(
+        "select s.id, s.quantityProductsInStock from Store s where s.id > :after order by s.id",
+        afterId,
+        limit);
+  }
+
+  /** Warehouses fulfilling each product with an id in the range, for any store. */
+  @Transactional
+  public Map<Long, Set<String>> warehousesByProduct(long firstId, long lastId) {
+    Map<Long, Set<String>> result = new HashMap<>();
+    entityManager
+        .createQuery(
+            "select distinct f.productId, f.warehouseBusinessUnitCode from Fulfilment f"
+                + " where f.productId between :first and :last",
+            Object[].class)
+        .setParameter("first", firstId)
+        .setParameter("last", lastId)
+        .getResultStream()
+        .forEach(
+            row ->
+                result.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]));
+    return result;
+  }
+
+  /** Products fulfilled for each store with an id in the range, by any warehouse. */
+  @Transactional
+  public Map<Long, Set<Long>> productsByStore(long firstId, long lastId) {
+    Map<Long, Set<Long>> result = new HashMap<>();
+    entityManager
+        .createQuery(
+            "select distinct f.storeId, f.productId from Fulfilment f"
+                + " where f.storeId between :first and :last",
+            Object[].class)
+        .setParameter("first", firstId)
+        .setParameter("last", lastId)
+        .getResultStream()
+        .forEach(
+            row -> result.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]));
+    return result;
+  }
+
+  private List<Row> rows(String query, long afterId, int limit) {
+    return entityManager
+        .createQuery(query, Object[].class)
+        .setParameter("after", afterId)
+        .setMaxResults(limit)
+        .getResultStream()
+        .map(row -> new Row((Long) row[0], ((Number) row[1]).longValue()))
+        .toList();
+  }
+
+  public static final class Row {
+
+    final long id;
+
+    final long stock;
+
+    Row(long id, long stock) {
+      this.id = id;
+      this.stock = stock;
+    }
+  }
+}
@@ -0,0 +1,283 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Hands committed store changes to the {@link LegacyStoreManagerGateway}. In {@code sync} mode the
+ * gateway is called on the caller's thread; in {@code async} mode changes are queued on bounded
+ * lanes, each drained by one dedicated worker, so the request path no longer waits for the legacy
+ * system. A store always maps to the same lane, so its changes are delivered one at a time and in
+ * commit order. What happens when a lane is full is decided by the configured {@link
+ * Backpressure}.
+ *
+ * <p>With a coalescing window configured, changes are first held by a {@link
+ * StoreChangeCoalescer} so repeated changes of the same store reach the legacy system only once.
+ */
+@ApplicationScoped
+public class LegacyStoreDispatcher {
+
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreDispatcher.class);
+
+  public enum Mode {
+    SYNC,
+    ASYNC
+  }
+
+  public enum Backpressure {
+    // wait up to legacy.dispatch.block-timeout for a free slot, then drop the change
+    BLOCK,
+    // evict the oldest queued change to make room
+    DROP_OLDEST,
+    // drop the incoming change
+    REJECT
+  }
+
+  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject LegacySyncMetrics legacySyncMetrics;
+
+  @ConfigProperty(name = "legacy.dispatch.mode", defaultValue = "sync")
+  Mode mode = Mode.SYNC;
+
+  @ConfigProperty(name = "legacy.dispatch.queue-capacity", defaultValue = "1000")
+  int queueCapacity = 1000;
+
+  @ConfigProperty(name = "legacy.dispatch.workers", defaultValue = "2")
+  int workers = 2;
+
+  @ConfigProperty(name = "legacy.dispatch.backpressure", defaultValue = "block")
+  Backpressure backpressure = Backpressure.BLOCK;
+
+  @ConfigProperty(name = "legacy.dispatch.block-timeout", defaultValue = "1s")
+  Duration blockTimeout = Duration.ofSeconds(1);
+
+  @ConfigProperty(name = "legacy.dispatch.shutdown-timeout", defaultValue = "10s")
+  Duration shutdownTimeout = Duration.ofSeconds(10);
+
+  // zero disables coalescing
+  @ConfigProperty(name = "legacy.dispatch.coalescing-window", defaultValue = "0s")
+  Duration coalescingWindow = Duration.ZERO;
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  // one single-threaded executor per lane, chosen by store id
+  private ThreadPoolExecutor[] lanes;
+
+  private StoreChangeCoalescer coalescer;
+
+  @PostConstruct
+  void start() {
+    FunctionCounter.builder("legacy.dispatch.dropped", dropped, AtomicLong::get)
+        .register(meterRegistry);
+    if (!coalescingWindow.isZero()) {
+      coalescer = new StoreChangeCoalescer(coalescingWindow, this::dispatch);
+      FunctionCounter.builder(
+              "legacy.dispatch.collapsed", coalescer, StoreChangeCoalescer::collapsed)
+          .register(meterRegistry);
+      LOGGER.infof("Legacy store changes are coalesced within %s", coalescingWindow);
+    }
+    if (mode != Mode.ASYNC) {
+      return;
+    }
+    int laneCapacity = Math.max(1, (queueCapacity + workers - 1) / workers);
+    ThreadFactory threadFactory = new WorkerThreadFactory();
+    RejectedExecutionHandler rejectionHandler = rejectionHandler();
+    lanes = new ThreadPoolExecutor[workers];
+    for (int i = 0; i < workers; i++) {
+      lanes[i] =
+          new ThreadPoolExecutor(
+              1,
+              1,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(laneCapacity),
+              threadFactory,
+              rejectionHandler);
+    }
+    LOGGER.infof(
+        "Legacy store dispatch is asynchronous: workers=%d, queueCapacity=%d, backpressure=%s",
+        workers, queueCapacity, backpressure);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (coalescer != null) {
+      // forwards the held changes, so they are still delivered below
+      coalescer.close();
+      LOGGER.infof("Legacy store coalescing stopped: collapsed=%d", coalescer.collapsed());
+    }
+    if (lanes == null) {
+      return;
+    }
+    for (ThreadPoolExecutor lane : lanes) {
+      lane.shutdown();
+    }
+    long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+    int pending = 0;
+    try {
+      for (ThreadPoolExecutor lane : lanes) {
+        if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+          pending += lane.shutdownNow().size();
+        }
+      }
+    } catch (InterruptedException e) {
+      for (ThreadPoolExecutor lane : lanes) {
+        lane.shutdownNow();
+      }
+      Thread.currentThread().interrupt();
+    }
+    if (pending > 0) {
+      LOGGER.warnf("Legacy store dispatch stopped with %d changes still queued", pending);
+    }
+  }
+
+  public void dispatchCreate(Store store) {
+    submit(new StoreChange(snapshot(store), true, legacySyncMetrics.committed()));
+  }
+
+  public void dispatchUpdate(Store store) {
+    submit(new StoreChange(snapshot(store), false, legacySyncMetrics.committed()));
+  }
+
+  /** Number of changes that never reached the legacy system because the queue was full. */
+  public long dropped() {
+    return dropped.get();
+  }
+
+  public int queued() {
+    int queued = 0;
+    if (lanes != null) {
+      for (ThreadPoolExecutor lane : lanes) {
+        queued += lane.getQueue().size();
+      }
+    }
+    return queued;
+  }
+
+  /** Number of changes superseded by a later change of the same store within the window. */
+  public long collapsed() {
+    return coalescer != null ? coalescer.collapsed() : 0;
+  }
+
+  private void submit(StoreChange change) {
+    if (coalescer == null) {
+      dispatch(change);
+    } else if (!coalescer.submit(change)) {
+      legacySyncMetrics.discarded(change.ticket);
+    }
+  }
+
+  private void dispatch(StoreChange change) {
+    Delivery delivery = new Delivery(change);
+    if (lanes == null) {
+      delivery.run();
+      return;
+    }
+    try {
+      lanes[Math.floorMod(change.store.id, lanes.length)].execute(delivery);
+    } catch (RejectedExecutionException e) {
+      drop(change);
+    }
+  }
+
+  private void drop(StoreChange change) {
+    dropped.incrementAndGet();
+    legacySyncMetrics.discarded(change.ticket);
+    LOGGER.warnf(
+        "Legacy store dispatch queue is full, dropped change of store %s", change.store.id);
+  }
+
+  private RejectedExecutionHandler rejectionHandler() {
+    switch (backpressure) {
+      case DROP_OLDEST:
+        return (task, pool) -> {
+          if (!pool.isShutdown()) {
+            Runnable evicted = pool.getQueue().poll();
+            if (evicted != null) {
+              drop(((Delivery) evicted).change);
+            }
+            pool.execute(task);
+          }
+        };
+      case BLOCK:
+        return (task, pool) -> {
+          try {
+            if (pool.isShutdown()
+                || !pool.getQueue().offer(task, blockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+              throw new RejectedExecutionException("Legacy store dispatch queue is full");
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a queue slot", e);
+          }
+        };
+      default:
+        return new ThreadPoolExecutor.AbortPolicy();
+    }
+  }
+
+  // the entity may change again once this transaction is over, so workers get their own copy
+  private static Store snapshot(Store store) {
+    Store copy = new Store(store.name);
+    copy.id = store.id;
+    copy.quantityProductsInStock = store.quantityProductsInStock;
+    copy.latitude = store.latitude;
+    copy.longitude = store.longitude;
+    return copy;
+  }
+
+  private final class Delivery implements Runnable {
+
+    final StoreChange change;
+
+    Delivery(StoreChange change) {
+      this.change = change;
+    }
+
+    @Override
+    public void run() {
+      try {
+        if (change.created) {
+          legacyStoreManagerGateway.createStoreOnLegacySystem(change.store);
+        } else {
+          legacyStoreManagerGateway.updateStoreOnLegacySystem(change.store);
+        }
+        legacySyncMetrics.acknowledged(change.ticket);
+      } catch (RuntimeException e) {
+        legacySyncMetrics.discarded(change.ticket);
+        legacySyncMetrics.failed(change.operation(), e);
+        LOGGER.errorf(e, "Failed to send store %s to the legacy system", change.store.id);
+      }
+    }
+  }
+
+  private static final class WorkerThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "legacy-store-dispatch-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -1,20 +1,147 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreManagerGateway.class);
+
+  public enum Mode {
+    // one temp file per change, as the legacy system originally expected
+    TEMP_FILE,
+    // one framed record per change appended to a memory-mapped StoreJournal
+    JOURNAL
+  }
+
+  @Inject ObjectMapper objectMapper;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "legacy.gateway.mode", defaultValue = "temp-file")
+  Mode mode = Mode.TEMP_FILE;
+
+  @ConfigProperty(name = "legacy.journal.directory", defaultValue = "store-journal")
+  String journalDirectory;
+
+  @ConfigProperty(name = "legacy.journal.segment-size", defaultValue = "64M")
+  MemorySize journalSegmentSize;
+
+  @ConfigProperty(name = "legacy.journal.force-interval", defaultValue = "100ms")
+  Duration journalForceInterval;
+
+  private StoreJournal journal;
+
+  private Timer createTimer;
+  private Timer updateTimer;
+
+  @PostConstruct
+  void init() {
+    createTimer = gatewayTimer("create");
+    updateTimer = gatewayTimer("update");
+    openJournal();
+  }
+
+  private Timer gatewayTimer(String operation) {
+    return Timer.builder("legacy.gateway.duration")
+        .description("Time spent handing one store change to the legacy system")
+        .tag("operation", operation)
+        .tag("mode", mode.name().toLowerCase())
+        .register(meterRegistry);
+  }
+
+  private void openJournal() {
+    if (mode != Mode.JOURNAL) {
+      return;
+    }
+    long segmentSize = journalSegmentSize.asLongValue();
+    if (segmentSize > Integer.MAX_VALUE) {
+      throw new IllegalStateException("legacy.journal.segment-size must be below 2G");
+    }
+    try {
+      journal =
+          StoreJournal.open(Path.of(journalDirectory), (int) segmentSize, journalForceInterval);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open store journal " + journalDirectory, e);
+    }
+    LOGGER.infof(
+        "Legacy store changes are journaled to %s: segmentSize=%d, forceInterval=%s",
+        journalDirectory, segmentSize, journalForceInterval);
+  }
+
+  @PreDestroy
+  void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      LOGGER.error("Failed to close store journal", e);
+    }
+  }
+
+  /** The journal downstream consumers tail in journal mode, null otherwise. */
+  public StoreJournal journal() {
+    return journal;
+  }
+
   public void createStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+    createTimer.record(() -> send("CREATED", store));
   }
 
   public void updateStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+    updateTimer.record(() -> send("UPDATED", store));
+  }
+
+  private void send(String type, Store store) {
+    LegacyStoreSyncEvent event = new LegacyStoreSyncEvent();
+    event.begin();
+    try {
+      if (journal != null) {
+        appendToJournal(type, store);
+      } else {
+        // just to emulate as this would send this to a legacy system, let's write a temp file
+        writeToFile(store);
+      }
+      event.succeeded = true;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.storeId = store.id != null ? store.id : 0;
+        event.change = type;
+        event.mode = journal != null ? "journal" : "temp-file";
+        event.commit();
+      }
+    }
+  }
+
+  private void appendToJournal(String type, Store store) {
+    ObjectNode record = objectMapper.createObjectNode();
+    record.put("type", type);
+    record.put("id", store.id);
+    record.put("name", store.name);
+    record.put("quantityProductsInStock", store.quantityProductsInStock);
+    try {
+      journal.append(objectMapper.writeValueAsBytes(record));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to journal store " + store.id, e);
+    }
   }
 
   private void writeToFile(Store store) {
@@ -24,7 +151,7 @@ public class LegacyStoreManagerGateway {
 
       tempFile = Files.createTempFile(store.name, ".txt");
 
-      System.out.println("Temporary file created at: " + tempFile.toString());
+      LOGGER.debugf("Temporary file created at: %s", tempFile);
 
       // Step 2: Write data to the temporary file
       String content =
@@ -34,18 +161,20 @@ public class LegacyStoreManagerGateway {
               + store.quantityProductsInStock
               + "]";
       Files.write(tempFile, content.getBytes());
-      System.out.println("Data written to temporary file.");
+      LOGGER.debug("Data written to temporary file.");
 
       // Step 3: Optionally, read the data back to verify
       String readContent = new String(Files.readAllBytes(tempFile));
-      System.out.println("Data read from temporary file: " + readContent);
+      LOGGER.debugf("Data read from temporary file: %s", readContent);
 
       // Step 4: Delete the temporary file when done
       Files.delete(tempFile);
-      System.out.println("Temporary file deleted.");
+      LOGGER.debug("Temporary file deleted.");
 
-    } catch (Exception e) {
-      e.printStackTrace();
+    } catch (IOException e) {
+      // surfaced so callers can retry instead of silently losing the change
+      throw new UncheckedIOException(
+          "Failed to send store " + store.id + " to the legacy system", e);
     }
   }
 }
@@ -0,0 +1,32 @@
+package com.fulfilment.application.monolith.stores;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("fulfilment.LegacyStoreSync")
+@Label("Legacy Store Sync")
+@Category({"Fulfilment", "Stores"})
+@Description("A store change handed over to the legacy store system")
+@Enabled(false)
+@Threshold("50 ms")
+@StackTrace(false)
+final class LegacyStoreSyncEvent extends Event {
+
+  @Label("Store Id")
+  long storeId;
+
+  @Label("Change")
+  String change;
+
+  @Label("Gateway Mode")
+  String mode;
+
+  @Label("Succeeded")
+  boolean succeeded;
+}
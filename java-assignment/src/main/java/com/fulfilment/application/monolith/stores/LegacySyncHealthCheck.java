@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.smallrye.health.api.Wellness;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+
+/**
+ * Reports the legacy store sync as degraded when it lags behind by more than the threshold. It is
+ * a wellness check, so a slow legacy system never fails the liveness or readiness probes.
+ */
+@Wellness
+@ApplicationScoped
+public class LegacySyncHealthCheck implements HealthCheck {
+
+  @Inject LegacySyncMetrics legacySyncMetrics;
+
+  @Inject StoreOutbox storeOutbox;
+
+  @ConfigProperty(name = "legacy.sync.lag-threshold", defaultValue = "30s")
+  Duration lagThreshold;
+
+  @Override
+  public HealthCheckResponse call() {
+    Duration lag = legacySyncMetrics.oldestInFlight();
+    if (storeOutbox.isEnabled() && storeOutbox.lag().compareTo(lag) > 0) {
+      lag = storeOutbox.lag();
+    }
+    boolean degraded = lag.compareTo(lagThreshold) > 0;
+    return HealthCheckResponse.named("legacy-store-sync")
+        .status(!degraded)
+        .withData("state", degraded ? "degraded" : "ok")
+        .withData("lagMillis", lag.toMillis())
+        .withData("thresholdMillis", lagThreshold.toMillis())
+        .withData("inFlight", legacySyncMetrics.inFlight())
+        .build();
+  }
+}
@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks how far the legacy store system is behind: every committed change gets a ticket, which
+ * is settled when the legacy system acknowledges it (recording the commit-to-ack time) or when
+ * the change is discarded.
+ */
+@ApplicationScoped
+public class LegacySyncMetrics {
+
+  @Inject MeterRegistry meterRegistry;
+
+  private final AtomicLong tickets = new AtomicLong();
+
+  // ticket -> System.nanoTime() at commit
+  private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+
+  private Timer lag;
+
+  @PostConstruct
+  void registerMetrics() {
+    lag =
+        Timer.builder("legacy.sync.lag")
+            .description("Time from store commit to legacy acknowledgement")
+            .publishPercentileHistogram()
+            .maximumExpectedValue(Duration.ofMinutes(10))
+            .register(meterRegistry);
+    meterRegistry.gauge("legacy.sync.in.flight", inFlight, Map::size);
+  }
+
+  /** Called when a change has been committed; returns the ticket to settle it with. */
+  public long committed() {
+    long ticket = tickets.incrementAndGet();
+    inFlight.put(ticket, System.nanoTime());
+    return ticket;
+  }
+
+  public void acknowledged(long ticket) {
+    Long committedAt = inFlight.remove(ticket);
+    if (committedAt != null) {
+      lag.record(System.nanoTime() - committedAt, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /** Records an acknowledgement for a change committed outside this instance, e.g. the outbox. */
+  public void acknowledged(Duration sinceCommit) {
+    lag.record(sinceCommit);
+  }
+
+  /** The change will not reach the legacy system (dropped, merged into another or failed). */
+  public void discarded(long ticket) {
+    inFlight.remove(ticket);
+  }
+
+  public void failed(String operation, Throwable error) {
+    Counter.builder("legacy.sync.failures")
+        .tag("operation", operation)
+        .tag("exception", error.getClass().getSimpleName())
+        .register(meterRegistry)
+        .increment();
+  }
+
+  public int inFlight() {
+    return inFlight.size();
+  }
+
+  /** Age of the oldest change still waiting for the legacy system. */
+  public Duration oldestInFlight() {
+    long now = System.nanoTime();
+    long oldest = now;
+    for (long committedAt : inFlight.values()) {
+      oldest = Math.min(oldest, committedAt);
+    }
+    return Duration.ofNanos(now - oldest);
+  }
+}
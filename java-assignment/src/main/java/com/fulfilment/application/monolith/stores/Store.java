@@ -4,9 +4,13 @@ import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import java.util.List;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.jpa.HibernateHints;
 
 @Entity
 @Cacheable
+@DynamicUpdate
 public class Store extends PanacheEntity {
 
   @Column(length = 40, unique = true)
@@ -14,9 +18,28 @@ public class Store extends PanacheEntity {
 
   public int quantityProductsInStock;
 
+  // optional position, used to route replenishment to the nearest warehouses
+  public Double latitude;
+
+  public Double longitude;
+
   public Store() {}
 
   public Store(String name) {
     this.name = name;
   }
+
+  // served from the query cache; Hibernate invalidates the region whenever the store table changes
+  static final String LISTING_CACHE_REGION = "store-listing";
+
+  public static List<Store> listAllByName() {
+    return Store.<Store>find("order by name")
+        .withHint(HibernateHints.HINT_CACHEABLE, true)
+        .withHint(HibernateHints.HINT_CACHE_REGION, LISTING_CACHE_REGION)
+        .list();
+  }
+
+  public static List<Long> listIds() {
+    return getEntityManager().createQuery("select s.id from Store s", Long.class).getResultList();
+  }
 }
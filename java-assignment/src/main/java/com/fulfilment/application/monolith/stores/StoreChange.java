@@ -0,0 +1,23 @@
+package com.fulfilment.application.monolith.stores;
+
+/** A committed store change on its way to the legacy system. */
+final class StoreChange {
+
+  // snapshot of the store at commit time
+  Store store;
+
+  boolean created;
+
+  // LegacySyncMetrics ticket, used to measure the time from commit to legacy acknowledgement
+  final long ticket;
+
+  StoreChange(Store store, boolean created, long ticket) {
+    this.store = store;
+    this.created = created;
+    this.ticket = ticket;
+  }
+
+  String operation() {
+    return created ? "create" : "update";
+  }
+}
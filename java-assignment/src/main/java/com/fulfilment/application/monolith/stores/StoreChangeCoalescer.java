@@ -0,0 +1,102 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds store changes back for a fixed window, counted from the first change of a store, and then
+ * forwards only the latest state. A create that is still held absorbs the updates that follow it,
+ * so the legacy system receives a single create with the final state. Changes submitted after
+ * {@link #close} are forwarded right away.
+ */
+final class StoreChangeCoalescer {
+
+  interface Sink {
+    void send(StoreChange change);
+  }
+
+  private final Duration window;
+  private final Sink sink;
+  private final ScheduledExecutorService timer;
+  private final AtomicLong collapsed = new AtomicLong();
+
+  // guarded by this
+  private final Map<Long, StoreChange> pending = new HashMap<>();
+
+  // guarded by this; flush timers are only scheduled while it is false
+  private boolean closed;
+
+  StoreChangeCoalescer(Duration window, Sink sink) {
+    this.window = window;
+    this.sink = sink;
+    this.timer =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "legacy-store-coalescer");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Holds the change, or merges it into the change already held for the same store. Returns false
+   * when the change was merged; the held change keeps its own (older) ticket.
+   */
+  boolean submit(StoreChange change) {
+    Long storeId = change.store.id;
+    synchronized (this) {
+      if (storeId != null && !closed) {
+        StoreChange held = pending.get(storeId);
+        if (held != null) {
+          held.store = change.store;
+          held.created |= change.created;
+          collapsed.incrementAndGet();
+          return false;
+        }
+        pending.put(storeId, change);
+        timer.schedule(() -> flush(storeId), window.toMillis(), TimeUnit.MILLISECONDS);
+        return true;
+      }
+    }
+    sink.send(change);
+    return true;
+  }
+
+  /** Number of changes that were replaced by a later change of the same store. */
+  long collapsed() {
+    return collapsed.get();
+  }
+
+  synchronized int held() {
+    return pending.size();
+  }
+
+  /** Stops the timer and forwards everything still held. */
+  void close() {
+    List<StoreChange> remaining;
+    synchronized (this) {
+      closed = true;
+      timer.shutdownNow();
+      remaining = new ArrayList<>(pending.values());
+      pending.clear();
+    }
+    remaining.forEach(sink::send);
+  }
+
+  private void flush(Long storeId) {
+    StoreChange change;
+    synchronized (this) {
+      change = pending.remove(storeId);
+    }
+    if (change != null) {
+      sink.send(change);
+    }
+  }
+}
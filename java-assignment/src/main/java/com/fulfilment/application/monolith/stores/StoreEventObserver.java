@@ -8,15 +8,22 @@ import jakarta.inject.Inject;
 @ApplicationScoped
 public class StoreEventObserver {
 
-  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+  @Inject LegacyStoreDispatcher legacyStoreDispatcher;
+
+  // with the outbox enabled, changes are relayed from the outbox table instead
+  @Inject StoreOutbox storeOutbox;
 
   public void onStoreCreated(
       @Observes(during = TransactionPhase.AFTER_SUCCESS) StoreCreatedEvent event) {
-    legacyStoreManagerGateway.createStoreOnLegacySystem(event.getStore());
+    if (!storeOutbox.isEnabled()) {
+      legacyStoreDispatcher.dispatchCreate(event.getStore());
+    }
   }
 
   public void onStoreUpdated(
       @Observes(during = TransactionPhase.AFTER_SUCCESS) StoreUpdatedEvent event) {
-    legacyStoreManagerGateway.updateStoreOnLegacySystem(event.getStore());
+    if (!storeOutbox.isEnabled()) {
+      legacyStoreDispatcher.dispatchUpdate(event.getStore());
+    }
   }
 }
@@ -0,0 +1,372 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.jboss.logging.Logger;
+
+/**
+ * Append-only journal of length-prefixed records in rolling, memory-mapped segment files. An
+ * append is a memory copy into the mapped segment; {@code force()} runs on a fixed cadence and
+ * covers every record appended since the previous one (group commit). A zero cadence forces after
+ * every append.
+ *
+ * <p>Frame layout: {@code int length, int crc32c, byte[length] payload}, padded to a multiple of
+ * four bytes so every length is aligned. The length is published last with a release store and
+ * read with an acquire load, so a reader that sees a length also sees the frame behind it; a
+ * length of {@code -1} marks the end of a segment, {@code 0} the current end of the journal.
+ */
+public final class StoreJournal implements Closeable {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreJournal.class);
+
+  static final int HEADER_SIZE = 8;
+  private static final int END_OF_SEGMENT = -1;
+  private static final String SEGMENT_SUFFIX = ".seg";
+
+  // lengths are only accessed through this, at offsets that are a multiple of four
+  private static final VarHandle LENGTH =
+      MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+  private final Path directory;
+  private final int segmentSize;
+  private final boolean forceEachAppend;
+  private final ScheduledExecutorService forcer;
+
+  // guarded by this
+  private long segment;
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private boolean dirty;
+
+  private StoreJournal(Path directory, int segmentSize, Duration forceInterval)
+      throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.forceEachAppend = forceInterval.isZero();
+    Files.createDirectories(directory);
+
+    OptionalLong last = lastSegment(directory);
+    openSegment(last.orElse(0));
+    recoverPosition();
+
+    if (forceEachAppend) {
+      forcer = null;
+    } else {
+      forcer =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "store-journal-force");
+                thread.setDaemon(true);
+                return thread;
+              });
+      long millis = forceInterval.toMillis();
+      forcer.scheduleWithFixedDelay(this::forceQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public static StoreJournal open(Path directory, int segmentSize, Duration forceInterval)
+      throws IOException {
+    if (segmentSize < HEADER_SIZE * 2 || segmentSize % 4 != 0) {
+      throw new IllegalArgumentException(
+          "Segment size must be a multiple of 4 and at least " + HEADER_SIZE * 2);
+    }
+    return new StoreJournal(directory, segmentSize, forceInterval);
+  }
+
+  public synchronized void append(byte[] payload) {
+    if (buffer == null) {
+      throw new IllegalStateException("Store journal is closed");
+    }
+    int frameSize = frameSize(payload.length);
+    if (frameSize > segmentSize - 4) {
+      throw new IllegalArgumentException(
+          "Record of " + payload.length + " bytes does not fit a journal segment");
+    }
+    // keep room for the end-of-segment marker
+    if (buffer.remaining() < frameSize + 4) {
+      roll();
+    }
+
+    int position = buffer.position();
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    buffer.putInt(position + 4, (int) crc.getValue());
+    buffer.put(position + HEADER_SIZE, payload);
+    LENGTH.setRelease((ByteBuffer) buffer, position, payload.length);
+    buffer.position(position + frameSize);
+
+    if (forceEachAppend) {
+      buffer.force();
+    } else {
+      dirty = true;
+    }
+  }
+
+  public synchronized void force() {
+    if (buffer != null && dirty) {
+      buffer.force();
+      dirty = false;
+    }
+  }
+
+  /** Opens a reader starting at the oldest segment still present. */
+  public Reader reader() throws IOException {
+    return new Reader(directory, firstSegment(directory).orElse(0), 0);
+  }
+
+  /** Opens a reader at a position previously returned by {@link Reader#position()}. */
+  public Reader reader(Position position) throws IOException {
+    return new Reader(directory, position.segment, position.offset);
+  }
+
+  /** Deletes segments older than {@code segment}, once a consumer has read past them. */
+  public synchronized void deleteSegmentsBefore(long segment) throws IOException {
+    long limit = Math.min(segment, this.segment);
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        OptionalLong number = segmentNumber(file);
+        if (number.isPresent() && number.getAsLong() < limit) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (forcer != null) {
+      forcer.shutdownNow();
+    }
+    if (buffer != null) {
+      buffer.force();
+      buffer = null;
+      channel.close();
+    }
+  }
+
+  private void forceQuietly() {
+    try {
+      force();
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to force the store journal", e);
+    }
+  }
+
+  private void roll() {
+    if (buffer.remaining() >= 4) {
+      LENGTH.setRelease((ByteBuffer) buffer, buffer.position(), END_OF_SEGMENT);
+    }
+    buffer.force();
+    try {
+      channel.close();
+      openSegment(segment + 1);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to roll the store journal", e);
+    }
+  }
+
+  private void openSegment(long number) throws IOException {
+    segment = number;
+    channel =
+        FileChannel.open(
+            segmentFile(directory, number),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    dirty = false;
+  }
+
+  // skips the valid frames of a reopened segment; a torn frame is cleared and overwritten
+  private void recoverPosition() {
+    int position = 0;
+    while (position + HEADER_SIZE <= segmentSize) {
+      int length = buffer.getInt(position);
+      if (length == END_OF_SEGMENT) {
+        try {
+          openSegment(segment + 1);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        position = 0;
+        continue;
+      }
+      if (length <= 0
+          || position + HEADER_SIZE + length > segmentSize
+          || !crcMatches(buffer, position, length)) {
+        break;
+      }
+      position += frameSize(length);
+    }
+    clearFrom(position);
+    buffer.position(position);
+  }
+
+  // zeroes whatever a torn write left behind, so no stale bytes are mistaken for a frame later
+  private void clearFrom(int position) {
+    int end = position;
+    for (int i = position; i < segmentSize; i++) {
+      if (buffer.get(i) != 0) {
+        end = i + 1;
+      }
+    }
+    for (int i = position; i < end; i++) {
+      buffer.put(i, (byte) 0);
+    }
+  }
+
+  static int frameSize(int length) {
+    return HEADER_SIZE + ((length + 3) & ~3);
+  }
+
+  private static boolean crcMatches(MappedByteBuffer buffer, int position, int length) {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.slice(position + HEADER_SIZE, length));
+    return (int) crc.getValue() == buffer.getInt(position + 4);
+  }
+
+  static Path segmentFile(Path directory, long number) {
+    return directory.resolve(String.format("%020d%s", number, SEGMENT_SUFFIX));
+  }
+
+  private static OptionalLong segmentNumber(Path file) {
+    String name = file.getFileName().toString();
+    if (!name.endsWith(SEGMENT_SUFFIX)) {
+      return OptionalLong.empty();
+    }
+    try {
+      return OptionalLong.of(
+          Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+    } catch (NumberFormatException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  private static OptionalLong firstSegment(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(StoreJournal::segmentNumber).flatMapToLong(OptionalLong::stream).min();
+    }
+  }
+
+  private static OptionalLong lastSegment(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(StoreJournal::segmentNumber).flatMapToLong(OptionalLong::stream).max();
+    }
+  }
+
+  /** Position of the next record to read; persist it to resume tailing after a restart. */
+  public static final class Position {
+    public final long segment;
+    public final int offset;
+
+    public Position(long segment, int offset) {
+      this.segment = segment;
+      this.offset = offset;
+    }
+  }
+
+  /**
+   * Tails the journal from a position. Not thread-safe; each consumer uses its own reader. It can
+   * run in another process, as it only maps the segment files read-only.
+   */
+  public static final class Reader implements Closeable {
+
+    private final Path directory;
+    private long segment;
+    private int offset;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private Reader(Path directory, long segment, int offset) {
+      this.directory = directory;
+      this.segment = segment;
+      this.offset = offset;
+    }
+
+    /** Returns up to {@code max} records appended since the last poll, empty when caught up. */
+    public List<byte[]> poll(int max) throws IOException {
+      List<byte[]> records = new ArrayList<>();
+      while (records.size() < max && map()) {
+        if (offset + 4 > buffer.capacity()) {
+          nextSegment();
+          continue;
+        }
+        int length = (int) LENGTH.getAcquire((ByteBuffer) buffer, offset);
+        if (length == 0) {
+          break;
+        }
+        if (length == END_OF_SEGMENT) {
+          nextSegment();
+          continue;
+        }
+        if (length < 0
+            || offset + HEADER_SIZE + length > buffer.capacity()
+            || !crcMatches(buffer, offset, length)) {
+          throw new IllegalStateException(
+              "Corrupt store journal frame in segment " + segment + " at offset " + offset);
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_SIZE, payload);
+        records.add(payload);
+        offset += frameSize(length);
+      }
+      return records;
+    }
+
+    public Position position() {
+      return new Position(segment, offset);
+    }
+
+    @Override
+    public void close() throws IOException {
+      buffer = null;
+      if (channel != null) {
+        channel.close();
+        channel = null;
+      }
+    }
+
+    private boolean map() throws IOException {
+      if (buffer != null) {
+        return true;
+      }
+      Path file = segmentFile(directory, segment);
+      if (!Files.exists(file)) {
+        return false;
+      }
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+      // a segment the journal is rolling to exists empty until it is mapped
+      if (channel.size() == 0) {
+        close();
+        return false;
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return true;
+    }
+
+    private void nextSegment() throws IOException {
+      close();
+      segment++;
+      offset = 0;
+    }
+  }
+}
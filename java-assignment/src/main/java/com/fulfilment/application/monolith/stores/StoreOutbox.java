@@ -0,0 +1,222 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Transactional outbox for the legacy store sync. Store changes are recorded in the same
+ * transaction as the change itself and relayed to the {@link LegacyStoreManagerGateway} by a
+ * poller, so a change is never lost between commit and delivery. Several instances can relay in
+ * parallel: entries are claimed with {@code FOR UPDATE SKIP LOCKED}.
+ *
+ * <p>A relay run uses two short transactions and calls the legacy system between them, so no row
+ * lock or pooled connection is held during a slow delivery. The first claims due entries and
+ * leases them by moving their next attempt {@code legacy.outbox.lease} ahead, which keeps other
+ * pollers away once the locks are released. The second deletes the delivered entries and stores
+ * the backoff of the failed ones. Entries of an instance that dies in between are due again when
+ * their lease runs out.
+ *
+ * <p>A claimed entry absorbs the later pending entries of its store, which are deleted in the
+ * claim transaction, so a backlog of changes to one store reaches the legacy system as a single
+ * call with the latest state.
+ */
+@ApplicationScoped
+public class StoreOutbox {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreOutbox.class);
+
+  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject LegacySyncMetrics legacySyncMetrics;
+
+  @ConfigProperty(name = "legacy.outbox.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @ConfigProperty(name = "legacy.outbox.batch-size", defaultValue = "100")
+  int batchSize = 100;
+
+  @ConfigProperty(name = "legacy.outbox.max-attempts", defaultValue = "10")
+  int maxAttempts = 10;
+
+  @ConfigProperty(name = "legacy.outbox.initial-backoff", defaultValue = "1s")
+  Duration initialBackoff = Duration.ofSeconds(1);
+
+  @ConfigProperty(name = "legacy.outbox.max-backoff", defaultValue = "5m")
+  Duration maxBackoff = Duration.ofMinutes(5);
+
+  // how long claimed entries stay hidden from other pollers; longer than delivering a batch takes
+  @ConfigProperty(name = "legacy.outbox.lease", defaultValue = "1m")
+  Duration lease = Duration.ofMinutes(1);
+
+  private Counter delivered;
+  private Counter retried;
+  private Counter failed;
+  private Counter coalesced;
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicLong lagMillis = new AtomicLong();
+
+  @PostConstruct
+  void registerMetrics() {
+    delivered = meterRegistry.counter("store.outbox.delivered");
+    retried = meterRegistry.counter("store.outbox.retried");
+    failed = meterRegistry.counter("store.outbox.failed");
+    coalesced = meterRegistry.counter("store.outbox.coalesced");
+    meterRegistry.gauge("store.outbox.pending", pending);
+    meterRegistry.gauge("store.outbox.lag.seconds", lagMillis, millis -> millis.get() / 1000.0);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Age of the oldest undelivered entry as of the last relay run. */
+  public Duration lag() {
+    return Duration.ofMillis(lagMillis.get());
+  }
+
+  /** Must be called inside the transaction that changes the store. */
+  public void record(Store store, StoreOutboxEntry.Type type) {
+    if (enabled) {
+      StoreOutboxEntry.of(store, type, Instant.now()).persist();
+    }
+  }
+
+  @Scheduled(
+      every = "{legacy.outbox.poll-interval}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void relay() {
+    if (!enabled) {
+      return;
+    }
+    Instant now = Instant.now();
+    List<StoreOutboxEntry> batch = QuarkusTransaction.requiringNew().call(() -> claim(now));
+    List<StoreOutboxEntry> sent = deliver(batch, now);
+    QuarkusTransaction.requiringNew().run(() -> complete(batch, sent, now));
+  }
+
+  private List<StoreOutboxEntry> claim(Instant now) {
+    List<StoreOutboxEntry> batch = StoreOutboxEntry.claimDue(now, batchSize);
+    if (!batch.isEmpty()) {
+      List<Long> storeIds = batch.stream().map(entry -> entry.storeId).toList();
+      StoreOutboxEntry.deleteByIds(
+          coalesce(batch, StoreOutboxEntry.findPendingOfStores(storeIds)));
+    }
+    Instant leasedUntil = now.plus(lease);
+    batch.forEach(entry -> entry.nextAttemptAt = leasedUntil);
+    return batch;
+  }
+
+  private void complete(List<StoreOutboxEntry> batch, List<StoreOutboxEntry> sent, Instant now) {
+    StoreOutboxEntry.deleteByIds(sent.stream().map(entry -> entry.id).toList());
+    Set<StoreOutboxEntry> delivered = new HashSet<>(sent);
+    for (StoreOutboxEntry entry : batch) {
+      if (!delivered.contains(entry)) {
+        StoreOutboxEntry.getEntityManager().merge(entry);
+      }
+    }
+
+    pending.set(StoreOutboxEntry.countPending());
+    Instant oldest = StoreOutboxEntry.oldestPendingCreatedAt();
+    lagMillis.set(oldest != null ? Duration.between(oldest, now).toMillis() : 0);
+  }
+
+  /**
+   * Folds the latest state of each store's later pending entries into its claimed entry and
+   * returns the ids of the entries that were absorbed.
+   */
+  List<Long> coalesce(List<StoreOutboxEntry> batch, List<StoreOutboxEntry> pendingOfStores) {
+    Map<Long, StoreOutboxEntry> claimedByStore = new HashMap<>();
+    batch.forEach(entry -> claimedByStore.put(entry.storeId, entry));
+    List<Long> absorbed = new ArrayList<>();
+    for (StoreOutboxEntry later : pendingOfStores) {
+      StoreOutboxEntry claimed = claimedByStore.get(later.storeId);
+      if (claimed != null && later.id > claimed.id) {
+        claimed.absorb(later);
+        absorbed.add(later.id);
+      }
+    }
+    coalesced.increment(absorbed.size());
+    return absorbed;
+  }
+
+  /**
+   * Sends the claimed entries in order and returns the delivered ones. Failed entries are
+   * rescheduled with exponential backoff; later entries of the same store are held back, due
+   * again right away, so the legacy system never sees an older state after a newer one.
+   */
+  List<StoreOutboxEntry> deliver(List<StoreOutboxEntry> batch, Instant now) {
+    List<StoreOutboxEntry> sent = new ArrayList<>(batch.size());
+    Set<Long> blockedStores = new HashSet<>();
+    for (StoreOutboxEntry entry : batch) {
+      if (blockedStores.contains(entry.storeId)) {
+        entry.nextAttemptAt = now;
+        continue;
+      }
+      try {
+        if (entry.type == StoreOutboxEntry.Type.CREATED) {
+          legacyStoreManagerGateway.createStoreOnLegacySystem(entry.toStore());
+        } else {
+          legacyStoreManagerGateway.updateStoreOnLegacySystem(entry.toStore());
+        }
+        sent.add(entry);
+        delivered.increment();
+        legacySyncMetrics.acknowledged(Duration.between(entry.createdAt, Instant.now()));
+      } catch (RuntimeException e) {
+        blockedStores.add(entry.storeId);
+        legacySyncMetrics.failed(entry.operation(), e);
+        reschedule(entry, e, now);
+      }
+    }
+    return sent;
+  }
+
+  private void reschedule(StoreOutboxEntry entry, RuntimeException error, Instant now) {
+    entry.attempts++;
+    entry.lastError = abbreviate(String.valueOf(error.getMessage()));
+    if (entry.attempts >= maxAttempts) {
+      entry.status = StoreOutboxEntry.Status.FAILED;
+      failed.increment();
+      LOGGER.errorf(
+          error,
+          "Giving up on outbox entry %d of store %d after %d attempts",
+          entry.id,
+          entry.storeId,
+          entry.attempts);
+      return;
+    }
+    entry.nextAttemptAt = now.plus(backoff(entry.attempts));
+    retried.increment();
+    LOGGER.warnf(
+        "Outbox entry %d of store %d failed (attempt %d), retrying at %s: %s",
+        entry.id, entry.storeId, entry.attempts, entry.nextAttemptAt, entry.lastError);
+  }
+
+  Duration backoff(int attempts) {
+    // initialBackoff * 2^(attempts - 1), capped before it can overflow
+    int shift = Math.min(attempts - 1, 30);
+    Duration backoff = initialBackoff.multipliedBy(1L << shift);
+    return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+  }
+
+  private static String abbreviate(String message) {
+    return message.length() <= 500 ? message : message.substring(0, 500);
+  }
+}
@@ -0,0 +1,146 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+
+/** A store change waiting to be delivered to the legacy system, written with the change itself. */
+@Entity
+@Table(
+    name = "store_outbox",
+    indexes = {
+      @Index(columnList = "status, nextAttemptAt"),
+      @Index(columnList = "storeId, status")
+    })
+public class StoreOutboxEntry extends PanacheEntity {
+
+  public enum Type {
+    CREATED,
+    UPDATED
+  }
+
+  public enum Status {
+    PENDING,
+    // gave up after legacy.outbox.max-attempts, kept for inspection
+    FAILED
+  }
+
+  @Column(nullable = false)
+  public Long storeId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  public Type type;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  public Status status = Status.PENDING;
+
+  // state of the store at commit time
+  @Column(length = 40)
+  public String name;
+
+  public int quantityProductsInStock;
+
+  public Double latitude;
+
+  public Double longitude;
+
+  @Column(nullable = false)
+  public Instant createdAt;
+
+  @Column(nullable = false)
+  public Instant nextAttemptAt;
+
+  public int attempts;
+
+  @Column(length = 500)
+  public String lastError;
+
+  public static StoreOutboxEntry of(Store store, Type type, Instant now) {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.storeId = store.id;
+    entry.type = type;
+    entry.name = store.name;
+    entry.quantityProductsInStock = store.quantityProductsInStock;
+    entry.latitude = store.latitude;
+    entry.longitude = store.longitude;
+    entry.createdAt = now;
+    entry.nextAttemptAt = now;
+    return entry;
+  }
+
+  /**
+   * Locks up to {@code limit} entries that are due, skipping rows already locked by another
+   * instance ({@code FOR UPDATE SKIP LOCKED}). An entry is only claimed when no older entry of the
+   * same store is still pending, so each store's changes reach the legacy system in order.
+   */
+  public static List<StoreOutboxEntry> claimDue(Instant now, int limit) {
+    return getEntityManager()
+        .unwrap(Session.class)
+        .createSelectionQuery(
+            "from StoreOutboxEntry e where e.status = ?1 and e.nextAttemptAt <= ?2"
+                + " and not exists (select 1 from StoreOutboxEntry older"
+                + " where older.storeId = e.storeId and older.status = ?1 and older.id < e.id)"
+                + " order by e.id",
+            StoreOutboxEntry.class)
+        .setParameter(1, Status.PENDING)
+        .setParameter(2, now)
+        .setMaxResults(limit)
+        .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+        .getResultList();
+  }
+
+  /** Pending entries of the given stores, oldest first. */
+  public static List<StoreOutboxEntry> findPendingOfStores(Collection<Long> storeIds) {
+    return list("storeId in ?1 and status = ?2 order by id", storeIds, Status.PENDING);
+  }
+
+  public static void deleteByIds(List<Long> ids) {
+    if (!ids.isEmpty()) {
+      delete("id in ?1", ids);
+    }
+  }
+
+  public static long countPending() {
+    return count("status", Status.PENDING);
+  }
+
+  public static Instant oldestPendingCreatedAt() {
+    return getEntityManager()
+        .createQuery(
+            "select min(e.createdAt) from StoreOutboxEntry e where e.status = ?1", Instant.class)
+        .setParameter(1, Status.PENDING)
+        .getSingleResult();
+  }
+
+  /** Takes over the store state of a later entry of the same store; a create stays a create. */
+  void absorb(StoreOutboxEntry later) {
+    name = later.name;
+    quantityProductsInStock = later.quantityProductsInStock;
+    latitude = later.latitude;
+    longitude = later.longitude;
+  }
+
+  String operation() {
+    return type == Type.CREATED ? "create" : "update";
+  }
+
+  Store toStore() {
+    Store store = new Store(name);
+    store.id = storeId;
+    store.quantityProductsInStock = quantityProductsInStock;
+    store.latitude = latitude;
+    store.longitude = longitude;
+    return store;
+  }
+}
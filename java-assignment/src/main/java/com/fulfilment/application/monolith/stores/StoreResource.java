@@ -1,25 +1,35 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.common.CachedResponse;
+import com.fulfilment.application.monolith.common.JsonMergePatch;
+import com.fulfilment.application.monolith.common.ResponseByteCache;
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.FindNearestWarehousesOperation;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 @Path("store")
@@ -32,11 +42,24 @@ public class StoreResource {
 
   @Inject Event<StoreUpdatedEvent> storeUpdatedEvent;
 
+  @Inject Event<StoreDeletedEvent> storeDeletedEvent;
+
+  @Inject FindNearestWarehousesOperation findNearestWarehousesOperation;
+
+  @Inject StoreOutbox storeOutbox;
+
+  @Inject JsonMergePatch jsonMergePatch;
+
+  // an update that changes nothing neither fires events nor writes to the outbox
+  @ConfigProperty(name = "store.update.skip-unchanged", defaultValue = "true")
+  boolean skipUnchanged;
+
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
   @GET
+  @CachedResponse(ResponseByteCache.STORES)
   public List<Store> get() {
-    return Store.listAll(Sort.by("name"));
+    return Store.listAllByName();
   }
 
   @GET
@@ -49,14 +72,33 @@ public class StoreResource {
     return entity;
   }
 
+  @GET
+  @Path("{id}/nearest-warehouses")
+  public List<NearbyWarehouse> nearestWarehouses(
+      Long id,
+      @QueryParam("count") @DefaultValue("5") int count,
+      @QueryParam("minFreeCapacity") @DefaultValue("1") int minFreeCapacity) {
+    Store entity = Store.findById(id);
+    if (entity == null) {
+      throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+    }
+    if (entity.latitude == null || entity.longitude == null) {
+      throw new WebApplicationException("Store with id of " + id + " has no coordinates.", 422);
+    }
+    return findNearestWarehousesOperation.findNearest(
+        entity.latitude, entity.longitude, count, minFreeCapacity);
+  }
+
   @POST
   @Transactional
   public Response create(Store store) {
     if (store.id != null) {
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
+    validateCoordinates(store.latitude, store.longitude);
 
     store.persist();
+    storeOutbox.record(store, StoreOutboxEntry.Type.CREATED);
 
     storeCreatedEvent.fire(new StoreCreatedEvent(store));
 
@@ -70,6 +112,7 @@ public class StoreResource {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
+    validateCoordinates(updatedStore.latitude, updatedStore.longitude);
 
     Store entity = Store.findById(id);
 
@@ -77,10 +120,16 @@ public class StoreResource {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
 
+    List<Object> before = state(entity);
     entity.name = updatedStore.name;
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
+    // omitted coordinates are kept; a merge patch with nulls removes them
+    if (updatedStore.latitude != null) {
+      entity.latitude = updatedStore.latitude;
+      entity.longitude = updatedStore.longitude;
+    }
 
-    storeUpdatedEvent.fire(new StoreUpdatedEvent(entity));
+    updated(entity, !before.equals(state(entity)));
 
     return entity;
   }
@@ -92,6 +141,7 @@ public class StoreResource {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
+    validateCoordinates(updatedStore.latitude, updatedStore.longitude);
 
     Store entity = Store.findById(id);
 
@@ -99,6 +149,7 @@ public class StoreResource {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
 
+    List<Object> before = state(entity);
     if (updatedStore.name != null) {
       entity.name = updatedStore.name;
     }
@@ -107,11 +158,64 @@ public class StoreResource {
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
 
-    storeUpdatedEvent.fire(new StoreUpdatedEvent(entity));
+    if (updatedStore.latitude != null) {
+      entity.latitude = updatedStore.latitude;
+      entity.longitude = updatedStore.longitude;
+    }
+
+    updated(entity, !before.equals(state(entity)));
 
     return entity;
   }
 
+  @PATCH
+  @Path("{id}")
+  @Transactional
+  @Consumes(JsonMergePatch.MEDIA_TYPE)
+  public Store mergePatch(Long id, JsonNode patch) {
+    Store entity = Store.findById(id);
+
+    if (entity == null) {
+      throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+    }
+
+    boolean changed =
+        jsonMergePatch.apply(entity, patch, Set.of("name", "quantityProductsInStock"));
+    validateCoordinates(entity.latitude, entity.longitude);
+
+    updated(entity, changed);
+
+    return entity;
+  }
+
+  private void updated(Store entity, boolean changed) {
+    if (!changed && skipUnchanged) {
+      LOGGER.debugf("Store %d is unchanged, skipping update", entity.id);
+      return;
+    }
+    storeOutbox.record(entity, StoreOutboxEntry.Type.UPDATED);
+    storeUpdatedEvent.fire(new StoreUpdatedEvent(entity));
+  }
+
+  /** Both coordinates or neither, within range; the nearest-warehouse search relies on both. */
+  private static void validateCoordinates(Double latitude, Double longitude) {
+    if ((latitude == null) != (longitude == null)) {
+      throw new WebApplicationException("Latitude and longitude must be set together.", 422);
+    }
+    // negated so that NaN is rejected as well
+    if (latitude != null && !(latitude >= -90 && latitude <= 90)) {
+      throw new WebApplicationException("Latitude must be between -90 and 90.", 422);
+    }
+    if (longitude != null && !(longitude >= -180 && longitude <= 180)) {
+      throw new WebApplicationException("Longitude must be between -180 and 180.", 422);
+    }
+  }
+
+  private static List<Object> state(Store store) {
+    return Arrays.asList(
+        store.name, store.quantityProductsInStock, store.latitude, store.longitude);
+  }
+
   @DELETE
   @Path("{id}")
   @Transactional
@@ -121,6 +225,7 @@ public class StoreResource {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
     entity.delete();
+    storeDeletedEvent.fire(new StoreDeletedEvent(entity));
     return Response.status(204).build();
   }
 
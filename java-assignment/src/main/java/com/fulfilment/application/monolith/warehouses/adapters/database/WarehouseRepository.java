@@ -1,16 +1,24 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.common.AdvisoryLocks;
+import com.fulfilment.application.monolith.common.Measured;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  @Inject Event<WarehouseChangedEvent> warehouseChangedEvent;
+
   @Override
   public List<Warehouse> getAll() {
     return find("archivedAt is null").stream().map(DbWarehouse::toWarehouse).toList();
@@ -28,6 +36,7 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     db.archivedAt = warehouse.archivedAt;
     persist(db);
     warehouse.id = db.id;
+    warehouseChangedEvent.fire(new WarehouseChangedEvent(warehouse));
   }
 
   @Override
@@ -41,6 +50,7 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
       db.capacity = warehouse.capacity;
       db.stock = warehouse.stock;
       db.archivedAt = warehouse.archivedAt;
+      warehouseChangedEvent.fire(new WarehouseChangedEvent(db.toWarehouse()));
     }
   }
 
@@ -52,6 +62,7 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
             .firstResult();
     if (db != null) {
       db.archivedAt = LocalDateTime.now();
+      warehouseChangedEvent.fire(new WarehouseChangedEvent(db.toWarehouse()));
     }
   }
 
@@ -62,6 +73,14 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     return db != null ? db.toWarehouse() : null;
   }
 
+  @Override
+  public void lockForChange(String businessUnitCode, String location) {
+    AdvisoryLocks.lock(getEntityManager(), AdvisoryLocks.WAREHOUSE_BUSINESS_UNIT, businessUnitCode);
+    if (location != null) {
+      AdvisoryLocks.lock(getEntityManager(), AdvisoryLocks.WAREHOUSE_LOCATION, location);
+    }
+  }
+
   @Override
   public Warehouse getById(Long id) {
     DbWarehouse db = findById(id);
@@ -1,5 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import com.fulfilment.application.monolith.common.CachedResponse;
+import com.fulfilment.application.monolith.common.ResponseByteCache;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
@@ -29,8 +31,11 @@ public class WarehouseResourceImpl implements WarehouseResource {
   @Inject private ReplaceWarehouseOperation replaceWarehouseOperation;
 
   @Override
+  @CachedResponse(ResponseByteCache.WAREHOUSES)
   public List<com.warehouse.api.beans.Warehouse> listAllWarehousesUnits() {
-    return warehouseStore.getAll().stream().map(this::toWarehouseResponse).toList();
+    return warehouseStore.getAll().stream()
+        .map(WarehouseResourceImpl::toWarehouseResponse)
+        .toList();
   }
 
   @Override
@@ -91,7 +96,7 @@ public class WarehouseResourceImpl implements WarehouseResource {
     return warehouse;
   }
 
-  private com.warehouse.api.beans.Warehouse toWarehouseResponse(Warehouse warehouse) {
+  static com.warehouse.api.beans.Warehouse toWarehouseResponse(Warehouse warehouse) {
     var response = new com.warehouse.api.beans.Warehouse();
     if (warehouse.id != null) {
       response.setId(String.valueOf(warehouse.id));
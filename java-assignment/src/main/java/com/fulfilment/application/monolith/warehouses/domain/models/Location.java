@@ -9,9 +9,25 @@ public class Location {
   // maximum capacity of the location summing all the warehouse capacities
   public int maxCapacity;
 
+  // WGS84 coordinates, null when the location has not been geocoded
+  public Double latitude;
+
+  public Double longitude;
+
   public Location(String identification, int maxNumberOfWarehouses, int maxCapacity) {
+    this(identification, maxNumberOfWarehouses, maxCapacity, null, null);
+  }
+
+  public Location(
+      String identification,
+      int maxNumberOfWarehouses,
+      int maxCapacity,
+      Double latitude,
+      Double longitude) {
     this.identification = identification;
     this.maxNumberOfWarehouses = maxNumberOfWarehouses;
     this.maxCapacity = maxCapacity;
+    this.latitude = latitude;
+    this.longitude = longitude;
   }
 }
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class LocationCatalogReloadedEvent {
+
+  private final int locations;
+
+  public LocationCatalogReloadedEvent(int locations) {
+    this.locations = locations;
+  }
+
+  public int getLocations() {
+    return locations;
+  }
+}
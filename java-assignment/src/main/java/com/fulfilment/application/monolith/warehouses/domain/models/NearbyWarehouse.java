@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class NearbyWarehouse {
+
+  public String businessUnitCode;
+
+  public String location;
+
+  public Integer capacity;
+
+  public Integer stock;
+
+  // capacity - stock
+  public int freeCapacity;
+
+  // great-circle distance from the query point
+  public double distanceKm;
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class WarehouseChangedEvent {
+
+  private final Warehouse warehouse;
+
+  public WarehouseChangedEvent(Warehouse warehouse) {
+    this.warehouse = warehouse;
+  }
+
+  public Warehouse getWarehouse() {
+    return warehouse;
+  }
+}
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import java.util.List;
+
+public interface FindNearestWarehousesOperation {
+  List<NearbyWarehouse> findNearest(
+      double latitude, double longitude, int count, int minFreeCapacity);
+}
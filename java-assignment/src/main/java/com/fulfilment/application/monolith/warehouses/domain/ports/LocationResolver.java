@@ -1,7 +1,11 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.List;
 
 public interface LocationResolver {
   Location resolveByIdentifier(String identifier);
+
+  /** Locations whose identifier starts with the prefix, in identifier order, at most limit. */
+  List<Location> searchByPrefix(String prefix, int limit);
 }
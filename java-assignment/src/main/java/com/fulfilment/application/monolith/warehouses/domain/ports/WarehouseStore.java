@@ -16,4 +16,10 @@ public interface WarehouseStore {
   Warehouse findByBusinessUnitCode(String buCode);
 
   Warehouse getById(Long id);
+
+  /**
+   * Holds off other changes to this business unit code and, unless null, to the warehouses at
+   * this location until the current transaction ends. Taken before the checks that count them.
+   */
+  void lockForChange(String businessUnitCode, String location);
 }
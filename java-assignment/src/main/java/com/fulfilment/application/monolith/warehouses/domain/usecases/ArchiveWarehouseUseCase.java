@@ -1,5 +1,6 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.Measured;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Measured(Measured.Layer.USE_CASE)
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(ArchiveWarehouseUseCase.class);
@@ -21,13 +23,20 @@ public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   @Override
   public void archive(Warehouse warehouse) {
-    Warehouse existing = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
-    if (existing == null) {
-      throw new WarehouseNotFoundException(warehouse.businessUnitCode);
-    }
+    WarehouseOperationEvent event = WarehouseOperationEvent.start("archive");
+    try {
+      warehouseStore.lockForChange(warehouse.businessUnitCode, null);
+      Warehouse existing = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
+      if (existing == null) {
+        throw new WarehouseNotFoundException(warehouse.businessUnitCode);
+      }
 
-    existing.archivedAt = LocalDateTime.now();
-    warehouseStore.update(existing);
-    LOGGER.infof("Warehouse archived: %s", warehouse.businessUnitCode);
+      existing.archivedAt = LocalDateTime.now();
+      warehouseStore.update(existing);
+      LOGGER.infof("Warehouse archived: %s", warehouse.businessUnitCode);
+      event.succeeded = true;
+    } finally {
+      event.finish(warehouse);
+    }
   }
 }
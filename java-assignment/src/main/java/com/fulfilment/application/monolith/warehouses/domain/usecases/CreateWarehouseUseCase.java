@@ -1,5 +1,6 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.Measured;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Measured(Measured.Layer.USE_CASE)
 public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(CreateWarehouseUseCase.class);
@@ -22,14 +24,21 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   @Override
   public void create(Warehouse warehouse) {
-    validator.validateBusinessUnitCodeUnique(warehouse.businessUnitCode);
-    validator.validateLocationConstraints(warehouse, null);
-    validator.validateStockWithinCapacity(warehouse);
+    WarehouseOperationEvent event = WarehouseOperationEvent.start("create");
+    try {
+      warehouseStore.lockForChange(warehouse.businessUnitCode, warehouse.location);
+      validator.validateBusinessUnitCodeUnique(warehouse.businessUnitCode);
+      validator.validateLocationConstraints(warehouse, null);
+      validator.validateStockWithinCapacity(warehouse);
 
-    warehouse.createdAt = LocalDateTime.now();
-    warehouseStore.create(warehouse);
-    LOGGER.infof(
-        "Warehouse created: code=%s, location=%s, capacity=%d",
-        warehouse.businessUnitCode, warehouse.location, warehouse.capacity);
+      warehouse.createdAt = LocalDateTime.now();
+      warehouseStore.create(warehouse);
+      LOGGER.infof(
+          "Warehouse created: code=%s, location=%s, capacity=%d",
+          warehouse.businessUnitCode, warehouse.location, warehouse.capacity);
+      event.succeeded = true;
+    } finally {
+      event.finish(warehouse);
+    }
   }
 }
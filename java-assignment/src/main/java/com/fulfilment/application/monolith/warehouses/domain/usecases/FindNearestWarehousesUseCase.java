@@ -0,0 +1,127 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.location.LocationNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseValidationException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationCatalogReloadedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.FindNearestWarehousesOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jboss.logging.Logger;
+
+@ApplicationScoped
+public class FindNearestWarehousesUseCase implements FindNearestWarehousesOperation {
+
+  private static final Logger LOGGER = Logger.getLogger(FindNearestWarehousesUseCase.class);
+
+  static final int MAX_COUNT = 100;
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+
+  // bumped on every change; an index built from an older generation is stale
+  private final AtomicLong generation = new AtomicLong();
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+  private volatile SpatialIndex index;
+
+  public FindNearestWarehousesUseCase(
+      WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+  }
+
+  @Override
+  public List<NearbyWarehouse> findNearest(
+      double latitude, double longitude, int count, int minFreeCapacity) {
+    if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+      throw new WarehouseValidationException("Coordinates are out of range");
+    }
+    if (count < 1 || count > MAX_COUNT) {
+      throw new WarehouseValidationException(
+          "Number of warehouses must be between 1 and " + MAX_COUNT);
+    }
+
+    SpatialIndex current = index;
+    if (current == null) {
+      rebuildLock.lock();
+      try {
+        current = refreshUnderLock();
+      } finally {
+        rebuildLock.unlock();
+      }
+    } else if (current.generation != generation.get() && rebuildLock.tryLock()) {
+      // one caller refreshes a stale index, the others keep answering from it meanwhile
+      try {
+        current = refreshUnderLock();
+      } finally {
+        rebuildLock.unlock();
+      }
+    }
+    return current.tree.nearest(latitude, longitude, count, minFreeCapacity);
+  }
+
+  void onWarehouseChanged(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChangedEvent event) {
+    invalidate();
+  }
+
+  void onLocationCatalogReloaded(@Observes LocationCatalogReloadedEvent event) {
+    invalidate();
+  }
+
+  void invalidate() {
+    generation.incrementAndGet();
+  }
+
+  private SpatialIndex refreshUnderLock() {
+    SpatialIndex current = index;
+    if (current != null && current.generation == generation.get()) {
+      return current;
+    }
+    // a change during the build bumps the generation, so the next caller rebuilds again
+    long builtGeneration = generation.get();
+    List<Warehouse> warehouses = new ArrayList<>();
+    List<Location> locations = new ArrayList<>();
+    for (Warehouse warehouse : warehouseStore.getAll()) {
+      try {
+        Location location = locationResolver.resolveByIdentifier(warehouse.location);
+        if (location.latitude != null) {
+          warehouses.add(warehouse);
+          locations.add(location);
+        }
+      } catch (LocationNotFoundException e) {
+        LOGGER.warnf(
+            "Warehouse %s skipped from spatial index: %s",
+            warehouse.businessUnitCode, e.getMessage());
+      }
+    }
+
+    SpatialIndex rebuilt =
+        new SpatialIndex(WarehouseKdTree.of(warehouses, locations), builtGeneration);
+    index = rebuilt;
+    LOGGER.debugf("Warehouse spatial index rebuilt: warehouses=%d", rebuilt.tree.size());
+    return rebuilt;
+  }
+
+  private static final class SpatialIndex {
+
+    final WarehouseKdTree tree;
+
+    final long generation;
+
+    SpatialIndex(WarehouseKdTree tree, long generation) {
+      this.tree = tree;
+      this.generation = generation;
+    }
+  }
+}
@@ -1,15 +1,19 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.Measured;
+import com.fulfilment.application.monolith.common.ValidationMetrics;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseValidationException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseRule.Rejection;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.time.LocalDateTime;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Measured(Measured.Layer.USE_CASE)
 public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(ReplaceWarehouseUseCase.class);
@@ -17,37 +21,54 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
   private final WarehouseStore warehouseStore;
   private final WarehouseValidator validator;
 
-  public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, WarehouseValidator validator) {
+  private final ValidationMetrics.Rule<Rejection> replacementCompatible;
+
+  public ReplaceWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      WarehouseValidator validator,
+      ValidationMetrics validationMetrics) {
     this.warehouseStore = warehouseStore;
     this.validator = validator;
+    replacementCompatible = WarehouseRule.REPLACEMENT_COMPATIBLE.register(validationMetrics);
   }
 
   @Override
   public void replace(Warehouse newWarehouse) {
-    Warehouse existing = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
-    if (existing == null) {
-      throw new WarehouseNotFoundException(newWarehouse.businessUnitCode);
-    }
+    WarehouseOperationEvent event = WarehouseOperationEvent.start("replace");
+    try {
+      warehouseStore.lockForChange(newWarehouse.businessUnitCode, newWarehouse.location);
+      Warehouse existing = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
+      if (existing == null) {
+        throw new WarehouseNotFoundException(newWarehouse.businessUnitCode);
+      }
 
-    if (newWarehouse.capacity < existing.stock) {
-      throw new WarehouseValidationException(
-          "New warehouse capacity cannot accommodate the stock from the replaced warehouse");
-    }
+      long start = System.nanoTime();
+      if (newWarehouse.capacity < existing.stock) {
+        replacementCompatible.rejected(start, Rejection.CAPACITY_BELOW_STOCK);
+        throw new WarehouseValidationException(
+            "New warehouse capacity cannot accommodate the stock from the replaced warehouse");
+      }
 
-    if (!newWarehouse.stock.equals(existing.stock)) {
-      throw new WarehouseValidationException(
-          "Stock of new warehouse must match the stock of the replaced warehouse");
-    }
+      if (!newWarehouse.stock.equals(existing.stock)) {
+        replacementCompatible.rejected(start, Rejection.STOCK_MISMATCH);
+        throw new WarehouseValidationException(
+            "Stock of new warehouse must match the stock of the replaced warehouse");
+      }
+      replacementCompatible.passed(start);
 
-    validator.validateLocationConstraints(newWarehouse, existing.businessUnitCode);
+      validator.validateLocationConstraints(newWarehouse, existing.businessUnitCode);
 
-    existing.archivedAt = LocalDateTime.now();
-    warehouseStore.update(existing);
+      existing.archivedAt = LocalDateTime.now();
+      warehouseStore.update(existing);
 
-    newWarehouse.createdAt = LocalDateTime.now();
-    warehouseStore.create(newWarehouse);
-    LOGGER.infof(
-        "Warehouse replaced: code=%s, oldLocation=%s, newLocation=%s",
-        newWarehouse.businessUnitCode, existing.location, newWarehouse.location);
+      newWarehouse.createdAt = LocalDateTime.now();
+      warehouseStore.create(newWarehouse);
+      LOGGER.infof(
+          "Warehouse replaced: code=%s, oldLocation=%s, newLocation=%s",
+          newWarehouse.businessUnitCode, existing.location, newWarehouse.location);
+      event.succeeded = true;
+    } finally {
+      event.finish(newWarehouse);
+    }
   }
 }
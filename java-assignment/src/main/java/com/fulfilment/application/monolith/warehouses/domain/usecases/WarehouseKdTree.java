@@ -0,0 +1,158 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable k-d tree over warehouse positions. Latitude/longitude are mapped onto the unit sphere,
+ * so the euclidean (chord) distance used for pruning orders points exactly like the great-circle
+ * distance, without special cases at the antimeridian or near the poles.
+ */
+final class WarehouseKdTree {
+
+  static final double EARTH_RADIUS_KM = 6371.0088;
+
+  private final Node[] nodes;
+
+  private WarehouseKdTree(Node[] nodes) {
+    this.nodes = nodes;
+    build(0, nodes.length, 0);
+  }
+
+  static WarehouseKdTree of(List<Warehouse> warehouses, List<Location> locations) {
+    Node[] nodes = new Node[warehouses.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = new Node(warehouses.get(i), locations.get(i));
+    }
+    return new WarehouseKdTree(nodes);
+  }
+
+  int size() {
+    return nodes.length;
+  }
+
+  List<NearbyWarehouse> nearest(
+      double latitude, double longitude, int count, int minFreeCapacity) {
+    double[] query = toUnitVector(latitude, longitude);
+    PriorityQueue<Candidate> best =
+        new PriorityQueue<>(count + 1, Comparator.comparingDouble((Candidate c) -> -c.chord2));
+    search(0, nodes.length, 0, query, count, minFreeCapacity, best);
+
+    List<NearbyWarehouse> result = new ArrayList<>(best.size());
+    while (!best.isEmpty()) {
+      result.add(toNearbyWarehouse(best.poll()));
+    }
+    Collections.reverse(result);
+    return result;
+  }
+
+  // arranges nodes[from, to) so the median on the split axis sits in the middle
+  private void build(int from, int to, int axis) {
+    if (to - from <= 1) {
+      return;
+    }
+    Arrays.sort(nodes, from, to, Comparator.comparingDouble((Node n) -> n.point[axis]));
+    int middle = (from + to) >>> 1;
+    build(from, middle, (axis + 1) % 3);
+    build(middle + 1, to, (axis + 1) % 3);
+  }
+
+  private void search(
+      int from,
+      int to,
+      int axis,
+      double[] query,
+      int count,
+      int minFreeCapacity,
+      PriorityQueue<Candidate> best) {
+    if (from >= to) {
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    Node node = nodes[middle];
+
+    if (node.freeCapacity >= minFreeCapacity) {
+      double chord2 = distance2(query, node.point);
+      if (best.size() < count) {
+        best.add(new Candidate(node, chord2));
+      } else if (chord2 < best.peek().chord2) {
+        best.poll();
+        best.add(new Candidate(node, chord2));
+      }
+    }
+
+    double delta = query[axis] - node.point[axis];
+    int nextAxis = (axis + 1) % 3;
+    if (delta < 0) {
+      search(from, middle, nextAxis, query, count, minFreeCapacity, best);
+    } else {
+      search(middle + 1, to, nextAxis, query, count, minFreeCapacity, best);
+    }
+    if (best.size() < count || delta * delta < best.peek().chord2) {
+      if (delta < 0) {
+        search(middle + 1, to, nextAxis, query, count, minFreeCapacity, best);
+      } else {
+        search(from, middle, nextAxis, query, count, minFreeCapacity, best);
+      }
+    }
+  }
+
+  private static NearbyWarehouse toNearbyWarehouse(Candidate candidate) {
+    Warehouse warehouse = candidate.node.warehouse;
+    var nearby = new NearbyWarehouse();
+    nearby.businessUnitCode = warehouse.businessUnitCode;
+    nearby.location = warehouse.location;
+    nearby.capacity = warehouse.capacity;
+    nearby.stock = warehouse.stock;
+    nearby.freeCapacity = candidate.node.freeCapacity;
+    double chord = Math.sqrt(candidate.chord2);
+    nearby.distanceKm = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, chord / 2));
+    return nearby;
+  }
+
+  private static double distance2(double[] a, double[] b) {
+    double dx = a[0] - b[0];
+    double dy = a[1] - b[1];
+    double dz = a[2] - b[2];
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  static double[] toUnitVector(double latitude, double longitude) {
+    double lat = Math.toRadians(latitude);
+    double lon = Math.toRadians(longitude);
+    return new double[] {
+      Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)
+    };
+  }
+
+  private static final class Node {
+    final Warehouse warehouse;
+    final double[] point;
+    final int freeCapacity;
+
+    Node(Warehouse warehouse, Location location) {
+      this.warehouse = warehouse;
+      this.point = toUnitVector(location.latitude, location.longitude);
+      this.freeCapacity =
+          (warehouse.capacity != null ? warehouse.capacity : 0)
+              - (warehouse.stock != null ? warehouse.stock : 0);
+    }
+  }
+
+  private static final class Candidate {
+    final Node node;
+    final double chord2;
+
+    Candidate(Node node, double chord2) {
+      this.node = node;
+      this.chord2 = chord2;
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("fulfilment.WarehouseOperation")
+@Label("Warehouse Operation")
+@Category({"Fulfilment", "Warehouses"})
+@Description("A warehouse create, replace or archive, from taking its locks to its last write")
+@Enabled(false)
+@Threshold("20 ms")
+@StackTrace(false)
+final class WarehouseOperationEvent extends Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Business Unit Code")
+  String businessUnitCode;
+
+  @Label("Location")
+  String location;
+
+  @Label("Succeeded")
+  boolean succeeded;
+
+  static WarehouseOperationEvent start(String operation) {
+    WarehouseOperationEvent event = new WarehouseOperationEvent();
+    event.operation = operation;
+    event.begin();
+    return event;
+  }
+
+  void finish(Warehouse warehouse) {
+    end();
+    if (shouldCommit()) {
+      businessUnitCode = warehouse.businessUnitCode;
+      location = warehouse.location;
+      commit();
+    }
+  }
+}
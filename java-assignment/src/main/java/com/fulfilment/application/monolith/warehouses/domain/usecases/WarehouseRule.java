@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.common.ValidationMetrics;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** The rules a warehouse is checked against, with the reasons each can reject it for. */
+enum WarehouseRule {
+  BUSINESS_UNIT_CODE_UNIQUE(
+      "warehouse.business-unit-code-unique", EnumSet.of(Rejection.DUPLICATE_BUSINESS_UNIT_CODE)),
+  LOCATION_CONSTRAINTS(
+      "warehouse.location-constraints",
+      EnumSet.of(
+          Rejection.UNKNOWN_LOCATION,
+          Rejection.LOCATION_WAREHOUSE_LIMIT,
+          Rejection.LOCATION_CAPACITY_LIMIT)),
+  STOCK_WITHIN_CAPACITY(
+      "warehouse.stock-within-capacity", EnumSet.of(Rejection.STOCK_EXCEEDS_CAPACITY)),
+  REPLACEMENT_COMPATIBLE(
+      "warehouse.replacement-compatible",
+      EnumSet.of(Rejection.CAPACITY_BELOW_STOCK, Rejection.STOCK_MISMATCH));
+
+  /** The {@code rule} tag of the meters. */
+  final String id;
+
+  final Set<Rejection> rejections;
+
+  WarehouseRule(String id, Set<Rejection> rejections) {
+    this.id = id;
+    this.rejections = rejections;
+  }
+
+  ValidationMetrics.Rule<Rejection> register(ValidationMetrics validationMetrics) {
+    return validationMetrics.rule(id, rejections);
+  }
+
+  enum Rejection implements ValidationMetrics.Reason {
+    DUPLICATE_BUSINESS_UNIT_CODE("duplicate-business-unit-code"),
+    UNKNOWN_LOCATION("unknown-location"),
+    LOCATION_WAREHOUSE_LIMIT("location-warehouse-limit"),
+    LOCATION_CAPACITY_LIMIT("location-capacity-limit"),
+    STOCK_EXCEEDS_CAPACITY("stock-exceeds-capacity"),
+    CAPACITY_BELOW_STOCK("capacity-below-stock"),
+    STOCK_MISMATCH("stock-mismatch");
+
+    private final String code;
+
+    Rejection(String code) {
+      this.code = code;
+    }
+
+    @Override
+    public String code() {
+      return code;
+    }
+  }
+}
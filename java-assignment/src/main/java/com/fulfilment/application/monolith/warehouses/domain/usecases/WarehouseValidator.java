@@ -1,10 +1,13 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.common.ValidationMetrics;
+import com.fulfilment.application.monolith.exceptions.DomainValidationException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseValidationException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseRule.Rejection;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.List;
 
@@ -14,16 +17,29 @@ public class WarehouseValidator {
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
 
-  public WarehouseValidator(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+  private final ValidationMetrics.Rule<Rejection> businessUnitCodeUnique;
+  private final ValidationMetrics.Rule<Rejection> locationConstraints;
+  private final ValidationMetrics.Rule<Rejection> stockWithinCapacity;
+
+  public WarehouseValidator(
+      WarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      ValidationMetrics validationMetrics) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    businessUnitCodeUnique = WarehouseRule.BUSINESS_UNIT_CODE_UNIQUE.register(validationMetrics);
+    locationConstraints = WarehouseRule.LOCATION_CONSTRAINTS.register(validationMetrics);
+    stockWithinCapacity = WarehouseRule.STOCK_WITHIN_CAPACITY.register(validationMetrics);
   }
 
   public void validateBusinessUnitCodeUnique(String businessUnitCode) {
+    long start = System.nanoTime();
     if (warehouseStore.findByBusinessUnitCode(businessUnitCode) != null) {
+      businessUnitCodeUnique.rejected(start, Rejection.DUPLICATE_BUSINESS_UNIT_CODE);
       throw new WarehouseValidationException(
           "Business unit code '" + businessUnitCode + "' already exists");
     }
+    businessUnitCodeUnique.passed(start);
   }
 
   /**
@@ -32,7 +48,14 @@ public class WarehouseValidator {
    */
   public void validateLocationConstraints(
       Warehouse warehouse, String excludeBusinessUnitCode) {
-    Location location = locationResolver.resolveByIdentifier(warehouse.location);
+    long start = System.nanoTime();
+    Location location;
+    try {
+      location = locationResolver.resolveByIdentifier(warehouse.location);
+    } catch (DomainValidationException e) {
+      locationConstraints.rejected(start, Rejection.UNKNOWN_LOCATION);
+      throw e;
+    }
 
     List<Warehouse> warehousesAtLocation =
         warehouseStore.getAll().stream()
@@ -44,23 +67,29 @@ public class WarehouseValidator {
             .toList();
 
     if (warehousesAtLocation.size() >= location.maxNumberOfWarehouses) {
+      locationConstraints.rejected(start, Rejection.LOCATION_WAREHOUSE_LIMIT);
       throw new WarehouseValidationException(
           "Maximum number of warehouses reached at location '" + warehouse.location + "'");
     }
 
     int totalCapacity = warehousesAtLocation.stream().mapToInt(w -> w.capacity).sum();
     if (totalCapacity + warehouse.capacity > location.maxCapacity) {
+      locationConstraints.rejected(start, Rejection.LOCATION_CAPACITY_LIMIT);
       throw new WarehouseValidationException(
           "Warehouse capacity exceeds maximum capacity for location '"
               + warehouse.location
               + "'");
     }
+    locationConstraints.passed(start);
   }
 
   public void validateStockWithinCapacity(Warehouse warehouse) {
+    long start = System.nanoTime();
     if (warehouse.stock != null && warehouse.capacity < warehouse.stock) {
+      stockWithinCapacity.rejected(start, Rejection.STOCK_EXCEEDS_CAPACITY);
       throw new WarehouseValidationException(
           "Warehouse capacity cannot handle the specified stock");
     }
+    stockWithinCapacity.passed(start);
   }
 }
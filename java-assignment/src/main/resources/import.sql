@@ -1,6 +1,6 @@
-INSERT INTO store(id, name, quantityProductsInStock) VALUES (1, 'TONSTAD', 10);
-INSERT INTO store(id, name, quantityProductsInStock) VALUES (2, 'KALLAX', 5);
-INSERT INTO store(id, name, quantityProductsInStock) VALUES (3, 'BESTÅ', 3);
+INSERT INTO store(id, name, quantityProductsInStock, latitude, longitude) VALUES (1, 'TONSTAD', 10, 52.3676, 4.9041);
+INSERT INTO store(id, name, quantityProductsInStock, latitude, longitude) VALUES (2, 'KALLAX', 5, 52.5168, 6.0830);
+INSERT INTO store(id, name, quantityProductsInStock, latitude, longitude) VALUES (3, 'BESTÅ', 3, 51.4416, 5.4697);
 ALTER SEQUENCE store_seq RESTART WITH 4;
 
 INSERT INTO product(id, name, stock) VALUES (1, 'TONSTAD', 10);
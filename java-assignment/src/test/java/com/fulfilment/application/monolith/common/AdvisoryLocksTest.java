@@ -0,0 +1,28 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AdvisoryLocksTest {
+
+  @Test
+  void lockIds_shouldFollowHashOrder_whenItDiffersFromKeyOrder() {
+    // "aa" sorts before "b", but hashes to 3104 against 98
+    int[] ids = AdvisoryLocks.lockIds(List.of("aa", "b"));
+
+    assertArrayEquals(new int[] {"b".hashCode(), "aa".hashCode()}, ids);
+  }
+
+  @Test
+  void lockIds_shouldLockCollidingKeysOnce() {
+    // "Aa" and "BB" share a hash code, so they map to the same advisory lock
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+
+    int[] ids = AdvisoryLocks.lockIds(Arrays.asList("BB", null, "Aa", "BB"));
+
+    assertArrayEquals(new int[] {"Aa".hashCode()}, ids);
+  }
+}
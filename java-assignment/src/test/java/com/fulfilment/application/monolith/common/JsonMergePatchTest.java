@@ -0,0 +1,89 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.products.Product;
+import jakarta.ws.rs.WebApplicationException;
+import java.math.BigDecimal;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JsonMergePatchTest {
+
+  private static final Set<String> REQUIRED = Set.of("name", "stock");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private JsonMergePatch jsonMergePatch;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    jsonMergePatch = new JsonMergePatch();
+    jsonMergePatch.objectMapper = objectMapper;
+
+    product = new Product("TONSTAD");
+    product.id = 1L;
+    product.description = "Sofa";
+    product.price = new BigDecimal("499.00");
+    product.stock = 10;
+  }
+
+  @Test
+  void apply_shouldOnlyChangeMembersPresentInPatch() throws Exception {
+    boolean changed = jsonMergePatch.apply(product, json("{\"stock\": 7}"), REQUIRED);
+
+    assertTrue(changed);
+    assertEquals(7, product.stock);
+    assertEquals("TONSTAD", product.name);
+    assertEquals("Sofa", product.description);
+  }
+
+  @Test
+  void apply_shouldRemoveOptionalMember_whenPatchValueIsNull() throws Exception {
+    jsonMergePatch.apply(product, json("{\"description\": null}"), REQUIRED);
+
+    assertNull(product.description);
+  }
+
+  @Test
+  void apply_shouldReportNoChange_whenPatchRepeatsCurrentValues() throws Exception {
+    boolean changed =
+        jsonMergePatch.apply(product, json("{\"name\": \"TONSTAD\", \"stock\": 10}"), REQUIRED);
+
+    assertFalse(changed);
+  }
+
+  @Test
+  void apply_shouldReturn422_whenRequiredMemberIsRemoved() {
+    WebApplicationException exception =
+        assertThrows(
+            WebApplicationException.class,
+            () -> jsonMergePatch.apply(product, json("{\"name\": null}"), REQUIRED));
+
+    assertEquals(422, exception.getResponse().getStatus());
+    assertEquals("TONSTAD", product.name);
+  }
+
+  @Test
+  void apply_shouldReturn422_whenPatchChangesId() {
+    WebApplicationException exception =
+        assertThrows(
+            WebApplicationException.class,
+            () -> jsonMergePatch.apply(product, json("{\"id\": 2}"), REQUIRED));
+
+    assertEquals(422, exception.getResponse().getStatus());
+  }
+
+  @Test
+  void apply_shouldReturn422_whenPatchIsNotAnObject() {
+    assertThrows(
+        WebApplicationException.class, () -> jsonMergePatch.apply(product, json("[]"), REQUIRED));
+  }
+
+  private JsonNode json(String value) throws Exception {
+    return objectMapper.readTree(value);
+  }
+}
@@ -0,0 +1,95 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResponseByteCacheTest {
+
+  private static final byte[] JSON =
+      "[{\"name\":\"TONSTAD\"}]".getBytes(StandardCharsets.UTF_8);
+
+  private SimpleMeterRegistry meterRegistry;
+  private ResponseByteCache cache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new ResponseByteCache();
+    cache.meterRegistry = meterRegistry;
+  }
+
+  @Test
+  void get_shouldReturnStoredBytes_untilRegionIsInvalidated() {
+    cache.put("store", "store", cache.generation("store"), JSON);
+
+    assertArrayEquals(JSON, cache.get("store", "store").json());
+
+    cache.invalidate("store");
+
+    assertNull(cache.get("store", "store"));
+    assertEquals(
+        1,
+        meterRegistry
+            .counter("response.cache.requests", "region", "store", "result", "hit")
+            .count());
+  }
+
+  @Test
+  void put_shouldBeIgnored_whenRegionChangedWhileRendering() {
+    long generation = cache.generation("product");
+    cache.invalidate("product");
+
+    cache.put("product", "product", generation, JSON);
+
+    assertNull(cache.get("product", "product"));
+  }
+
+  @Test
+  void invalidate_shouldOnlyDropTheGivenRegion() {
+    cache.put("store", "store", cache.generation("store"), JSON);
+    cache.put("product", "product", cache.generation("product"), JSON);
+
+    cache.invalidate("product");
+
+    assertNotNull(cache.get("store", "store"));
+    assertNull(cache.get("product", "product"));
+  }
+
+  @Test
+  void put_shouldNotAddShapesBeyondMaxEntries() {
+    cache.maxEntries = 1;
+    cache.put("store", "store", 0, JSON);
+    cache.put("store", "store?limit=[1]", 0, JSON);
+
+    assertNotNull(cache.get("store", "store"));
+    assertNull(cache.get("store", "store?limit=[1]"));
+  }
+
+  @Test
+  void gzip_shouldDecompressToTheJsonBytes() throws Exception {
+    cache.put("store", "store", 0, JSON);
+    ResponseByteCache.Entry entry = cache.get("store", "store");
+
+    byte[] gzip = entry.gzip();
+
+    assertSame(gzip, entry.gzip());
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+      assertArrayEquals(JSON, in.readAllBytes());
+    }
+  }
+
+  @Test
+  void acceptsGzip_shouldHonourQualityValues() {
+    assertTrue(ResponseByteCacheFilter.acceptsGzip("gzip, deflate, br"));
+    assertTrue(ResponseByteCacheFilter.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+    assertFalse(ResponseByteCacheFilter.acceptsGzip("gzip;q=0"));
+    assertFalse(ResponseByteCacheFilter.acceptsGzip("identity"));
+    assertFalse(ResponseByteCacheFilter.acceptsGzip(null));
+  }
+}
@@ -0,0 +1,58 @@
+package com.fulfilment.application.monolith.common;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.restassured.response.Response;
+
+/**
+ * Statement budgets for REST Assured responses, read from the {@value
+ * SqlRequestStatistics#HEADER} header the test profile adds. A request that needs more statements
+ * or rows than its budget, e.g. after an N+1 query crept in, fails the test with the actual tally.
+ */
+public final class SqlBudget {
+
+  private SqlBudget() {}
+
+  public static Response assertStatementsAtMost(int budget, Response response) {
+    long statements = value(response, "statements");
+    assertTrue(
+        statements <= budget,
+        "expected at most " + budget + " SQL statements, got " + tally(response));
+    return response;
+  }
+
+  public static Response assertRowsAtMost(long budget, Response response) {
+    long rows = value(response, "rows");
+    assertTrue(rows <= budget, "expected at most " + budget + " rows, got " + tally(response));
+    return response;
+  }
+
+  /** Fails when the rows a request read were not counted, e.g. after a Hibernate upgrade. */
+  public static Response assertRowsAtLeast(long minimum, Response response) {
+    long rows = value(response, "rows");
+    assertTrue(
+        rows >= minimum,
+        "expected at least "
+            + minimum
+            + " rows, got "
+            + tally(response)
+            + "; does Hibernate still call SqlRowStatisticsFactory's statistics?");
+    return response;
+  }
+
+  private static long value(Response response, String name) {
+    for (String part : tally(response).split(", ")) {
+      if (part.startsWith(name + "=")) {
+        return Long.parseLong(part.substring(name.length() + 1));
+      }
+    }
+    throw new AssertionError("no " + name + " in " + tally(response));
+  }
+
+  private static String tally(Response response) {
+    String header = response.header(SqlRequestStatistics.HEADER);
+    assertNotNull(header, "no " + SqlRequestStatistics.HEADER + " header, is sql.stats.header on?");
+    return header;
+  }
+}
@@ -0,0 +1,81 @@
+package com.fulfilment.application.monolith.common;
+
+import static com.fulfilment.application.monolith.common.SqlBudget.assertRowsAtLeast;
+import static com.fulfilment.application.monolith.common.SqlBudget.assertRowsAtMost;
+import static com.fulfilment.application.monolith.common.SqlBudget.assertStatementsAtMost;
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The SQL statements each endpoint may need at most, with cold caches. Raise a budget only when
+ * the extra statements are intended.
+ */
+@QuarkusTest
+class SqlStatementBudgetTest {
+
+  @Inject ResponseByteCache responseByteCache;
+
+  @Test
+  void getWarehouses_shouldStayWithinBudget() {
+    // a cached listing runs no statement at all
+    responseByteCache.invalidate(ResponseByteCache.WAREHOUSES);
+
+    Response response = given().get("warehouse");
+
+    assertEquals(200, response.statusCode());
+    assertStatementsAtMost(1, response);
+  }
+
+  @Test
+  void getWarehouseById_shouldStayWithinBudget() {
+    Response response = given().get("warehouse/" + anyWarehouse().get("id"));
+
+    assertEquals(200, response.statusCode());
+    assertStatementsAtMost(1, response);
+    assertRowsAtMost(1, response);
+  }
+
+  @Test
+  void getWarehouseById_shouldCountRowsOfItsQuery() {
+    Response response = given().get("warehouse/" + anyWarehouse().get("id"));
+
+    assertEquals(200, response.statusCode());
+    assertRowsAtLeast(1, response);
+  }
+
+  @Test
+  void replaceWarehouse_shouldStayWithinBudget() {
+    Map<String, Object> warehouse = anyWarehouse();
+
+    // the same location, capacity and stock, so the replacement always passes the rules
+    Response response =
+        given()
+            .contentType(ContentType.JSON)
+            .body(warehouse)
+            .post("warehouse/" + warehouse.get("businessUnitCode") + "/replacement");
+
+    assertEquals(200, response.statusCode());
+    // 2 advisory locks, 2 lookups of the code, the location's warehouses, an id block, the
+    // archiving update and the insert
+    assertStatementsAtMost(8, response);
+  }
+
+  @Test
+  void getFulfilmentsByStore_shouldStayWithinBudget() {
+    Response response = given().get("fulfilment/store/1");
+
+    assertEquals(200, response.statusCode());
+    assertStatementsAtMost(2, response);
+  }
+
+  private static Map<String, Object> anyWarehouse() {
+    return given().get("warehouse").then().statusCode(200).extract().path("[0]");
+  }
+}
@@ -0,0 +1,149 @@
+package com.fulfilment.application.monolith.common;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import org.jboss.logging.Logger;
+
+/**
+ * Fires randomly chosen operations from several threads at once, all released together, and
+ * counts how they ended: completed (2xx), rejected by a rule (4xx) or aborted (5xx or an
+ * exception). An aborted call is retried with the same request up to {@link #MAX_ATTEMPTS}
+ * times. Size the run with {@code -Dstress.threads} and {@code -Dstress.operations} (per thread).
+ */
+public final class StressRun {
+
+  private static final Logger LOGGER = Logger.getLogger(StressRun.class);
+
+  public static final int MAX_ATTEMPTS = 3;
+
+  /** Prepares one call from the random draws; the returned call gives the HTTP status. */
+  @FunctionalInterface
+  public interface Operation {
+    IntSupplier prepare(SplittableRandom random);
+  }
+
+  private static final class Counts {
+    final LongAdder completed = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder retried = new LongAdder();
+    final LongAdder aborted = new LongAdder();
+  }
+
+  private final int threads = Integer.getInteger("stress.threads", 8);
+
+  private final int operationsPerThread = Integer.getInteger("stress.operations", 200);
+
+  private final Map<String, Operation> operations = new LinkedHashMap<>();
+
+  private final Map<String, Counts> counts = new LinkedHashMap<>();
+
+  private long elapsedNanos;
+
+  public StressRun operation(String name, Operation operation) {
+    operations.put(name, operation);
+    counts.put(name, new Counts());
+    return this;
+  }
+
+  public StressRun run(long seed) throws Exception {
+    List<String> names = new ArrayList<>(operations.keySet());
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> workers = new ArrayList<>();
+      for (int thread = 0; thread < threads; thread++) {
+        SplittableRandom random = new SplittableRandom(seed + thread);
+        workers.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < operationsPerThread; i++) {
+                    String name = names.get(random.nextInt(names.size()));
+                    perform(operations.get(name).prepare(random), counts.get(name));
+                  }
+                  return null;
+                }));
+      }
+      long started = System.nanoTime();
+      start.countDown();
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+      elapsedNanos = System.nanoTime() - started;
+    } finally {
+      executor.shutdownNow();
+    }
+    report();
+    return this;
+  }
+
+  public long completed() {
+    return counts.values().stream().mapToLong(c -> c.completed.sum()).sum();
+  }
+
+  public long aborted() {
+    return counts.values().stream().mapToLong(c -> c.aborted.sum()).sum();
+  }
+
+  private static void perform(IntSupplier call, Counts counts) {
+    for (int attempt = 1; ; attempt++) {
+      int status;
+      try {
+        status = call.getAsInt();
+      } catch (RuntimeException e) {
+        status = 599;
+      }
+      if (status < 400) {
+        counts.completed.increment();
+        return;
+      }
+      if (status < 500) {
+        counts.rejected.increment();
+        return;
+      }
+      if (attempt == MAX_ATTEMPTS) {
+        counts.aborted.increment();
+        return;
+      }
+      counts.retried.increment();
+    }
+  }
+
+  private void report() {
+    double seconds = elapsedNanos / 1e9;
+    long calls = (long) threads * operationsPerThread;
+    StringBuilder report = new StringBuilder();
+    report.append(
+        String.format(
+            "%d threads, %d operations in %.1fs: %.0f ops/s%n",
+            threads, calls, seconds, calls / seconds));
+    counts.forEach(
+        (name, c) ->
+            report.append(
+                String.format(
+                    "  %-10s completed %6d  rejected %6d  retried %5d (%.2f%%)  aborted %5d"
+                        + " (%.2f%%)%n",
+                    name,
+                    c.completed.sum(),
+                    c.rejected.sum(),
+                    c.retried.sum(),
+                    percentOf(c.retried.sum(), c),
+                    c.aborted.sum(),
+                    percentOf(c.aborted.sum(), c))));
+    LOGGER.info(report);
+  }
+
+  private static double percentOf(long value, Counts counts) {
+    long calls = counts.completed.sum() + counts.rejected.sum() + counts.aborted.sum();
+    return calls == 0 ? 0 : 100.0 * value / calls;
+  }
+}
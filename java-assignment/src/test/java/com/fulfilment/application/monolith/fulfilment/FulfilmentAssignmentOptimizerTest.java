@@ -0,0 +1,113 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FulfilmentAssignmentOptimizerTest {
+
+  private static final Duration BUDGET = Duration.ofMillis(200);
+
+  private FulfilmentAssignmentOptimizer optimizer;
+
+  @BeforeEach
+  void setUp() {
+    optimizer = new FulfilmentAssignmentOptimizer();
+  }
+
+  @Test
+  void optimize_shouldPreferWarehouseWithMostHeadroom() {
+    List<Warehouse> warehouses =
+        List.of(buildWarehouse("MWH.001", 100, 90), buildWarehouse("MWH.012", 100, 10));
+
+    FulfilmentOptimization result =
+        optimizer.optimize(List.of(new FulfilmentDemand(1L, 1L, 10)), List.of(), warehouses, BUDGET);
+
+    assertEquals(1, result.assignments.size());
+    assertEquals("MWH.012", result.assignments.get(0).warehouseBusinessUnitCode);
+    assertEquals(10, result.coveredDemand);
+  }
+
+  @Test
+  void optimize_shouldSkipDemandAlreadyCoveredByExistingFulfilment() {
+    List<Warehouse> warehouses = List.of(buildWarehouse("MWH.001", 100, 10));
+    List<Fulfilment> existing = List.of(buildFulfilment(1L, 1L, "MWH.001"));
+
+    FulfilmentOptimization result =
+        optimizer.optimize(List.of(new FulfilmentDemand(1L, 1L, 10)), existing, warehouses, BUDGET);
+
+    assertTrue(result.assignments.isEmpty());
+    assertEquals(10, result.coveredDemand);
+  }
+
+  @Test
+  void optimize_shouldIgnoreWarehousesWithoutHeadroom() {
+    List<Warehouse> warehouses = List.of(buildWarehouse("MWH.001", 50, 50));
+
+    FulfilmentOptimization result =
+        optimizer.optimize(List.of(new FulfilmentDemand(1L, 1L, 10)), List.of(), warehouses, BUDGET);
+
+    assertTrue(result.assignments.isEmpty());
+    assertEquals(0, result.coveredDemand);
+  }
+
+  @Test
+  void optimize_shouldRespectAllFulfilmentLimits() {
+    List<Warehouse> warehouses = new ArrayList<>();
+    for (int w = 1; w <= 6; w++) {
+      warehouses.add(buildWarehouse("MWH." + w, 100, 10 * w));
+    }
+    List<FulfilmentDemand> demands = new ArrayList<>();
+    for (long store = 1; store <= 8; store++) {
+      for (long product = 1; product <= 10; product++) {
+        demands.add(new FulfilmentDemand(store, product, store * product));
+      }
+    }
+    List<Fulfilment> existing = List.of(buildFulfilment(1L, 1L, "MWH.1"));
+
+    FulfilmentOptimization result = optimizer.optimize(demands, existing, warehouses, BUDGET);
+
+    List<Fulfilment> all = new ArrayList<>(existing);
+    all.addAll(result.assignments);
+    Map<String, Long> perProductPerStore =
+        all.stream().collect(Collectors.groupingBy(f -> f.storeId + "/" + f.productId, Collectors.counting()));
+    Map<Long, Set<String>> warehousesPerStore = new HashMap<>();
+    Map<String, Set<Long>> productsPerWarehouse = new HashMap<>();
+    for (Fulfilment f : all) {
+      warehousesPerStore.computeIfAbsent(f.storeId, k -> new HashSet<>()).add(f.warehouseBusinessUnitCode);
+      productsPerWarehouse.computeIfAbsent(f.warehouseBusinessUnitCode, k -> new HashSet<>()).add(f.productId);
+    }
+
+    assertFalse(result.assignments.isEmpty());
+    perProductPerStore.values().forEach(count -> assertTrue(count <= 2));
+    warehousesPerStore.values().forEach(codes -> assertTrue(codes.size() <= 3));
+    productsPerWarehouse.values().forEach(products -> assertTrue(products.size() <= 5));
+    assertTrue(result.coveredDemand <= result.requestedDemand);
+  }
+
+  private Warehouse buildWarehouse(String code, int capacity, int stock) {
+    Warehouse w = new Warehouse();
+    w.businessUnitCode = code;
+    w.capacity = capacity;
+    w.stock = stock;
+    return w;
+  }
+
+  private Fulfilment buildFulfilment(Long storeId, Long productId, String warehouseCode) {
+    Fulfilment f = new Fulfilment();
+    f.storeId = storeId;
+    f.productId = productId;
+    f.warehouseBusinessUnitCode = warehouseCode;
+    return f;
+  }
+}
@@ -0,0 +1,127 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FulfilmentAvailabilityViewTest {
+
+  private FulfilmentAvailabilityView view;
+
+  @BeforeEach
+  void setUp() {
+    view = new FulfilmentAvailabilityView();
+    view.load(
+        List.of(buildWarehouse("MWH.001", 10), buildWarehouse("MWH.012", 5)),
+        List.of(
+            buildFulfilment(1L, 1L, "MWH.001"),
+            buildFulfilment(1L, 1L, "MWH.012"),
+            buildFulfilment(1L, 2L, "MWH.012"),
+            buildFulfilment(2L, 1L, "MWH.001")));
+  }
+
+  @Test
+  void availability_shouldListWarehousesAndSumTheirStock() {
+    ProductAvailability availability = view.availability(1L, 1L);
+
+    assertEquals(15, availability.availableStock);
+    assertEquals(List.of("MWH.001", "MWH.012"), codes(availability));
+    assertNull(view.availability(2L, 2L));
+  }
+
+  @Test
+  void assortment_shouldReturnEveryProductOfStoreOrderedById() {
+    List<ProductAvailability> assortment = view.assortment(1L);
+
+    assertEquals(List.of(1L, 2L), assortment.stream().map(a -> a.productId).toList());
+    assertEquals(5, assortment.get(1).availableStock);
+    assertTrue(view.assortment(3L).isEmpty());
+  }
+
+  @Test
+  void onFulfilmentCreated_shouldAddWarehouseToEntry() {
+    view.onFulfilmentCreated(new FulfilmentCreatedEvent(buildFulfilment(2L, 1L, "MWH.012")));
+
+    assertEquals(15, view.availability(2L, 1L).availableStock);
+  }
+
+  @Test
+  void onFulfilmentDeleted_shouldDropEntry_whenLastWarehouseIsRemoved() {
+    view.onFulfilmentDeleted(new FulfilmentDeletedEvent(buildFulfilment(1L, 1L, "MWH.001")));
+    view.onFulfilmentDeleted(new FulfilmentDeletedEvent(buildFulfilment(1L, 2L, "MWH.012")));
+
+    assertEquals(List.of("MWH.012"), codes(view.availability(1L, 1L)));
+    assertNull(view.availability(1L, 2L));
+  }
+
+  @Test
+  void onWarehouseChanged_shouldUpdateEveryEntryFulfilledByWarehouse() {
+    view.onWarehouseChanged(new WarehouseChangedEvent(buildWarehouse("MWH.012", 8)));
+
+    assertEquals(18, view.availability(1L, 1L).availableStock);
+    assertEquals(8, view.availability(1L, 2L).availableStock);
+    assertEquals(10, view.availability(2L, 1L).availableStock);
+  }
+
+  @Test
+  void onWarehouseChanged_shouldCountNoStock_whenWarehouseIsArchived() {
+    Warehouse archived = buildWarehouse("MWH.001", 10);
+    archived.archivedAt = LocalDateTime.now();
+
+    view.onWarehouseChanged(new WarehouseChangedEvent(archived));
+
+    assertEquals(5, view.availability(1L, 1L).availableStock);
+    assertEquals(0, view.availability(2L, 1L).availableStock);
+  }
+
+  @Test
+  void availability_shouldNotChange_whenReadEntryIsHeldDuringUpdate() {
+    ProductAvailability before = view.availability(1L, 1L);
+
+    view.onWarehouseChanged(new WarehouseChangedEvent(buildWarehouse("MWH.001", 1)));
+
+    assertEquals(15, before.availableStock);
+    assertEquals(6, view.availability(1L, 1L).availableStock);
+  }
+
+  @Test
+  void load_shouldReplayChangesCommittedDuringRebuild() {
+    view.beginRebuild();
+    view.onFulfilmentCreated(new FulfilmentCreatedEvent(buildFulfilment(3L, 1L, "MWH.012")));
+    view.onFulfilmentDeleted(new FulfilmentDeletedEvent(buildFulfilment(2L, 1L, "MWH.001")));
+    view.onWarehouseChanged(new WarehouseChangedEvent(buildWarehouse("MWH.012", 7)));
+
+    // the snapshot was read before any of these changes was committed
+    view.load(
+        List.of(buildWarehouse("MWH.001", 10), buildWarehouse("MWH.012", 5)),
+        List.of(buildFulfilment(1L, 1L, "MWH.012"), buildFulfilment(2L, 1L, "MWH.001")));
+
+    assertEquals(7, view.availability(3L, 1L).availableStock);
+    assertEquals(7, view.availability(1L, 1L).availableStock);
+    assertNull(view.availability(2L, 1L));
+  }
+
+  private List<String> codes(ProductAvailability availability) {
+    return availability.warehouses.stream().map(source -> source.businessUnitCode).toList();
+  }
+
+  private Warehouse buildWarehouse(String code, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+
+  private Fulfilment buildFulfilment(Long storeId, Long productId, String warehouse) {
+    Fulfilment fulfilment = new Fulfilment();
+    fulfilment.storeId = storeId;
+    fulfilment.productId = productId;
+    fulfilment.warehouseBusinessUnitCode = warehouse;
+    return fulfilment;
+  }
+}
@@ -0,0 +1,130 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.products.ProductCreatedEvent;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreDeletedEvent;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+class FulfilmentCoverageIndexTest {
+
+  private FulfilmentCoverageIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new FulfilmentCoverageIndex();
+    index.load(
+        List.of(1L, 2L, 3L),
+        List.of(1L, 2L, 3L),
+        List.of(
+            buildFulfilment(1L, 1L, "MWH.001"),
+            buildFulfilment(1L, 1L, "MWH.012"),
+            buildFulfilment(2L, 1L, "MWH.001"),
+            buildFulfilment(1L, 2L, "MWH.023")));
+  }
+
+  @Test
+  void uncoveredStores_shouldReturnStoresWithoutAnyWarehouseForProduct() {
+    assertEquals(bits(3), index.uncoveredStores(1L));
+    assertEquals(bits(2, 3), index.uncoveredStores(2L));
+    assertEquals(bits(1, 2, 3), index.uncoveredStores(3L));
+  }
+
+  @Test
+  void uncoveredProducts_shouldReturnProductsWithoutAnyWarehouseForStore() {
+    assertEquals(bits(3), index.uncoveredProducts(1L));
+    assertEquals(bits(2, 3), index.uncoveredProducts(2L));
+    assertEquals(bits(1, 2, 3), index.uncoveredProducts(3L));
+  }
+
+  @Test
+  void singleSourcedStores_shouldExcludeStoresWithTwoWarehouses() {
+    assertEquals(bits(2), index.singleSourcedStores(1L));
+    assertEquals(bits(1), index.singleSourcedStores(2L));
+    assertEquals(Map.of(1L, 1, 2L, 1), index.singleSourcedStoreCounts());
+  }
+
+  @Test
+  void onFulfilmentDeleted_shouldKeepCoverage_whenAnotherWarehouseStillFulfils() {
+    index.onFulfilmentDeleted(new FulfilmentDeletedEvent(buildFulfilment(1L, 1L, "MWH.012")));
+
+    assertEquals(bits(3), index.uncoveredStores(1L));
+    assertEquals(bits(1, 2), index.singleSourcedStores(1L));
+  }
+
+  @Test
+  void onFulfilmentDeleted_shouldReopenGap_whenLastWarehouseIsRemoved() {
+    index.onFulfilmentDeleted(new FulfilmentDeletedEvent(buildFulfilment(1L, 2L, "MWH.023")));
+
+    assertEquals(bits(1, 2, 3), index.uncoveredStores(2L));
+    assertTrue(index.uncoveredProducts(1L).contains(2));
+  }
+
+  @Test
+  void saturatedWarehouses_shouldReturnWarehousesAtProductLimit() {
+    assertEquals(List.of(), index.saturatedWarehouses());
+
+    for (long productId = 2; productId <= 5; productId++) {
+      index.onFulfilmentCreated(
+          new FulfilmentCreatedEvent(buildFulfilment(1L, productId, "MWH.001")));
+    }
+
+    assertEquals(List.of("MWH.001"), index.saturatedWarehouses());
+  }
+
+  @Test
+  void onStoreAndProductEvents_shouldUpdateUniverses() {
+    Product product = new Product();
+    product.id = 4L;
+    index.onProductCreated(new ProductCreatedEvent(product));
+    Store store = new Store();
+    store.id = 3L;
+    index.onStoreDeleted(new StoreDeletedEvent(store));
+
+    assertEquals(bits(2, 3, 4), index.uncoveredProducts(2L));
+    assertEquals(bits(1, 2), index.uncoveredStores(4L));
+  }
+
+  @Test
+  void load_shouldReplayChangesCommittedDuringRebuild() {
+    index.beginRebuild();
+    index.onFulfilmentCreated(
+        new FulfilmentCreatedEvent(buildFulfilment(3L, 3L, "MWH.001")));
+    index.onFulfilmentDeleted(new FulfilmentDeletedEvent(buildFulfilment(1L, 2L, "MWH.023")));
+
+    // the snapshot was read before both changes
+    index.load(
+        List.of(1L, 2L, 3L),
+        List.of(1L, 2L, 3L),
+        List.of(buildFulfilment(1L, 1L, "MWH.001"), buildFulfilment(1L, 2L, "MWH.023")));
+
+    assertEquals(bits(1, 2), index.uncoveredStores(3L));
+    assertEquals(bits(1, 2, 3), index.uncoveredStores(2L));
+  }
+
+  @Test
+  void coverageOf_shouldLimitIdsButReportTotal() {
+    FulfilmentCoverage coverage = FulfilmentCoverage.of(bits(1, 2, 3), 2);
+
+    assertEquals(3, coverage.total);
+    assertEquals(List.of(1L, 2L), coverage.ids);
+  }
+
+  private static RoaringBitmap bits(int... ids) {
+    return RoaringBitmap.bitmapOf(ids);
+  }
+
+  private Fulfilment buildFulfilment(Long storeId, Long productId, String warehouseCode) {
+    Fulfilment f = new Fulfilment();
+    f.storeId = storeId;
+    f.productId = productId;
+    f.warehouseBusinessUnitCode = warehouseCode;
+    return f;
+  }
+}
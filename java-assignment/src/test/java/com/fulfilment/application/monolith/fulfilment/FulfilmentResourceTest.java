@@ -161,6 +161,43 @@ class FulfilmentResourceTest {
     deleteProduct(p6);
   }
 
+  @Test
+  void createAll_shouldCreateAllFulfilments_whenBatchIsValid() {
+    List<Integer> ids =
+        given()
+            .contentType(ContentType.JSON)
+            .body(
+                "[{\"storeId\": 2, \"productId\": 3, \"warehouseBusinessUnitCode\": \"MWH.023\"},"
+                    + " {\"storeId\": 3, \"productId\": 3, \"warehouseBusinessUnitCode\": \"MWH.023\"}]")
+            .post(PATH + "/batch")
+            .then()
+            .statusCode(201)
+            .body("size()", is(2))
+            .extract()
+            .path("id");
+
+    ids.forEach(this::deleteFulfilment);
+  }
+
+  @Test
+  void createAll_shouldRollBackWholeBatch_whenOneFulfilmentIsInvalid() {
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "[{\"storeId\": 2, \"productId\": 3, \"warehouseBusinessUnitCode\": \"MWH.023\"},"
+                + " {\"storeId\": 9999, \"productId\": 3, \"warehouseBusinessUnitCode\": \"MWH.023\"}]")
+        .post(PATH + "/batch")
+        .then()
+        .statusCode(400);
+
+    given()
+        .when()
+        .get(PATH + "/store/2")
+        .then()
+        .statusCode(200)
+        .body("findAll { it.productId == 3 }.size()", is(0));
+  }
+
   @Test
   void getByStore_shouldReturnFulfilments_whenStoreHasFulfilments() {
     int id = createFulfilment(2, 2, "MWH.023");
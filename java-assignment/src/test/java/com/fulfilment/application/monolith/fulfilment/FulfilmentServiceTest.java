@@ -3,6 +3,8 @@ package com.fulfilment.application.monolith.fulfilment;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.common.ValidationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +19,8 @@ class FulfilmentServiceTest {
     fulfilmentRepository = mock(FulfilmentRepository.class);
     service = new FulfilmentService();
     service.fulfilmentRepository = fulfilmentRepository;
+    service.validationMetrics = new ValidationMetrics(new SimpleMeterRegistry());
+    service.registerMetrics();
   }
 
   // --- validateNoDuplicate ---
@@ -0,0 +1,138 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.common.StressRun;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Creates (one by one and in batches) and deletes fulfilments from many threads for a few stores,
+ * products and warehouses, so every limit of {@link FulfilmentService} is reached over and over.
+ * Afterwards the database must still respect all of them. Run with {@code ./mvnw test -Pstress}.
+ */
+@QuarkusTest
+@Tag("stress")
+class FulfilmentStressTest {
+
+  private static final String PATH = "/fulfilment";
+
+  // seed stores 1-3 and warehouses MWH.001/MWH.012/MWH.023, plus what setUp adds
+  private static final List<Long> STORES = List.of(1L, 2L, 3L);
+
+  private final List<Long> products = new ArrayList<>(List.of(1L, 2L, 3L));
+
+  private final List<String> warehouses = new ArrayList<>(List.of("MWH.001", "MWH.012", "MWH.023"));
+
+  private final ConcurrentLinkedQueue<Integer> created = new ConcurrentLinkedQueue<>();
+
+  @Inject EntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+    // more products and warehouses than a store or warehouse may take, so the limits are hit
+    for (int i = 1; i <= 4; i++) {
+      int id =
+          given()
+              .contentType(ContentType.JSON)
+              .body("{\"name\": \"STRESS-" + System.nanoTime() + "\", \"stock\": 1}")
+              .post("/product")
+              .then()
+              .statusCode(201)
+              .extract()
+              .path("id");
+      products.add((long) id);
+    }
+    for (String location : List.of("HELMOND-001", "VETSBY-001")) {
+      String code = "FS." + location;
+      given()
+          .contentType(ContentType.JSON)
+          .body(
+              "{\"businessUnitCode\": \"" + code + "\", \"location\": \"" + location
+                  + "\", \"capacity\": 10, \"stock\": 1}")
+          .post("/warehouse")
+          .then()
+          .statusCode(200);
+      warehouses.add(code);
+    }
+  }
+
+  @Test
+  void concurrentChanges_shouldKeepFulfilmentLimits() throws Exception {
+    StressRun run =
+        new StressRun()
+            .operation(
+                "create",
+                random -> {
+                  String body = fulfilment(random);
+                  return () -> {
+                    Response response =
+                        given().contentType(ContentType.JSON).body(body).post(PATH);
+                    if (response.statusCode() == 201) {
+                      created.add(response.path("id"));
+                    }
+                    return response.statusCode();
+                  };
+                })
+            .operation(
+                "batch",
+                random -> {
+                  String body = "[" + fulfilment(random) + "," + fulfilment(random) + "]";
+                  return () -> {
+                    Response response =
+                        given().contentType(ContentType.JSON).body(body).post(PATH + "/batch");
+                    if (response.statusCode() == 201) {
+                      created.addAll(response.path("id"));
+                    }
+                    return response.statusCode();
+                  };
+                })
+            .operation(
+                "delete",
+                random -> {
+                  Integer id = created.poll();
+                  return () -> id == null ? 404 : given().delete(PATH + "/" + id).statusCode();
+                })
+            .run(49);
+
+    assertTrue(run.completed() > 0);
+    assertNone(
+        "select storeId, productId from fulfilment group by storeId, productId"
+            + " having count(*) > " + FulfilmentService.MAX_WAREHOUSES_PER_PRODUCT_PER_STORE,
+        "products served by too many warehouses of a store");
+    assertNone(
+        "select storeId from fulfilment group by storeId"
+            + " having count(distinct warehouseBusinessUnitCode) > "
+            + FulfilmentService.MAX_WAREHOUSES_PER_STORE,
+        "stores served by too many warehouses");
+    assertNone(
+        "select warehouseBusinessUnitCode from fulfilment group by warehouseBusinessUnitCode"
+            + " having count(distinct productId) > "
+            + FulfilmentService.MAX_PRODUCTS_PER_WAREHOUSE,
+        "warehouses with too many products");
+  }
+
+  private String fulfilment(SplittableRandom random) {
+    return String.format(
+        "{\"storeId\": %d, \"productId\": %d, \"warehouseBusinessUnitCode\": \"%s\"}",
+        STORES.get(random.nextInt(STORES.size())),
+        products.get(random.nextInt(products.size())),
+        warehouses.get(random.nextInt(warehouses.size())));
+  }
+
+  private void assertNone(String query, String message) {
+    assertEquals(List.of(), entityManager.createNativeQuery(query).getResultList(), message);
+  }
+}
@@ -3,8 +3,21 @@ package com.fulfilment.application.monolith.location;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationCatalogReloadedEvent;
+import jakarta.enterprise.event.Event;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 
@@ -60,4 +73,80 @@ public class LocationGatewayTest {
 
     assertEquals("Identifier cannot be null or blank", exception.getMessage(), "The exception message does not match");
   }
+
+  @Test
+  void searchByPrefix_shouldReturnMatchingLocationsInIdentifierOrder() {
+    List<Location> locations = locationGateway.searchByPrefix("AMSTERDAM-00", 10);
+
+    assertEquals(
+        List.of("AMSTERDAM-001", "AMSTERDAM-002"),
+        locations.stream().map(location -> location.identification).toList(),
+        "The matching locations do not match");
+  }
+
+  @Test
+  void searchByPrefix_shouldStopAtLimit() {
+    List<Location> locations = locationGateway.searchByPrefix("ZWOLLE", 1);
+
+    assertEquals(1, locations.size(), "The result page size does not match");
+    assertEquals("ZWOLLE-001", locations.get(0).identification, "The location identifier does not match");
+  }
+
+  @Test
+  void searchByPrefix_shouldReturnEmptyList_whenNothingMatches() {
+    assertEquals(List.of(), locationGateway.searchByPrefix("ROTTERDAM", 10), "No location should match");
+  }
+
+  @Test
+  void resolveByIdentifier_shouldUseExternalCatalog_whenCatalogPathIsConfigured(@TempDir Path dir)
+      throws IOException {
+    Path catalog = writeCatalog(dir, "ROTTERDAM-001,4,120", Instant.parse("2024-01-01T00:00:00Z"));
+    LocationGateway gateway = gatewayFor(catalog);
+
+    Location location = gateway.resolveByIdentifier("ROTTERDAM-001");
+
+    assertEquals(4, location.maxNumberOfWarehouses, "The maximum number of warehouses does not match");
+    assertThrows(LocationNotFoundException.class, () -> gateway.resolveByIdentifier("ZWOLLE-001"));
+  }
+
+  @Test
+  void reloadIfChanged_shouldSwapCatalog_whenFileChanged(@TempDir Path dir) throws IOException {
+    Path catalog = writeCatalog(dir, "ROTTERDAM-001,4,120", Instant.parse("2024-01-01T00:00:00Z"));
+    LocationGateway gateway = gatewayFor(catalog);
+
+    writeCatalog(dir, "ROTTERDAM-001,6,200", Instant.parse("2024-01-02T00:00:00Z"));
+    gateway.reloadIfChanged();
+
+    verify(gateway.catalogReloadedEvent).fire(any(LocationCatalogReloadedEvent.class));
+    Location location = gateway.resolveByIdentifier("ROTTERDAM-001");
+    assertEquals(6, location.maxNumberOfWarehouses, "The maximum number of warehouses does not match");
+    assertEquals(200, location.maxCapacity, "The maximum capacity does not match");
+  }
+
+  @Test
+  void reloadIfChanged_shouldKeepCurrentCatalog_whenFileIsInvalid(@TempDir Path dir)
+      throws IOException {
+    Path catalog = writeCatalog(dir, "ROTTERDAM-001,4,120", Instant.parse("2024-01-01T00:00:00Z"));
+    LocationGateway gateway = gatewayFor(catalog);
+
+    writeCatalog(dir, "ROTTERDAM-001,four,120", Instant.parse("2024-01-02T00:00:00Z"));
+    gateway.reloadIfChanged();
+
+    assertEquals(4, gateway.resolveByIdentifier("ROTTERDAM-001").maxNumberOfWarehouses, "The catalog should not change");
+  }
+
+  private LocationGateway gatewayFor(Path catalog) {
+    LocationGateway gateway = new LocationGateway();
+    gateway.catalogPath = Optional.of(catalog.toString());
+    gateway.catalogReloadedEvent = mock(Event.class);
+    gateway.loadCatalog();
+    return gateway;
+  }
+
+  private Path writeCatalog(Path dir, String row, Instant lastModified) throws IOException {
+    Path catalog = dir.resolve("locations.csv");
+    Files.writeString(catalog, "identification,maxNumberOfWarehouses,maxCapacity\n" + row + "\n");
+    Files.setLastModifiedTime(catalog, FileTime.from(lastModified));
+    return catalog;
+  }
 }
@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.location;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class LocationResourceTest {
+
+  private static final String PATH = "/location";
+
+  // Seed data: MWH.012 (capacity 50) is the only warehouse at AMSTERDAM-001
+
+  @Test
+  void search_shouldReturnMatchingLocationsWithHeadroom() {
+    given()
+        .queryParam("prefix", "AMSTERDAM")
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body("size()", is(2))
+        .body("[0].identification", is("AMSTERDAM-001"))
+        .body("[0].warehouseHeadroom", is(4))
+        .body("[0].capacityHeadroom", is(50))
+        .body("[1].identification", is("AMSTERDAM-002"))
+        .body("[1].warehouseHeadroom", is(3))
+        .body("[1].capacityHeadroom", is(75));
+  }
+
+  @Test
+  void search_shouldApplyLimit() {
+    given()
+        .queryParam("prefix", "AMSTERDAM")
+        .queryParam("limit", 1)
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body("size()", is(1));
+  }
+
+  @Test
+  void search_shouldReturn400_whenPrefixIsMissing() {
+    given().when().get(PATH).then().statusCode(400);
+  }
+}
@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.location;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LocationUsageIndexTest {
+
+  private LocationUsageIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new LocationUsageIndex();
+    index.load(
+        List.of(
+            buildWarehouse(1L, "MWH.001", "ZWOLLE-001", 100),
+            buildWarehouse(2L, "MWH.002", "ZWOLLE-001", 40),
+            buildWarehouse(3L, "MWH.003", "AMSTERDAM-001", 50)));
+  }
+
+  @Test
+  void usage_shouldSumActiveWarehousesPerLocation() {
+    assertUsage(2, 140, "ZWOLLE-001");
+    assertUsage(1, 50, "AMSTERDAM-001");
+    assertSame(LocationUsageIndex.Usage.NONE, index.usage("TILBURG-001"));
+  }
+
+  @Test
+  void onWarehouseChanged_shouldMoveUsage_whenWarehouseIsReplacedAtAnotherLocation() {
+    Warehouse archived = buildWarehouse(3L, "MWH.003", "AMSTERDAM-001", 50);
+    archived.archivedAt = LocalDateTime.now();
+    index.onWarehouseChanged(new WarehouseChangedEvent(archived));
+    index.onWarehouseChanged(
+        new WarehouseChangedEvent(buildWarehouse(4L, "MWH.003", "ZWOLLE-001", 30)));
+
+    assertSame(LocationUsageIndex.Usage.NONE, index.usage("AMSTERDAM-001"));
+    assertUsage(3, 170, "ZWOLLE-001");
+  }
+
+  @Test
+  void onWarehouseChanged_shouldReplaceCapacity_whenWarehouseIsUpdated() {
+    index.onWarehouseChanged(
+        new WarehouseChangedEvent(buildWarehouse(2L, "MWH.002", "ZWOLLE-001", 60)));
+
+    assertUsage(2, 160, "ZWOLLE-001");
+  }
+
+  @Test
+  void load_shouldReplayChangesCommittedDuringRebuild() {
+    index.beginRebuild();
+    index.onWarehouseChanged(
+        new WarehouseChangedEvent(buildWarehouse(4L, "MWH.004", "AMSTERDAM-001", 25)));
+
+    // the snapshot was read before the new warehouse was committed
+    index.load(List.of(buildWarehouse(3L, "MWH.003", "AMSTERDAM-001", 50)));
+
+    assertUsage(2, 75, "AMSTERDAM-001");
+  }
+
+  private void assertUsage(int warehouses, int capacity, String location) {
+    LocationUsageIndex.Usage usage = index.usage(location);
+    assertEquals(warehouses, usage.warehouses);
+    assertEquals(capacity, usage.capacity);
+  }
+
+  private static Warehouse buildWarehouse(Long id, String code, String location, int capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.id = id;
+    warehouse.businessUnitCode = code;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = 0;
+    return warehouse;
+  }
+}
@@ -0,0 +1,53 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvRecordReaderTest {
+
+  @Test
+  void next_shouldReadQuotedFields_withCommasQuotesAndLineBreaks() throws IOException {
+    CsvRecordReader reader =
+        new CsvRecordReader(
+            new StringReader("name,description\r\nKALLAX,\"4x4, \"\"white\"\"\nshelf\"\r\n"));
+
+    assertEquals(List.of("name", "description"), reader.next());
+    assertEquals(List.of("KALLAX", "4x4, \"white\"\nshelf"), reader.next());
+    assertEquals(2, reader.line());
+    assertEquals("KALLAX,\"4x4, \"\"white\"\"\nshelf\"", reader.raw());
+    assertFalse(reader.malformed());
+    assertNull(reader.next());
+  }
+
+  @Test
+  void next_shouldSkipBlankLines_andKeepTrackOfLineNumbers() throws IOException {
+    CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n\n\nc,\n"));
+
+    reader.next();
+    assertEquals(List.of("c", ""), reader.next());
+    assertEquals(4, reader.line());
+    assertNull(reader.next());
+  }
+
+  @Test
+  void next_shouldFlagMisplacedQuotes() throws IOException {
+    CsvRecordReader reader = new CsvRecordReader(new StringReader("\"BESTÅ\"x,1\n\"open"));
+
+    reader.next();
+    assertTrue(reader.malformed());
+    assertEquals(List.of("open"), reader.next());
+    assertTrue(reader.malformed());
+  }
+
+  @Test
+  void next_shouldFail_whenRecordExceedsMaximumLength() {
+    CsvRecordReader reader =
+        new CsvRecordReader(new StringReader("\"" + "x".repeat(CsvRecordReader.MAX_RECORD_LENGTH)));
+
+    assertThrows(IOException.class, reader::next);
+  }
+}
@@ -0,0 +1,120 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.common.ResponseByteCache;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductBulkUpdaterTest {
+
+  private ProductRepository productRepository;
+  private ProductBulkUpdater updater;
+  private final List<List<Long>> writtenChunks = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    productRepository = mock(ProductRepository.class);
+    when(productRepository.updatePriceAndStock(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<ProductBulkChange> chunk = invocation.getArgument(0);
+              writtenChunks.add(chunk.stream().map(change -> change.id).toList());
+              return chunk.size();
+            });
+    updater = new ProductBulkUpdater();
+    updater.productRepository = productRepository;
+    updater.objectMapper = new ObjectMapper();
+    updater.responseByteCache = mock(ResponseByteCache.class);
+    updater.chunkSize = 2;
+  }
+
+  @Test
+  void apply_shouldWriteStreamInChunks_andSkipInvalidEntries() {
+    ProductBulkUpdateResult result =
+        updater.apply(
+            json(
+                "[{\"id\":1,\"price\":9.99},{\"id\":2,\"stock\":4},{\"stock\":1},"
+                    + "{\"id\":3,\"stock\":-1},{\"id\":4,\"price\":1,\"stock\":2},{\"id\":5}]"));
+
+    assertEquals(List.of(List.of(1L, 2L), List.of(4L)), writtenChunks);
+    assertEquals(6, result.requested);
+    assertEquals(3, result.changed);
+    assertEquals(3, result.rejected);
+    assertEquals(2, result.chunks);
+    verify(productRepository).evictFromCache();
+  }
+
+  @Test
+  void apply_shouldReportChangedRowsAndEvict_whenStreamIsMalformed() {
+    WebApplicationException e =
+        assertThrows(
+            WebApplicationException.class,
+            () -> updater.apply(json("[{\"id\":1,\"price\":1},{\"id\":2,\"price\":2},{\"id\":")));
+
+    assertEquals(400, e.getResponse().getStatus());
+    assertTrue(e.getMessage().contains("2 rows already changed"));
+    verify(productRepository).evictFromCache();
+  }
+
+  @Test
+  void apply_shouldReturn422_whenBodyIsNotAnArray() {
+    WebApplicationException e =
+        assertThrows(WebApplicationException.class, () -> updater.apply(json("{\"id\":1}")));
+
+    assertEquals(422, e.getResponse().getStatus());
+    verify(productRepository, never()).updatePriceAndStock(anyList());
+  }
+
+  @Test
+  void applyRule_shouldAdjustDistinctIdsInChunksWithPriceFactor() {
+    when(productRepository.adjustPriceAndStock(any(), any(), anyInt()))
+        .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+    ProductPriceRule rule = new ProductPriceRule();
+    rule.ids = List.of(1L, 2L, 2L, 3L);
+    rule.pricePercent = BigDecimal.valueOf(5);
+
+    ProductBulkUpdateResult result = updater.apply(rule);
+
+    assertEquals(3, result.requested);
+    assertEquals(3, result.changed);
+    assertEquals(2, result.chunks);
+    verify(productRepository).adjustPriceAndStock(eq(List.of(1L, 2L)), factor("1.05"), eq(0));
+    verify(productRepository).adjustPriceAndStock(eq(List.of(3L)), factor("1.05"), eq(0));
+    verify(productRepository).evictFromCache();
+  }
+
+  @Test
+  void applyRule_shouldReturn422_whenPriceWouldDropToZero() {
+    ProductPriceRule rule = new ProductPriceRule();
+    rule.ids = List.of(1L);
+    rule.pricePercent = BigDecimal.valueOf(-100);
+
+    WebApplicationException e =
+        assertThrows(WebApplicationException.class, () -> updater.apply(rule));
+
+    assertEquals(422, e.getResponse().getStatus());
+  }
+
+  private static BigDecimal factor(String value) {
+    return argThat(factor -> factor.compareTo(new BigDecimal(value)) == 0);
+  }
+
+  private static InputStream json(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
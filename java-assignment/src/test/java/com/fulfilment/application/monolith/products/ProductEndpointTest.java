@@ -3,6 +3,7 @@ package com.fulfilment.application.monolith.products;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import io.quarkus.test.junit.QuarkusTest;
 import org.junit.jupiter.api.Test;
@@ -33,4 +34,107 @@ public class ProductEndpointTest {
         .statusCode(200)
         .body(not(containsString("TONSTAD")), containsString("KALLAX"), containsString("BESTÅ"));
   }
+
+  @Test
+  public void testUnchangedUpdateKeepsListingCached() {
+    String product = "{\"name\": \"UNCHANGED-HEMNES\", \"price\": 10.00, \"stock\": 3}";
+    int id =
+        given()
+            .contentType("application/json")
+            .body(product)
+            .when()
+            .post("product")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    given().when().get("product").then().statusCode(200);
+
+    // the same state, the price written with another scale
+    given()
+        .contentType("application/json")
+        .body("{\"name\": \"UNCHANGED-HEMNES\", \"price\": 10, \"stock\": 3}")
+        .when()
+        .put("product/" + id)
+        .then()
+        .statusCode(200);
+
+    given().when().get("product").then().statusCode(200).header("X-Response-Cache", "hit");
+  }
+
+  @Test
+  public void testSearchProduct() {
+    given()
+        .when()
+        .get("product/search?q=kal")
+        .then()
+        .statusCode(200)
+        .body(containsString("KALLAX"), not(containsString("BESTÅ")));
+
+    // accents are folded, so BESTA finds BESTÅ:
+    given()
+        .when()
+        .get("product/search?q=besta")
+        .then()
+        .statusCode(200)
+        .body(containsString("BESTÅ"));
+
+    given().when().get("product/search?q=").then().statusCode(422);
+  }
+
+  @Test
+  public void testImportProducts() {
+    String importId =
+        given()
+            .contentType("text/csv")
+            .body("name,price,stock\nIMPORT-HEMNES,149.00,7\nIMPORT-MALM,-1,2\n")
+            .when()
+            .post("product/import?mode=copy")
+            .then()
+            .statusCode(200)
+            .body(containsString("\"imported\":1"), containsString("\"rejected\":1"))
+            .extract()
+            .path("importId");
+
+    given()
+        .when()
+        .get("product/import/" + importId + "/rejects")
+        .then()
+        .statusCode(200)
+        .body(containsString("price must not be negative"));
+
+    given()
+        .when()
+        .get("product/search?q=import hemnes")
+        .then()
+        .statusCode(200)
+        .body(containsString("IMPORT-HEMNES"));
+  }
+
+  @Test
+  public void testImportedProductsAreFulfilmentGaps() {
+    int before = storeGaps();
+
+    given()
+        .contentType("text/csv")
+        .body("name\nIMPORT-KALLAX\nIMPORT-BESTA\n")
+        .when()
+        .post("product/import?mode=batch")
+        .then()
+        .statusCode(200)
+        .body(containsString("\"imported\":2"));
+
+    // no warehouse fulfils the new products for any store yet
+    assertEquals(before + 2, storeGaps());
+  }
+
+  private static int storeGaps() {
+    return given()
+        .when()
+        .get("fulfilment/coverage/gaps/store/1")
+        .then()
+        .statusCode(200)
+        .extract()
+        .path("total");
+  }
 }
@@ -0,0 +1,162 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.common.ResponseByteCache;
+import com.fulfilment.application.monolith.fulfilment.FulfilmentCoverageIndex;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProductImporterTest {
+
+  @TempDir Path directory;
+
+  private ProductRepository productRepository;
+  private ProductSearchIndex productSearchIndex;
+  private FulfilmentCoverageIndex fulfilmentCoverageIndex;
+  private ProductImporter importer;
+  private final List<List<Product>> insertedChunks = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    productRepository = mock(ProductRepository.class);
+    // TONSTAD is already in the catalog, as is everything inserted by the import
+    when(productRepository.findExistingNames(anyCollection()))
+        .thenAnswer(
+            invocation -> {
+              Set<String> existing = new HashSet<>(Set.of("TONSTAD"));
+              insertedChunks.forEach(chunk -> chunk.forEach(product -> existing.add(product.name)));
+              existing.retainAll(invocation.getArgument(0));
+              return existing;
+            });
+    doAnswer(invocation -> insertedChunks.add(List.copyOf(invocation.getArgument(0))))
+        .when(productRepository)
+        .insertBatch(anyList());
+    productSearchIndex = mock(ProductSearchIndex.class);
+    importer = new ProductImporter();
+    importer.productRepository = productRepository;
+    importer.productSearchIndex = productSearchIndex;
+    importer.responseByteCache = mock(ResponseByteCache.class);
+    fulfilmentCoverageIndex = mock(FulfilmentCoverageIndex.class);
+    importer.fulfilmentCoverageIndex = fulfilmentCoverageIndex;
+    importer.directory = directory.toString();
+    importer.chunkSize = 2;
+  }
+
+  @Test
+  void apply_shouldInsertValidRowsInChunks_andWriteRejects() throws Exception {
+    ProductImportResult result =
+        importer.apply(
+            csv(
+                "stock,name,price,description\n"
+                    + "4,KALLAX,79.99,\"Shelf, 4x4\"\n"
+                    + ",BESTÅ,,\n"
+                    + "1,TONSTAD,10,\n"
+                    + "2,TONSTAD,1,\n"
+                    + "-1,HEMNES,1,\n"
+                    + "3,MALM,1.999,\n"
+                    + "3,BILLY\n"
+                    + "2,KALLAX,1,\n"
+                    + "5,PAX,,Wardrobe\n"),
+            ProductImporter.Mode.BATCH);
+
+    assertEquals(
+        List.of(List.of("KALLAX", "BESTÅ"), List.of("PAX")),
+        insertedChunks.stream().map(chunk -> chunk.stream().map(p -> p.name).toList()).toList());
+    Product kallax = insertedChunks.get(0).get(0);
+    assertEquals(new BigDecimal("79.99"), kallax.price);
+    assertEquals(4, kallax.stock);
+    assertEquals("Shelf, 4x4", kallax.description);
+    assertNull(insertedChunks.get(0).get(1).price);
+    assertEquals(9, result.rows);
+    assertEquals(3, result.imported);
+    assertEquals(6, result.rejected);
+    assertEquals(2, result.chunks);
+    assertEquals("batch", result.mode);
+    assertEquals(
+        List.of(
+            ProductImporter.REJECTS_HEADER,
+            "5,\"name occurs earlier in the import\",\"2,TONSTAD,1,\"",
+            "6,\"stock must not be negative\",\"-1,HEMNES,1,\"",
+            "7,\"price must not be negative or have more than 2 decimals\",\"3,MALM,1.999,\"",
+            "8,\"expected 4 columns, found 2\",\"3,BILLY\"",
+            "4,\"name already exists\",\"1,TONSTAD,10,\"",
+            "9,\"name already exists\",\"2,KALLAX,1,\""),
+        Files.readAllLines(importer.rejects(result.importId).toPath()));
+    verify(productRepository).evictFromCache();
+    verify(productSearchIndex).invalidate();
+    verify(fulfilmentCoverageIndex).invalidate();
+  }
+
+  @Test
+  void apply_shouldCopyChunks_whenInCopyMode() {
+    ProductImportResult result =
+        importer.apply(csv("name\nKALLAX\nBESTÅ\nPAX\n"), ProductImporter.Mode.COPY);
+
+    verify(productRepository, times(2)).copyInsert(anyList());
+    verify(productRepository, never()).insertBatch(anyList());
+    assertEquals(3, result.imported);
+    assertEquals(0, result.rejected);
+    WebApplicationException e =
+        assertThrows(WebApplicationException.class, () -> importer.rejects(result.importId));
+    assertEquals(404, e.getResponse().getStatus());
+  }
+
+  @Test
+  void apply_shouldRejectHeader_withoutNameOrWithUnknownColumns() {
+    WebApplicationException missing =
+        assertThrows(
+            WebApplicationException.class,
+            () -> importer.apply(csv("price,stock\n1,2\n"), ProductImporter.Mode.BATCH));
+    WebApplicationException unknown =
+        assertThrows(
+            WebApplicationException.class,
+            () -> importer.apply(csv("name,colour\nPAX,white\n"), ProductImporter.Mode.BATCH));
+
+    assertEquals(422, missing.getResponse().getStatus());
+    assertEquals(422, unknown.getResponse().getStatus());
+    verify(productRepository, never()).findExistingNames(anyCollection());
+  }
+
+  @Test
+  void apply_shouldReportImportedRows_whenChunkFails() {
+    doAnswer(invocation -> insertedChunks.add(invocation.getArgument(0)))
+        .doThrow(new IllegalStateException("duplicate key value violates unique constraint"))
+        .when(productRepository)
+        .insertBatch(anyList());
+
+    WebApplicationException e =
+        assertThrows(
+            WebApplicationException.class,
+            () -> importer.apply(csv("name\nKALLAX\nBESTÅ\nPAX\n"), ProductImporter.Mode.BATCH));
+
+    assertEquals(409, e.getResponse().getStatus());
+    assertTrue(e.getMessage().startsWith("Import stopped after 2 products were imported"));
+    verify(productSearchIndex).invalidate();
+  }
+
+  @Test
+  void mode_shouldRejectUnknownModes() {
+    assertEquals(ProductImporter.Mode.COPY, ProductImporter.mode("copy"));
+    assertThrows(WebApplicationException.class, () -> ProductImporter.mode("load"));
+  }
+
+  private static InputStream csv(String csv) {
+    return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,155 @@
+package com.fulfilment.application.monolith.products;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+  private ProductSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new ProductSearchIndex();
+    index.load(
+        List.of(
+            buildProduct(1L, "TONSTAD", "Chest of drawers, oak veneer"),
+            buildProduct(2L, "KALLAX", "Shelving unit, white"),
+            buildProduct(3L, "BESTÅ", "Storage combination with doors, white"),
+            buildProduct(4L, "KALLAX insert", "Insert with doors for the shelving unit")));
+  }
+
+  @Test
+  void search_shouldMatchTermPrefixes() {
+    assertEquals(List.of(2L, 4L), index.search("kall", 10).productIds);
+    assertEquals(List.of(2L, 4L), index.search("shelv", 10).productIds);
+  }
+
+  @Test
+  void search_shouldRequireEveryToken() {
+    ProductSearchIndex.Hits hits = index.search("white doors", 10);
+
+    assertEquals(1, hits.total);
+    assertEquals(List.of(3L), hits.productIds);
+  }
+
+  @Test
+  void search_shouldRankNameAboveDescriptionAndWholeTermAbovePrefix() {
+    index.load(
+        List.of(
+            buildProduct(10L, "TABLE", "Solid oak"),
+            buildProduct(11L, "OAKLAND", null),
+            buildProduct(12L, "OAK", "Table")));
+
+    assertEquals(List.of(12L, 11L, 10L), index.search("oak", 10).productIds);
+  }
+
+  @Test
+  void search_shouldKeepIndexOrder_whenScoresAreEqual() {
+    assertEquals(List.of(3L, 4L), index.search("doors", 10).productIds);
+  }
+
+  @Test
+  void search_shouldFoldCaseAndAccents() {
+    assertEquals(List.of(3L), index.search("Besta", 10).productIds);
+  }
+
+  @Test
+  void search_shouldOnlyMatchWholeTerms_whenTokenIsShorterThanPrefixLength() {
+    assertTrue(index.search("k", 10).productIds.isEmpty());
+  }
+
+  @Test
+  void search_shouldReportTotalAndCapAtLimit() {
+    ProductSearchIndex.Hits hits = index.search("white", 1);
+
+    assertEquals(2, hits.total);
+    assertEquals(1, hits.productIds.size());
+  }
+
+  @Test
+  void onProductUpdated_shouldReplaceIndexedText() {
+    Product updated = buildProduct(1L, "TONSTAD", "Chest of drawers, pine");
+
+    index.onProductUpdated(new ProductUpdatedEvent(updated));
+
+    assertTrue(index.search("oak", 10).productIds.isEmpty());
+    assertEquals(List.of(1L), index.search("pine", 10).productIds);
+    assertEquals(List.of(1L), index.search("tonstad", 10).productIds);
+  }
+
+  @Test
+  void onProductDeleted_shouldRemoveProductFromResults() {
+    index.onProductDeleted(new ProductDeletedEvent(buildProduct(2L, "KALLAX", null)));
+
+    assertEquals(List.of(4L), index.search("kallax", 10).productIds);
+  }
+
+  @Test
+  void compact_shouldDropTermsOfDeletedProductsAndKeepOthersSearchable() {
+    int terms = index.termCount();
+    index.onProductDeleted(new ProductDeletedEvent(buildProduct(1L, "TONSTAD", null)));
+    index.onProductCreated(new ProductCreatedEvent(buildProduct(5L, "HEMNES", "Bed frame")));
+
+    index.compact();
+
+    // TONSTAD's six terms are gone, HEMNES added three
+    assertEquals(terms - 3, index.termCount());
+    assertTrue(index.search("oak", 10).productIds.isEmpty());
+    assertEquals(List.of(5L), index.search("hemnes bed", 10).productIds);
+    assertEquals(List.of(2L, 4L), index.search("kallax", 10).productIds);
+  }
+
+  @Test
+  void load_shouldReplayChangesCommittedDuringRebuild() {
+    index.beginRebuild();
+    index.onProductCreated(new ProductCreatedEvent(buildProduct(5L, "HEMNES", "Bed frame")));
+    index.onProductUpdated(
+        new ProductUpdatedEvent(buildProduct(1L, "TONSTAD", "Chest of drawers, pine")));
+    index.onProductDeleted(new ProductDeletedEvent(buildProduct(2L, "KALLAX", null)));
+
+    // the snapshot already saw the new product, but neither the update nor the delete
+    index.load(
+        List.of(
+            buildProduct(1L, "TONSTAD", "Chest of drawers, oak veneer"),
+            buildProduct(2L, "KALLAX", "Shelving unit, white"),
+            buildProduct(5L, "HEMNES", "Bed frame")));
+
+    assertEquals(List.of(5L), index.search("hemnes", 10).productIds);
+    assertTrue(index.search("oak", 10).productIds.isEmpty());
+    assertEquals(List.of(1L), index.search("pine", 10).productIds);
+    assertTrue(index.search("kallax", 10).productIds.isEmpty());
+  }
+
+  @Test
+  void load_shouldLeaveIndexUnloaded_whenInvalidatedDuringRebuild() {
+    index.productRepository = mock(ProductRepository.class);
+    when(index.productRepository.listSearchableAfter(anyLong(), anyInt()))
+        .thenReturn(
+            List.of(
+                buildProduct(1L, "TONSTAD", "Chest of drawers, oak veneer"),
+                buildProduct(5L, "HEMNES", "Bed frame")))
+        .thenReturn(List.of());
+    index.beginRebuild();
+    // an import commits HEMNES, which fires no event, while the rebuild reads the products
+    index.invalidate();
+
+    index.load(List.of(buildProduct(1L, "TONSTAD", "Chest of drawers, oak veneer")));
+
+    // the search rebuilds instead of serving the snapshot from before the import
+    assertEquals(List.of(5L), index.search("hemnes", 10).productIds);
+    verify(index.productRepository, times(2)).listSearchableAfter(anyLong(), anyInt());
+  }
+
+  private Product buildProduct(Long id, String name, String description) {
+    Product product = new Product(name);
+    product.id = id;
+    product.description = description;
+    return product;
+  }
+}
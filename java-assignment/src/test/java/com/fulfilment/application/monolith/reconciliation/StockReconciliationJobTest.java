@@ -0,0 +1,139 @@
+package com.fulfilment.application.monolith.reconciliation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.reconciliation.StockReconciliationReader.Row;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
+
+class StockReconciliationJobTest {
+
+  @TempDir Path directory;
+
+  private StockReconciliationReader reader;
+  private StockReconciliationJob job;
+
+  @BeforeEach
+  void setUp() {
+    reader = mock(StockReconciliationReader.class);
+    when(reader.warehouses())
+        .thenReturn(List.of(buildWarehouse("MWH.001", 30, 50), buildWarehouse("MWH.012", 60, 40)));
+    // products 1..4: 1 sourced, 2 beyond its warehouse, 3 unsourced, 4 fine
+    List<Row> products = List.of(row(1, 20), row(2, 40), row(3, 5), row(4, 0));
+    when(reader.products(anyLong(), anyInt())).thenAnswer(pages(products));
+    when(reader.warehousesByProduct(anyLong(), anyLong()))
+        .thenReturn(Map.of(1L, Set.of("MWH.001", "MWH.012"), 2L, Set.of("MWH.001")));
+    // stores 1..3: 1 fine, 2 beyond its assortment, 3 without assortment
+    List<Row> stores = List.of(row(1, 25), row(2, 50), row(3, 1));
+    when(reader.stores(anyLong(), anyInt())).thenAnswer(pages(stores));
+    when(reader.productsByStore(anyLong(), anyLong()))
+        .thenReturn(Map.of(1L, Set.of(1L, 2L), 2L, Set.of(2L)));
+
+    job = new StockReconciliationJob();
+    job.reader = reader;
+    job.directory = directory.toString();
+    job.chunkSize = 2;
+    job.parallelism = 2;
+  }
+
+  @Test
+  void run_shouldReportEveryDiscrepancy_andRemoveCheckpoint() throws Exception {
+    job.run();
+
+    assertEquals(
+        List.of(
+            StockDiscrepancy.CSV_HEADER,
+            "WAREHOUSE_STOCK_EXCEEDS_CAPACITY,MWH.012,60,40",
+            "PRODUCT_STOCK_EXCEEDS_WAREHOUSES,2,40,30",
+            "UNSOURCED_PRODUCT_STOCK,3,5,0",
+            "STORE_STOCK_EXCEEDS_PRODUCTS,2,50,40",
+            "STORE_STOCK_WITHOUT_ASSORTMENT,3,1,0",
+            "NETWORK_STOCK_MISMATCH,network,65,90"),
+        report());
+    assertFalse(Files.exists(directory.resolve(StockReconciliationJob.CHECKPOINT_FILE)));
+    ReconciliationStatus status = job.status();
+    assertEquals(StockReconciliationJob.State.COMPLETED, status.state);
+    assertEquals(StockReconciliationJob.Phase.DONE, status.phase);
+    assertEquals(9, status.rowsRead);
+    assertEquals(6, status.discrepancies);
+  }
+
+  @Test
+  void run_shouldResumeAfterCheckpoint_andDropLinesWrittenAfterIt() throws Exception {
+    String reported =
+        StockDiscrepancy.CSV_HEADER
+            + "\nWAREHOUSE_STOCK_EXCEEDS_CAPACITY,MWH.012,60,40"
+            + "\nPRODUCT_STOCK_EXCEEDS_WAREHOUSES,2,40,30"
+            + "\nUNSOURCED_PRODUCT_STOCK,3,5,0\n";
+    Path report = directory.resolve(StockReconciliationJob.REPORT_FILE);
+    Files.writeString(report, reported + "STORE_STOCK_EXCEEDS_PRODUCTS,2,50,40\nSTORE_ST");
+    ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint();
+    checkpoint.phase = StockReconciliationJob.Phase.STORES;
+    checkpoint.lastKey = 1;
+    checkpoint.reportLength = reported.getBytes(StandardCharsets.UTF_8).length;
+    checkpoint.save(directory.resolve(StockReconciliationJob.CHECKPOINT_FILE));
+
+    job.run();
+
+    assertEquals(
+        List.of(
+            StockDiscrepancy.CSV_HEADER,
+            "WAREHOUSE_STOCK_EXCEEDS_CAPACITY,MWH.012,60,40",
+            "PRODUCT_STOCK_EXCEEDS_WAREHOUSES,2,40,30",
+            "UNSOURCED_PRODUCT_STOCK,3,5,0",
+            "STORE_STOCK_EXCEEDS_PRODUCTS,2,50,40",
+            "STORE_STOCK_WITHOUT_ASSORTMENT,3,1,0",
+            "NETWORK_STOCK_MISMATCH,network,65,90"),
+        report());
+    verify(reader, never()).warehousesByProduct(anyLong(), anyLong());
+  }
+
+  @Test
+  void run_shouldKeepCheckpoint_whenReadFails() throws Exception {
+    when(reader.stores(anyLong(), anyInt())).thenThrow(new IllegalStateException("pool exhausted"));
+
+    assertThrows(IllegalStateException.class, () -> job.run());
+
+    ReconciliationCheckpoint checkpoint =
+        ReconciliationCheckpoint.load(directory.resolve(StockReconciliationJob.CHECKPOINT_FILE));
+    assertEquals(StockReconciliationJob.Phase.STORES, checkpoint.phase);
+    assertEquals(StockReconciliationJob.State.FAILED, job.status().state);
+  }
+
+  private List<String> report() throws Exception {
+    return Files.readAllLines(directory.resolve(StockReconciliationJob.REPORT_FILE));
+  }
+
+  // keyset paging over the rows, like the reader's queries
+  private static Answer<List<Row>> pages(List<Row> rows) {
+    return invocation -> {
+      long afterId = invocation.getArgument(0);
+      int limit = invocation.getArgument(1);
+      return rows.stream().filter(row -> row.id > afterId).limit(limit).toList();
+    };
+  }
+
+  private static Row row(long id, long stock) {
+    return new Row(id, stock);
+  }
+
+  private static Warehouse buildWarehouse(String code, int stock, int capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.stock = stock;
+    warehouse.capacity = capacity;
+    return warehouse;
+  }
+}
@@ -0,0 +1,257 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LegacyStoreDispatcherTest {
+
+  private LegacyStoreManagerGateway gateway;
+  private LegacyStoreDispatcher dispatcher;
+  private SimpleMeterRegistry meterRegistry;
+  private LegacySyncMetrics metrics;
+
+  // holds the single worker inside the gateway until released
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final CountDownLatch workerBusy = new CountDownLatch(1);
+  private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    gateway = mock(LegacyStoreManagerGateway.class);
+    dispatcher = new LegacyStoreDispatcher();
+    dispatcher.legacyStoreManagerGateway = gateway;
+    meterRegistry = new SimpleMeterRegistry();
+    metrics = new LegacySyncMetrics();
+    metrics.meterRegistry = meterRegistry;
+    metrics.registerMetrics();
+    dispatcher.meterRegistry = meterRegistry;
+    dispatcher.legacySyncMetrics = metrics;
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    dispatcher.stop();
+  }
+
+  @Test
+  void dispatchCreate_shouldCallGatewayOnCallerThread_whenModeIsSync() {
+    dispatcher.start();
+    Store store = buildStore(1L, "SYNC");
+
+    dispatcher.dispatchCreate(store);
+
+    verify(gateway).createStoreOnLegacySystem(any(Store.class));
+    assertEquals(0, dispatcher.queued());
+    assertEquals(1, meterRegistry.timer("legacy.sync.lag").count());
+    assertEquals(0, metrics.inFlight());
+  }
+
+  @Test
+  void dispatchUpdate_shouldDeliverSnapshotOnWorker_whenModeIsAsync() throws Exception {
+    startAsync(LegacyStoreDispatcher.Backpressure.REJECT, 10);
+    Store store = buildStore(1L, "ASYNC");
+
+    dispatcher.dispatchUpdate(store);
+    store.name = "CHANGED-AFTER-COMMIT";
+    release.countDown();
+
+    awaitDelivered(1);
+    assertEquals(List.of("ASYNC"), delivered);
+  }
+
+  @Test
+  void dispatch_shouldDropIncomingChange_whenQueueIsFullAndBackpressureIsReject()
+      throws Exception {
+    startAsync(LegacyStoreDispatcher.Backpressure.REJECT, 1);
+
+    dispatcher.dispatchUpdate(buildStore(1L, "IN-FLIGHT"));
+    assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+    dispatcher.dispatchUpdate(buildStore(2L, "QUEUED"));
+    dispatcher.dispatchUpdate(buildStore(3L, "REJECTED"));
+    release.countDown();
+
+    awaitDelivered(2);
+    assertEquals(List.of("IN-FLIGHT", "QUEUED"), delivered);
+    assertEquals(1, dispatcher.dropped());
+    assertEquals(0, metrics.inFlight());
+  }
+
+  @Test
+  void dispatch_shouldEvictOldestChange_whenQueueIsFullAndBackpressureIsDropOldest()
+      throws Exception {
+    startAsync(LegacyStoreDispatcher.Backpressure.DROP_OLDEST, 1);
+
+    dispatcher.dispatchUpdate(buildStore(1L, "IN-FLIGHT"));
+    assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+    dispatcher.dispatchUpdate(buildStore(2L, "EVICTED"));
+    dispatcher.dispatchUpdate(buildStore(3L, "LATEST"));
+    release.countDown();
+
+    awaitDelivered(2);
+    assertEquals(List.of("IN-FLIGHT", "LATEST"), delivered);
+    assertEquals(1, dispatcher.dropped());
+  }
+
+  @Test
+  void dispatch_shouldDropChangeAfterTimeout_whenQueueIsFullAndBackpressureIsBlock()
+      throws Exception {
+    dispatcher.blockTimeout = Duration.ofMillis(50);
+    startAsync(LegacyStoreDispatcher.Backpressure.BLOCK, 1);
+
+    dispatcher.dispatchUpdate(buildStore(1L, "IN-FLIGHT"));
+    assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+    dispatcher.dispatchUpdate(buildStore(2L, "QUEUED"));
+    dispatcher.dispatchUpdate(buildStore(3L, "TIMED-OUT"));
+    release.countDown();
+
+    awaitDelivered(2);
+    assertEquals(List.of("IN-FLIGHT", "QUEUED"), delivered);
+    assertEquals(1, dispatcher.dropped());
+  }
+
+  @Test
+  void dispatch_shouldDeliverChangesOfOneStoreInOrder_whenSeveralWorkersRun() throws Exception {
+    dispatcher.mode = LegacyStoreDispatcher.Mode.ASYNC;
+    dispatcher.workers = 2;
+    dispatcher.start();
+    doAnswer(
+            invocation -> {
+              String name = invocation.<Store>getArgument(0).name;
+              if (name.equals("FIRST")) {
+                workerBusy.countDown();
+                release.await(5, TimeUnit.SECONDS);
+              }
+              delivered.add(name);
+              return null;
+            })
+        .when(gateway)
+        .updateStoreOnLegacySystem(any(Store.class));
+
+    dispatcher.dispatchUpdate(buildStore(1L, "FIRST"));
+    assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+    dispatcher.dispatchUpdate(buildStore(1L, "SECOND"));
+    dispatcher.dispatchUpdate(buildStore(2L, "OTHER-STORE"));
+
+    // the other store's lane is free, the second change waits behind the first
+    awaitDelivered(1);
+    assertEquals(List.of("OTHER-STORE"), delivered);
+    release.countDown();
+    awaitDelivered(3);
+    assertEquals(List.of("OTHER-STORE", "FIRST", "SECOND"), delivered);
+  }
+
+  @Test
+  void dispatch_shouldKeepWorkerAlive_whenGatewayFails() throws Exception {
+    startAsync(LegacyStoreDispatcher.Backpressure.REJECT, 10);
+    release.countDown();
+    doThrow(new IllegalStateException("legacy system down"))
+        .doAnswer(invocation -> delivered.add(invocation.<Store>getArgument(0).name))
+        .when(gateway)
+        .createStoreOnLegacySystem(any(Store.class));
+
+    dispatcher.dispatchCreate(buildStore(1L, "FAILS"));
+    dispatcher.dispatchCreate(buildStore(2L, "SUCCEEDS"));
+
+    awaitDelivered(1);
+    assertEquals(List.of("SUCCEEDS"), delivered);
+    assertEquals(
+        1,
+        meterRegistry
+            .counter(
+                "legacy.sync.failures", "operation", "create", "exception", "IllegalStateException")
+            .count());
+  }
+
+  @Test
+  void dispatch_shouldSendLatestStateOnce_whenStoreChangesWithinCoalescingWindow()
+      throws Exception {
+    dispatcher.coalescingWindow = Duration.ofMillis(100);
+    dispatcher.start();
+    doAnswer(invocation -> delivered.add("create:" + invocation.<Store>getArgument(0).name))
+        .when(gateway)
+        .createStoreOnLegacySystem(any(Store.class));
+    doAnswer(invocation -> delivered.add("update:" + invocation.<Store>getArgument(0).name))
+        .when(gateway)
+        .updateStoreOnLegacySystem(any(Store.class));
+
+    dispatcher.dispatchCreate(buildStore(1L, "CREATED"));
+    dispatcher.dispatchUpdate(buildStore(1L, "UPDATED-1"));
+    dispatcher.dispatchUpdate(buildStore(1L, "UPDATED-2"));
+    dispatcher.dispatchUpdate(buildStore(2L, "OTHER-1"));
+    dispatcher.dispatchUpdate(buildStore(2L, "OTHER-2"));
+
+    awaitDelivered(2);
+    assertEquals(2, delivered.size());
+    assertTrue(delivered.containsAll(List.of("create:UPDATED-2", "update:OTHER-2")));
+    assertEquals(3, dispatcher.collapsed());
+    assertEquals(0, metrics.inFlight());
+  }
+
+  @Test
+  void stop_shouldForwardHeldChanges_whenCoalescingWindowHasNotElapsed() {
+    dispatcher.coalescingWindow = Duration.ofMinutes(1);
+    dispatcher.start();
+
+    dispatcher.dispatchUpdate(buildStore(1L, "HELD"));
+    verifyNoInteractions(gateway);
+    dispatcher.stop();
+
+    verify(gateway).updateStoreOnLegacySystem(any(Store.class));
+  }
+
+  @Test
+  void dispatch_shouldForwardChangeRightAway_whenCoalescerIsClosed() {
+    dispatcher.coalescingWindow = Duration.ofMinutes(1);
+    dispatcher.start();
+    dispatcher.stop();
+
+    dispatcher.dispatchUpdate(buildStore(1L, "AFTER-STOP"));
+
+    verify(gateway).updateStoreOnLegacySystem(any(Store.class));
+    assertEquals(0, metrics.inFlight());
+  }
+
+  private void startAsync(LegacyStoreDispatcher.Backpressure backpressure, int queueCapacity) {
+    dispatcher.mode = LegacyStoreDispatcher.Mode.ASYNC;
+    dispatcher.workers = 1;
+    dispatcher.queueCapacity = queueCapacity;
+    dispatcher.backpressure = backpressure;
+    dispatcher.start();
+    doAnswer(
+            invocation -> {
+              workerBusy.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              delivered.add(invocation.<Store>getArgument(0).name);
+              return null;
+            })
+        .when(gateway)
+        .updateStoreOnLegacySystem(any(Store.class));
+  }
+
+  private void awaitDelivered(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (delivered.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    // give a wrongly queued extra change the chance to show up
+    Thread.sleep(50);
+  }
+
+  private Store buildStore(Long id, String name) {
+    Store store = new Store(name);
+    store.id = id;
+    return store;
+  }
+}
@@ -0,0 +1,58 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LegacySyncHealthCheckTest {
+
+  private LegacySyncMetrics metrics;
+  private StoreOutbox outbox;
+  private LegacySyncHealthCheck healthCheck;
+
+  @BeforeEach
+  void setUp() {
+    metrics = mock(LegacySyncMetrics.class);
+    outbox = mock(StoreOutbox.class);
+    healthCheck = new LegacySyncHealthCheck();
+    healthCheck.legacySyncMetrics = metrics;
+    healthCheck.storeOutbox = outbox;
+    healthCheck.lagThreshold = Duration.ofSeconds(30);
+  }
+
+  @Test
+  void call_shouldBeUp_whenLagIsBelowThreshold() {
+    when(metrics.oldestInFlight()).thenReturn(Duration.ofSeconds(1));
+
+    HealthCheckResponse response = healthCheck.call();
+
+    assertEquals(HealthCheckResponse.Status.UP, response.getStatus());
+    assertEquals("ok", response.getData().orElseThrow().get("state"));
+  }
+
+  @Test
+  void call_shouldBeDegraded_whenInFlightChangeIsOlderThanThreshold() {
+    when(metrics.oldestInFlight()).thenReturn(Duration.ofMinutes(1));
+
+    HealthCheckResponse response = healthCheck.call();
+
+    assertEquals(HealthCheckResponse.Status.DOWN, response.getStatus());
+    assertEquals("degraded", response.getData().orElseThrow().get("state"));
+  }
+
+  @Test
+  void call_shouldBeDegraded_whenOutboxLagIsOverThreshold() {
+    when(metrics.oldestInFlight()).thenReturn(Duration.ZERO);
+    when(outbox.isEnabled()).thenReturn(true);
+    when(outbox.lag()).thenReturn(Duration.ofMinutes(2));
+
+    HealthCheckResponse response = healthCheck.call();
+
+    assertEquals(HealthCheckResponse.Status.DOWN, response.getStatus());
+    assertEquals(120_000L, response.getData().orElseThrow().get("lagMillis"));
+  }
+}
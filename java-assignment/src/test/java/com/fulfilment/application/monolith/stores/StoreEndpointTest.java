@@ -4,6 +4,7 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
@@ -31,6 +32,22 @@ public class StoreEndpointTest {
           containsString("LIST-TEST-STORE-3") );
   }
 
+  @Test
+  void getAll_shouldServeCachedBytes_untilStoreIsWritten() {
+    given().when().get(PATH).then().statusCode(200);
+    given().when().get(PATH).then().statusCode(200).header("X-Response-Cache", "hit");
+
+    createStore("CACHE-TEST-STORE", 3);
+
+    given()
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .header("X-Response-Cache", "miss")
+        .body(containsString("CACHE-TEST-STORE"));
+  }
+
   @Test
   void getById_shouldReturnStore_whenStoreExists() {
     int id = createStore("GET-BY-ID-STORE", 15);
@@ -194,6 +211,81 @@ public class StoreEndpointTest {
         .body("error", containsString("Store Name was not set on request"));
   }
 
+  @Test
+  void update_shouldKeepCoordinates_whenCoordinatesAreOmitted() {
+    int id = createStore("KEEP-COORDINATES", 2, "\"latitude\": 52.37, \"longitude\": 4.90");
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"KEEP-COORDINATES\", \"quantityProductsInStock\": 3}")
+        .when()
+        .put(PATH + "/" + id)
+        .then()
+        .statusCode(200)
+        .body("latitude", equalTo(52.37f))
+        .body("longitude", equalTo(4.90f));
+  }
+
+  @Test
+  void writes_shouldReturn422_whenCoordinatesAreIncompleteOrOutOfRange() {
+    int id = createStore("COORDINATE-VALIDATION", 2);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"INVALID-LATITUDE\", \"latitude\": 91.0, \"longitude\": 4.9}")
+        .post(PATH)
+        .then()
+        .statusCode(422)
+        .body("error", containsString("Latitude must be between -90 and 90"));
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"COORDINATE-VALIDATION\", \"latitude\": 52.37}")
+        .put(PATH + "/" + id)
+        .then()
+        .statusCode(422)
+        .body("error", containsString("must be set together"));
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"COORDINATE-VALIDATION\", \"latitude\": 52.37, \"longitude\": 181}")
+        .patch(PATH + "/" + id)
+        .then()
+        .statusCode(422)
+        .body("error", containsString("Longitude must be between -180 and 180"));
+    given()
+        .contentType("application/merge-patch+json")
+        .body("{\"longitude\": 4.9}")
+        .patch(PATH + "/" + id)
+        .then()
+        .statusCode(422)
+        .body("error", containsString("must be set together"));
+  }
+
+  @Test
+  void mergePatch_shouldOnlyUpdateProvidedMembers_whenMergePatchIsSent() {
+    int id = createStore("MERGE-PATCH-STORE", 4);
+
+    given()
+        .contentType("application/merge-patch+json")
+        .body("{\"quantityProductsInStock\": 9}")
+        .patch(PATH + "/" + id)
+        .then()
+        .statusCode(200)
+        .body("name", equalTo("MERGE-PATCH-STORE"))
+        .body("quantityProductsInStock", equalTo(9));
+  }
+
+  @Test
+  void mergePatch_shouldReturn422_whenNameIsRemoved() {
+    int id = createStore("MERGE-PATCH-NO-NAME", 4);
+
+    given()
+        .contentType("application/merge-patch+json")
+        .body("{\"name\": null}")
+        .patch(PATH + "/" + id)
+        .then()
+        .statusCode(422);
+  }
+
   @Test
   void delete_shouldRemoveStore_whenStoreExists() {
     int id = createStore("TO-BE-DELETED", 1);
@@ -221,8 +313,55 @@ public class StoreEndpointTest {
         .body("error", containsString("does not exist"));
   }
 
+  @Test
+  void nearestWarehouses_shouldReturnWarehousesOrderedByDistance_whenStoreHasCoordinates() {
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body(
+                "{\"name\": \"NEAREST-STORE\", \"quantityProductsInStock\": 1,"
+                    + " \"latitude\": 52.37, \"longitude\": 4.90}")
+            .post(PATH)
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    given()
+        .when()
+        .get(PATH + "/" + id + "/nearest-warehouses?count=2")
+        .then()
+        .statusCode(200)
+        .body("size()", lessThanOrEqualTo(2))
+        .body("[0].distanceKm", notNullValue());
+  }
+
+  @Test
+  void nearestWarehouses_shouldReturn422_whenStoreHasNoCoordinates() {
+    int id = createStore("NO-COORDINATES-STORE", 1);
+
+    given()
+        .when()
+        .get(PATH + "/" + id + "/nearest-warehouses")
+        .then()
+        .statusCode(422)
+        .body("error", containsString("has no coordinates"));
+  }
+
+  @Test
+  void nearestWarehouses_shouldReturn404_whenStoreDoesNotExist() {
+    given()
+        .when()
+        .get(PATH + "/9999/nearest-warehouses")
+        .then()
+        .statusCode(404);
+  }
 
   private int createStore(String name, int quantityProductsInStock) {
+    return createStore(name, quantityProductsInStock, null);
+  }
+
+  private int createStore(String name, int quantityProductsInStock, String coordinates) {
     return given()
         .contentType(ContentType.JSON)
         .body(
@@ -230,6 +369,7 @@ public class StoreEndpointTest {
                 + name
                 + "\", \"quantityProductsInStock\": "
                 + quantityProductsInStock
+                + (coordinates != null ? ", " + coordinates : "")
                 + "}")
         .post(PATH)
         .then()
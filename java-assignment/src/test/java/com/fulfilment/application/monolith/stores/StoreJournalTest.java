@@ -0,0 +1,151 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StoreJournalTest {
+
+  private static final Duration FORCE_INTERVAL = Duration.ofMillis(10);
+
+  @TempDir Path dir;
+
+  @Test
+  void reader_shouldReturnRecordsInAppendOrder() throws IOException {
+    try (StoreJournal journal = StoreJournal.open(dir, 4096, FORCE_INTERVAL);
+        StoreJournal.Reader reader = journal.reader()) {
+      journal.append(bytes("first"));
+      journal.append(bytes("second"));
+
+      assertEquals(List.of("first", "second"), strings(reader.poll(10)));
+      assertTrue(reader.poll(10).isEmpty());
+    }
+  }
+
+  @Test
+  void reader_shouldTailRecordsAppendedAfterCatchingUp() throws IOException {
+    try (StoreJournal journal = StoreJournal.open(dir, 4096, Duration.ZERO);
+        StoreJournal.Reader reader = journal.reader()) {
+      assertTrue(reader.poll(10).isEmpty());
+
+      journal.append(bytes("later"));
+
+      assertEquals(List.of("later"), strings(reader.poll(10)));
+    }
+  }
+
+  @Test
+  void append_shouldRollToNewSegment_whenSegmentIsFull() throws IOException {
+    List<String> expected = new ArrayList<>();
+    try (StoreJournal journal = StoreJournal.open(dir, 64, FORCE_INTERVAL);
+        StoreJournal.Reader reader = journal.reader()) {
+      for (int i = 0; i < 20; i++) {
+        expected.add("record-" + i);
+        journal.append(bytes("record-" + i));
+      }
+
+      assertTrue(Files.exists(StoreJournal.segmentFile(dir, 5)));
+      assertEquals(expected, strings(reader.poll(100)));
+    }
+  }
+
+  @Test
+  void open_shouldContinueAfterLastRecord_whenJournalIsReopened() throws IOException {
+    StoreJournal.Position position;
+    try (StoreJournal journal = StoreJournal.open(dir, 4096, FORCE_INTERVAL);
+        StoreJournal.Reader reader = journal.reader()) {
+      journal.append(bytes("before-restart"));
+      assertEquals(1, reader.poll(10).size());
+      position = reader.position();
+    }
+
+    try (StoreJournal journal = StoreJournal.open(dir, 4096, FORCE_INTERVAL);
+        StoreJournal.Reader reader = journal.reader(position)) {
+      journal.append(bytes("after-restart"));
+
+      assertEquals(List.of("after-restart"), strings(reader.poll(10)));
+    }
+  }
+
+  @Test
+  void open_shouldDropTornRecord_whenLastFrameIsCorrupt() throws IOException {
+    try (StoreJournal journal = StoreJournal.open(dir, 4096, FORCE_INTERVAL)) {
+      journal.append(bytes("intact"));
+      journal.append(bytes("torn"));
+    }
+    // flip a payload byte of the second frame
+    Path segment = StoreJournal.segmentFile(dir, 0);
+    byte[] content = Files.readAllBytes(segment);
+    int secondPayload = StoreJournal.frameSize("intact".length()) + StoreJournal.HEADER_SIZE;
+    content[secondPayload] ^= 0x7f;
+    Files.write(segment, content);
+
+    try (StoreJournal journal = StoreJournal.open(dir, 4096, FORCE_INTERVAL);
+        StoreJournal.Reader reader = journal.reader()) {
+      journal.append(bytes("next"));
+
+      assertEquals(List.of("intact", "next"), strings(reader.poll(10)));
+    }
+  }
+
+  @Test
+  void reader_shouldSeeCompleteRecords_whileAnotherThreadAppends() throws Exception {
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      expected.add("record-" + i);
+    }
+    try (StoreJournal journal = StoreJournal.open(dir, 4096, FORCE_INTERVAL);
+        StoreJournal.Reader reader = journal.reader()) {
+      Thread writer = new Thread(() -> expected.forEach(record -> journal.append(bytes(record))));
+      writer.start();
+
+      // a frame whose length shows up before its payload fails the poll as corrupt
+      List<String> read = new ArrayList<>();
+      while (writer.isAlive()) {
+        read.addAll(strings(reader.poll(100)));
+      }
+      writer.join();
+      read.addAll(strings(reader.poll(Integer.MAX_VALUE)));
+
+      assertEquals(expected, read);
+    }
+  }
+
+  @Test
+  void deleteSegmentsBefore_shouldKeepCurrentSegment() throws IOException {
+    try (StoreJournal journal = StoreJournal.open(dir, 64, FORCE_INTERVAL)) {
+      for (int i = 0; i < 10; i++) {
+        journal.append(bytes("record-" + i));
+      }
+
+      journal.deleteSegmentsBefore(Long.MAX_VALUE);
+
+      try (StoreJournal.Reader reader = journal.reader()) {
+        assertEquals(List.of("record-9"), strings(reader.poll(10)));
+      }
+    }
+  }
+
+  @Test
+  void append_shouldThrow_whenRecordDoesNotFitSegment() throws IOException {
+    try (StoreJournal journal = StoreJournal.open(dir, 64, FORCE_INTERVAL)) {
+      assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[64]));
+    }
+  }
+
+  private byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private List<String> strings(List<byte[]> records) {
+    return records.stream().map(record -> new String(record, StandardCharsets.UTF_8)).toList();
+  }
+}
@@ -0,0 +1,125 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StoreOutboxTest {
+
+  private static final Instant NOW = Instant.parse("2024-07-01T10:00:00Z");
+
+  private LegacyStoreManagerGateway gateway;
+  private SimpleMeterRegistry meterRegistry;
+  private StoreOutbox outbox;
+
+  @BeforeEach
+  void setUp() {
+    gateway = mock(LegacyStoreManagerGateway.class);
+    meterRegistry = new SimpleMeterRegistry();
+    outbox = new StoreOutbox();
+    outbox.legacyStoreManagerGateway = gateway;
+    outbox.meterRegistry = meterRegistry;
+    outbox.legacySyncMetrics = new LegacySyncMetrics();
+    outbox.legacySyncMetrics.meterRegistry = meterRegistry;
+    outbox.legacySyncMetrics.registerMetrics();
+    outbox.maxAttempts = 3;
+    outbox.registerMetrics();
+  }
+
+  @Test
+  void deliver_shouldSendEntriesInOrder_whenGatewaySucceeds() {
+    StoreOutboxEntry created = buildEntry(1L, 1L, StoreOutboxEntry.Type.CREATED, "TONSTAD");
+    StoreOutboxEntry updated = buildEntry(2L, 1L, StoreOutboxEntry.Type.UPDATED, "TONSTAD-2");
+
+    List<StoreOutboxEntry> sent = outbox.deliver(List.of(created, updated), NOW);
+
+    assertEquals(List.of(created, updated), sent);
+    verify(gateway).createStoreOnLegacySystem(argThat(store -> "TONSTAD".equals(store.name)));
+    verify(gateway).updateStoreOnLegacySystem(argThat(store -> "TONSTAD-2".equals(store.name)));
+    assertEquals(2, meterRegistry.counter("store.outbox.delivered").count());
+    assertEquals(2, meterRegistry.timer("legacy.sync.lag").count());
+  }
+
+  @Test
+  void deliver_shouldRescheduleAndHoldBackLaterEntriesOfStore_whenGatewayFails() {
+    doThrow(new IllegalStateException("legacy system down"))
+        .when(gateway)
+        .createStoreOnLegacySystem(any(Store.class));
+    StoreOutboxEntry created = buildEntry(1L, 1L, StoreOutboxEntry.Type.CREATED, "TONSTAD");
+    StoreOutboxEntry updated = buildEntry(2L, 1L, StoreOutboxEntry.Type.UPDATED, "TONSTAD-2");
+    StoreOutboxEntry other = buildEntry(3L, 2L, StoreOutboxEntry.Type.UPDATED, "KALLAX");
+
+    List<StoreOutboxEntry> sent = outbox.deliver(List.of(created, updated, other), NOW);
+
+    assertEquals(List.of(other), sent);
+    assertEquals(1, created.attempts);
+    assertEquals(NOW.plusSeconds(1), created.nextAttemptAt);
+    assertEquals("legacy system down", created.lastError);
+    assertEquals(StoreOutboxEntry.Status.PENDING, created.status);
+    assertEquals(0, updated.attempts);
+    verify(gateway, never())
+        .updateStoreOnLegacySystem(argThat(store -> "TONSTAD-2".equals(store.name)));
+    assertEquals(1, meterRegistry.counter("store.outbox.retried").count());
+  }
+
+  @Test
+  void deliver_shouldMarkEntryFailed_whenMaxAttemptsReached() {
+    doThrow(new IllegalStateException("legacy system down"))
+        .when(gateway)
+        .updateStoreOnLegacySystem(any(Store.class));
+    StoreOutboxEntry entry = buildEntry(1L, 1L, StoreOutboxEntry.Type.UPDATED, "TONSTAD");
+    entry.attempts = 2;
+
+    List<StoreOutboxEntry> sent = outbox.deliver(List.of(entry), NOW);
+
+    assertTrue(sent.isEmpty());
+    assertEquals(StoreOutboxEntry.Status.FAILED, entry.status);
+    assertEquals(1, meterRegistry.counter("store.outbox.failed").count());
+  }
+
+  @Test
+  void coalesce_shouldFoldLaterEntriesOfStoreIntoClaimedEntry() {
+    StoreOutboxEntry created = buildEntry(1L, 1L, StoreOutboxEntry.Type.CREATED, "TONSTAD");
+    StoreOutboxEntry updated = buildEntry(2L, 1L, StoreOutboxEntry.Type.UPDATED, "TONSTAD-2");
+    StoreOutboxEntry latest = buildEntry(4L, 1L, StoreOutboxEntry.Type.UPDATED, "TONSTAD-3");
+    StoreOutboxEntry other = buildEntry(3L, 2L, StoreOutboxEntry.Type.UPDATED, "KALLAX");
+
+    List<Long> absorbed =
+        outbox.coalesce(List.of(created, other), List.of(created, updated, other, latest));
+
+    assertEquals(List.of(2L, 4L), absorbed);
+    assertEquals(StoreOutboxEntry.Type.CREATED, created.type);
+    assertEquals("TONSTAD-3", created.name);
+    assertEquals("KALLAX", other.name);
+    assertEquals(2, meterRegistry.counter("store.outbox.coalesced").count());
+  }
+
+  @Test
+  void backoff_shouldDoublePerAttemptUpToMaximum() {
+    outbox.initialBackoff = Duration.ofSeconds(1);
+    outbox.maxBackoff = Duration.ofSeconds(10);
+
+    assertEquals(Duration.ofSeconds(1), outbox.backoff(1));
+    assertEquals(Duration.ofSeconds(2), outbox.backoff(2));
+    assertEquals(Duration.ofSeconds(8), outbox.backoff(4));
+    assertEquals(Duration.ofSeconds(10), outbox.backoff(5));
+    assertEquals(Duration.ofSeconds(10), outbox.backoff(1_000));
+  }
+
+  private StoreOutboxEntry buildEntry(
+      Long id, Long storeId, StoreOutboxEntry.Type type, String name) {
+    Store store = new Store(name);
+    store.id = storeId;
+    StoreOutboxEntry entry = StoreOutboxEntry.of(store, type, NOW);
+    entry.id = id;
+    return entry;
+  }
+}
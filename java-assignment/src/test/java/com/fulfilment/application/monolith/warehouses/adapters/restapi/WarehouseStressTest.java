@@ -0,0 +1,127 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.common.StressRun;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Creates, replaces and archives warehouses from many threads under a handful of business unit
+ * codes at a handful of locations, then checks in the database that no location holds more
+ * warehouses or capacity than allowed and that no code is active twice. Run with {@code
+ * ./mvnw test -Pstress}.
+ */
+@QuarkusTest
+@Tag("stress")
+class WarehouseStressTest {
+
+  private static final String PATH = "warehouse";
+
+  private static final List<String> LOCATIONS =
+      List.of("AMSTERDAM-001", "AMSTERDAM-002", "ZWOLLE-002", "EINDHOVEN-001");
+
+  private static final int CODES = 6;
+
+  // every warehouse carries the same stock, so a replacement always matches it
+  private static final int STOCK = 5;
+
+  @Inject EntityManager entityManager;
+
+  @Inject LocationResolver locationResolver;
+
+  private final Map<String, String> idsByCode = new ConcurrentHashMap<>();
+
+  @Test
+  void concurrentChanges_shouldKeepLocationAndBusinessUnitRules() throws Exception {
+    StressRun run =
+        new StressRun()
+            .operation(
+                "create",
+                random -> {
+                  String code = code(random);
+                  String body = body(code, random);
+                  return () -> post(code, body, PATH);
+                })
+            .operation(
+                "replace",
+                random -> {
+                  String code = code(random);
+                  String body = body(code, random);
+                  return () -> post(code, body, PATH + "/" + code + "/replacement");
+                })
+            .operation(
+                "archive",
+                random -> {
+                  String id = idsByCode.get(code(random));
+                  return () -> id == null ? 404 : given().delete(PATH + "/" + id).statusCode();
+                })
+            .run(47);
+
+    assertTrue(run.completed() > 0);
+    List<?> duplicateCodes =
+        entityManager
+            .createNativeQuery(
+                "select businessUnitCode from warehouse where archivedAt is null"
+                    + " group by businessUnitCode having count(*) > 1")
+            .getResultList();
+    assertEquals(List.of(), duplicateCodes, "business unit codes active more than once");
+    Number overfilled =
+        (Number)
+            entityManager
+                .createNativeQuery(
+                    "select count(*) from warehouse where archivedAt is null and stock > capacity")
+                .getSingleResult();
+    assertEquals(0L, overfilled.longValue(), "warehouses over capacity");
+    for (String identifier : LOCATIONS) {
+      Location location = locationResolver.resolveByIdentifier(identifier);
+      Object[] usage =
+          (Object[])
+              entityManager
+                  .createNativeQuery(
+                      "select count(*), coalesce(sum(capacity), 0) from warehouse"
+                          + " where archivedAt is null and location = ?1")
+                  .setParameter(1, identifier)
+                  .getSingleResult();
+      long warehouses = ((Number) usage[0]).longValue();
+      long capacity = ((Number) usage[1]).longValue();
+      assertTrue(
+          warehouses <= location.maxNumberOfWarehouses,
+          identifier + " holds " + warehouses + " warehouses");
+      assertTrue(
+          capacity <= location.maxCapacity, identifier + " holds capacity " + capacity);
+    }
+  }
+
+  private int post(String code, String body, String path) {
+    Response response = given().contentType(ContentType.JSON).body(body).post(path);
+    if (response.statusCode() == 200) {
+      idsByCode.put(code, response.path("id"));
+    }
+    return response.statusCode();
+  }
+
+  private static String code(SplittableRandom random) {
+    return "STRESS." + random.nextInt(CODES);
+  }
+
+  private static String body(String code, SplittableRandom random) {
+    return String.format(
+        "{\"businessUnitCode\": \"%s\", \"location\": \"%s\", \"capacity\": %d,"
+            + " \"stock\": %d}",
+        code, LOCATIONS.get(random.nextInt(LOCATIONS.size())), random.nextInt(STOCK, 40), STOCK);
+  }
+}
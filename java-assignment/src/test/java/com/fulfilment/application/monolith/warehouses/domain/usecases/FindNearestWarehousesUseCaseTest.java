@@ -0,0 +1,208 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fulfilment.application.monolith.location.LocationNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseValidationException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FindNearestWarehousesUseCaseTest {
+
+  // Amsterdam
+  private static final double LATITUDE = 52.3676;
+  private static final double LONGITUDE = 4.9041;
+
+  private WarehouseStore warehouseStore;
+  private LocationResolver locationResolver;
+  private FindNearestWarehousesUseCase useCase;
+
+  @BeforeEach
+  void setUp() {
+    warehouseStore = mock(WarehouseStore.class);
+    locationResolver = mock(LocationResolver.class);
+    useCase = new FindNearestWarehousesUseCase(warehouseStore, locationResolver);
+
+    when(locationResolver.resolveByIdentifier("AMSTERDAM-002"))
+        .thenReturn(new Location("AMSTERDAM-002", 3, 75, 52.3105, 4.9440));
+    when(locationResolver.resolveByIdentifier("ZWOLLE-001"))
+        .thenReturn(new Location("ZWOLLE-001", 1, 40, 52.5168, 6.0830));
+    when(locationResolver.resolveByIdentifier("EINDHOVEN-001"))
+        .thenReturn(new Location("EINDHOVEN-001", 2, 70, 51.4416, 5.4697));
+    when(locationResolver.resolveByIdentifier("VETSBY-001"))
+        .thenReturn(new Location("VETSBY-001", 1, 90));
+    when(locationResolver.resolveByIdentifier("UNKNOWN-001"))
+        .thenThrow(new LocationNotFoundException("UNKNOWN-001"));
+  }
+
+  @Test
+  void findNearest_shouldReturnWarehousesOrderedByDistance() {
+    when(warehouseStore.getAll())
+        .thenReturn(
+            List.of(
+                buildWarehouse("MWH.001", "EINDHOVEN-001", 70, 10),
+                buildWarehouse("MWH.002", "ZWOLLE-001", 40, 10),
+                buildWarehouse("MWH.003", "AMSTERDAM-002", 75, 10)));
+
+    List<NearbyWarehouse> result = useCase.findNearest(LATITUDE, LONGITUDE, 2, 1);
+
+    assertEquals(List.of("MWH.003", "MWH.002"), codes(result));
+    assertEquals(6.9, result.get(0).distanceKm, 0.1);
+    assertEquals(65, result.get(0).freeCapacity);
+  }
+
+  @Test
+  void findNearest_shouldSkipWarehousesWithoutEnoughFreeCapacity() {
+    when(warehouseStore.getAll())
+        .thenReturn(
+            List.of(
+                buildWarehouse("MWH.001", "EINDHOVEN-001", 70, 10),
+                buildWarehouse("MWH.003", "AMSTERDAM-002", 75, 70)));
+
+    List<NearbyWarehouse> result = useCase.findNearest(LATITUDE, LONGITUDE, 5, 10);
+
+    assertEquals(List.of("MWH.001"), codes(result));
+  }
+
+  @Test
+  void findNearest_shouldSkipWarehousesWithoutResolvableCoordinates() {
+    when(warehouseStore.getAll())
+        .thenReturn(
+            List.of(
+                buildWarehouse("MWH.001", "VETSBY-001", 90, 0),
+                buildWarehouse("MWH.002", "UNKNOWN-001", 90, 0),
+                buildWarehouse("MWH.003", "ZWOLLE-001", 40, 0)));
+
+    List<NearbyWarehouse> result = useCase.findNearest(LATITUDE, LONGITUDE, 5, 1);
+
+    assertEquals(List.of("MWH.003"), codes(result));
+  }
+
+  @Test
+  void findNearest_shouldReuseIndexUntilWarehouseChanged() {
+    when(warehouseStore.getAll())
+        .thenReturn(List.of(buildWarehouse("MWH.002", "ZWOLLE-001", 40, 10)));
+
+    useCase.findNearest(LATITUDE, LONGITUDE, 1, 1);
+    useCase.findNearest(LATITUDE, LONGITUDE, 1, 1);
+    verify(warehouseStore, times(1)).getAll();
+
+    useCase.onWarehouseChanged(new WarehouseChangedEvent(new Warehouse()));
+    useCase.findNearest(LATITUDE, LONGITUDE, 1, 1);
+    verify(warehouseStore, times(2)).getAll();
+  }
+
+  @Test
+  void findNearest_shouldServePreviousIndex_whileAnotherCallerRebuilds() throws Exception {
+    CountDownLatch rebuilding = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(warehouseStore.getAll())
+        .thenReturn(List.of(buildWarehouse("MWH.002", "ZWOLLE-001", 40, 10)))
+        .thenAnswer(
+            invocation -> {
+              rebuilding.countDown();
+              release.await();
+              return List.of(buildWarehouse("MWH.003", "AMSTERDAM-002", 75, 10));
+            });
+    useCase.findNearest(LATITUDE, LONGITUDE, 1, 1);
+    useCase.onWarehouseChanged(new WarehouseChangedEvent(new Warehouse()));
+
+    CompletableFuture<List<NearbyWarehouse>> rebuilder =
+        CompletableFuture.supplyAsync(() -> useCase.findNearest(LATITUDE, LONGITUDE, 1, 1));
+    rebuilding.await();
+    assertEquals(List.of("MWH.002"), codes(useCase.findNearest(LATITUDE, LONGITUDE, 1, 1)));
+    release.countDown();
+
+    assertEquals(List.of("MWH.003"), codes(rebuilder.get()));
+    verify(warehouseStore, times(2)).getAll();
+  }
+
+  @Test
+  void findNearest_shouldMatchBruteForce_forRandomWarehouses() {
+    Random random = new Random(42);
+    List<Warehouse> warehouses = new ArrayList<>();
+    List<Location> locations = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      Warehouse warehouse =
+          buildWarehouse("MWH." + i, "LOC-" + i, 100, random.nextInt(101));
+      warehouses.add(warehouse);
+      locations.add(
+          new Location(
+              "LOC-" + i, 1, 100, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+    }
+    WarehouseKdTree tree = WarehouseKdTree.of(warehouses, locations);
+
+    for (int query = 0; query < 50; query++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+      double[] point = WarehouseKdTree.toUnitVector(latitude, longitude);
+
+      List<String> expected = new ArrayList<>();
+      List<Integer> order = new ArrayList<>();
+      for (int i = 0; i < warehouses.size(); i++) {
+        if (100 - warehouses.get(i).stock >= 20) {
+          order.add(i);
+        }
+      }
+      order.sort(
+          Comparator.comparingDouble(
+              i ->
+                  distance2(
+                      point,
+                      WarehouseKdTree.toUnitVector(
+                          locations.get(i).latitude, locations.get(i).longitude))));
+      order.stream().limit(10).forEach(i -> expected.add(warehouses.get(i).businessUnitCode));
+
+      assertEquals(expected, codes(tree.nearest(latitude, longitude, 10, 20)));
+    }
+  }
+
+  @Test
+  void findNearest_shouldThrowValidationException_whenCountIsOutOfRange() {
+    assertThrows(
+        WarehouseValidationException.class, () -> useCase.findNearest(LATITUDE, LONGITUDE, 0, 1));
+    assertThrows(
+        WarehouseValidationException.class,
+        () -> useCase.findNearest(LATITUDE, LONGITUDE, FindNearestWarehousesUseCase.MAX_COUNT + 1, 1));
+    verify(warehouseStore, never()).getAll();
+  }
+
+  @Test
+  void findNearest_shouldThrowValidationException_whenCoordinatesAreOutOfRange() {
+    assertThrows(WarehouseValidationException.class, () -> useCase.findNearest(91, 0, 5, 1));
+    assertThrows(WarehouseValidationException.class, () -> useCase.findNearest(0, -181, 5, 1));
+  }
+
+  private Warehouse buildWarehouse(String code, String location, int capacity, int stock) {
+    Warehouse w = new Warehouse();
+    w.businessUnitCode = code;
+    w.location = location;
+    w.capacity = capacity;
+    w.stock = stock;
+    return w;
+  }
+
+  private List<String> codes(List<NearbyWarehouse> warehouses) {
+    return warehouses.stream().map(w -> w.businessUnitCode).toList();
+  }
+
+  private double distance2(double[] a, double[] b) {
+    double dx = a[0] - b[0];
+    double dy = a[1] - b[1];
+    double dz = a[2] - b[2];
+    return dx * dx + dy * dy + dz * dz;
+  }
+}
@@ -3,11 +3,13 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.common.ValidationMetrics;
 import com.fulfilment.application.monolith.location.LocationNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseValidationException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -21,7 +23,9 @@ class ReplaceWarehouseUseCaseTest {
   void setUp() {
     warehouseStore = mock(WarehouseStore.class);
     validator = mock(WarehouseValidator.class);
-    useCase = new ReplaceWarehouseUseCase(warehouseStore, validator);
+    useCase =
+        new ReplaceWarehouseUseCase(
+            warehouseStore, validator, new ValidationMetrics(new SimpleMeterRegistry()));
   }
 
   @Test
@@ -3,12 +3,14 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fulfilment.application.monolith.common.ValidationMetrics;
 import com.fulfilment.application.monolith.location.LocationNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseValidationException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,13 +19,17 @@ class WarehouseValidatorTest {
 
   private WarehouseStore warehouseStore;
   private LocationResolver locationResolver;
+  private SimpleMeterRegistry meterRegistry;
   private WarehouseValidator validator;
 
   @BeforeEach
   void setUp() {
     warehouseStore = mock(WarehouseStore.class);
     locationResolver = mock(LocationResolver.class);
-    validator = new WarehouseValidator(warehouseStore, locationResolver);
+    meterRegistry = new SimpleMeterRegistry();
+    validator =
+        new WarehouseValidator(
+            warehouseStore, locationResolver, new ValidationMetrics(meterRegistry));
   }
 
   // --- validateBusinessUnitCodeUnique ---
@@ -143,6 +149,29 @@ class WarehouseValidatorTest {
     assertTrue(exception.getMessage().contains("cannot handle"));
   }
 
+  @Test
+  void validateStockWithinCapacity_shouldCountRejectionByReason_whenStockExceedsCapacity() {
+    assertThrows(
+        WarehouseValidationException.class,
+        () -> validator.validateStockWithinCapacity(buildWarehouse("NEW.001", "A-001", 10, 20)));
+    validator.validateStockWithinCapacity(buildWarehouse("NEW.002", "A-001", 20, 10));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get("validation.rejections")
+            .tag("reason", "stock-exceeds-capacity")
+            .counter()
+            .count());
+    assertEquals(
+        1,
+        meterRegistry
+            .get("validation.rule")
+            .tags("rule", "warehouse.stock-within-capacity", "outcome", "passed")
+            .timer()
+            .count());
+  }
+
   private Warehouse buildWarehouse(
       String businessUnitCode, String location, int capacity, int stock) {
     Warehouse warehouse = new Warehouse();